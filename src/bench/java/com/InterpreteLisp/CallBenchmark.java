@@ -0,0 +1,69 @@
+package com.InterpreteLisp;
+
+import java.lang.management.ManagementFactory;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CallBenchmark.java
+ * Descripción: Mide el tiempo y los bytes asignados por cada llamada a una función de DEFUN.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.CallBenchmark [llamadas]
+ */
+public class CallBenchmark {
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+        Evaluator evaluator = new Evaluator();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        eval(evaluator, env, "(DEFUN primero (a b) a)");
+        eval(evaluator, env, "(DEFUN tercero (a b c) c)");
+        eval(evaluator, env, "(SETQ x 1)");
+        eval(evaluator, env, "(SETQ y 2)");
+        Object function = env.getVariable("primero");
+        ASTNode two = parse("(primero x y)");
+        ASTNode three = parse("(tercero x y x)");
+
+        // Las funciones solo devuelven un parámetro, así que lo medido es el costo de la llamada
+        measure("(primero x y) desde el AST", calls, () -> evaluator.evaluate(two, env));
+        measure("(tercero x y x) desde el AST", calls, () -> evaluator.evaluate(three, env));
+        Object a = 1.0;
+        Object b = 2.0;
+        measure("call(primero, a, b)", calls, () -> evaluator.call(function, a, b));
+    }
+
+    /**
+     * Ejecuta la llamada dos veces (la primera como calentamiento) e imprime el
+     * tiempo y los bytes asignados por llamada en la segunda.
+     */
+    private static void measure(String name, int calls, Runnable call) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int round = 0; round < 2; round++) {
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                call.run();
+            }
+            long elapsed = System.nanoTime() - start;
+            bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+            if (round == 1) {
+                System.out.printf("%-30s %7.1f ns  %6.1f bytes por llamada%n",
+                    name, (double) elapsed / calls, (double) bytes / calls);
+            }
+        }
+    }
+
+    private static ASTNode parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse().get(0);
+    }
+
+    private static Object eval(Evaluator evaluator, Environment env, String code) {
+        return evaluator.evaluate(parse(code), env);
+    }
+}
@@ -0,0 +1,61 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CompactASTBenchmark.java
+ * Descripción: Comparación de la memoria que ocupa un programa como ASTNode y como CompactAST.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.CompactASTBenchmark
+ */
+public class CompactASTBenchmark {
+
+    public static void main(String[] args) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            sb.append("(DEFUN regla (n) (COND ((< n ").append(i)
+              .append(") 'bajo) (T (+ n (* 3 ").append(i).append(")))))\n");
+        }
+        String input = sb.toString();
+
+        long before = usedMemory();
+        List<ASTNode> tree = new Parser(new Lexer().tokenize(input)).parse();
+        long treeBytes = usedMemory() - before;
+
+        before = usedMemory();
+        CompactAST compact = CompactAST.encode(tree);
+        long compactBytes = usedMemory() - before;
+
+        // Cargar las definiciones solo crea las vistas de los nodos que DEFUN recorre;
+        // los cuerpos siguen en los arreglos hasta que se llama la función
+        before = usedMemory();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        env.loadDefinitions(compact, new Evaluator());
+        long loadedBytes = usedMemory() - before;
+
+        System.out.printf("nodos=%d  simbolos=%d%n", compact.getNodeCount(), compact.getSymbolCount());
+        System.out.printf("ASTNode:    %8.2f MB (%.1f bytes/nodo)%n", treeBytes / 1e6, (double) treeBytes / compact.getNodeCount());
+        System.out.printf("CompactAST: %8.2f MB (%.1f bytes/nodo)%n", compactBytes / 1e6, (double) compactBytes / compact.getNodeCount());
+        System.out.printf("Vistas al cargar los DEFUN: %8.2f MB%n", loadedBytes / 1e6);
+
+        // Mantener vivas ambas estructuras hasta el final de la medición
+        if (tree.isEmpty() || compact.getRootCount() == 0 || env.getVariable("regla") == null) {
+            System.out.println("programa vacío");
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
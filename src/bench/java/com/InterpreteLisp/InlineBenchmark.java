@@ -0,0 +1,53 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: InlineBenchmark.java
+ * Descripción: Compara el tiempo de una regla hecha de funciones pequeñas con y sin el Inliner.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.InlineBenchmark [iteraciones]
+ */
+public class InlineBenchmark {
+
+    private static final String RULES =
+        "(DEFUN mayor (a b) (> a b))"
+        + "(DEFUN puntos (x) (* x 10))"
+        + "(DEFUN bono (x) (COND ((mayor x 50) (puntos 2)) (T (puntos 1))))"
+        + "(DEFUN regla (edad) (COND ((mayor edad 18) (+ (bono edad) (puntos 3))) (T 0)))";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        for (boolean inlining : new boolean[] {false, true}) {
+            Evaluator evaluator = new Evaluator();
+            evaluator.setInlining(inlining);
+            Environment env = new Environment();
+            env.initializeBuiltins();
+            for (ASTNode expression : parse(RULES)) {
+                evaluator.evaluate(expression, env);
+            }
+            // El ciclo está dentro de una función, como en un programa con reglas
+            ASTNode loop = parse("(DEFUN evaluar-todo (n) (DOTIMES (i n) (SETQ total (regla i))))").get(0);
+            evaluator.evaluate(loop, env);
+            ASTNode run = parse("(evaluar-todo " + iterations + ")").get(0);
+
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                evaluator.evaluate(run, env);
+                long elapsed = System.nanoTime() - start;
+                if (round == 2) {
+                    System.out.printf("%-16s %7.1f ns por regla%n",
+                        inlining ? "con Inliner" : "sin Inliner", (double) elapsed / iterations);
+                }
+            }
+        }
+    }
+
+    private static java.util.List<ASTNode> parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse();
+    }
+}
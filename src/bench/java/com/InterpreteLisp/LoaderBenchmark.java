@@ -0,0 +1,52 @@
+package com.InterpreteLisp;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LoaderBenchmark.java
+ * Descripción: Comparación de tiempos entre la carga secuencial y ParallelLoader.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.LoaderBenchmark
+ */
+public class LoaderBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 8 * 1024 * 1024; i++) {
+            sb.append("(DEFUN regla").append(" (n) (COND ((< n ").append(i)
+              .append(") 'bajo) ((> n (* 2 ").append(i).append(")) 'alto) (T (+ n (* 3 ")
+              .append(i).append(")))))\n");
+        }
+        String input = sb.toString();
+        System.out.printf("Entrada: %.1f MB, %d hilos%n", input.length() / 1e6,
+            ForkJoinPool.commonPool().getParallelism());
+
+        for (int i = 0; i < 3; i++) {
+            new Parser(new Lexer().tokenize(input)).parseIterative();
+            ParallelLoader.parse(input);
+        }
+
+        long sequential = 0;
+        long parallel = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            new Parser(new Lexer().tokenize(input)).parseIterative();
+            sequential += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ParallelLoader.parse(input);
+            parallel += System.nanoTime() - start;
+        }
+
+        System.out.printf("secuencial=%8.1f ms  paralelo=%8.1f ms%n",
+            sequential / 1e6 / ROUNDS, parallel / 1e6 / ROUNDS);
+    }
+}
@@ -0,0 +1,62 @@
+package com.InterpreteLisp;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParallelBenchmark.java
+ * Descripción: Mide cómo escala PREDUCE con el número de hilos frente a REDUCE secuencial.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.ParallelBenchmark [elementos]
+ */
+public class ParallelBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        Evaluator evaluator = new Evaluator();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        eval(evaluator, env, "(DEFUN suma (a b) (+ a b))");
+        eval(evaluator, env, "(DEFUN costo (x) (+ (* x x) (* 3 x) 1))");
+        Object function = env.getVariable("suma");
+        Object seq = eval(evaluator, env, "(LAZY-MAP costo (RANGE " + elements + "))");
+
+        // Calentamiento para que el JIT compile el evaluador
+        LazySeq.Reducer warmup = new LazySeq.Reducer(evaluator, function);
+        ((LazySeq) seq).forEach(warmup);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            LazySeq.Reducer reducer = new LazySeq.Reducer(evaluator, function);
+            ((LazySeq) seq).forEach(reducer);
+        }
+        double sequential = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        System.out.printf("REDUCE secuencial      %9.1f ms%n", sequential);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                start = System.nanoTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                    ParallelSeq.reduce(evaluator, function, seq, false, null, pool, ParallelSeq.SEQUENTIAL_NANOS);
+                }
+                double parallel = (System.nanoTime() - start) / 1e6 / ROUNDS;
+                System.out.printf("PREDUCE con %2d hilos   %9.1f ms  (x%.2f)%n", threads, parallel, sequential / parallel);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static Object eval(Evaluator evaluator, Environment env, String code) {
+        return evaluator.evaluate(new Parser(new Lexer().tokenize(code)).parse().get(0), env);
+    }
+}
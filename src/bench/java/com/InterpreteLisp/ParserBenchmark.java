@@ -0,0 +1,69 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParserBenchmark.java
+ * Descripción: Comparación de tiempos entre Parser.parse() y Parser.parseIterative().
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.ParserBenchmark
+ */
+public class ParserBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) {
+        // Programa "ancho": muchas definiciones de profundidad moderada
+        StringBuilder wide = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            wide.append("(DEFUN f").append(" (n) (COND ((= n 0) 1) ((< n 0) 'negativo) ")
+                .append("(T (+ (* n 2) (- n ").append(i).append(")))))\n");
+        }
+
+        // Programa "profundo": una sola expresión anidada (el parser recursivo se limita
+        // a una profundidad que todavía cabe en la pila de Java)
+        StringBuilder deep = new StringBuilder();
+        int depth = 2000;
+        for (int i = 0; i < depth; i++) {
+            deep.append("(+ 1 ");
+        }
+        deep.append("0");
+        for (int i = 0; i < depth; i++) {
+            deep.append(")");
+        }
+
+        run("ancho", new Lexer().tokenize(wide.toString()));
+        run("profundo", new Lexer().tokenize(deep.toString()));
+    }
+
+    private static void run(String name, List<Token> tokens) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            new Parser(tokens).parse();
+            new Parser(tokens).parseIterative();
+        }
+
+        long recursive = 0;
+        long iterative = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            new Parser(tokens).parse();
+            recursive += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new Parser(tokens).parseIterative();
+            iterative += System.nanoTime() - start;
+        }
+
+        System.out.printf("%-9s tokens=%-7d recursivo=%8.3f ms  iterativo=%8.3f ms%n",
+            name, tokens.size(),
+            recursive / 1e6 / MEASURED_ROUNDS,
+            iterative / 1e6 / MEASURED_ROUNDS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.InterpreteLisp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SamplingBenchmark.java
+ * Descripción: Mide el costo del perfil por muestreo en un programa con muchas llamadas cortas.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.SamplingBenchmark
+ */
+public class SamplingBenchmark {
+
+    private static final String PROGRAM =
+        "(DEFUN fib (n) (COND ((< n 2) n) (T (+ (fib (- n 1)) (fib (- n 2))))))";
+
+    public static void main(String[] args) {
+        String[] labels = {"sin muestreo", "cada 10 ms", "cada 1 ms"};
+        long[] intervals = {0, 10000000L, 1000000L};
+        double[] times = new double[labels.length];
+        long[] samples = new long[labels.length];
+        Arrays.fill(times, Double.MAX_VALUE);
+        // Los modos se alternan varias veces para que todos corran con el código ya compilado por la JVM
+        for (int pass = 0; pass < 4; pass++) {
+            for (int mode = 0; mode < labels.length; mode++) {
+                Evaluator evaluator = new Evaluator();
+                Environment env = new Environment();
+                env.initializeBuiltins();
+                for (ASTNode expression : parse(PROGRAM)) {
+                    evaluator.evaluate(expression, env);
+                }
+                if (intervals[mode] > 0) {
+                    evaluator.startSampling(intervals[mode]);
+                }
+                ASTNode run = parse("(fib 27)").get(0);
+                for (int round = 0; round < 5; round++) {
+                    long start = System.nanoTime();
+                    evaluator.evaluate(run, env);
+                    times[mode] = Math.min(times[mode], (System.nanoTime() - start) / 1e6);
+                }
+                SamplingProfiler sampler = evaluator.stopSampling();
+                samples[mode] = sampler == null ? 0 : sampler.getSampleCount();
+            }
+        }
+        for (int mode = 0; mode < labels.length; mode++) {
+            System.out.printf("fib 27  %-14s %8.1f ms  (%+.1f%%)  %d muestras%n", labels[mode], times[mode],
+                100 * (times[mode] / times[0] - 1), samples[mode]);
+        }
+    }
+
+    private static List<ASTNode> parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse();
+    }
+}
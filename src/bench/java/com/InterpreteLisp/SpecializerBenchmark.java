@@ -0,0 +1,48 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SpecializerBenchmark.java
+ * Descripción: Compara llamadas con argumentos constantes con y sin las versiones especializadas de Specializer.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.SpecializerBenchmark
+ */
+public class SpecializerBenchmark {
+
+    private static final String PROGRAM =
+        "(DEFUN score (r peso modo) (COND ((EQUAL modo (QUOTE estricto)) (COND ((> peso 5) (* r peso)) (T (- (* r peso) 1))))"
+        + " ((EQUAL modo (QUOTE normal)) (+ r peso)) (T r)))"
+        + "(DEFUN puntuar (n) (SETQ total 0) (DOTIMES (i n) (SETQ total (+ total (score i 3 'estricto) (score i 8 'normal)))) total)";
+
+    public static void main(String[] args) {
+        double[] times = new double[2];
+        for (int mode = 0; mode < 2; mode++) {
+            Evaluator evaluator = new Evaluator();
+            evaluator.setSpecialization(mode == 1);
+            Environment env = new Environment();
+            env.initializeBuiltins();
+            for (ASTNode expression : parse(PROGRAM)) {
+                evaluator.evaluate(expression, env);
+            }
+            ASTNode run = parse("(puntuar 100000)").get(0);
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                evaluator.evaluate(run, env);
+                times[mode] = (System.nanoTime() - start) / 1e6;
+            }
+        }
+        System.out.printf("score con constantes   original %8.1f ms   especializada %8.1f ms   (%.1fx)%n",
+            times[0], times[1], times[0] / times[1]);
+    }
+
+    private static List<ASTNode> parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TraceBenchmark.java
+ * Descripción: Compara funciones recursivas y ciclos con y sin la compilación de trazas de TraceCompiler.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.TraceBenchmark
+ */
+public class TraceBenchmark {
+
+    private static final String PROGRAM =
+        "(DEFUN fib (n) (COND ((< n 2) n) (T (+ (fib (- n 1)) (fib (- n 2))))))"
+        + "(DEFUN ackermann (m n) (COND ((= m 0) (+ n 1)) ((= n 0) (ackermann (- m 1) 1))"
+        + " (T (ackermann (- m 1) (ackermann m (- n 1))))))"
+        + "(DEFUN collatz (n pasos) (COND ((= n 1) pasos) ((= (- n (* 2 (dividir n))) 0) (collatz (dividir n) (+ pasos 1)))"
+        + " (T (collatz (+ (* 3 n) 1) (+ pasos 1)))))"
+        + "(DEFUN dividir (n) (COND ((< n 2) 0) (T (+ 1 (dividir (- n 2))))))"
+        + "(DEFUN contar (n) (SETQ total 0) (DOTIMES (i n) (COND ((> (fib 3) i) (SETQ total (+ total 1))) (T (SETQ total (+ total 2))))) total)";
+
+    private static final String[][] CASES = {
+        {"(fib 22)", "fibonacci"},
+        {"(ackermann 2 300)", "ackermann"},
+        {"(collatz 27 0)", "collatz"},
+        {"(contar 100000)", "ciclo con COND"},
+    };
+
+    public static void main(String[] args) {
+        for (String[] benchmark : CASES) {
+            double[] times = new double[2];
+            for (int mode = 0; mode < 2; mode++) {
+                Evaluator evaluator = new Evaluator();
+                if (mode == 0) {
+                    evaluator.setTraceThresholds(0, 0);
+                }
+                Environment env = new Environment();
+                env.initializeBuiltins();
+                for (ASTNode expression : parse(PROGRAM)) {
+                    evaluator.evaluate(expression, env);
+                }
+                ASTNode run = parse(benchmark[0]).get(0);
+                for (int round = 0; round < 5; round++) {
+                    long start = System.nanoTime();
+                    evaluator.evaluate(run, env);
+                    times[mode] = (System.nanoTime() - start) / 1e6;
+                }
+            }
+            System.out.printf("%-20s interpretado %8.1f ms   con trazas %8.1f ms   (%.1fx)%n",
+                benchmark[1], times[0], times[1], times[0] / times[1]);
+        }
+    }
+
+    private static List<ASTNode> parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TypeFeedbackBenchmark.java
+ * Descripción: Compara programas numéricos con y sin la especialización por tipos de TypeFeedback.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Pbench test-compile):
+ *   java -cp target/classes:target/test-classes com.InterpreteLisp.TypeFeedbackBenchmark
+ */
+public class TypeFeedbackBenchmark {
+
+    private static final String PROGRAM =
+        "(DEFUN suma-cuadrados (n) (SETQ total 0) (DOTIMES (i n) (SETQ total (+ total (* i i)))) total)"
+        + "(DEFUN horner (x) (+ (* (+ (* (+ (* 2.5 x) 1.5) x) 0.5) x) 3))"
+        + "(DEFUN suma-horner (n) (SETQ total 0) (DOTIMES (i n) (SETQ total (+ total (horner (/ i n))))) total)"
+        + "(DEFUN fib (n) (COND ((< n 2) n) (T (+ (fib (- n 1)) (fib (- n 2))))))";
+
+    private static final String[][] CASES = {
+        {"(suma-cuadrados 200000)", "suma de cuadrados"},
+        {"(suma-horner 200000)", "polinomio (Horner)"},
+        {"(fib 22)", "fibonacci"},
+    };
+
+    public static void main(String[] args) {
+        for (String[] benchmark : CASES) {
+            double[] times = new double[2];
+            for (int mode = 0; mode < 2; mode++) {
+                Evaluator evaluator = new Evaluator();
+                evaluator.setTypeFeedback(mode == 1);
+                Environment env = new Environment();
+                env.initializeBuiltins();
+                for (ASTNode expression : parse(PROGRAM)) {
+                    evaluator.evaluate(expression, env);
+                }
+                ASTNode run = parse(benchmark[0]).get(0);
+                for (int round = 0; round < 5; round++) {
+                    long start = System.nanoTime();
+                    evaluator.evaluate(run, env);
+                    times[mode] = (System.nanoTime() - start) / 1e6;
+                }
+            }
+            System.out.printf("%-20s genérico %8.1f ms   especializado %8.1f ms   (%.1fx)%n",
+                benchmark[1], times[0], times[1], times[0] / times[1]);
+        }
+    }
+
+    private static List<ASTNode> parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse();
+    }
+}
@@ -0,0 +1,61 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: VectorBenchmark.java
+ * Descripción: Comparación de tiempos entre la implementación escalar y la activa de VectorKernels.
+ * No es una prueba JUnit; se ejecuta manualmente con (después de mvn -Psimd,bench test-compile):
+ *   java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes com.InterpreteLisp.VectorBenchmark
+ */
+public class VectorBenchmark {
+
+    private static final int LENGTH = 1000000;
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) {
+        double[] a = new double[LENGTH];
+        double[] b = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            a[i] = i % 97;
+            b[i] = i % 13;
+        }
+
+        VectorKernels scalar = new ScalarVectorKernels();
+        VectorKernels active = LispVector.KERNELS;
+        System.out.println("Implementación activa: " + active.name());
+
+        for (VectorKernels kernels : new VectorKernels[] {scalar, active}) {
+            double check = 0;
+            // Calentamiento para que el JIT compile los ciclos
+            for (int i = 0; i < ROUNDS; i++) {
+                check += kernels.sum(a) + kernels.dot(a, b) + kernels.max(a);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                check += kernels.sum(a);
+            }
+            long sum = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                check += kernels.dot(a, b);
+            }
+            long dot = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                check += kernels.max(a);
+            }
+            long max = System.nanoTime() - start;
+
+            System.out.printf("%-18s VSUM=%6.3f ms  VDOT=%6.3f ms  VMAX=%6.3f ms  (%.0f)%n", kernels.name(),
+                sum / 1e6 / ROUNDS, dot / 1e6 / ROUNDS, max / 1e6 / ROUNDS, check);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.InterpreteLisp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: JfrFlightEvents.java
+ * Descripción: Eventos del intérprete para JDK Flight Recorder con jdk.jfr.
+ */
+
+/**
+ * Implementación de FlightEvents con eventos propios de jdk.jfr, en la categoría
+ * "LISP". Todos están desactivados por omisión; una grabación los activa y cambia el
+ * umbral de las llamadas con la configuración estándar de JFR, por ejemplo
+ * -XX:StartFlightRecording:lisp.Call#enabled=true,lisp.Call#threshold=5ms o con un
+ * archivo .jfc. Solo se compila con el perfil "jfr" y se carga por reflexión desde
+ * FlightEvents.load().
+ * <p>
+ * Para que cada llamada solo lea un campo, isCallEnabled() usa una copia del estado
+ * del evento de llamadas que se actualiza cada vez que una grabación empieza o termina.
+ */
+final class JfrFlightEvents implements FlightEvents {
+    /**
+     * Largo máximo del fragmento de código de un evento.
+     */
+    static final int MAX_SOURCE = 200;
+
+    @Name("lisp.Form")
+    @Label("Expresión de nivel superior")
+    @Description("Evaluación de una expresión de nivel superior")
+    @Category("LISP")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class FormEvent extends Event {
+        @Label("Función")
+        String function;
+        @Label("Aridad")
+        int arity;
+        @Label("Código")
+        String source;
+    }
+
+    @Name("lisp.Call")
+    @Label("Llamada a función")
+    @Description("Llamada a una función de usuario que dura más que el umbral")
+    @Category("LISP")
+    @Enabled(false)
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class CallEvent extends Event {
+        @Label("Función")
+        String function;
+        @Label("Aridad")
+        int arity;
+        @Label("Código")
+        String source;
+    }
+
+    @Name("lisp.Lex")
+    @Label("Análisis léxico")
+    @Category("LISP")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class LexEvent extends Event {
+        @Label("Tokens")
+        int tokens;
+        @Label("Código")
+        String source;
+    }
+
+    @Name("lisp.Parse")
+    @Label("Parseo")
+    @Category("LISP")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ParseEvent extends Event {
+        @Label("Expresiones")
+        int forms;
+        @Label("Código")
+        String source;
+    }
+
+    @Name("lisp.Load")
+    @Label("Carga del entorno")
+    @Description("Carga de un archivo, una imagen o un texto con definiciones")
+    @Category("LISP")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class LoadEvent extends Event {
+        @Label("Origen")
+        String origin;
+        @Label("Elementos")
+        int count;
+        @Label("Código")
+        String source;
+    }
+
+    private final EventType callType = EventType.getEventType(CallEvent.class);
+    private volatile boolean callEnabled;
+
+    /**
+     * Registra los eventos y escucha el inicio y el fin de las grabaciones.
+     *
+     * @throws IllegalStateException Si la JVM no tiene Flight Recorder
+     */
+    JfrFlightEvents() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder no está disponible");
+        }
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                callEnabled = callType.isEnabled();
+            }
+        });
+        callEnabled = callType.isEnabled();
+    }
+
+    @Override
+    public String name() {
+        return "JFR";
+    }
+
+    @Override
+    public boolean isCallEnabled() {
+        return callEnabled;
+    }
+
+    @Override
+    public Object begin(int kind) {
+        Event event;
+        switch (kind) {
+            case FORM:
+                event = new FormEvent();
+                break;
+            case CALL:
+                event = new CallEvent();
+                break;
+            case LEX:
+                event = new LexEvent();
+                break;
+            case PARSE:
+                event = new ParseEvent();
+                break;
+            default:
+                event = new LoadEvent();
+                break;
+        }
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public boolean end(Object event) {
+        Event jfrEvent = (Event) event;
+        jfrEvent.end();
+        return jfrEvent.shouldCommit();
+    }
+
+    @Override
+    public void commit(Object event, String name, int count, String source) {
+        String snippet = source.length() > MAX_SOURCE ? source.substring(0, MAX_SOURCE) + "..." : source;
+        if (event instanceof FormEvent) {
+            FormEvent form = (FormEvent) event;
+            form.function = name;
+            form.arity = count;
+            form.source = snippet;
+        } else if (event instanceof CallEvent) {
+            CallEvent call = (CallEvent) event;
+            call.function = name;
+            call.arity = count;
+            call.source = snippet;
+        } else if (event instanceof LexEvent) {
+            LexEvent lex = (LexEvent) event;
+            lex.tokens = count;
+            lex.source = snippet;
+        } else if (event instanceof ParseEvent) {
+            ParseEvent parse = (ParseEvent) event;
+            parse.forms = count;
+            parse.source = snippet;
+        } else {
+            LoadEvent load = (LoadEvent) event;
+            load.origin = name;
+            load.count = count;
+            load.source = snippet;
+        }
+        ((Event) event).commit();
+    }
+}
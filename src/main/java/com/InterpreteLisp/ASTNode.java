@@ -1,7 +1,9 @@
 package com.InterpreteLisp;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /*
  * Universidad del Valle de Guatemala
@@ -9,7 +11,7 @@ import java.util.List;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 11/03/2025
- * última modificación: 11/03/2025
+ * última modificación: 19/10/2026
  * File Name: ASTNode.java
  * Descripción: Clase que se encarga de almacenar los nodos del árbol de sintaxis abstracta.
  */
@@ -24,6 +26,20 @@ public class ASTNode
      * Lista de nodos hijos de este nodo.
      */
     private List<ASTNode> children;
+    /**
+     * Indica si el nodo es una lista de un solo símbolo, como (g): el parser la deja
+     * sin hijos, igual que el símbolo g, y esta marca permite llamarla como función.
+     */
+    private boolean listForm;
+    /**
+     * Estado que guardan en el nodo el hash-consing de datos citados y los
+     * optimizadores (expansiones, perfiles de tipos, trazas...). La mayoría de los
+     * nodos nunca lo necesita, así que se crea la primera vez que se escribe algo.
+     */
+    private volatile State state;
+
+    private static final AtomicReferenceFieldUpdater<ASTNode, State> STATE =
+        AtomicReferenceFieldUpdater.newUpdater(ASTNode.class, State.class, "state");
 
     /**
      * Constructor que crea un nuevo nodo con el valor especificado.
@@ -35,6 +51,18 @@ public class ASTNode
         this.children = new ArrayList<>();
     }
 
+    /**
+     * Constructor para un nodo que no guarda sus hijos en una lista propia, como las
+     * vistas de CompactAST, cuyos hijos se leen de los arreglos del programa.
+     *
+     * @param value El valor del nodo
+     * @param children La lista de hijos, que no se copia
+     */
+    ASTNode(String value, List<ASTNode> children) {
+        this.value = value;
+        this.children = children;
+    }
+
     /**
      * agrega un nodo hijo a la lista de este nodo.
      * @param child El nodo hijo a agregar
@@ -61,6 +89,357 @@ public class ASTNode
         return children;
     }
 
+    /**
+     * Indica si el nodo se escribió como una lista de un solo símbolo, como (g).
+     *
+     * @return true si el nodo no tiene hijos pero venía entre paréntesis
+     */
+    public boolean isListForm() {
+        return listForm;
+    }
+
+    /**
+     * Marca el nodo como una lista de un solo símbolo; lo usan el parser y las
+     * copias del árbol.
+     */
+    void markListForm() {
+        this.listForm = true;
+    }
+
+    /**
+     * Indica si el nodo es la instancia canónica de un dato citado.
+     * Dos nodos canónicos distintos de la misma QuoteInterner nunca son
+     * estructuralmente iguales; si vienen de tablas distintas sí pueden serlo.
+     *
+     * @return true si el nodo es canónico
+     */
+    public boolean isCanonical() {
+        State current = state;
+        return current != null && current.canonical;
+    }
+
+    /**
+     * Obtiene el hash estructural cacheado de un nodo canónico.
+     *
+     * @return El hash estructural
+     */
+    public int getStructuralHash() {
+        State current = state;
+        return current == null ? 0 : current.structuralHash;
+    }
+
+    /**
+     * Marca el nodo como canónico. A partir de este momento su lista de hijos no
+     * se puede modificar, ya que el nodo puede estar compartido por varias expresiones.
+     *
+     * @param hash El hash estructural del nodo
+     */
+    void markCanonical(int hash) {
+        State current = state();
+        if (!current.canonical) {
+            current.structuralHash = hash;
+            this.children = Collections.unmodifiableList(children);
+            current.canonical = true;
+        }
+    }
+
+    /**
+     * Obtiene la instancia canónica guardada de este dato citado.
+     *
+     * @return El nodo canónico, o null si el dato todavía no se internó
+     */
+    ASTNode getCanonicalForm() {
+        State current = state;
+        return current == null ? null : current.canonicalForm;
+    }
+
+    /**
+     * Guarda la instancia canónica de este dato citado.
+     *
+     * @param canonicalForm El nodo canónico estructuralmente igual a este
+     */
+    void setCanonicalForm(ASTNode canonicalForm) {
+        state().canonicalForm = canonicalForm;
+    }
+
+    /**
+     * Indica si ya se guardó la conversión del dato a celdas cons.
+     *
+     * @return true si getListView() es válido
+     */
+    boolean hasListView() {
+        State current = state;
+        return current != null && current.hasListView;
+    }
+
+    /**
+     * Obtiene la conversión guardada del dato a celdas cons.
+     *
+     * @return La lista (o el átomo) equivalente
+     */
+    Object getListView() {
+        State current = state;
+        return current == null ? null : current.listView;
+    }
+
+    /**
+     * Guarda la conversión del dato a celdas cons; solo se usa en nodos canónicos.
+     *
+     * @param listView La lista (o el átomo) equivalente
+     */
+    void setListView(Object listView) {
+        State current = state();
+        current.listView = listView;
+        current.hasListView = true;
+    }
+
+    /**
+     * Obtiene las variables libres guardadas de una expresión LAMBDA.
+     *
+     * @return Los nombres, o null si todavía no se calcularon
+     */
+    String[] getFreeVariables() {
+        State current = state;
+        return current == null ? null : current.freeVariables;
+    }
+
+    /**
+     * Guarda las variables libres de una expresión LAMBDA.
+     *
+     * @param freeVariables Los nombres
+     */
+    void setFreeVariables(String[] freeVariables) {
+        state().freeVariables = freeVariables;
+    }
+
+    /**
+     * Obtiene la expansión guardada de una llamada a una macro, o el cuerpo insertado
+     * de una llamada a una función.
+     *
+     * @param target La macro o función a la que está asociado actualmente el nombre de la llamada
+     * @return La expansión, o null si no hay una o si la produjo otra macro o función
+     *         (por ejemplo, una definición anterior con el mismo nombre)
+     */
+    ASTNode getExpansion(Object target) {
+        State current = state;
+        Expansion expansion = current == null ? null : current.expansion;
+        return expansion != null && expansion.macro == target ? expansion.node : null;
+    }
+
+    /**
+     * Guarda la expansión de una llamada a una macro o el cuerpo insertado de una
+     * llamada a una función.
+     *
+     * @param target La macro o función que produjo la expansión
+     * @param node La expansión
+     */
+    void setExpansion(Object target, ASTNode node) {
+        state().expansion = new Expansion(target, node);
+    }
+
+    /**
+     * Obtiene cuántos cuerpos insertados contienen a este nodo.
+     */
+    int getInlineDepth() {
+        State current = state;
+        return current == null ? 0 : current.inlineDepth;
+    }
+
+    /**
+     * Indica cuántos cuerpos insertados contienen a este nodo; solo se asigna al crear
+     * la copia del cuerpo, antes de publicarla.
+     */
+    void setInlineDepth(int inlineDepth) {
+        state().inlineDepth = inlineDepth;
+    }
+
+    /**
+     * Obtiene el perfil de tipos de un nodo aritmético o de comparación.
+     *
+     * @return El perfil, o null si el nodo todavía no se evaluó
+     */
+    TypeFeedback getTypeFeedback() {
+        State current = state;
+        return current == null ? null : current.typeFeedback;
+    }
+
+    /**
+     * Guarda el perfil de tipos de un nodo aritmético o de comparación.
+     *
+     * @param typeFeedback El perfil
+     */
+    void setTypeFeedback(TypeFeedback typeFeedback) {
+        state().typeFeedback = typeFeedback;
+    }
+
+    /**
+     * Anota que se evaluó el resultado de una cláusula de este COND. Las cláusulas a
+     * partir de la 32 no se distinguen y se consideran siempre tomadas.
+     *
+     * @param index La posición de la cláusula
+     */
+    void recordClause(int index) {
+        if (index < 32 && !isClauseTaken(index)) {
+            state().takenClauses |= 1 << index;
+        }
+    }
+
+    /**
+     * Indica si ya se evaluó el resultado de una cláusula de este COND.
+     *
+     * @param index La posición de la cláusula
+     */
+    boolean isClauseTaken(int index) {
+        State current = state;
+        return index >= 32 || (current != null && (current.takenClauses & (1 << index)) != 0);
+    }
+
+    /**
+     * Cuenta una iteración de un ciclo.
+     *
+     * @return Las iteraciones contadas hasta ahora
+     */
+    int countBackEdge() {
+        return ++state().backEdges;
+    }
+
+    /**
+     * Obtiene la traza compilada del cuerpo de un ciclo.
+     */
+    TraceCompiler.Trace getTrace() {
+        State current = state;
+        return current == null ? null : current.trace;
+    }
+
+    void setTrace(TraceCompiler.Trace trace) {
+        state().trace = trace;
+    }
+
+    /**
+     * Obtiene la versión especializada que eligió una llamada (ver Specializer).
+     */
+    Specializer.Site getSpecialization() {
+        State current = state;
+        return current == null ? null : current.specialization;
+    }
+
+    void setSpecialization(Specializer.Site specialization) {
+        state().specialization = specialization;
+    }
+
+    /**
+     * Obtiene el estado del nodo, creándolo la primera vez. Si dos hilos lo crean a
+     * la vez, los dos usan el primero que se guardó.
+     */
+    private State state() {
+        State current = state;
+        if (current == null) {
+            State created = new State();
+            current = STATE.compareAndSet(this, null, created) ? created : state;
+        }
+        return current;
+    }
+
+    /**
+     * Estado de un nodo que no forma parte del código: lo agregan el hash-consing y
+     * los optimizadores a medida que lo necesitan.
+     */
+    private static final class State {
+        /**
+         * Indica si el nodo es la instancia canónica (compartida e inmutable) de un dato citado.
+         */
+        boolean canonical;
+        /**
+         * Hash estructural del nodo; solo es válido cuando el nodo es canónico.
+         */
+        int structuralHash;
+        /**
+         * Instancia canónica de este dato citado, guardada la primera vez que se interna,
+         * para no modificar la lista de hijos del nodo que lo contiene.
+         */
+        volatile ASTNode canonicalForm;
+        /**
+         * Conversión del dato a átomos y celdas cons (solo para nodos canónicos).
+         */
+        Object listView;
+        /**
+         * Indica si listView ya fue calculada (la conversión puede ser null). Es volatile
+         * porque PREDUCE y PMAPCAR pueden convertir el mismo dato desde varios hilos;
+         * se escribe después de listView, así quien la lee en true ve la conversión completa.
+         */
+        volatile boolean hasListView;
+        /**
+         * Variables libres de una expresión LAMBDA, calculadas la primera vez que se evalúa.
+         */
+        volatile String[] freeVariables;
+        /**
+         * Expansión de una llamada a una macro o cuerpo insertado de una función, junto
+         * con la macro o función que lo produjo.
+         */
+        volatile Expansion expansion;
+        /**
+         * Cuántos cuerpos insertados contienen a este nodo (0 en el código del programa).
+         */
+        int inlineDepth;
+        /**
+         * Perfil de tipos de un nodo aritmético o de comparación, con su versión especializada.
+         */
+        volatile TypeFeedback typeFeedback;
+        /**
+         * Cláusulas de un COND cuyo resultado ya se evaluó alguna vez (un bit por cláusula).
+         */
+        int takenClauses;
+        /**
+         * Iteraciones ejecutadas por un ciclo antes de compilar su cuerpo.
+         */
+        int backEdges;
+        /**
+         * Traza compilada del cuerpo de un ciclo (ver TraceCompiler).
+         */
+        volatile TraceCompiler.Trace trace;
+        /**
+         * Versión especializada que eligió una llamada con argumentos constantes.
+         */
+        volatile Specializer.Site specialization;
+    }
+
+    /**
+     * Expansión guardada en un nodo. Es inmutable, así que un hilo que la lee
+     * siempre ve la macro (o función) y el nodo que se guardaron juntos.
+     */
+    private static final class Expansion {
+        final Object macro;
+        final ASTNode node;
+
+        Expansion(Object macro, ASTNode node) {
+            this.macro = macro;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Devuelve el código LISP del nodo, por ejemplo (FIB (- N 1)) o (F 'X).
+     *
+     * @return El texto del nodo con la sintaxis del código fuente
+     */
+    public String toSource() {
+        if (children.isEmpty()) {
+            return listForm ? "(" + value + ")" : value;
+        }
+        StringBuilder text = new StringBuilder("(").append(value);
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            text.append(' ');
+            if (child.value.equals("'") && child.children.isEmpty() && i + 1 < children.size()) {
+                // 'dato ocupa dos nodos: la comilla y el dato
+                text.append('\'').append(children.get(++i).toSource());
+            } else {
+                text.append(child.toSource());
+            }
+        }
+        return text.append(')').toString();
+    }
+
     /**
      * Devuelve una representación en forma de cadena del nodo y sus hijos.
      *
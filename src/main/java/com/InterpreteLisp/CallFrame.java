@@ -0,0 +1,146 @@
+package com.InterpreteLisp;
+
+import java.util.Arrays;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CallFrame.java
+ * Descripción: Ámbito de una llamada a una función de DEFUN con los argumentos en casillas.
+ */
+
+/**
+ * Ámbito de una llamada a una función. Los argumentos se guardan en un arreglo de
+ * casillas en el orden de los parámetros, cuyos nombres calcula Function una sola
+ * vez; el arreglo se crea con el ámbito y el llamador escribe cada argumento en su
+ * casilla, así una llamada solo crea este objeto, en lugar de un arreglo de
+ * argumentos y un Environment con su HashMap.
+ * En una función de DEFUN, igual que antes, un SETQ de una variable que no es
+ * parámetro la define como local de la llamada: esas variables van en un
+ * Environment que solo se crea si el cuerpo las usa. En una clausura de LAMBDA las
+ * casillas que siguen a los parámetros tienen las Cell de las variables capturadas,
+ * y un SETQ de otra variable la modifica en el ámbito global.
+ * Un parámetro capturado por una clausura queda en una Cell dentro de su casilla
+ * (ver captureCell).
+ */
+final class CallFrame implements ContextualScope {
+    private final ContextualScope parent;
+    private final String[] names;
+    private final Object[] slots;
+    private final boolean declaresLocals;
+    private Environment locals;
+
+    /**
+     * Constructor de la clase CallFrame, con las casillas vacías.
+     *
+     * @param parent El ámbito léxico de la función
+     * @param names Los nombres de las casillas (el arreglo se comparte, no se modifica)
+     * @param declaresLocals Si un SETQ de una variable que no tiene casilla la define en la llamada
+     */
+    CallFrame(ContextualScope parent, String[] names, boolean declaresLocals) {
+        this.parent = parent;
+        this.names = names;
+        this.slots = new Object[names.length];
+        this.declaresLocals = declaresLocals;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Coloca un argumento (o la Cell de una variable capturada) en una casilla que
+     * todavía no se usó, antes de ejecutar el cuerpo.
+     */
+    void setArgument(int index, Object value) {
+        slots[index] = value;
+    }
+
+    /**
+     * Lee directamente la casilla de un parámetro, cuya posición ya se conoce.
+     */
+    Object getSlot(int index) {
+        Object value = slots[index];
+        return value instanceof Cell ? ((Cell) value).get() : value;
+    }
+
+    /**
+     * Asigna directamente la casilla de un parámetro, cuya posición ya se conoce.
+     */
+    void setSlot(int index, Object value) {
+        if (slots[index] instanceof Cell) {
+            ((Cell) slots[index]).set(value);
+        } else {
+            slots[index] = value;
+        }
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+        int index = indexOf(name);
+        if (index >= 0) {
+            setSlot(index, value);
+        } else if (!declaresLocals) {
+            parent.setVariable(name, value);
+        } else {
+            if (locals == null) {
+                locals = new Environment(parent);
+            }
+            locals.setVariable(name, value);
+        }
+    }
+
+    @Override
+    public Object getVariable(String name) {
+        int index = indexOf(name);
+        if (index >= 0) {
+            return getSlot(index);
+        }
+        return locals != null ? locals.getVariable(name) : parent.getVariable(name);
+    }
+
+    @Override
+    public Cell captureCell(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return locals != null ? locals.captureCell(name) : parent.captureCell(name);
+        }
+        if (!(slots[index] instanceof Cell)) {
+            slots[index] = new Cell(slots[index]);
+        }
+        return (Cell) slots[index];
+    }
+
+    @Override
+    public boolean isLocalVariable(String name) {
+        if (indexOf(name) >= 0) {
+            return true;
+        }
+        return locals != null ? locals.isLocalVariable(name) : parent.isLocalVariable(name);
+    }
+
+    @Override
+    public Environment getGlobalScope() {
+        return parent.getGlobalScope();
+    }
+
+    @Override
+    public ContextualScope createSubScope() {
+        return new Environment(this);
+    }
+
+    @Override
+    public void rollbackState() {
+        Arrays.fill(slots, null);
+        locals = null;
+    }
+}
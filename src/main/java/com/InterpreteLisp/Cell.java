@@ -0,0 +1,46 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: Cell.java
+ * Descripción: Casilla compartida de una variable capturada por una clausura.
+ */
+
+/**
+ * Casilla con el valor de una variable local que capturó una clausura de LAMBDA.
+ * Cuando una clausura captura una variable, el ámbito que la define reemplaza el
+ * valor de su casilla por una Cell y entrega esa misma Cell a la clausura; desde
+ * entonces el ámbito, la clausura y cualquier otra clausura que capture la variable
+ * leen y asignan el mismo valor, así que un SETQ dentro de una clausura se ve
+ * afuera, aunque la llamada termine con un error o una salida no local.
+ * <p>
+ * Las Cell nunca salen de los ámbitos: getVariable() devuelve el valor guardado,
+ * no la casilla. El valor es volatile porque PMAPCAR y PREDUCE llaman a la misma
+ * clausura desde varios hilos: cada lectura ve la última asignación, pero un
+ * (SETQ n (+ n 1)) en paralelo no es atómico y puede perder incrementos.
+ */
+final class Cell {
+    private volatile Object value;
+
+    /**
+     * Constructor de la clase Cell.
+     *
+     * @param value El valor inicial de la variable
+     */
+    Cell(Object value) {
+        this.value = value;
+    }
+
+    Object get() {
+        return value;
+    }
+
+    void set(Object value) {
+        this.value = value;
+    }
+}
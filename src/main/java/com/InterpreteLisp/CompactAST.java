@@ -0,0 +1,395 @@
+package com.InterpreteLisp;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CompactAST.java
+ * Descripción: Representación compacta de un programa en arreglos primitivos paralelos.
+ */
+
+/**
+ * Codificación compacta de uno o varios árboles de sintaxis abstracta.
+ * En lugar de un objeto ASTNode (con su String y su ArrayList) por nodo, todos los
+ * nodos viven en arreglos paralelos y se referencian con índices int:
+ * <ul>
+ *   <li>kinds: tipo del nodo (símbolo, entero, decimal o llamada sin argumentos)</li>
+ *   <li>symbols: índice en la tabla de símbolos (solo para símbolos)</li>
+ *   <li>numbers: valor numérico (solo para números)</li>
+ *   <li>firstChild / childCount: los hijos de un nodo ocupan un rango contiguo</li>
+ * </ul>
+ * Las raíces ocupan los índices 0 .. getRootCount() - 1. Los símbolos repetidos se
+ * guardan una sola vez en la tabla de símbolos.
+ * <p>
+ * El Evaluator no tiene un recorrido aparte para esta representación: evalúa las
+ * vistas que devuelve node(int), que son ASTNode cuyos hijos se leen de los arreglos
+ * y se crean la primera vez que se piden. Así las partes del programa que nunca se
+ * evalúan, como el cuerpo de una función que no se llama o un dato citado que solo
+ * se recorre al imprimirlo, no ocupan objetos.
+ */
+public class CompactAST {
+    /** Nodo cuyo valor es un símbolo u operador. */
+    public static final byte SYMBOL = 0;
+    /** Nodo cuyo valor es un número entero. */
+    public static final byte INTEGER = 1;
+    /** Nodo cuyo valor es un número decimal. */
+    public static final byte DOUBLE = 2;
+    /** Nodo de un símbolo escrito entre paréntesis sin argumentos, como (g). */
+    public static final byte CALL = 3;
+
+    private byte[] kinds;
+    private int[] symbols;
+    private double[] numbers;
+    private int[] firstChild;
+    private int[] childCount;
+    private int nodeCount;
+    private int rootCount;
+
+    private String[] symbolTable;
+    private int symbolCount;
+
+    /**
+     * Constructor con capacidad inicial; se usa al codificar.
+     *
+     * @param capacity Número de nodos esperado
+     */
+    private CompactAST(int capacity) {
+        this.kinds = new byte[capacity];
+        this.symbols = new int[capacity];
+        this.numbers = new double[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new int[capacity];
+        this.symbolTable = new String[16];
+    }
+
+    /**
+     * Constructor a partir de arreglos ya construidos (por ejemplo, al leer un archivo compilado).
+     * Los arreglos se usan directamente, sin copiarlos.
+     */
+    CompactAST(byte[] kinds, int[] symbols, double[] numbers, int[] firstChild, int[] childCount,
+               int rootCount, String[] symbolTable) {
+        this.kinds = kinds;
+        this.symbols = symbols;
+        this.numbers = numbers;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.nodeCount = kinds.length;
+        this.rootCount = rootCount;
+        this.symbolTable = symbolTable;
+        this.symbolCount = symbolTable.length;
+    }
+
+    /**
+     * Codifica una lista de árboles en la representación compacta.
+     * El recorrido es por niveles y no usa recursión, así que admite árboles profundos.
+     *
+     * @param roots Los nodos raíz, en orden
+     * @return El programa codificado
+     */
+    public static CompactAST encode(List<ASTNode> roots) {
+        CompactAST program = new CompactAST(Math.max(16, roots.size() * 8));
+        Map<String, Integer> symbolIds = new HashMap<>();
+        ArrayDeque<ASTNode> pending = new ArrayDeque<>();
+
+        for (ASTNode root : roots) {
+            program.add(root, symbolIds);
+            pending.add(root);
+        }
+        program.rootCount = roots.size();
+
+        // Los nodos se numeran en el mismo orden en que salen de la cola, por lo
+        // que el índice del nodo actual es simplemente un contador
+        int index = 0;
+        while (!pending.isEmpty()) {
+            List<ASTNode> children = pending.poll().getChildren();
+            program.firstChild[index] = program.nodeCount;
+            program.childCount[index] = children.size();
+            for (ASTNode child : children) {
+                program.add(child, symbolIds);
+                pending.add(child);
+            }
+            index++;
+        }
+
+        program.trim();
+        return program;
+    }
+
+    /**
+     * Agrega un nodo sin hijos y devuelve su índice.
+     */
+    private int add(ASTNode node, Map<String, Integer> symbolIds) {
+        String value = node.getValue();
+        if (nodeCount == kinds.length) {
+            int capacity = nodeCount * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+        }
+
+        int index = nodeCount++;
+        byte kind = node.isListForm() ? CALL : classify(value);
+        kinds[index] = kind;
+        if (kind == SYMBOL || kind == CALL) {
+            Integer id = symbolIds.get(value);
+            if (id == null) {
+                id = symbolCount;
+                if (symbolCount == symbolTable.length) {
+                    symbolTable = Arrays.copyOf(symbolTable, symbolCount * 2);
+                }
+                symbolTable[symbolCount++] = value;
+                symbolIds.put(value, id);
+            }
+            symbols[index] = id;
+        } else {
+            symbols[index] = -1;
+            numbers[index] = Double.parseDouble(value);
+        }
+        return index;
+    }
+
+    /**
+     * Determina el tipo de un valor. Solo se considera número el texto que Parser
+     * produce para un número (forma canónica), para poder reconstruirlo exactamente.
+     */
+    static byte classify(String value) {
+        if (value.isEmpty()) {
+            return SYMBOL;
+        }
+        char first = value.charAt(0);
+        if (!Character.isDigit(first) && first != '-') {
+            return SYMBOL;
+        }
+        try {
+            if (String.valueOf(Integer.parseInt(value)).equals(value)) {
+                return INTEGER;
+            }
+        } catch (NumberFormatException e) {
+            // No es un entero
+        }
+        try {
+            if (String.valueOf(Double.parseDouble(value)).equals(value)) {
+                return DOUBLE;
+            }
+        } catch (NumberFormatException e) {
+            // No es un número
+        }
+        return SYMBOL;
+    }
+
+    /**
+     * Ajusta los arreglos a su tamaño final para no desperdiciar memoria.
+     */
+    private void trim() {
+        kinds = Arrays.copyOf(kinds, nodeCount);
+        symbols = Arrays.copyOf(symbols, nodeCount);
+        numbers = Arrays.copyOf(numbers, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        childCount = Arrays.copyOf(childCount, nodeCount);
+        symbolTable = Arrays.copyOf(symbolTable, symbolCount);
+    }
+
+    /**
+     * Obtiene la vista de un nodo como ASTNode, sin copiar sus descendientes: la lista
+     * de hijos lee los índices del programa y crea la vista de cada hijo cuando se
+     * pide. Cada llamada devuelve una vista nueva, pero una vista siempre devuelve las
+     * mismas vistas de sus hijos: mientras se use (por ejemplo, como cuerpo de una
+     * función de DEFUN), las expansiones de macros, los perfiles de tipos y las trazas
+     * que el Evaluator guarda en sus nodos se conservan entre evaluaciones, igual que
+     * con los nodos del Parser. El programa no guarda las vistas, así que las que ya
+     * nadie usa se liberan.
+     *
+     * @param node Índice del nodo
+     * @return La vista del nodo, que no admite addChild()
+     */
+    public ASTNode node(int node) {
+        ASTNode view = new ASTNode(getValue(node), childCount[node] == 0
+            ? Collections.<ASTNode>emptyList() : new Children(firstChild[node], childCount[node]));
+        if (kinds[node] == CALL) {
+            view.markListForm();
+        }
+        return view;
+    }
+
+    /**
+     * Hijos de una vista: un rango contiguo de índices. La vista de cada hijo se crea
+     * la primera vez que se pide y se guarda en la lista.
+     */
+    private final class Children extends AbstractList<ASTNode> implements RandomAccess {
+        private final int first;
+        private final int count;
+        private final AtomicReferenceArray<ASTNode> views;
+
+        Children(int first, int count) {
+            this.first = first;
+            this.count = count;
+            this.views = new AtomicReferenceArray<>(count);
+        }
+
+        @Override
+        public ASTNode get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Índice " + index + ", hijos " + count);
+            }
+            ASTNode view = views.get(index);
+            if (view == null) {
+                ASTNode created = node(first + index);
+                // Si dos hilos la crean a la vez, los dos usan la primera que se guardó
+                view = views.compareAndSet(index, null, created) ? created : views.get(index);
+            }
+            return view;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Reconstruye una copia independiente (ASTNode comunes) de un nodo y todos sus descendientes.
+     *
+     * @param node Índice del nodo
+     * @return El árbol equivalente formado por ASTNode
+     */
+    public ASTNode decode(int node) {
+        ASTNode root = newNode(node);
+        ArrayDeque<ASTNode> pendingNodes = new ArrayDeque<>();
+        ArrayDeque<Integer> pendingIndexes = new ArrayDeque<>();
+        pendingNodes.add(root);
+        pendingIndexes.add(node);
+
+        while (!pendingNodes.isEmpty()) {
+            ASTNode current = pendingNodes.poll();
+            int index = pendingIndexes.poll();
+            int first = firstChild[index];
+            for (int i = 0; i < childCount[index]; i++) {
+                ASTNode child = newNode(first + i);
+                current.addChild(child);
+                if (childCount[first + i] > 0) {
+                    pendingNodes.add(child);
+                    pendingIndexes.add(first + i);
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Crea el ASTNode de un nodo, sin sus hijos.
+     */
+    private ASTNode newNode(int node) {
+        ASTNode result = new ASTNode(getValue(node));
+        if (kinds[node] == CALL) {
+            result.markListForm();
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el valor de un nodo como texto, igual al que tendría el ASTNode original.
+     *
+     * @param node Índice del nodo
+     * @return El valor del nodo
+     */
+    public String getValue(int node) {
+        switch (kinds[node]) {
+            case INTEGER:
+                return Integer.toString((int) numbers[node]);
+            case DOUBLE:
+                return String.valueOf(numbers[node]);
+            default:
+                return symbolTable[symbols[node]];
+        }
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public byte getKind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * Obtiene el símbolo de un nodo de tipo SYMBOL o CALL.
+     *
+     * @param node Índice del nodo
+     * @return El símbolo (compartido por todos los nodos con el mismo texto)
+     */
+    public String getSymbol(int node) {
+        return symbolTable[symbols[node]];
+    }
+
+    public int getSymbolId(int node) {
+        return symbols[node];
+    }
+
+    public double getNumber(int node) {
+        return numbers[node];
+    }
+
+    public int getChildCount(int node) {
+        return childCount[node];
+    }
+
+    /**
+     * Obtiene el índice del i-ésimo hijo de un nodo.
+     *
+     * @param node Índice del nodo padre
+     * @param i Posición del hijo
+     * @return El índice del hijo
+     */
+    public int getChild(int node, int i) {
+        return firstChild[node] + i;
+    }
+
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    public String getSymbolAt(int id) {
+        return symbolTable[id];
+    }
+
+    // Acceso a los arreglos para la serialización binaria (mismo paquete)
+
+    byte[] kinds() {
+        return kinds;
+    }
+
+    int[] symbols() {
+        return symbols;
+    }
+
+    double[] numbers() {
+        return numbers;
+    }
+
+    int[] firstChildren() {
+        return firstChild;
+    }
+
+    int[] childCounts() {
+        return childCount;
+    }
+}
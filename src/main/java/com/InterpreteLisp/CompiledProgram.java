@@ -0,0 +1,284 @@
+package com.InterpreteLisp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CompiledProgram.java
+ * Descripción: Formato binario precompilado de programas LISP.
+ */
+
+/**
+ * Formato binario de programas ya parseados, para evitar volver a tokenizar y
+ * parsear archivos grandes en cada arranque. El archivo contiene directamente la
+ * representación de CompactAST:
+ * <pre>
+ *   magic "LSPC" | versión (u16) | SHA-256 del código fuente (32 bytes)
+ *   tabla de símbolos: cantidad (varint), y por símbolo: largo (varint) + UTF-8
+ *   cantidad de nodos (varint) | cantidad de raíces (varint)
+ *   por nodo, en orden: (hijos &lt;&lt; 2 | tipo) (varint) + valor
+ *     símbolo o llamada: id (varint) | entero: zigzag (varint) | decimal: 8 bytes
+ * </pre>
+ * Los hijos de cada nodo son contiguos y siguen el orden por niveles de CompactAST,
+ * así que el índice del primer hijo no se guarda: se reconstruye al leer.
+ */
+public class CompiledProgram {
+    /**
+     * Identificador al inicio de todo archivo compilado.
+     */
+    static final byte[] MAGIC = {'L', 'S', 'P', 'C'};
+
+    /**
+     * Versión del formato; un archivo con otra versión se ignora y se vuelve a parsear.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Extensión que se agrega al archivo fuente para el archivo compilado por defecto.
+     */
+    public static final String EXTENSION = ".lspc";
+
+    /**
+     * Constructor privado: la clase solo expone métodos estáticos.
+     */
+    private CompiledProgram() {
+    }
+
+    /**
+     * Parsea el código fuente y escribe su versión compilada.
+     *
+     * @param source El código fuente
+     * @param output El archivo de salida
+     * @return El programa compilado
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public static CompactAST compile(String source, Path output) throws IOException {
+        CompactAST program = CompactAST.encode(ParallelLoader.parse(source));
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            write(program, hash(source), out);
+        }
+        return program;
+    }
+
+    /**
+     * Carga un programa desde su archivo compilado si este corresponde al código
+     * fuente actual; en caso contrario (no existe, otra versión, o el código cambió)
+     * parsea el código fuente.
+     *
+     * @param sourceFile El archivo fuente
+     * @param compiledFile El archivo compilado
+     * @return El programa listo para evaluarse
+     * @throws IOException Si no se puede leer el archivo fuente
+     */
+    public static CompactAST loadOrParse(Path sourceFile, Path compiledFile) throws IOException {
+        String source = new String(Files.readAllBytes(sourceFile), StandardCharsets.UTF_8);
+        if (Files.isRegularFile(compiledFile)) {
+            CompactAST program = read(Files.readAllBytes(compiledFile), hash(source));
+            if (program != null) {
+                return program;
+            }
+        }
+        return CompactAST.encode(ParallelLoader.parse(source));
+    }
+
+    /**
+     * Escribe un programa compacto en formato binario.
+     *
+     * @param program El programa
+     * @param sourceHash El hash del código fuente del que proviene
+     * @param output El destino
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void write(CompactAST program, byte[] sourceHash, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        out.write(sourceHash);
+
+        writeVarint(out, program.getSymbolCount());
+        for (int id = 0; id < program.getSymbolCount(); id++) {
+            byte[] bytes = program.getSymbolAt(id).getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarint(out, program.getNodeCount());
+        writeVarint(out, program.getRootCount());
+        for (int node = 0; node < program.getNodeCount(); node++) {
+            byte kind = program.getKind(node);
+            writeVarint(out, (program.getChildCount(node) << 2) | kind);
+            switch (kind) {
+                case CompactAST.SYMBOL:
+                case CompactAST.CALL:
+                    writeVarint(out, program.getSymbolId(node));
+                    break;
+                case CompactAST.INTEGER: {
+                    int value = (int) program.getNumber(node);
+                    writeVarint(out, (value << 1) ^ (value >> 31));
+                    break;
+                }
+                default:
+                    out.writeLong(Double.doubleToRawLongBits(program.getNumber(node)));
+                    break;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee un programa en formato binario.
+     *
+     * @param data El contenido del archivo compilado
+     * @param expectedHash El hash del código fuente actual
+     * @return El programa, o null si el archivo no es válido o no corresponde al código fuente
+     */
+    static CompactAST read(byte[] data, byte[] expectedHash) {
+        try {
+            return readUnchecked(data, expectedHash);
+        } catch (RuntimeException e) {
+            // Archivo truncado o dañado: se trata igual que uno desactualizado
+            return null;
+        }
+    }
+
+    /**
+     * Lee un programa en formato binario sin capturar errores de formato.
+     */
+    private static CompactAST readUnchecked(byte[] data, byte[] expectedHash) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < MAGIC.length + 2 + expectedHash.length) {
+            return null;
+        }
+
+        byte[] magic = new byte[MAGIC.length];
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || in.getShort() != VERSION) {
+            return null;
+        }
+        byte[] sourceHash = new byte[expectedHash.length];
+        in.get(sourceHash);
+        if (!Arrays.equals(sourceHash, expectedHash)) {
+            return null;
+        }
+
+        String[] symbolTable = new String[readVarint(in)];
+        for (int id = 0; id < symbolTable.length; id++) {
+            int length = readVarint(in);
+            symbolTable[id] = new String(data, in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        }
+
+        int nodeCount = readVarint(in);
+        int rootCount = readVarint(in);
+        byte[] kinds = new byte[nodeCount];
+        int[] symbols = new int[nodeCount];
+        double[] numbers = new double[nodeCount];
+        int[] firstChild = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+
+        // Los hijos del nodo i empiezan donde terminan los hijos del nodo i - 1
+        int nextChild = rootCount;
+        for (int node = 0; node < nodeCount; node++) {
+            int header = readVarint(in);
+            byte kind = (byte) (header & 3);
+            kinds[node] = kind;
+            childCount[node] = header >>> 2;
+            firstChild[node] = nextChild;
+            nextChild += childCount[node];
+
+            switch (kind) {
+                case CompactAST.SYMBOL:
+                case CompactAST.CALL:
+                    symbols[node] = readVarint(in);
+                    break;
+                case CompactAST.INTEGER: {
+                    int zigzag = readVarint(in);
+                    symbols[node] = -1;
+                    numbers[node] = (zigzag >>> 1) ^ -(zigzag & 1);
+                    break;
+                }
+                default:
+                    symbols[node] = -1;
+                    numbers[node] = Double.longBitsToDouble(in.getLong());
+                    break;
+            }
+        }
+
+        return new CompactAST(kinds, symbols, numbers, firstChild, childCount, rootCount, symbolTable);
+    }
+
+    /**
+     * Calcula el hash SHA-256 del código fuente.
+     *
+     * @param source El código fuente
+     * @return Los 32 bytes del hash
+     */
+    static byte[] hash(String source) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las implementaciones de Java incluyen SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Escribe un entero sin signo en formato varint (7 bits por byte).
+     */
+    static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Lee un entero sin signo en formato varint.
+     */
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Serializa un programa en memoria; útil para pruebas.
+     *
+     * @param program El programa
+     * @param source El código fuente del que proviene
+     * @return Los bytes del formato compilado
+     */
+    static byte[] toBytes(CompactAST program, String source) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            write(program, hash(source), bytes);
+        } catch (IOException e) {
+            // ByteArrayOutputStream no produce errores de E/S
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
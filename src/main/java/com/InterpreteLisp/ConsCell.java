@@ -0,0 +1,276 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ConsCell.java
+ * Descripción: Celda cons inmutable para construir y recorrer listas sin copiarlas.
+ */
+
+/**
+ * Celda cons inmutable: un par (CAR . CDR). Una lista es una cadena de celdas cuyo
+ * último CDR es null (NIL). Como las celdas no se modifican, varias listas pueden
+ * compartir la misma cola: CONS y CDR son O(1) y no copian nada.
+ * Los datos citados con QUOTE (ASTNode) se convierten a celdas con fromDatum(); la
+ * conversión de un dato canónico se guarda en el propio nodo y se hace una sola vez.
+ */
+public final class ConsCell {
+    private final Object car;
+    private final Object cdr;
+
+    /**
+     * Constructor de la clase ConsCell.
+     *
+     * @param car El primer elemento
+     * @param cdr El resto de la lista (otra celda, null o, en un par punteado, cualquier valor)
+     */
+    public ConsCell(Object car, Object cdr) {
+        this.car = car;
+        this.cdr = cdr;
+    }
+
+    public Object getCar() {
+        return car;
+    }
+
+    public Object getCdr() {
+        return cdr;
+    }
+
+    /**
+     * Convierte un dato citado en su valor de lista: las hojas pasan a ser átomos
+     * (números o símbolos) y los nodos con hijos pasan a ser listas de celdas.
+     * Cualquier otro valor se devuelve sin cambios.
+     *
+     * @param value El valor a convertir
+     * @return El valor equivalente formado por átomos y celdas cons
+     */
+    public static Object fromDatum(Object value) {
+        if (!(value instanceof ASTNode)) {
+            return value;
+        }
+        ASTNode node = (ASTNode) value;
+        if (node.hasListView()) {
+            return node.getListView();
+        }
+
+        Object result;
+        List<ASTNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            result = atomValue(node.getValue());
+        } else {
+            // La lista (a b c) se parsea como el nodo a con hijos b y c; un nodo sin
+            // valor es una lista formada solo por sus hijos
+            Object tail = null;
+            for (int i = children.size() - 1; i >= 0; i--) {
+                tail = new ConsCell(fromDatum(children.get(i)), tail);
+            }
+            result = node.getValue().isEmpty() ? tail : new ConsCell(atomValue(node.getValue()), tail);
+        }
+
+        // Solo los nodos canónicos son inmutables, así que solo en ellos se guarda la conversión
+        if (node.isCanonical()) {
+            node.setListView(result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el valor de un átomo a partir del texto de una hoja.
+     */
+    private static Object atomValue(String value) {
+        if (value.isEmpty() || value.equals("NIL")) {
+            return null;
+        }
+        if (Evaluator.isStringLiteral(value)) {
+            return Evaluator.stringValue(value);
+        }
+        char first = value.charAt(0);
+        if (Character.isDigit(first) || first == '-' || first == '.') {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                // No es un número, es un símbolo
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Convierte un valor en lista para las operaciones de listas.
+     *
+     * @param value El valor (null, una celda, un dato citado o una secuencia perezosa, que se calcula completa)
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return La primera celda de la lista, o null si la lista está vacía
+     */
+    static ConsCell toList(Object value, String operation) {
+        if (value instanceof LazySeq) {
+            return ((LazySeq) value).toList();
+        }
+        Object list = fromDatum(value);
+        if (list == null || list instanceof ConsCell) {
+            return (ConsCell) list;
+        }
+        throw new LispError(operation + " requiere una lista");
+    }
+
+    /**
+     * Construye una lista nueva con los elementos en orden inverso.
+     *
+     * @param list La lista original
+     * @return La lista invertida
+     */
+    public static ConsCell reverse(ConsCell list) {
+        ConsCell result = null;
+        for (ConsCell cell = list; cell != null; cell = next(cell, "REVERSE")) {
+            result = new ConsCell(cell.car, result);
+        }
+        return result;
+    }
+
+    /**
+     * Concatena varias listas. Se copian las celdas de todas las listas excepto la
+     * última, que se comparte como cola del resultado.
+     *
+     * @param lists Las listas a concatenar
+     * @return La lista resultante
+     */
+    public static Object append(List<Object> lists) {
+        if (lists.isEmpty()) {
+            return null;
+        }
+        Object result = fromDatum(lists.get(lists.size() - 1));
+        List<Object> elements = new ArrayList<>();
+        for (int i = lists.size() - 2; i >= 0; i--) {
+            elements.clear();
+            for (ConsCell cell = toList(lists.get(i), "APPEND"); cell != null; cell = next(cell, "APPEND")) {
+                elements.add(cell.car);
+            }
+            for (int j = elements.size() - 1; j >= 0; j--) {
+                result = new ConsCell(elements.get(j), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Avanza a la siguiente celda de una lista propia.
+     */
+    private static ConsCell next(ConsCell cell, String operation) {
+        if (cell.cdr == null || cell.cdr instanceof ConsCell) {
+            return (ConsCell) cell.cdr;
+        }
+        throw new LispError(operation + " requiere una lista propia");
+    }
+
+    /**
+     * Compara dos listas elemento por elemento. Los números se comparan por su
+     * valor, igual que en EQUAL.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ConsCell)) {
+            return false;
+        }
+        Object left = this;
+        Object right = other;
+        // Las colas se recorren en un ciclo; solo los elementos que son listas usan recursión
+        while (left instanceof ConsCell && right instanceof ConsCell) {
+            if (left == right) {
+                return true;
+            }
+            ConsCell a = (ConsCell) left;
+            ConsCell b = (ConsCell) right;
+            if (!sameElement(a.car, b.car)) {
+                return false;
+            }
+            left = a.cdr;
+            right = b.cdr;
+        }
+        return sameElement(left, right);
+    }
+
+    /**
+     * Compara dos elementos de lista.
+     */
+    private static boolean sameElement(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return a.equals(b);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        Object current = this;
+        while (current instanceof ConsCell) {
+            Object element = ((ConsCell) current).car;
+            hash = 31 * hash + elementHash(element);
+            current = ((ConsCell) current).cdr;
+        }
+        return 31 * hash + elementHash(current);
+    }
+
+    /**
+     * Hash de un elemento, consistente con sameElement().
+     */
+    private static int elementHash(Object element) {
+        if (element == null) {
+            return 0;
+        }
+        if (element instanceof Number) {
+            return Double.hashCode(((Number) element).doubleValue());
+        }
+        return element.hashCode();
+    }
+
+    /**
+     * Representación de la lista en notación LISP, por ejemplo (a 1 (b c)) o (a . b).
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        Object current = this;
+        while (current instanceof ConsCell) {
+            if (current != this) {
+                sb.append(' ');
+            }
+            sb.append(format(((ConsCell) current).car));
+            current = ((ConsCell) current).cdr;
+        }
+        if (current != null) {
+            sb.append(" . ").append(format(current));
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Formatea un elemento de la lista; también se usa en la traza de los errores.
+     */
+    static String format(Object element) {
+        if (element == null) {
+            return "NIL";
+        }
+        if (element instanceof Boolean) {
+            return (Boolean) element ? "T" : "NIL";
+        }
+        if (element instanceof Double) {
+            double d = (Double) element;
+            if (d == Math.floor(d) && !Double.isInfinite(d)) {
+                return Long.toString((long) d);
+            }
+        }
+        return element.toString();
+    }
+}
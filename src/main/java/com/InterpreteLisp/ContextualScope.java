@@ -0,0 +1,72 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 17/03/2025
+ * última modificación: 19/10/2026
+ * File Name: ContextualScope.java
+ * Descripción: Interfaz de los ámbitos del intérprete LISP (Environment, CallFrame, FrameScope, LoopScope).
+ */
+
+/**
+ * Interfaz que define el comportamiento de un ámbito contextual.
+ */
+interface ContextualScope {
+    /**
+     * Establece una variable en el ámbito actual.
+     * 
+     * @param name El nombre de la variable
+     * @param value El valor de la variable
+     * @return void
+     */
+    void setVariable(String name, Object value);
+    
+    /**
+     * Obtiene el valor de una variable buscando en el ámbito actual y en los ámbitos superiores.
+     * 
+     * @param name El nombre de la variable a buscar
+     * @return El valor de la variable o null si no se encuentra
+     */
+    Object getVariable(String name);
+    
+    /**
+     * Crea un nuevo ámbito que extiende a este ámbito.
+     * 
+     * @return Un nuevo ámbito con este ámbito como padre
+     */
+    ContextualScope createSubScope();
+    
+    /**
+     * Revierte los cambios realizados en este ámbito.
+     */
+    void rollbackState();
+
+    /**
+     * Indica si una variable está definida en este ámbito o en uno superior que no
+     * sea el global. LAMBDA lo usa para decidir qué variables libres capturar.
+     *
+     * @param name El nombre de la variable
+     * @return true si la variable es local
+     */
+    boolean isLocalVariable(String name);
+
+    /**
+     * Obtiene la casilla compartida de una variable local para que una clausura la
+     * capture. La primera vez, el ámbito que define la variable pasa a guardarla en
+     * una Cell, y desde entonces la lee y la asigna a través de ella.
+     *
+     * @param name El nombre de la variable
+     * @return La casilla, o null si la variable no es local
+     */
+    Cell captureCell(String name);
+
+    /**
+     * Obtiene el ámbito global, siguiendo la cadena de ámbitos superiores.
+     *
+     * @return El ámbito sin padre al que pertenece este ámbito
+     */
+    Environment getGlobalScope();
+}
@@ -1,8 +1,13 @@
 package com.InterpreteLisp;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * Universidad del Valle de Guatemala
@@ -10,7 +15,7 @@ import java.util.Map;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 17/03/2025
- * última modificación: 17/03/2025
+ * última modificación: 19/10/2026
  * File Name: Environment.java
  * Descripción: Clase que representa el entorno de ejecución para el intérprete LISP.
  * 
@@ -18,40 +23,6 @@ import java.util.Map;
  * Código original generado con la asistencia de Claude y Deepseek.
  */
 
-/**
- * Interfaz que define el comportamiento de un ámbito contextual.
- */
-interface ContextualScope {
-    /**
-     * Establece una variable en el ámbito actual.
-     * 
-     * @param name El nombre de la variable
-     * @param value El valor de la variable
-     * @return void
-     */
-    void setVariable(String name, Object value);
-    
-    /**
-     * Obtiene el valor de una variable buscando en el ámbito actual y en los ámbitos superiores.
-     * 
-     * @param name El nombre de la variable a buscar
-     * @return El valor de la variable o null si no se encuentra
-     */
-    Object getVariable(String name);
-    
-    /**
-     * Crea un nuevo ámbito que extiende a este ámbito.
-     * 
-     * @return Un nuevo ámbito con este ámbito como padre
-     */
-    ContextualScope createSubScope();
-    
-    /**
-     * Revierte los cambios realizados en este ámbito.
-     */
-    void rollbackState();
-}
-
 /**
  * Implementación de un ámbito contextual para el intérprete LISP.
  */
@@ -65,6 +36,12 @@ public class Environment implements ContextualScope {
      * Ámbito padre, puede ser nulo para el ámbito global.
      */
     private ContextualScope parentScope;
+
+    /**
+     * PREDUCE y PMAPCAR en curso que usan este entorno global. Mientras haya alguna,
+     * sus variables no se pueden asignar: el HashMap no admite escrituras concurrentes.
+     */
+    private final AtomicInteger parallelTasks = new AtomicInteger();
     
     /**
      * Constructor para crear un ámbito global (sin padre).
@@ -86,14 +63,24 @@ public class Environment implements ContextualScope {
     
     @Override
     public void setVariable(String name, Object value) {
-        variables.put(name, value);
+        if (parentScope == null && parallelTasks.get() > 0) {
+            throw new LispError("No se puede asignar la variable global " + name + " dentro de PREDUCE o PMAPCAR");
+        }
+        // Una variable local capturada por una clausura se asigna en su casilla compartida
+        Object current = parentScope != null ? variables.get(name) : null;
+        if (current instanceof Cell) {
+            ((Cell) current).set(value);
+        } else {
+            variables.put(name, value);
+        }
     }
     
     @Override
     public Object getVariable(String name) {
         // Primero buscar en este ámbito
-        if (variables.containsKey(name)) {
-            return variables.get(name);
+        Object value = variables.get(name);
+        if (value != null || variables.containsKey(name)) {
+            return value instanceof Cell ? ((Cell) value).get() : value;
         }
         
         // Si no se encuentra y hay un ámbito padre, buscar ahí
@@ -116,6 +103,70 @@ public class Environment implements ContextualScope {
         variables.clear();
     }
     
+    @Override
+    public boolean isLocalVariable(String name) {
+        // Las variables del ámbito global no son locales
+        if (parentScope == null) {
+            return false;
+        }
+        return variables.containsKey(name) || parentScope.isLocalVariable(name);
+    }
+
+    @Override
+    public Cell captureCell(String name) {
+        // Las variables del ámbito global no se capturan
+        if (parentScope == null) {
+            return null;
+        }
+        if (!variables.containsKey(name)) {
+            return parentScope.captureCell(name);
+        }
+        Object value = variables.get(name);
+        if (value instanceof Cell) {
+            return (Cell) value;
+        }
+        Cell cell = new Cell(value);
+        variables.put(name, cell);
+        return cell;
+    }
+
+    @Override
+    public Environment getGlobalScope() {
+        return parentScope == null ? this : parentScope.getGlobalScope();
+    }
+
+    /**
+     * Indica que empieza un PREDUCE o PMAPCAR; hasta exitParallel() el entorno global
+     * es de solo lectura.
+     */
+    void enterParallel() {
+        parallelTasks.incrementAndGet();
+    }
+
+    /**
+     * Indica que terminó un PREDUCE o PMAPCAR.
+     */
+    void exitParallel() {
+        parallelTasks.decrementAndGet();
+    }
+
+    /**
+     * Indica si hay un PREDUCE o PMAPCAR en curso con este entorno global.
+     */
+    boolean isParallel() {
+        return parallelTasks.get() > 0;
+    }
+
+    /**
+     * Obtiene las variables definidas directamente en este ámbito, sin incluir
+     * las de los ámbitos superiores.
+     *
+     * @return Vista de solo lectura de las variables
+     */
+    public Map<String, Object> getVariables() {
+        return Collections.unmodifiableMap(variables);
+    }
+    
     /**
      * Inicializa el entorno con funciones y constantes predefinidas de LISP.
      */
@@ -144,20 +195,58 @@ public class Environment implements ContextualScope {
      * @param evaluator El evaluador para procesar las definiciones
      */
     public void loadDefinitions(String input, Evaluator evaluator) {
-        // Este método podría implementarse para cargar definiciones predefinidas
-        // Por ahora, lo dejamos como un esqueleto
-        
-        // 1. Tokenizar el input
-        Lexer lexer = new Lexer();
-        List<Token> tokens = lexer.tokenize(input);
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.LOAD);
+        // 1 y 2. Tokenizar y parsear el input. Las entradas grandes se dividen en
+        //    expresiones de nivel superior que se procesan en paralelo; se usa el
+        //    parser iterativo porque los archivos generados pueden tener anidamientos
+        //    muy profundos
+        List<ASTNode> definitions = ParallelLoader.parse(input);
         
-        // 2. Parsear los tokens a AST
-        Parser parser = new Parser(tokens);
-        List<ASTNode> definitions = parser.parse();
-        
-        // 3. Evaluar cada definición
-        for (ASTNode def : definitions) {
-            evaluator.evaluate(def, this);
+        // 3. Evaluar cada definición en el orden del código fuente
+        try {
+            for (ASTNode def : definitions) {
+                evaluator.evaluateTopLevel(def, this);
+            }
+        } finally {
+            if (event != null && FlightEvents.EVENTS.end(event)) {
+                FlightEvents.EVENTS.commit(event, "(texto)", definitions.size(), input);
+            }
+        }
+    }
+
+    /**
+     * Carga definiciones desde un programa en representación compacta,
+     * evaluando cada expresión de nivel superior en orden.
+     *
+     * @param program El programa compacto
+     * @param evaluator El evaluador para procesar las definiciones
+     */
+    public void loadDefinitions(CompactAST program, Evaluator evaluator) {
+        for (int root = 0; root < program.getRootCount(); root++) {
+            evaluator.evaluateTopLevel(program, root, this);
+        }
+    }
+
+    /**
+     * Carga las definiciones de un archivo fuente. Si existe junto a él un archivo
+     * compilado (misma ruta con la extensión .lspc) que corresponde al contenido
+     * actual, se usa ese archivo y se evita volver a parsear.
+     *
+     * @param sourceFile El archivo fuente
+     * @param evaluator El evaluador para procesar las definiciones
+     * @throws IOException Si no se puede leer el archivo fuente
+     */
+    public void loadFile(Path sourceFile, Evaluator evaluator) throws IOException {
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.LOAD);
+        Path compiledFile = Paths.get(sourceFile.toString() + CompiledProgram.EXTENSION);
+        CompactAST program = CompiledProgram.loadOrParse(sourceFile, compiledFile);
+        try {
+            loadDefinitions(program, evaluator);
+        } finally {
+            if (event != null && FlightEvents.EVENTS.end(event)) {
+                FlightEvents.EVENTS.commit(event, sourceFile.toString(), program.getRootCount(),
+                    program.getRootCount() == 0 ? "" : program.node(0).toSource());
+            }
         }
     }
-}
\ No newline at end of file
+}
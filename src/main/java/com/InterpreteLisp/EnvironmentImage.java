@@ -0,0 +1,490 @@
+package com.InterpreteLisp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: EnvironmentImage.java
+ * Descripción: Imagen binaria del entorno global, para guardarlo y restaurarlo al iniciar.
+ */
+
+/**
+ * Guarda y restaura el entorno global completo: las funciones definidas con DEFUN
+ * (parámetros y cuerpo), los valores asignados con SETQ y los marcadores de las
+ * funciones del sistema. Formato del archivo:
+ * <pre>
+ *   magic "LSPI" | versión (u16)
+ *   tabla de cadenas: cantidad (varint), y por cadena: largo (varint) + UTF-8
+ *   cantidad de variables (varint), y por variable: nombre (varint) + valor
+ *   valor: tipo (1 byte) seguido de
+ *     NIL, T, FALSE: nada | número: 8 bytes | entero: zigzag (varint)
+ *     cadena o función del sistema: id en la tabla (varint)
+ *     dato: árbol | función: árbol de parámetros, cantidad de cuerpos (varint), árboles
+ *     clausura: como una función, seguida de la cantidad de variables capturadas
+ *       (varint) y, por variable, nombre (varint) + valor
+ *     macro: como una función
+ *     lista de celdas: cantidad de elementos (varint), los elementos y el último CDR
+ *     vector: tamaño (varint) + 8 bytes por elemento
+ *     tabla hash: cantidad de llaves (varint), y por llave: llave + valor
+ *   árbol: en preorden, por nodo: valor (varint) + (cantidad de hijos &lt;&lt; 1 | 1 si
+ *     el nodo es una llamada sin argumentos como (g)) (varint)
+ * </pre>
+ * La tabla de cadenas va primero para que la restauración sea una sola lectura
+ * secuencial del archivo, que se mapea en memoria.
+ */
+public class EnvironmentImage {
+    /**
+     * Identificador al inicio de toda imagen.
+     */
+    static final byte[] MAGIC = {'L', 'S', 'P', 'I'};
+
+    /**
+     * Versión del formato.
+     */
+    static final int VERSION = 2;
+
+    private static final byte TAG_NIL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_INTEGER = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_DATUM = 6;
+    private static final byte TAG_FUNCTION = 7;
+    private static final byte TAG_BUILTIN = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_VECTOR = 10;
+    private static final byte TAG_HASH_TABLE = 11;
+    private static final byte TAG_CLOSURE = 12;
+    private static final byte TAG_MACRO = 13;
+
+    /**
+     * Constructor privado: la clase solo expone métodos estáticos.
+     */
+    private EnvironmentImage() {
+    }
+
+    /**
+     * Guarda el entorno global en un archivo. La imagen se escribe primero en un
+     * archivo temporal del mismo directorio y solo reemplaza al destino cuando la
+     * escritura terminó bien, así un valor que no se puede guardar no deja una
+     * imagen anterior vacía o a medias.
+     *
+     * @param env El entorno global
+     * @param file El archivo de destino
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    public static void save(Environment env, Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                write(env, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Restaura en el entorno las variables guardadas en una imagen.
+     * Las funciones del sistema ya registradas en el entorno se conservan.
+     *
+     * @param env El entorno global donde se restaura la imagen
+     * @param file El archivo de la imagen
+     * @throws IOException Si no se puede leer el archivo o no es una imagen válida
+     */
+    public static void restore(Environment env, Path file) throws IOException {
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.LOAD);
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            count = read(env, buffer);
+        } finally {
+            if (event != null && FlightEvents.EVENTS.end(event)) {
+                FlightEvents.EVENTS.commit(event, file.toString(), count, "");
+            }
+        }
+    }
+
+    /**
+     * Escribe la imagen del entorno.
+     *
+     * @param env El entorno global
+     * @param output El destino
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void write(Environment env, OutputStream output) throws IOException {
+        // Las variables se escriben primero en memoria para conocer la tabla de cadenas completa
+        StringPool pool = new StringPool();
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+        DataOutputStream entries = new DataOutputStream(entryBytes);
+
+        Map<String, Object> variables = new TreeMap<>(env.getVariables());
+        Set<Object> open = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        CompiledProgram.writeVarint(entries, variables.size());
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            CompiledProgram.writeVarint(entries, pool.id(entry.getKey()));
+            writeValue(entries, entry.getKey(), entry.getValue(), env, pool, open);
+        }
+        entries.flush();
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+        CompiledProgram.writeVarint(out, pool.strings.size());
+        for (String string : pool.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            CompiledProgram.writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+        entryBytes.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Escribe el valor de una variable. Las tablas hash y las clausuras que se están
+     * escribiendo quedan en open: si una se contiene a sí misma (directamente o a
+     * través de otros valores), el formato no la puede representar y se lanza un error
+     * en lugar de recorrerla sin fin.
+     */
+    private static void writeValue(DataOutputStream out, String name, Object value, Environment env,
+                                   StringPool pool, Set<Object> open) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NIL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer) {
+            int number = (Integer) value;
+            out.writeByte(TAG_INTEGER);
+            CompiledProgram.writeVarint(out, (number << 1) ^ (number >> 31));
+        } else if (value instanceof Number) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            CompiledProgram.writeVarint(out, pool.id((String) value));
+        } else if (value instanceof ASTNode) {
+            out.writeByte(TAG_DATUM);
+            writeTree(out, (ASTNode) value, pool);
+        } else if (value instanceof Evaluator.Function) {
+            Evaluator.Function function = (Evaluator.Function) value;
+            // Solo las funciones globales se pueden reconstruir: las demás dependen
+            // de un ámbito local que ya no existe
+            if (function.getParentScope() != env) {
+                throw new LispError("SAVE-IMAGE no puede guardar la función " + name
+                    + " porque fue definida dentro de otra función");
+            }
+            out.writeByte(function.isClosure() ? TAG_CLOSURE : TAG_FUNCTION);
+            writeTree(out, function.getParams(), pool);
+            CompiledProgram.writeVarint(out, function.getBody().size());
+            for (ASTNode expression : function.getBody()) {
+                writeTree(out, expression, pool);
+            }
+            if (function.isClosure()) {
+                // Se guarda el valor actual de cada variable capturada; al restaurar, cada
+                // clausura recibe casillas propias aunque antes compartiera alguna
+                enter(open, function, name);
+                String[] names = function.getCaptureNames();
+                Cell[] cells = function.getCaptureCells();
+                CompiledProgram.writeVarint(out, names.length);
+                for (int i = 0; i < names.length; i++) {
+                    CompiledProgram.writeVarint(out, pool.id(names[i]));
+                    writeValue(out, name, cells[i].get(), env, pool, open);
+                }
+                open.remove(function);
+            }
+        } else if (value instanceof Evaluator.Macro) {
+            Evaluator.Macro macro = (Evaluator.Macro) value;
+            out.writeByte(TAG_MACRO);
+            writeTree(out, macro.getParams(), pool);
+            CompiledProgram.writeVarint(out, macro.getBody().size());
+            for (ASTNode expression : macro.getBody()) {
+                writeTree(out, expression, pool);
+            }
+        } else if (value instanceof ConsCell) {
+            List<Object> elements = new ArrayList<>();
+            Object tail = value;
+            while (tail instanceof ConsCell) {
+                elements.add(((ConsCell) tail).getCar());
+                tail = ((ConsCell) tail).getCdr();
+            }
+            out.writeByte(TAG_LIST);
+            CompiledProgram.writeVarint(out, elements.size());
+            for (Object element : elements) {
+                writeValue(out, name, element, env, pool, open);
+            }
+            writeValue(out, name, tail, env, pool, open);
+        } else if (value instanceof LispVector) {
+            double[] elements = ((LispVector) value).values();
+            out.writeByte(TAG_VECTOR);
+            CompiledProgram.writeVarint(out, elements.length);
+            for (double element : elements) {
+                out.writeLong(Double.doubleToRawLongBits(element));
+            }
+        } else if (value instanceof LispHashTable) {
+            enter(open, value, name);
+            Object[] entries = ((LispHashTable) value).keysAndValues();
+            out.writeByte(TAG_HASH_TABLE);
+            CompiledProgram.writeVarint(out, entries.length / 2);
+            for (Object entry : entries) {
+                writeValue(out, name, entry, env, pool, open);
+            }
+            open.remove(value);
+        } else if (value instanceof Main.BuiltinFunction) {
+            // Solo se guarda el nombre: la implementación la registra Main al iniciar
+            out.writeByte(TAG_BUILTIN);
+            CompiledProgram.writeVarint(out, pool.id(((Main.BuiltinFunction) value).getName()));
+        } else {
+            throw new LispError("SAVE-IMAGE no puede guardar el valor de " + name);
+        }
+    }
+
+    /**
+     * Registra una tabla hash o una clausura que se empieza a escribir.
+     *
+     * @throws LispError Si ya se estaba escribiendo, es decir, si se contiene a sí misma
+     */
+    private static void enter(Set<Object> open, Object value, String name) {
+        if (!open.add(value)) {
+            throw new LispError("SAVE-IMAGE no puede guardar el valor de " + name
+                + " porque se contiene a sí mismo");
+        }
+    }
+
+    /**
+     * Escribe un árbol en preorden sin usar recursión.
+     */
+    private static void writeTree(DataOutputStream out, ASTNode root, StringPool pool) throws IOException {
+        ArrayDeque<ASTNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            ASTNode node = pending.pop();
+            List<ASTNode> children = node.getChildren();
+            CompiledProgram.writeVarint(out, pool.id(node.getValue()));
+            CompiledProgram.writeVarint(out, children.size() << 1 | (node.isListForm() ? 1 : 0));
+            for (int i = children.size() - 1; i >= 0; i--) {
+                pending.push(children.get(i));
+            }
+        }
+    }
+
+    /**
+     * Lee una imagen y define sus variables en el entorno.
+     *
+     * @param env El entorno global
+     * @param in El contenido de la imagen
+     * @return El número de variables definidas
+     * @throws IOException Si el contenido no es una imagen válida
+     */
+    static int read(Environment env, ByteBuffer in) throws IOException {
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.getShort() != VERSION) {
+                throw new IOException("El archivo no es una imagen válida");
+            }
+
+            String[] strings = new String[CompiledProgram.readVarint(in)];
+            byte[] bytes = new byte[64];
+            for (int id = 0; id < strings.length; id++) {
+                int length = CompiledProgram.readVarint(in);
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                in.get(bytes, 0, length);
+                strings[id] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int count = CompiledProgram.readVarint(in);
+            for (int i = 0; i < count; i++) {
+                String name = strings[CompiledProgram.readVarint(in)];
+                Object value = readValue(in, name, strings, env);
+                env.setVariable(name, value);
+            }
+            return count;
+        } catch (RuntimeException e) {
+            throw new IOException("La imagen está dañada o incompleta", e);
+        }
+    }
+
+    /**
+     * Lee el valor de una variable.
+     */
+    private static Object readValue(ByteBuffer in, String name, String[] strings, Environment env) {
+        byte tag = in.get();
+        switch (tag) {
+            case TAG_NIL:
+                return null;
+            case TAG_TRUE:
+                return true;
+            case TAG_FALSE:
+                return false;
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.getLong());
+            case TAG_INTEGER: {
+                int zigzag = CompiledProgram.readVarint(in);
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            case TAG_STRING:
+                return strings[CompiledProgram.readVarint(in)];
+            case TAG_DATUM:
+                return readTree(in, strings);
+            case TAG_FUNCTION:
+            case TAG_CLOSURE:
+            case TAG_MACRO: {
+                ASTNode params = readTree(in, strings);
+                int bodySize = CompiledProgram.readVarint(in);
+                List<ASTNode> body = new ArrayList<>(bodySize);
+                for (int i = 0; i < bodySize; i++) {
+                    body.add(readTree(in, strings));
+                }
+                if (tag == TAG_FUNCTION) {
+                    Evaluator.Function function = new Evaluator.Function(params, body, env);
+                    function.setName(name);
+                    return function;
+                }
+                if (tag == TAG_MACRO) {
+                    return new Evaluator.Macro(params, body, env);
+                }
+                String[] names = new String[CompiledProgram.readVarint(in)];
+                Cell[] cells = new Cell[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = strings[CompiledProgram.readVarint(in)];
+                    cells[i] = new Cell(readValue(in, name, strings, env));
+                }
+                return new Evaluator.Function(params, body, env, names, cells);
+            }
+            case TAG_BUILTIN: {
+                String builtin = strings[CompiledProgram.readVarint(in)];
+                // Se conserva la implementación actual si la función ya está registrada
+                Object current = env.getVariable(name);
+                return current instanceof Main.BuiltinFunction ? current : new Main.BuiltinFunction(builtin);
+            }
+            case TAG_LIST: {
+                Object[] elements = new Object[CompiledProgram.readVarint(in)];
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = readValue(in, name, strings, env);
+                }
+                Object list = readValue(in, name, strings, env);
+                for (int i = elements.length - 1; i >= 0; i--) {
+                    list = new ConsCell(elements[i], list);
+                }
+                return list;
+            }
+            case TAG_VECTOR: {
+                double[] elements = new double[CompiledProgram.readVarint(in)];
+                in.asDoubleBuffer().get(elements);
+                in.position(in.position() + elements.length * Double.BYTES);
+                return new LispVector(elements);
+            }
+            case TAG_HASH_TABLE: {
+                int size = CompiledProgram.readVarint(in);
+                LispHashTable table = new LispHashTable(size);
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in, name, strings, env);
+                    table.put(key, readValue(in, name, strings, env));
+                }
+                return table;
+            }
+            default:
+                throw new IllegalStateException("Tipo de valor desconocido: " + tag);
+        }
+    }
+
+    /**
+     * Lee un árbol escrito en preorden sin usar recursión.
+     */
+    private static ASTNode readTree(ByteBuffer in, String[] strings) {
+        ASTNode root = new ASTNode(strings[CompiledProgram.readVarint(in)]);
+        int rootChildren = readChildCount(in, root);
+        if (rootChildren == 0) {
+            return root;
+        }
+
+        // Cada nodo abierto junto con la cantidad de hijos que le faltan por leer
+        ArrayDeque<ASTNode> nodes = new ArrayDeque<>();
+        ArrayDeque<int[]> remaining = new ArrayDeque<>();
+        nodes.push(root);
+        remaining.push(new int[] {rootChildren});
+        while (!nodes.isEmpty()) {
+            int[] left = remaining.peek();
+            if (left[0] == 0) {
+                nodes.pop();
+                remaining.pop();
+                continue;
+            }
+            left[0]--;
+            ASTNode child = new ASTNode(strings[CompiledProgram.readVarint(in)]);
+            nodes.peek().addChild(child);
+            int childCount = readChildCount(in, child);
+            if (childCount > 0) {
+                nodes.push(child);
+                remaining.push(new int[] {childCount});
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Lee la cantidad de hijos de un nodo y marca el nodo si es una llamada sin argumentos.
+     */
+    private static int readChildCount(ByteBuffer in, ASTNode node) {
+        int header = CompiledProgram.readVarint(in);
+        if ((header & 1) != 0) {
+            node.markListForm();
+        }
+        return header >>> 1;
+    }
+
+    /**
+     * Tabla de cadenas: cada cadena distinta recibe un id en orden de aparición.
+     */
+    private static class StringPool {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int id(String string) {
+            Integer id = ids.get(string);
+            if (id == null) {
+                id = strings.size();
+                ids.put(string, id);
+                strings.add(string);
+            }
+            return id;
+        }
+    }
+}
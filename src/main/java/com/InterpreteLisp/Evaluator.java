@@ -1,9 +1,18 @@
 package com.InterpreteLisp;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /*
  * Universidad del Valle de Guatemala
@@ -11,7 +20,7 @@ import java.util.Map;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 17/03/2025
- * última modificación: 20/03/2025
+ * última modificación: 19/10/2026
  * File Name: Evaluator.java
  * Descripción: Clase que se encarga de evaluar el árbol de sintaxis abstracta.
  * 
@@ -20,6 +29,25 @@ import java.util.Map;
  */
 
 public class Evaluator {
+    /**
+     * Nombres de las formas que evaluate() resuelve directamente, sin buscarlas en el ámbito.
+     */
+    static final Set<String> SPECIAL_FORMS = new HashSet<>(Arrays.asList(
+        "QUOTE", "SETQ", "DEFUN", "COND", "ATOM", "LIST", "EQUAL",
+        "<", ">", "+", "-", "*", "/", "=", "SAVE-IMAGE",
+        "CONS", "CAR", "CDR", "APPEND", "REVERSE",
+        "VECTOR", "MAKE-VECTOR", "AREF", "ASET", "VSUM", "VDOT", "V+", "V*",
+        "VMIN", "VMAX", "VECTOR-BACKEND",
+        "MAKE-HASH-TABLE", "GETHASH", "PUTHASH", "REMHASH", "HASH-COUNT",
+        "RANGE", "LAZY-MAP", "LAZY-FILTER", "TAKE", "REDUCE",
+        "PREDUCE", "PMAPCAR",
+        "DOTIMES", "DOLIST", "WHILE", "LOOP", "RETURN",
+        "LET", "LAMBDA",
+        "CATCH", "THROW", "BLOCK", "RETURN-FROM", "HANDLER-CASE", "ERROR",
+        "DEFMACRO", "MACROEXPAND", "QUASIQUOTE", "UNQUOTE", "UNQUOTE-SPLICING", "GENSYM", "PROGN",
+        "COMPILATION-LOG", "PROFILE", "START-SAMPLING", "STOP-SAMPLING"
+    ));
+
     /**
      * Capa actual de evaluación para el manejo de funciones anidadas.
      */
@@ -29,6 +57,65 @@ public class Evaluator {
      * Cache de evaluación para optimizar el proceso de evaluación.
      */
     private Map<ASTNode, Object> evaluationCache;
+
+    /**
+     * Tabla de hash-consing de los datos citados con QUOTE.
+     */
+    private final QuoteInterner quoteInterner;
+
+    /**
+     * Contador de los símbolos nuevos de GENSYM y de las plantillas.
+     */
+    private final AtomicLong symbolCounter = new AtomicLong();
+
+    /**
+     * Indica si las llamadas a funciones pequeñas se reemplazan por su cuerpo (ver Inliner).
+     */
+    private boolean inlining = true;
+
+    /**
+     * Indica si los nodos aritméticos y de comparación se especializan según los
+     * tipos de sus operandos (ver TypeFeedback).
+     */
+    private boolean typeFeedback = true;
+
+    /**
+     * Cuenta las llamadas y las iteraciones y compila el código que se ejecuta muchas
+     * veces (ver TraceCompiler).
+     */
+    private final TraceCompiler tracer = new TraceCompiler();
+
+    /**
+     * Indica si las llamadas con argumentos constantes usan versiones especializadas
+     * de la función (ver Specializer).
+     */
+    private boolean specializing = true;
+
+    /**
+     * Perfil activo durante (PROFILE expresión), o null. Es volatile porque las
+     * funciones que llaman PMAPCAR y PREDUCE se ejecutan en otros hilos.
+     */
+    private volatile Profiler profiler;
+
+    /**
+     * Último perfil terminado.
+     */
+    private Profiler lastProfile;
+
+    /**
+     * Destino de los reportes de PROFILE.
+     */
+    private PrintStream profileOutput = System.out;
+
+    /**
+     * Perfil por muestreo activo entre START-SAMPLING y STOP-SAMPLING, o null.
+     */
+    private volatile SamplingProfiler sampler;
+
+    /**
+     * Eventos para JDK Flight Recorder (ver FlightEvents).
+     */
+    private FlightEvents events = FlightEvents.EVENTS;
     
     /**
      * Constructor de la clase Evaluator.
@@ -36,8 +123,197 @@ public class Evaluator {
     public Evaluator() {
         this.currentLayer = 0;
         this.evaluationCache = new HashMap<>();
+        this.quoteInterner = new QuoteInterner();
     }
     
+    /**
+     * Activa o desactiva el reemplazo de llamadas a funciones pequeñas por su cuerpo.
+     * Está activo por omisión; desactivarlo sirve para comparar los tiempos.
+     *
+     * @param inlining true para reemplazar las llamadas
+     */
+    public void setInlining(boolean inlining) {
+        this.inlining = inlining;
+    }
+
+    /**
+     * Activa o desactiva la especialización de la aritmética y las comparaciones según
+     * los tipos observados (ver TypeFeedback). Está activa por omisión.
+     *
+     * @param typeFeedback true para perfilar y especializar
+     */
+    public void setTypeFeedback(boolean typeFeedback) {
+        this.typeFeedback = typeFeedback;
+    }
+
+    /**
+     * Activa o desactiva las versiones de las funciones especializadas para los
+     * argumentos constantes de cada llamada. Está activo por omisión.
+     *
+     * @param specializing true para especializar
+     */
+    public void setSpecialization(boolean specializing) {
+        this.specializing = specializing;
+    }
+
+    /**
+     * Indica si las llamadas a funciones pequeñas se reemplazan por su cuerpo. Mientras
+     * hay un perfil activo no se reemplazan, para que el perfil cuente todas las llamadas.
+     */
+    boolean isInlining() {
+        return inlining && profiler == null;
+    }
+
+    /**
+     * Cambia el destino de los reportes de PROFILE (por omisión, System.out).
+     *
+     * @param profileOutput El destino
+     */
+    public void setProfileOutput(PrintStream profileOutput) {
+        this.profileOutput = profileOutput;
+    }
+
+    /**
+     * Obtiene el último perfil terminado con PROFILE.
+     *
+     * @return El perfil, o null si todavía no se usó PROFILE
+     */
+    Profiler getLastProfile() {
+        return lastProfile;
+    }
+
+    /**
+     * Cambia la implementación de los eventos de Flight Recorder (por omisión,
+     * FlightEvents.EVENTS).
+     *
+     * @param events La implementación
+     */
+    void setFlightEvents(FlightEvents events) {
+        this.events = events;
+    }
+
+    /**
+     * Inicia el perfil por muestreo; si ya había uno activo, lo detiene y lo reemplaza.
+     *
+     * @param intervalNanos Intervalo entre muestras, en nanosegundos
+     * @return El perfil iniciado
+     */
+    SamplingProfiler startSampling(long intervalNanos) {
+        SamplingProfiler started = new SamplingProfiler(intervalNanos);
+        SamplingProfiler previous = sampler;
+        sampler = started;
+        if (previous != null) {
+            previous.stop();
+        }
+        return started;
+    }
+
+    /**
+     * Detiene el perfil por muestreo.
+     *
+     * @return El perfil detenido, o null si no había uno activo
+     */
+    SamplingProfiler stopSampling() {
+        SamplingProfiler stopped = sampler;
+        sampler = null;
+        if (stopped != null) {
+            stopped.stop();
+        }
+        return stopped;
+    }
+
+    /**
+     * Cambia cuántas llamadas a una función y cuántas iteraciones de un ciclo se
+     * ejecutan antes de compilar su cuerpo (ver TraceCompiler). Un umbral de 0
+     * desactiva la compilación de ese tipo de código.
+     *
+     * @param invocations Llamadas a una función antes de compilarla
+     * @param backEdges Iteraciones de un ciclo antes de compilar su cuerpo
+     */
+    public void setTraceThresholds(int invocations, int backEdges) {
+        tracer.setThresholds(invocations, backEdges);
+    }
+
+    /**
+     * Obtiene el registro de las funciones y los ciclos compilados, en orden.
+     *
+     * @return Una copia del registro
+     */
+    public List<String> getCompilationLog() {
+        return tracer.getLog();
+    }
+
+    /**
+     * Indica a quién avisar cada vez que se compila o se descarta una traza.
+     *
+     * @param listener El receptor de las líneas del registro, o null
+     */
+    public void setCompilationListener(Consumer<String> listener) {
+        tracer.setListener(listener);
+    }
+
+    /**
+     * Obtiene el perfil de tipos de un nodo aritmético o de comparación, creándolo la
+     * primera vez que se evalúa.
+     *
+     * @return El perfil, o null si la especialización está desactivada
+     */
+    private TypeFeedback typeFeedback(ASTNode ast) {
+        if (!typeFeedback) {
+            return null;
+        }
+        TypeFeedback feedback = ast.getTypeFeedback();
+        if (feedback == null) {
+            feedback = new TypeFeedback();
+            ast.setTypeFeedback(feedback);
+        }
+        return feedback;
+    }
+
+    /**
+     * Cuenta una evaluación genérica completa de un nodo perfilado.
+     */
+    private static void profiled(TypeFeedback feedback, ASTNode ast) {
+        if (feedback != null) {
+            feedback.profiled(ast);
+        }
+    }
+
+    /**
+     * Evalúa una expresión de nivel superior, registrando el evento FORM de Flight
+     * Recorder si está activo.
+     *
+     * @param ast La expresión
+     * @param scope El ámbito global
+     * @return El resultado de la evaluación
+     */
+    public Object evaluateTopLevel(ASTNode ast, ContextualScope scope) {
+        Object event = events.begin(FlightEvents.FORM);
+        if (event == null) {
+            return evaluate(ast, scope);
+        }
+        try {
+            return evaluate(ast, scope);
+        } finally {
+            if (events.end(event)) {
+                events.commit(event, ast.getValue(), ast.getChildren().size(), ast.toSource());
+            }
+        }
+    }
+
+    /**
+     * Evalúa una expresión de nivel superior de un programa compacto (ver
+     * evaluateTopLevel(ASTNode, ContextualScope)).
+     *
+     * @param program El programa compacto
+     * @param root El índice de la expresión
+     * @param scope El ámbito global
+     * @return El resultado de la evaluación
+     */
+    public Object evaluateTopLevel(CompactAST program, int root, ContextualScope scope) {
+        return evaluateTopLevel(program.node(root), scope);
+    }
+
     /**
      * Evalúa un nodo AST en un contexto dado.
      * 
@@ -50,21 +326,39 @@ public class Evaluator {
         if (evaluationCache.containsKey(ast)) {
             return evaluationCache.get(ast);
         }
+
+        // Un nodo aritmético o de comparación ya especializado según los tipos observados
+        TypeFeedback feedback = ast.getTypeFeedback();
+        if (feedback != null) {
+            TypeFeedback.Specialized specialized = feedback.getSpecialized();
+            if (specialized != null) {
+                return specialized.execute(this, scope);
+            }
+        }
         
         String value = ast.getValue();
         List<ASTNode> children = ast.getChildren();
+
+        // Las variables, los números y las llamadas a funciones se reconocen con una
+        // sola búsqueda, sin recorrer las comparaciones de las formas especiales; una
+        // lista cuya cabeza es otra lista (valor "") sí las recorre
+        if (!value.isEmpty() && !SPECIAL_FORMS.contains(value)) {
+            return evaluateSymbolOrCall(ast, value, children, scope);
+        }
         
         // Evaluar expresiones basadas en su operador/valor
         if (value.equals("QUOTE")) {
             // QUOTE devuelve su argumento sin evaluarlo
             if (children.size() != 1) {
-                throw new RuntimeException("QUOTE requiere exactamente un argumento");
+                throw new LispError("QUOTE requiere exactamente un argumento");
             }
-            return children.get(0);
+            // Se devuelve la instancia canónica del dato y se guarda en el propio nodo,
+            // de modo que las siguientes evaluaciones no vuelven a recorrerlo
+            return internChild(ast, 0);
         } else if (value.equals("SETQ")) {
             // SETQ asigna un valor a una variable
             if (children.size() != 2) {
-                throw new RuntimeException("SETQ requiere exactamente dos argumentos");
+                throw new LispError("SETQ requiere exactamente dos argumentos");
             }
             String varName = children.get(0).getValue();
             Object varValue = evaluate(children.get(1), scope);
@@ -73,7 +367,7 @@ public class Evaluator {
         } else if (value.equals("DEFUN")) {
             // DEFUN define una nueva función
             if (children.size() < 3) {
-                throw new RuntimeException("DEFUN requiere al menos tres argumentos");
+                throw new LispError("DEFUN requiere al menos tres argumentos");
             }
             String funcName = children.get(0).getValue();
             ASTNode params = children.get(1);
@@ -86,15 +380,66 @@ public class Evaluator {
             
             // Crear y guardar la función en el ámbito actual
             Function function = new Function(params, body, scope);
+            function.setName(funcName);
+            // Las versiones especializadas de la definición anterior ya no se usan
+            Object previous = scope.getVariable(funcName);
+            if (previous instanceof Function) {
+                ((Function) previous).dropSpecializations();
+            }
             scope.setVariable(funcName, function);
             
             return funcName;
+        } else if (value.equals("DEFMACRO")) {
+            // (DEFMACRO nombre (parámetros) cuerpo...) define una macro; &REST (o &BODY)
+            // recibe la lista de los argumentos restantes
+            if (children.size() < 3) {
+                throw new LispError("DEFMACRO requiere un nombre, los parámetros y un cuerpo");
+            }
+            String macroName = children.get(0).getValue();
+            List<ASTNode> body = new ArrayList<>(children.subList(2, children.size()));
+            // Las expansiones guardadas de una definición anterior quedan asociadas al
+            // objeto anterior, así que dejan de usarse sin tener que buscarlas
+            scope.setVariable(macroName, new Macro(children.get(1), body, scope.getGlobalScope()));
+            return macroName;
+        } else if (value.equals("MACROEXPAND")) {
+            // (MACROEXPAND 'forma) devuelve la expansión de una llamada a una macro sin evaluarla
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError("MACROEXPAND requiere exactamente un argumento");
+            }
+            Object form = args.get(0);
+            if (form instanceof ASTNode && !((ASTNode) form).getChildren().isEmpty()) {
+                Object bound = scope.getVariable(((ASTNode) form).getValue());
+                if (bound instanceof Macro) {
+                    return expandMacro((ASTNode) form, (Macro) bound);
+                }
+            }
+            return form;
+        } else if (value.equals("QUASIQUOTE")) {
+            // `plantilla copia la plantilla evaluando solo lo que está después de , y ,@
+            if (children.size() != 1) {
+                throw new LispError("QUASIQUOTE requiere exactamente un argumento");
+            }
+            ASTNode template = children.get(0);
+            if (template.getValue().equals("UNQUOTE") && template.getChildren().size() == 1) {
+                return evaluate(template.getChildren().get(0), scope);
+            }
+            return quasiquote(template, scope);
+        } else if (value.equals("UNQUOTE") || value.equals("UNQUOTE-SPLICING")) {
+            throw new LispError((value.equals("UNQUOTE") ? "," : ",@") + " fuera de una plantilla");
+        } else if (value.equals("GENSYM")) {
+            // (GENSYM) devuelve un símbolo que no puede aparecer en el código del usuario
+            return gensym("G");
+        } else if (value.equals("PROGN")) {
+            // (PROGN formas...) evalúa las formas en orden y devuelve el valor de la última
+            return evaluateBody(children, 0, scope);
         } else if (value.equals("COND")) {
             // COND evalúa condiciones en orden y devuelve el primer resultado para una condición verdadera
-            for (ASTNode clause : children) {
+            for (int index = 0; index < children.size(); index++) {
+                ASTNode clause = children.get(index);
                 // Cada cláusula debe ser un nodo con valor "CLAUSE" y dos hijos: condición y resultado
                 if (!clause.getValue().equals("CLAUSE") || clause.getChildren().size() != 2) {
-                    throw new RuntimeException("Formato inválido para cláusula de COND");
+                    throw new LispError("Formato inválido para cláusula de COND");
                 }
                 
                 List<ASTNode> clauseChildren = clause.getChildren();
@@ -110,7 +455,9 @@ public class Evaluator {
                 }
                 
                 if (isTruthy(condition)) {
-                    // Si la condición es verdadera, evaluar y devolver el resultado
+                    // Si la condición es verdadera, evaluar y devolver el resultado; la
+                    // cláusula queda anotada para la compilación de trazas
+                    ast.recordClause(index);
                     return evaluate(resultNode, scope);
                 }
             }
@@ -121,28 +468,30 @@ public class Evaluator {
             if (children.size() == 1) {
                 // Caso regular: un solo argumento
                 Object result = evaluate(children.get(0), scope);
-                return !(result instanceof List<?>) && !(result instanceof ASTNode && ((ASTNode) result).getChildren().size() > 0);
+                return !(result instanceof List<?>) && !(result instanceof ConsCell)
+                    && !(result instanceof ASTNode && ((ASTNode) result).getChildren().size() > 0);
             } else if (children.size() == 2 && children.get(0).getValue().equals("'")) {
                 // Caso especial: expresión con comilla ('a o '(a b c))
                 ASTNode quotedNode = children.get(1);
                 // Si el nodo tiene hijos, es una lista, no un átomo
                 return quotedNode.getChildren().isEmpty();
             } else {
-                throw new RuntimeException("ATOM requiere exactamente un argumento");
+                throw new LispError("ATOM requiere exactamente un argumento");
             }
         } else if (value.equals("LIST")) {
             // LIST verifica si el argumento es una lista
             if (children.size() == 1) {
                 // Caso regular: un solo argumento
                 Object result = evaluate(children.get(0), scope);
-                return result instanceof List || (result instanceof ASTNode && ((ASTNode) result).getChildren().size() > 0);
+                return result instanceof List || result instanceof ConsCell
+                    || (result instanceof ASTNode && ((ASTNode) result).getChildren().size() > 0);
             } else if (children.size() == 2 && children.get(0).getValue().equals("'")) {
                 // Caso especial: expresión con comilla ('a o '(a b c))
                 ASTNode quotedNode = children.get(1);
                 // Si el nodo tiene hijos, es una lista
                 return quotedNode.getChildren().size() > 0;
             } else {
-                throw new RuntimeException("LIST requiere exactamente un argumento");
+                throw new LispError("LIST requiere exactamente un argumento");
             }
         } else if (value.equals("EQUAL")) {
             // EQUAL compara dos valores
@@ -155,115 +504,102 @@ public class Evaluator {
                        children.get(0).getValue().equals("'") && 
                        children.get(2).getValue().equals("'")) {
                 // Caso especial: dos argumentos con comillas ('a 'b)
-                ASTNode val1 = children.get(1);
-                ASTNode val2 = children.get(3);
+                ASTNode val1 = internChild(ast, 1);
+                ASTNode val2 = internChild(ast, 3);
                 return compareASTNodes(val1, val2);
             } else {
-                throw new RuntimeException("EQUAL requiere exactamente dos argumentos");
+                throw new LispError("EQUAL requiere exactamente dos argumentos");
             }
         } else if (value.equals("<")) {
             // < compara si el primero es menor que el segundo
             if (children.size() != 2) {
-                throw new RuntimeException("< requiere exactamente dos argumentos");
+                throw new LispError("< requiere exactamente dos argumentos");
             }
-            Number val1 = (Number) evaluate(children.get(0), scope);
-            Number val2 = (Number) evaluate(children.get(1), scope);
-            return val1.doubleValue() < val2.doubleValue();
+            feedback = typeFeedback(ast);
+            boolean less = evaluateNumber(children.get(0), scope, "<", feedback) < evaluateNumber(children.get(1), scope, "<", feedback);
+            profiled(feedback, ast);
+            return less;
         } else if (value.equals(">")) {
             // > compara si el primero es mayor que el segundo
             if (children.size() != 2) {
-                throw new RuntimeException("> requiere exactamente dos argumentos");
+                throw new LispError("> requiere exactamente dos argumentos");
             }
-            Number val1 = (Number) evaluate(children.get(0), scope);
-            Number val2 = (Number) evaluate(children.get(1), scope);
-            return val1.doubleValue() > val2.doubleValue();
+            feedback = typeFeedback(ast);
+            boolean greater = evaluateNumber(children.get(0), scope, ">", feedback) > evaluateNumber(children.get(1), scope, ">", feedback);
+            profiled(feedback, ast);
+            return greater;
         } else if (value.equals("+")) {
             // + suma todos los argumentos
+            feedback = typeFeedback(ast);
             double sum = 0;
             for (ASTNode child : children) {
-                Object result = evaluate(child, scope);
-                if (result instanceof Number) {
-                    sum += ((Number) result).doubleValue();
-                } else {
-                    throw new RuntimeException("+ requiere argumentos numéricos");
-                }
+                sum += evaluateNumber(child, scope, "+", feedback);
             }
+            profiled(feedback, ast);
             return sum;
         } else if (value.equals("-")) {
             // - resta los argumentos (el primero menos los demás)
             if (children.isEmpty()) {
-                throw new RuntimeException("- requiere al menos un argumento");
-            }
-            
-            Object first = evaluate(children.get(0), scope);
-            if (!(first instanceof Number)) {
-                throw new RuntimeException("- requiere argumentos numéricos");
+                throw new LispError("- requiere al menos un argumento");
             }
             
-            double result = ((Number) first).doubleValue();
+            feedback = typeFeedback(ast);
+            double result = evaluateNumber(children.get(0), scope, "-", feedback);
             
             if (children.size() == 1) {
                 // Si solo hay un argumento, devolver su negativo
+                profiled(feedback, ast);
                 return -result;
             }
             
             // Restar los demás argumentos
             for (int i = 1; i < children.size(); i++) {
-                Object nextVal = evaluate(children.get(i), scope);
-                if (nextVal instanceof Number) {
-                    result -= ((Number) nextVal).doubleValue();
-                } else {
-                    throw new RuntimeException("- requiere argumentos numéricos");
-                }
+                result -= evaluateNumber(children.get(i), scope, "-", feedback);
             }
             
+            profiled(feedback, ast);
             return result;
         } else if (value.equals("*")) {
             // * multiplica todos los argumentos
+            feedback = typeFeedback(ast);
             double product = 1;
             for (ASTNode child : children) {
-                Object result = evaluate(child, scope);
-                if (result instanceof Number) {
-                    product *= ((Number) result).doubleValue();
-                } else {
-                    throw new RuntimeException("* requiere argumentos numéricos");
-                }
+                product *= evaluateNumber(child, scope, "*", feedback);
             }
+            profiled(feedback, ast);
             return product;
         } else if (value.equals("/")) {
             // / divide los argumentos (el primero entre los demás)
             if (children.size() < 2) {
-                throw new RuntimeException("/ requiere al menos dos argumentos");
-            }
-            
-            Object first = evaluate(children.get(0), scope);
-            if (!(first instanceof Number)) {
-                throw new RuntimeException("/ requiere argumentos numéricos");
+                throw new LispError("/ requiere al menos dos argumentos");
             }
             
-            double result = ((Number) first).doubleValue();
+            feedback = typeFeedback(ast);
+            double result = evaluateNumber(children.get(0), scope, "/", feedback);
             
             for (int i = 1; i < children.size(); i++) {
-                Object nextVal = evaluate(children.get(i), scope);
-                if (nextVal instanceof Number) {
-                    double divisor = ((Number) nextVal).doubleValue();
-                    if (divisor == 0) {
-                        throw new RuntimeException("División por cero");
-                    }
-                    result /= divisor;
-                } else {
-                    throw new RuntimeException("/ requiere argumentos numéricos");
+                double divisor = evaluateNumber(children.get(i), scope, "/", feedback);
+                if (divisor == 0) {
+                    throw new LispError("División por cero");
                 }
+                result /= divisor;
             }
             
+            profiled(feedback, ast);
             return result;
         } else if (value.equals("=")) {
             // = compara si los valores son iguales
             if (children.size() != 2) {
-                throw new RuntimeException("= requiere exactamente dos argumentos");
+                throw new LispError("= requiere exactamente dos argumentos");
             }
             Object val1 = evaluate(children.get(0), scope);
             Object val2 = evaluate(children.get(1), scope);
+            feedback = typeFeedback(ast);
+            if (feedback != null) {
+                feedback.record(val1);
+                feedback.record(val2);
+                feedback.profiled(ast);
+            }
             
             // Si son números, comparar como números
             if (val1 instanceof Number && val2 instanceof Number) {
@@ -272,81 +608,637 @@ public class Evaluator {
             
             // Caso contrario, usar el método de comparación genérico
             return compareValues(val1, val2);
-        } else {
-            // Si no es un operador especial, puede ser:
-            // 1. Un número literal
-            // 2. Una variable o función definida
-            // 3. Una llamada a función usando una variable que contiene una función (caso crítico para aplicar)
-            
-            // Probar si es un número literal
+        } else if (value.equals("CONS")) {
+            // CONS crea una celda nueva que comparte la lista recibida como cola
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("CONS requiere exactamente dos argumentos");
+            }
+            return new ConsCell(ConsCell.fromDatum(args.get(0)), ConsCell.fromDatum(args.get(1)));
+        } else if (value.equals("CAR") || value.equals("CDR")) {
+            // CAR y CDR devuelven el primer elemento y el resto de la lista sin copiarla
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError(value + " requiere exactamente un argumento");
+            }
+            if (value.equals("CAR") && args.get(0) instanceof LazySeq) {
+                // El primer elemento de una secuencia perezosa se obtiene sin calcular el resto
+                return ((LazySeq) args.get(0)).first();
+            }
+            ConsCell list = ConsCell.toList(args.get(0), value);
+            if (list == null) {
+                return null;
+            }
+            return value.equals("CAR") ? list.getCar() : list.getCdr();
+        } else if (value.equals("APPEND")) {
+            // APPEND copia todas las listas excepto la última, que se comparte
+            return ConsCell.append(evaluateArguments(ast, scope));
+        } else if (value.equals("REVERSE")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError("REVERSE requiere exactamente un argumento");
+            }
+            return ConsCell.reverse(ConsCell.toList(args.get(0), "REVERSE"));
+        } else if (value.equals("VECTOR")) {
+            // VECTOR crea un vector numérico con los argumentos como elementos
+            return LispVector.of(evaluateArguments(ast, scope));
+        } else if (value.equals("MAKE-VECTOR")) {
+            // MAKE-VECTOR crea un vector de n elementos con un valor inicial (0 por defecto)
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.isEmpty() || args.size() > 2) {
+                throw new LispError("MAKE-VECTOR requiere uno o dos argumentos");
+            }
+            int length = LispVector.toIndex(args.get(0), "MAKE-VECTOR");
+            if (length < 0) {
+                throw new LispError("MAKE-VECTOR requiere un tamaño no negativo");
+            }
+            double initial = args.size() == 2 ? LispVector.toDouble(args.get(1), "MAKE-VECTOR") : 0;
+            return LispVector.filled(length, initial);
+        } else if (value.equals("AREF")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("AREF requiere exactamente dos argumentos");
+            }
+            return LispVector.toVector(args.get(0), "AREF").get(LispVector.toIndex(args.get(1), "AREF"));
+        } else if (value.equals("ASET")) {
+            // ASET modifica el vector en su lugar y devuelve el valor asignado
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 3) {
+                throw new LispError("ASET requiere exactamente tres argumentos");
+            }
+            double element = LispVector.toDouble(args.get(2), "ASET");
+            LispVector.toVector(args.get(0), "ASET").set(LispVector.toIndex(args.get(1), "ASET"), element);
+            return element;
+        } else if (value.equals("VSUM")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError("VSUM requiere exactamente un argumento");
+            }
+            return LispVector.toVector(args.get(0), "VSUM").sum();
+        } else if (value.equals("VMIN") || value.equals("VMAX")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError(value + " requiere exactamente un argumento");
+            }
+            LispVector vector = LispVector.toVector(args.get(0), value);
+            return value.equals("VMIN") ? vector.min() : vector.max();
+        } else if (value.equals("VECTOR-BACKEND")) {
+            // Informa si las operaciones en bloque usan la implementación SIMD o la escalar
+            return LispVector.backend();
+        } else if (value.equals("VDOT")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("VDOT requiere exactamente dos argumentos");
+            }
+            return LispVector.toVector(args.get(0), "VDOT").dot(LispVector.toVector(args.get(1), "VDOT"));
+        } else if (value.equals("V+") || value.equals("V*")) {
+            // V+ y V* operan elemento a elemento; el segundo argumento puede ser un escalar
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError(value + " requiere exactamente dos argumentos");
+            }
+            LispVector vector = LispVector.toVector(args.get(0), value);
+            boolean sum = value.equals("V+");
+            if (args.get(1) instanceof Number) {
+                double scalar = ((Number) args.get(1)).doubleValue();
+                return sum ? vector.add(scalar) : vector.multiply(scalar);
+            }
+            LispVector other = LispVector.toVector(args.get(1), value);
+            return sum ? vector.add(other) : vector.multiply(other);
+        } else if (value.equals("MAKE-HASH-TABLE")) {
+            // MAKE-HASH-TABLE acepta opcionalmente el número de elementos esperado
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() > 1) {
+                throw new LispError("MAKE-HASH-TABLE requiere a lo sumo un argumento");
+            }
+            return args.isEmpty()
+                ? new LispHashTable()
+                : new LispHashTable(LispVector.toIndex(args.get(0), "MAKE-HASH-TABLE"));
+        } else if (value.equals("GETHASH")) {
+            // (GETHASH llave tabla) devuelve el valor o NIL si la llave no existe
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("GETHASH requiere exactamente dos argumentos");
+            }
+            return toHashTable(args.get(1), "GETHASH").get(args.get(0));
+        } else if (value.equals("PUTHASH")) {
+            // (PUTHASH llave valor tabla) guarda el valor y lo devuelve
+            List<Object> args = evaluateArguments(ast, scope);
+            checkHashWrite(scope, "PUTHASH");
+            if (args.size() != 3) {
+                throw new LispError("PUTHASH requiere exactamente tres argumentos");
+            }
+            toHashTable(args.get(2), "PUTHASH").put(args.get(0), args.get(1));
+            return args.get(1);
+        } else if (value.equals("REMHASH")) {
+            // (REMHASH llave tabla) devuelve T si la llave existía
+            List<Object> args = evaluateArguments(ast, scope);
+            checkHashWrite(scope, "REMHASH");
+            if (args.size() != 2) {
+                throw new LispError("REMHASH requiere exactamente dos argumentos");
+            }
+            return toHashTable(args.get(1), "REMHASH").remove(args.get(0));
+        } else if (value.equals("HASH-COUNT")) {
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 1) {
+                throw new LispError("HASH-COUNT requiere exactamente un argumento");
+            }
+            return (double) toHashTable(args.get(0), "HASH-COUNT").size();
+        } else if (value.equals("RANGE")) {
+            // (RANGE) es infinito; (RANGE fin), (RANGE inicio fin) y (RANGE inicio fin paso) son finitos
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() > 3) {
+                throw new LispError("RANGE requiere a lo sumo tres argumentos");
+            }
+            double start = args.size() >= 2 ? LispVector.toDouble(args.get(0), "RANGE") : 0;
+            double end = args.isEmpty() ? Double.POSITIVE_INFINITY
+                : LispVector.toDouble(args.get(args.size() == 1 ? 0 : 1), "RANGE");
+            double step = args.size() == 3 ? LispVector.toDouble(args.get(2), "RANGE") : 1;
+            return LazySeq.range(this, start, end, step);
+        } else if (value.equals("LAZY-MAP") || value.equals("LAZY-FILTER")) {
+            // (LAZY-MAP función secuencia) y (LAZY-FILTER predicado secuencia) solo agregan una etapa
+            List<Object> args = evaluateCallArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError(value + " requiere exactamente dos argumentos");
+            }
+            LazySeq seq = LazySeq.of(this, args.get(1), value);
+            return value.equals("LAZY-MAP") ? seq.map(args.get(0)) : seq.filter(args.get(0));
+        } else if (value.equals("TAKE")) {
+            // (TAKE n secuencia)
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("TAKE requiere exactamente dos argumentos");
+            }
+            long n = (long) LispVector.toDouble(args.get(0), "TAKE");
+            return LazySeq.of(this, args.get(1), "TAKE").take(n);
+        } else if (value.equals("REDUCE")) {
+            // (REDUCE función secuencia [valor-inicial])
+            List<Object> args = evaluateCallArguments(ast, scope);
+            if (args.size() != 2 && args.size() != 3) {
+                throw new LispError("REDUCE requiere dos o tres argumentos");
+            }
+            LazySeq.Reducer reducer = new LazySeq.Reducer(this, args.get(0));
+            if (args.size() == 3) {
+                reducer.seed(args.get(2));
+            }
+            LazySeq.of(this, args.get(1), "REDUCE").forEach(reducer);
+            return reducer.result();
+        } else if (value.equals("PREDUCE")) {
+            // (PREDUCE función colección [valor-inicial]) con una función asociativa
+            List<Object> args = evaluateCallArguments(ast, scope);
+            if (args.size() != 2 && args.size() != 3) {
+                throw new LispError("PREDUCE requiere dos o tres argumentos");
+            }
+            Environment global = scope.getGlobalScope();
+            global.enterParallel();
             try {
-                return Double.parseDouble(value);
-            } catch (NumberFormatException e) {
-                // No es un número literal
+                return ParallelSeq.reduce(this, args.get(0), args.get(1),
+                    args.size() == 3, args.size() == 3 ? args.get(2) : null);
+            } finally {
+                global.exitParallel();
             }
-
-            // Buscar en el ámbito actual
-            Object lookupResult = scope.getVariable(value);
-
-            if (lookupResult != null) {
-                // Si hay hijos, podría ser una llamada a función
-                if (!children.isEmpty()) {
-                    if (lookupResult instanceof Function) {
-                        // Caso normal: evaluando una función definida (como cuadrado)
-                        Function function = (Function) lookupResult;
-                        
-                        // Evaluar argumentos
-                        List<Object> args = new ArrayList<>();
-                        for (ASTNode child : children) {
-                            args.add(evaluate(child, scope));
-                        }
-                        
-                        // Ejecutar la función
-                        return executeFunction(function, args);
-                    } else {
-                        //Si lookupResult no es una función pero el nodo tiene hijos, 
-                        //podría ser una variable que contiene una función (como f en aplicar)
-                        
-                        // Evaluar los argumentos primero
-                        List<Object> args = new ArrayList<>();
-                        for (ASTNode child : children) {
-                            args.add(evaluate(child, scope));
-                        }
-                        
-                        // Ahora intentar resolver la función que está almacenada en la variable
-                        // Si lookupResult es un String, buscar ese nombre como función
-                        if (lookupResult instanceof String) {
-                            Object funcObj = scope.getVariable((String) lookupResult);
-                            if (funcObj instanceof Function) {
-                                return executeFunction((Function) funcObj, args);
-                            }
-                        }
-                        
-                        // Si lookupResult es directamente una función (caso más general)
-                        else if (lookupResult instanceof Function) {
-                            return executeFunction((Function) lookupResult, args);
+        } else if (value.equals("PMAPCAR")) {
+            // (PMAPCAR función colección) devuelve la lista de resultados en orden
+            List<Object> args = evaluateCallArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("PMAPCAR requiere exactamente dos argumentos");
+            }
+            Environment global = scope.getGlobalScope();
+            global.enterParallel();
+            try {
+                return ParallelSeq.map(this, args.get(0), args.get(1));
+            } finally {
+                global.exitParallel();
+            }
+        } else if (value.equals("DOTIMES")) {
+            // (DOTIMES (i n [resultado]) cuerpo...) repite el cuerpo con i = 0, 1, ..., n - 1
+            ASTNode header = loopHeader(ast, "DOTIMES");
+            List<ASTNode> headerChildren = header.getChildren();
+            if (headerChildren.size() > 2) {
+                throw new LispError("DOTIMES requiere (variable límite [resultado])");
+            }
+            double limit = evaluateNumber(headerChildren.get(0), scope, "DOTIMES");
+            LoopScope loop = new LoopScope(scope, header.getValue());
+            try {
+                // El contador avanza en su casilla; el cuerpo se evalúa siempre en el mismo ámbito
+                double i = 0;
+                for (; i < limit; i++) {
+                    loop.setCounter(i);
+                    evaluateLoopBody(ast, children, 1, loop);
+                }
+                loop.setCounter(i);
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.BLOCK, NonLocalExit.LOOP_BLOCK);
+            }
+            return headerChildren.size() == 2 ? evaluate(headerChildren.get(1), loop) : null;
+        } else if (value.equals("DOLIST")) {
+            // (DOLIST (x lista [resultado]) cuerpo...) repite el cuerpo con x = cada elemento
+            final ASTNode header = loopHeader(ast, "DOLIST");
+            List<ASTNode> headerChildren = header.getChildren();
+            int resultIndex = -1;
+            Object collection;
+            if (!headerChildren.isEmpty() && headerChildren.get(0).getValue().equals("'")
+                    && headerChildren.get(0).getChildren().isEmpty() && headerChildren.size() > 1) {
+                collection = internChild(header, 1);
+                resultIndex = headerChildren.size() > 2 ? 2 : -1;
+            } else if (!headerChildren.isEmpty()) {
+                collection = evaluate(headerChildren.get(0), scope);
+                resultIndex = headerChildren.size() > 1 ? 1 : -1;
+            } else {
+                throw new LispError("DOLIST requiere (variable lista [resultado])");
+            }
+            final LoopScope loop = new LoopScope(scope, header.getValue());
+            final ASTNode loopNode = ast;
+            final List<ASTNode> body = children;
+            try {
+                // Listas, vectores y secuencias perezosas se recorren sin copiarlos
+                LazySeq.of(this, collection, "DOLIST").forEach(new LazySeq.Sink() {
+                    @Override
+                    public boolean accept(Object element) {
+                        loop.setVariable(header.getValue(), element);
+                        evaluateLoopBody(loopNode, body, 1, loop);
+                        return true;
+                    }
+                });
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.BLOCK, NonLocalExit.LOOP_BLOCK);
+            }
+            loop.setVariable(header.getValue(), null);
+            return resultIndex >= 0 ? evaluate(headerChildren.get(resultIndex), loop) : null;
+        } else if (value.equals("WHILE")) {
+            // (WHILE condición cuerpo...) repite el cuerpo mientras la condición sea verdadera
+            if (children.isEmpty()) {
+                throw new LispError("WHILE requiere una condición");
+            }
+            try {
+                while (isTruthy(evaluate(children.get(0), scope))) {
+                    evaluateLoopBody(ast, children, 1, scope);
+                }
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.BLOCK, NonLocalExit.LOOP_BLOCK);
+            }
+            return null;
+        } else if (value.equals("LOOP")) {
+            // (LOOP cuerpo...) repite el cuerpo hasta que se ejecute RETURN
+            try {
+                while (true) {
+                    evaluateLoopBody(ast, children, 0, scope);
+                }
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.BLOCK, NonLocalExit.LOOP_BLOCK);
+            }
+        } else if (value.equals("COMPILATION-LOG")) {
+            // (COMPILATION-LOG) devuelve la lista de las funciones y ciclos compilados
+            List<String> lines = tracer.getLog();
+            Object list = null;
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                list = new ConsCell(lines.get(i), list);
+            }
+            return list;
+        } else if (value.equals("PROFILE")) {
+            // (PROFILE expresión ["archivo"]) evalúa la expresión midiendo las llamadas a
+            // funciones, muestra el reporte y opcionalmente escribe las pilas colapsadas
+            if (children.isEmpty() || children.size() > 2) {
+                throw new LispError("PROFILE requiere una expresión y, opcionalmente, el nombre de un archivo");
+            }
+            if (profiler != null) {
+                // Un PROFILE dentro de otro forma parte del perfil exterior
+                return evaluate(children.get(0), scope);
+            }
+            Profiler active = new Profiler();
+            profiler = active;
+            Object result;
+            try {
+                result = evaluate(children.get(0), scope);
+            } finally {
+                profiler = null;
+                active.stop();
+                lastProfile = active;
+            }
+            profileOutput.print(active.report());
+            if (children.size() == 2) {
+                Object fileName = evaluate(children.get(1), scope);
+                if (!(fileName instanceof String)) {
+                    throw new LispError("PROFILE requiere el nombre del archivo como cadena");
+                }
+                try {
+                    active.writeCollapsedStacks(Paths.get((String) fileName));
+                } catch (IOException e) {
+                    throw new LispError("No se pudo escribir el perfil: " + e.getMessage());
+                }
+            }
+            return result;
+        } else if (value.equals("START-SAMPLING")) {
+            // (START-SAMPLING [milisegundos]) muestrea la pila de llamadas hasta STOP-SAMPLING
+            if (children.size() > 1) {
+                throw new LispError("START-SAMPLING requiere a lo sumo el intervalo en milisegundos");
+            }
+            long interval = SamplingProfiler.DEFAULT_INTERVAL_NANOS;
+            if (children.size() == 1) {
+                interval = (long) (evaluateNumber(children.get(0), scope, "START-SAMPLING") * 1e6);
+            }
+            startSampling(interval);
+            return true;
+        } else if (value.equals("STOP-SAMPLING")) {
+            // (STOP-SAMPLING ["archivo"]) muestra el reporte, opcionalmente escribe las
+            // pilas colapsadas y devuelve el número de muestras
+            if (children.size() > 1) {
+                throw new LispError("STOP-SAMPLING requiere a lo sumo el nombre de un archivo");
+            }
+            Object fileName = children.isEmpty() ? null : evaluate(children.get(0), scope);
+            if (fileName != null && !(fileName instanceof String)) {
+                throw new LispError("STOP-SAMPLING requiere el nombre del archivo como cadena");
+            }
+            SamplingProfiler stopped = stopSampling();
+            if (stopped == null) {
+                throw new LispError("No hay un muestreo activo");
+            }
+            profileOutput.print(stopped.report(20));
+            if (fileName != null) {
+                try {
+                    stopped.writeCollapsedStacks(Paths.get((String) fileName));
+                } catch (IOException e) {
+                    throw new LispError("No se pudo escribir el muestreo: " + e.getMessage());
+                }
+            }
+            return (double) stopped.getSampleCount();
+        } else if (value.equals("RETURN")) {
+            // (RETURN [valor]) termina el ciclo más interno
+            if (children.size() > 1) {
+                throw new LispError("RETURN requiere a lo sumo un argumento");
+            }
+            throw new NonLocalExit(NonLocalExit.BLOCK, NonLocalExit.LOOP_BLOCK,
+                children.isEmpty() ? null : evaluate(children.get(0), scope));
+        } else if (value.equals("BLOCK")) {
+            // (BLOCK nombre cuerpo...) termina con el valor de RETURN-FROM nombre, o con la última forma
+            if (children.isEmpty()) {
+                throw new LispError("BLOCK requiere un nombre");
+            }
+            String name = children.get(0).getValue();
+            try {
+                return evaluateBody(children, 1, scope);
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.BLOCK, name);
+            }
+        } else if (value.equals("RETURN-FROM")) {
+            // (RETURN-FROM nombre [valor]) termina el BLOCK más interno con ese nombre
+            if (children.isEmpty() || children.size() > 2) {
+                throw new LispError("RETURN-FROM requiere el nombre del bloque y a lo sumo un valor");
+            }
+            throw new NonLocalExit(NonLocalExit.BLOCK, children.get(0).getValue(),
+                children.size() == 2 ? evaluate(children.get(1), scope) : null);
+        } else if (value.equals("CATCH")) {
+            // (CATCH etiqueta cuerpo...) termina con el valor de un THROW a la misma etiqueta
+            if (children.isEmpty()) {
+                throw new LispError("CATCH requiere una etiqueta");
+            }
+            int bodyStart = 1;
+            Object tag;
+            if (children.get(0).getValue().equals("'") && children.get(0).getChildren().isEmpty() && children.size() > 1) {
+                tag = internChild(ast, 1);
+                bodyStart = 2;
+            } else {
+                tag = evaluate(children.get(0), scope);
+            }
+            tag = ConsCell.fromDatum(tag);
+            try {
+                return evaluateBody(children, bodyStart, scope);
+            } catch (NonLocalExit e) {
+                return e.valueFor(NonLocalExit.CATCH, tag);
+            }
+        } else if (value.equals("THROW")) {
+            // (THROW etiqueta valor) sale hasta el CATCH más interno con esa etiqueta
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.size() != 2) {
+                throw new LispError("THROW requiere una etiqueta y un valor");
+            }
+            throw new NonLocalExit(NonLocalExit.CATCH, ConsCell.fromDatum(args.get(0)), args.get(1));
+        } else if (value.equals("ERROR")) {
+            // (ERROR mensaje) o (ERROR tipo mensaje) señala un error que HANDLER-CASE puede atrapar
+            List<Object> args = evaluateArguments(ast, scope);
+            if (args.isEmpty() || args.size() > 2) {
+                throw new LispError("ERROR requiere un mensaje y, opcionalmente, un tipo antes del mensaje");
+            }
+            String type = args.size() == 2 ? String.valueOf(ConsCell.fromDatum(args.get(0))) : LispError.DEFAULT_TYPE;
+            throw new LispError(type, String.valueOf(ConsCell.fromDatum(args.get(args.size() - 1))), null);
+        } else if (value.equals("HANDLER-CASE")) {
+            // (HANDLER-CASE expresión (tipo (variable) cuerpo...)...) evalúa el cuerpo de la
+            // primera cláusula cuyo tipo coincide con el error; ERROR y T atrapan cualquiera
+            if (children.isEmpty()) {
+                throw new LispError("HANDLER-CASE requiere una expresión");
+            }
+            try {
+                return evaluate(children.get(0), scope);
+            } catch (NonLocalExit e) {
+                // Las salidas no locales no son errores
+                throw e;
+            } catch (RuntimeException e) {
+                LispError error = LispError.from(e);
+                for (int i = 1; i < children.size(); i++) {
+                    ASTNode clause = children.get(i);
+                    String type = clause.getValue();
+                    if (type.equals(LispError.DEFAULT_TYPE) || type.equals("T") || type.equals(error.getType())) {
+                        List<ASTNode> clauseChildren = clause.getChildren();
+                        if (clauseChildren.isEmpty()) {
+                            return null;
                         }
-                        
-                        throw new RuntimeException("No se puede ejecutar '" + value + "' como función");
+                        // La variable es opcional: (tipo () cuerpo...) no la define
+                        String variable = clauseChildren.get(0).getValue();
+                        ContextualScope handlerScope = variable.isEmpty() ? scope
+                            : new FrameScope(scope, new String[] {variable}, new Object[] {error});
+                        return evaluateBody(clauseChildren, 1, handlerScope);
                     }
-                } else {
-                    // Si no hay hijos, simplemente devolver el valor de la variable
-                    return lookupResult;
                 }
+                throw error;
             }
-            
-            // Si no se encuentra en el ámbito y no tiene hijos, tratar como símbolo
+        } else if (value.equals("LET")) {
+            // (LET ((x valor) (y valor)...) cuerpo...) evalúa todos los valores en el ámbito
+            // actual y luego el cuerpo con las variables en un ámbito compacto
             if (children.isEmpty()) {
-                return value;
+                throw new LispError("LET requiere una lista de variables");
             }
-            
-            // Si llega aquí con hijos, es una función no definida
-            throw new RuntimeException("Función no definida: " + value);
+            ASTNode bindings = children.get(0);
+            List<ASTNode> list = bindings.getValue().isEmpty()
+                ? bindings.getChildren()
+                : Collections.singletonList(bindings);
+            String[] names = new String[list.size()];
+            Object[] values = new Object[list.size()];
+            for (int i = 0; i < names.length; i++) {
+                ASTNode binding = list.get(i);
+                names[i] = binding.getValue();
+                List<Object> init = evaluateArguments(binding, scope);
+                if (init.size() > 1) {
+                    throw new LispError("LET requiere (variable valor) para " + names[i]);
+                }
+                values[i] = init.isEmpty() ? null : init.get(0);
+            }
+            return evaluateBody(children, 1, new FrameScope(scope, names, values));
+        } else if (value.equals("LAMBDA")) {
+            // (LAMBDA (parámetros) cuerpo...) crea una clausura que solo guarda sus variables libres
+            if (children.size() < 2) {
+                throw new LispError("LAMBDA requiere una lista de parámetros y un cuerpo");
+            }
+            return makeClosure(ast, scope);
+        } else if (value.isEmpty() && !children.isEmpty()) {
+            // ((LAMBDA (x) cuerpo) argumento) o ((expresión) argumentos...)
+            ASTNode head = children.get(0);
+            List<Object> args = evaluateArguments(ast, scope, 1, new ArrayList<>(children.size() - 1));
+            if (head.getValue().equals("LAMBDA") && head.getChildren().size() >= 2) {
+                // La función no puede escapar: no se crea la clausura y el cuerpo se
+                // evalúa directamente con los parámetros en un ámbito compacto
+                List<String> params = Function.paramNames(head.getChildren().get(0));
+                if (params.size() != args.size()) {
+                    throw new LispError("Número incorrecto de argumentos: esperados "
+                        + params.size() + ", recibidos " + args.size());
+                }
+                FrameScope frame = new FrameScope(scope, params.toArray(new String[0]), args.toArray());
+                return evaluateBody(head.getChildren(), 1, frame);
+            }
+            return applyFunction(resolveFunction(head, scope), args);
+        } else if (value.equals("SAVE-IMAGE")) {
+            // SAVE-IMAGE guarda el entorno global completo en el archivo indicado
+            if (children.size() != 1) {
+                throw new LispError("SAVE-IMAGE requiere exactamente un argumento");
+            }
+            Object fileName = evaluate(children.get(0), scope);
+            if (!(fileName instanceof String)) {
+                throw new LispError("SAVE-IMAGE requiere el nombre del archivo como cadena");
+            }
+            try {
+                EnvironmentImage.save(scope.getGlobalScope(), Paths.get((String) fileName));
+            } catch (IOException e) {
+                throw new LispError("No se pudo guardar la imagen: " + e.getMessage());
+            }
+            return fileName;
+        } else {
+            return evaluateSymbolOrCall(ast, value, children, scope);
         }
     }
-    
-    // /**
-    //  * Realiza análisis estático del AST para optimizaciones.
+
+    /**
+     * Evalúa un nodo que no es una forma especial: una cadena, NIL, un número, una
+     * variable o una llamada a una función o macro.
+     *
+     * @param ast El nodo
+     * @param value Su valor
+     * @param children Sus hijos
+     * @param scope El ámbito contextual para la evaluación
+     * @return El resultado de la evaluación
+     */
+    private Object evaluateSymbolOrCall(ASTNode ast, String value, List<ASTNode> children, ContextualScope scope) {
+        // Las cadenas entre comillas dobles se evalúan a su contenido
+        if (isStringLiteral(value) && children.isEmpty()) {
+            return stringValue(value);
+        }
+
+        // Si no es un operador especial, puede ser:
+        // 1. Un número literal
+        // 2. Una variable o función definida
+        // 3. Una llamada a función usando una variable que contiene una función (caso crítico para aplicar)
+        
+        // NIL y () son la lista vacía
+        if ((value.equals("NIL") || value.isEmpty()) && children.isEmpty()) {
+            return null;
+        }
+
+        // Probar si es un número literal; un símbolo se descarta por su primer
+        // carácter, sin pagar el costo de la excepción de parseDouble
+        char first = value.isEmpty() ? ' ' : value.charAt(0);
+        if (Character.isDigit(first) || first == '-' || first == '+' || first == '.') {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                // No es un número literal
+            }
+        }
+
+        // Buscar en el ámbito actual
+        Object lookupResult = scope.getVariable(value);
+
+        if (lookupResult != null) {
+            // Si hay hijos, podría ser una llamada a función; (g) sin argumentos
+            // también es una llamada si g es una función
+            if (!children.isEmpty() || (ast.isListForm() && lookupResult instanceof Function)) {
+                if (lookupResult instanceof Macro) {
+                    // Cada llamada se expande una sola vez; las siguientes evaluaciones
+                    // usan la expansión guardada en el nodo
+                    ASTNode expansion = ast.getExpansion(lookupResult);
+                    if (expansion == null) {
+                        expansion = expandMacro(ast, (Macro) lookupResult);
+                        ast.setExpansion(lookupResult, expansion);
+                    }
+                    return evaluate(expansion, scope);
+                }
+                if (lookupResult instanceof Function) {
+                    // Una función pequeña se reemplaza por la copia de su cuerpo guardada
+                    // en el nodo, que se descarta si la función se redefine
+                    ASTNode inlined = isInlining() ? Inliner.inline(ast, (Function) lookupResult, scope) : null;
+                    if (inlined != null) {
+                        return evaluate(inlined, scope);
+                    }
+                    // Con argumentos constantes se usa la versión de la función
+                    // especializada para esos valores (ver Specializer)
+                    Function target = specializing
+                        ? Specializer.select(ast, (Function) lookupResult, scope) : (Function) lookupResult;
+                    // Caso normal: evaluando una función definida (como cuadrado); los
+                    // argumentos se evalúan directamente en las casillas de la llamada
+                    return callWithArguments(value, target, ast, scope);
+                } else {
+                    //Si lookupResult no es una función pero el nodo tiene hijos, 
+                    //podría ser una variable que contiene una función (como f en aplicar)
+                    
+                    // Si lookupResult es un String, buscar ese nombre como función
+                    if (lookupResult instanceof String) {
+                        Object funcObj = scope.getVariable((String) lookupResult);
+                        if (funcObj instanceof Function) {
+                            return callWithArguments(value, (Function) funcObj, ast, scope);
+                        }
+                    }
+                    
+                    // Una función del sistema recibida como argumento, por ejemplo (f 2 3) con f = +
+                    else if (lookupResult instanceof Main.BuiltinFunction) {
+                        List<Object> args = new ArrayList<>(children.size());
+                        for (ASTNode child : children) {
+                            args.add(evaluate(child, scope));
+                        }
+                        return applyFunction(lookupResult, args);
+                    }
+                    
+                    throw new LispError("No se puede ejecutar '" + value + "' como función");
+                }
+            } else {
+                // Si no hay hijos, simplemente devolver el valor de la variable
+                return lookupResult;
+            }
+        }
+        
+        // Si no se encuentra en el ámbito y no tiene hijos, tratar como símbolo
+        if (children.isEmpty()) {
+            return value;
+        }
+        
+        // Si llega aquí con hijos, es una función no definida
+        throw new LispError("Función no definida: " + value);
+    }
+    
+    /**
+     * Evalúa un nodo de un programa en representación compacta. El nodo se evalúa
+     * como su vista ASTNode (ver CompactAST.node(int)), con las mismas reglas,
+     * optimizaciones y trazas que un nodo del Parser; solo se crean las vistas de
+     * los nodos que la evaluación recorre, y el cuerpo de un DEFUN se guarda como
+     * vistas del mismo programa.
+     *
+     * @param program El programa compacto
+     * @param node El índice del nodo a evaluar
+     * @param scope El ámbito contextual para la evaluación
+     * @return El resultado de la evaluación
+     */
+    public Object evaluate(CompactAST program, int node, ContextualScope scope) {
+        return evaluate(program.node(node), scope);
+    }
+
+    // /**
+    //  * Realiza análisis estático del AST para optimizaciones.
     //  * 
     //  * @param ast El nodo AST a analizar
     //  * @return El resultado del análisis
@@ -368,6 +1260,16 @@ public class Evaluator {
     //     return result.toString();
     // }
     
+    /**
+     * Rechaza una modificación de tabla hash dentro de PREDUCE o PMAPCAR: la tabla
+     * admite lecturas concurrentes, pero no escrituras.
+     */
+    private static void checkHashWrite(ContextualScope scope, String operation) {
+        if (scope.getGlobalScope().isParallel()) {
+            throw new LispError(operation + " no puede modificar una tabla dentro de PREDUCE o PMAPCAR");
+        }
+    }
+
     /**
      * Ejecuta una capa específica de evaluación.
      * Útil para controlar la evaluación de funciones anidadas.
@@ -409,7 +1311,7 @@ public class Evaluator {
         List<ASTNode> children = ast.getChildren();
         
         if (children.isEmpty()) {
-            return value;
+            return ast.isListForm() ? "(" + value + ")" : value;
         }
         
         StringBuilder sb = new StringBuilder();
@@ -426,7 +1328,7 @@ public class Evaluator {
     // Métodos auxiliares
 
     // Método auxiliar para comparar valores
-    private boolean compareValues(Object val1, Object val2) {
+    boolean compareValues(Object val1, Object val2) {
         if (val1 == null && val2 == null) {
             return true;
         }
@@ -443,6 +1345,11 @@ public class Evaluator {
         if (val1 instanceof ASTNode && val2 instanceof ASTNode) {
             return compareASTNodes((ASTNode)val1, (ASTNode)val2);
         }
+
+        // Una lista de celdas se compara con un dato citado convirtiendo el dato
+        if (val1 instanceof ConsCell || val2 instanceof ConsCell) {
+            return ConsCell.fromDatum(val1).equals(ConsCell.fromDatum(val2));
+        }
         
         // Por defecto, usar equals
         return val1.equals(val2);
@@ -450,12 +1357,20 @@ public class Evaluator {
 
     // Método auxiliar para comparar nodos AST recursivamente
     private boolean compareASTNodes(ASTNode node1, ASTNode node2) {
-        if (node1 == null && node2 == null) {
+        if (node1 == node2) {
             return true;
         }
         if (node1 == null || node2 == null) {
             return false;
         }
+
+        // El hash estructural no depende de la tabla que internó cada dato: si difiere,
+        // los datos son distintos. Con el mismo hash pueden venir de tablas distintas
+        // (de otro Evaluator), así que se comparan recorriéndolos
+        if (node1.isCanonical() && node2.isCanonical()
+                && node1.getStructuralHash() != node2.getStructuralHash()) {
+            return false;
+        }
         
         // Comparar valores
         if (!node1.getValue().equals(node2.getValue())) {
@@ -479,13 +1394,36 @@ public class Evaluator {
         return true;
     }
     
+    /**
+     * Obtiene la instancia canónica del hijo indicado. Se guarda en el mismo hijo
+     * (y no en la lista de hijos del nodo) para que las siguientes evaluaciones la
+     * usen directamente sin modificar el árbol del programa, que otros hilos pueden
+     * estar recorriendo.
+     *
+     * @param node El nodo que contiene el dato citado
+     * @param index La posición del dato entre los hijos
+     * @return El dato canónico
+     */
+    private ASTNode internChild(ASTNode node, int index) {
+        ASTNode child = node.getChildren().get(index);
+        if (child.isCanonical()) {
+            return child;
+        }
+        ASTNode canonicalChild = child.getCanonicalForm();
+        if (canonicalChild == null) {
+            canonicalChild = quoteInterner.intern(child);
+            child.setCanonicalForm(canonicalChild);
+        }
+        return canonicalChild;
+    }
+
     /**
      * Determina si un valor es considerado verdadero en el contexto de LISP.
      * 
      * @param value El valor a evaluar
      * @return true si el valor es considerado verdadero, false en caso contrario
      */
-    private boolean isTruthy(Object value) {
+    boolean isTruthy(Object value) {
         if (value == null) {
             return false;
         }
@@ -512,30 +1450,513 @@ public class Evaluator {
      * @return El resultado de la ejecución
      */
     private Object executeFunction(Function function, List<Object> args) {
-        // Crear un nuevo ámbito que extiende al ámbito léxico de la función
-        ContextualScope functionScope = function.getParentScope().createSubScope();
-        
-        // Verificar que el número de argumentos sea correcto
-        List<String> paramNames = function.getParamNames();
-        if (args.size() != paramNames.size()) {
-            throw new RuntimeException("Número incorrecto de argumentos: esperados " + 
-                                       paramNames.size() + ", recibidos " + args.size());
-        }
-        
-        // Asignar los argumentos a los parámetros
+        checkArity(function, args.size());
+        CallFrame frame = function.newFrame();
         for (int i = 0; i < args.size(); i++) {
-            functionScope.setVariable(paramNames.get(i), args.get(i));
+            frame.setArgument(i, args.get(i));
         }
-        
-        // Evaluar el cuerpo de la función
-        Object result = null;
-        for (ASTNode bodyNode : function.getBody()) {
-            result = evaluate(bodyNode, functionScope);
+        return executeFrame(function, frame, null);
+    }
+
+    /**
+     * Verifica el número de argumentos de una llamada contra la aridad de la función.
+     */
+    private static void checkArity(Function function, int received) {
+        if (received != function.getArity()) {
+            throw new LispError("Número incorrecto de argumentos: esperados " +
+                                       function.getArity() + ", recibidos " + received);
         }
-        
+    }
+
+    /**
+     * Llama a una función con los argumentos de un nodo de llamada: cada argumento
+     * se evalúa directamente en su casilla, sin construir una lista intermedia.
+     * Si el cuerpo termina con un error, la llamada se agrega a su traza LISP.
+     *
+     * @param name El nombre con el que se llamó a la función
+     * @param function La función
+     * @param call El nodo de la llamada, cuyos hijos son los argumentos
+     * @param scope El ámbito donde se evalúan los argumentos
+     * @return El resultado de la llamada
+     */
+    private Object callWithArguments(String name, Function function, ASTNode call, ContextualScope scope) {
+        List<ASTNode> arguments = call.getChildren();
+        if (arguments.size() == function.getArity()) {
+            // Las llamadas de uno y dos argumentos, las más comunes, no recorren la lista
+            if (arguments.size() == 1) {
+                return call(name, function, evaluate(arguments.get(0), scope), call);
+            }
+            if (arguments.size() == 2) {
+                Object first = evaluate(arguments.get(0), scope);
+                return call(name, function, first, evaluate(arguments.get(1), scope), call);
+            }
+        }
+        CallFrame frame = function.newFrame();
+        if (arguments.size() != function.getArity() && hasQuoteMark(arguments)) {
+            // 'dato ocupa dos nodos, la comilla y el dato: se evalúan como en las formas del sistema
+            List<Object> values = evaluateArguments(call, scope);
+            checkArity(function, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                frame.setArgument(i, values.get(i));
+            }
+            return invoke(name, function, frame, call);
+        }
+        checkArity(function, arguments.size());
+        for (int i = 0; i < arguments.size(); i++) {
+            frame.setArgument(i, evaluate(arguments.get(i), scope));
+        }
+        return invoke(name, function, frame, call);
+    }
+
+    private static boolean hasQuoteMark(List<ASTNode> arguments) {
+        for (ASTNode argument : arguments) {
+            if (argument.getValue().equals("'") && argument.getChildren().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Llama a una función con los argumentos ya colocados en las casillas. Si el
+     * cuerpo termina con un error, la llamada se agrega a su traza LISP.
+     *
+     * @param name El nombre con el que se llamó a la función
+     * @param function La función
+     * @param frame El ámbito de la llamada, con los argumentos en las primeras getArity() casillas
+     * @param site El nodo de la llamada
+     * @return El resultado de la llamada
+     */
+    Object invoke(String name, Function function, CallFrame frame, ASTNode site) {
+        try {
+            return executeFrame(function, frame, site);
+        } catch (NonLocalExit e) {
+            throw e;
+        } catch (RuntimeException e) {
+            LispError error = LispError.from(e);
+            // En una recursión profunda solo se formatean las llamadas que caben en la traza
+            if (!error.wantsFrame()) {
+                error.omitFrame();
+                throw error;
+            }
+            StringBuilder call = new StringBuilder("(").append(name);
+            for (int i = 0; i < function.getArity(); i++) {
+                // Un parámetro capturado por una clausura quedó en una Cell, que getSlot lee
+                call.append(' ').append(ConsCell.format(frame.getSlot(i)));
+            }
+            error.addFrame(call.append(')').toString());
+            throw error;
+        }
+    }
+
+    /**
+     * Llama a una función de un argumento, por ejemplo desde LAZY-MAP o LAZY-FILTER.
+     *
+     * @param function Una Function o una BuiltinFunction
+     * @param argument El argumento
+     * @return El resultado
+     */
+    Object call(Object function, Object argument) {
+        if (function instanceof Function) {
+            return call(null, (Function) function, argument, null);
+        }
+        return applyFunction(function, Collections.singletonList(argument));
+    }
+
+    /**
+     * Llama a una función de DEFUN o LAMBDA con un argumento.
+     *
+     * @param name El nombre con el que se llamó a la función
+     * @param function La función
+     * @param argument El argumento
+     * @param site El nodo de la llamada, o null si la función se llamó desde una forma del sistema
+     * @return El resultado
+     */
+    private Object call(String name, Function function, Object argument, ASTNode site) {
+        checkArity(function, 1);
+        CallFrame frame = function.newFrame();
+        frame.setArgument(0, argument);
+        return site == null ? executeFrame(function, frame, null) : invoke(name, function, frame, site);
+    }
+
+    /**
+     * Llama a una función de dos argumentos, por ejemplo desde REDUCE.
+     *
+     * @param function Una Function o una BuiltinFunction
+     * @param first El primer argumento
+     * @param second El segundo argumento
+     * @return El resultado
+     */
+    Object call(Object function, Object first, Object second) {
+        if (function instanceof Function) {
+            return call(null, (Function) function, first, second, null);
+        }
+        return applyFunction(function, Arrays.asList(first, second));
+    }
+
+    /**
+     * Llama a una función de DEFUN o LAMBDA con dos argumentos.
+     *
+     * @param name El nombre con el que se llamó a la función
+     * @param function La función
+     * @param first El primer argumento
+     * @param second El segundo argumento
+     * @param site El nodo de la llamada, o null si la función se llamó desde una forma del sistema
+     * @return El resultado
+     */
+    private Object call(String name, Function function, Object first, Object second, ASTNode site) {
+        checkArity(function, 2);
+        CallFrame frame = function.newFrame();
+        frame.setArgument(0, first);
+        frame.setArgument(1, second);
+        return site == null ? executeFrame(function, frame, null) : invoke(name, function, frame, site);
+    }
+
+    /**
+     * Ejecuta el cuerpo de una función con sus argumentos ya colocados en las casillas.
+     * Una función de DEFUN usa un CallFrame cuyo padre es su ámbito léxico. En una
+     * clausura de LAMBDA las casillas que siguen a los parámetros tienen las Cell de
+     * las variables capturadas (ver Function.newFrame()) y el padre es el ámbito
+     * global; un SETQ de una de ellas modifica la Cell que comparte con el ámbito
+     * donde se creó la clausura.
+     * Mientras hay un perfil activo (PROFILE), la llamada se registra en él; mientras
+     * hay un muestreo activo, la llamada se agrega a la pila sombra del hilo; y si una
+     * grabación de Flight Recorder tiene activo el evento CALL, la llamada se registra
+     * cuando supera su umbral.
+     *
+     * @param function La función
+     * @param frame El ámbito de la llamada, con los argumentos en las primeras getArity() casillas
+     * @param site El nodo de la llamada, o null si la función se llamó desde una forma del sistema
+     * @return El valor de la última forma del cuerpo
+     */
+    private Object executeFrame(Function function, CallFrame frame, ASTNode site) {
+        Profiler active = profiler;
+        SamplingProfiler sampling = sampler;
+        if (active == null && sampling == null && !events.isCallEnabled()) {
+            return runFrame(function, frame);
+        }
+        Object event = events.isCallEnabled() ? events.begin(FlightEvents.CALL) : null;
+        // La pila se guarda en la llamada: si el muestreo termina o empieza mientras
+        // tanto, la salida se registra en la misma pila que la entrada
+        SamplingProfiler.ShadowStack stack = sampling == null ? null : sampling.currentStack();
+        if (stack != null) {
+            stack.push(function, site);
+        }
+        if (active != null) {
+            active.enter(function.getName());
+        }
+        try {
+            return runFrame(function, frame);
+        } finally {
+            if (active != null) {
+                active.exit();
+            }
+            if (stack != null) {
+                stack.pop();
+            }
+            if (event != null && events.end(event)) {
+                events.commit(event, function.getName(), function.getArity(), site == null ? "" : site.toSource());
+            }
+        }
+    }
+
+    /**
+     * Ejecuta el cuerpo de una función, con su traza compilada si ya la tiene (ver
+     * executeFrame).
+     */
+    private Object runFrame(Function function, CallFrame frame) {
+        TraceCompiler.Trace trace = tracer.forFunction(this, function, frame);
+        if (trace != null) {
+            return trace.execute(this, frame);
+        }
+        Object result = evaluateBody(function.getBody(), 0, frame);
+        function.countInvocation();
         return result;
     }
-    
+
+    /**
+     * Evalúa una iteración del cuerpo de un ciclo: la cuenta y, si el ciclo ya pasó
+     * el umbral, ejecuta la traza compilada de su cuerpo.
+     *
+     * @param loop El nodo del ciclo
+     * @param body Los nodos del ciclo
+     * @param from La posición de la primera forma del cuerpo
+     * @param scope El ámbito del cuerpo
+     */
+    private void evaluateLoopBody(ASTNode loop, List<ASTNode> body, int from, ContextualScope scope) {
+        TraceCompiler.Trace trace = tracer.forLoop(this, loop, body, from, scope);
+        if (trace != null) {
+            trace.execute(this, scope);
+        } else {
+            evaluateBody(body, from, scope);
+        }
+    }
+
+    /**
+     * Expande una llamada a una macro: los argumentos se pasan sin evaluar (como
+     * nodos) y el resultado del cuerpo se convierte en el código que reemplaza a la llamada.
+     *
+     * @param call El nodo de la llamada
+     * @param macro La macro
+     * @return La expansión
+     */
+    private ASTNode expandMacro(ASTNode call, Macro macro) {
+        List<ASTNode> children = call.getChildren();
+        List<ASTNode> args = new ArrayList<>(children.size());
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            if (child.getValue().equals("'") && child.getChildren().isEmpty() && i + 1 < children.size()) {
+                // 'x llega a la macro como (QUOTE x)
+                ASTNode quote = new ASTNode("QUOTE");
+                quote.addChild(children.get(++i));
+                args.add(quote);
+            } else {
+                args.add(child);
+            }
+        }
+
+        int required = macro.getRequired();
+        if (args.size() < required || (!macro.hasRest() && args.size() > required)) {
+            throw new LispError("Número incorrecto de argumentos para la macro " + call.getValue()
+                + ": esperados " + (macro.hasRest() ? "al menos " : "") + required + ", recibidos " + args.size());
+        }
+        Function expander = macro.getExpander();
+        CallFrame frame = expander.newFrame();
+        for (int i = 0; i < required; i++) {
+            frame.setArgument(i, args.get(i));
+        }
+        if (macro.hasRest()) {
+            // Los argumentos restantes forman una lista; vacía es el nodo "", que no es null
+            ASTNode rest = new ASTNode("");
+            for (int i = required; i < args.size(); i++) {
+                rest.addChild(args.get(i));
+            }
+            frame.setArgument(required, rest);
+        }
+        return toCode(executeFrame(expander, frame, null));
+    }
+
+    /**
+     * Crea un símbolo nuevo. Lleva # en el nombre, que el Lexer no acepta en un
+     * símbolo, así que no puede coincidir con ningún símbolo del programa.
+     */
+    private String gensym(String prefix) {
+        return prefix + "#" + symbolCounter.incrementAndGet();
+    }
+
+    /**
+     * Copia una plantilla de QUASIQUOTE. Las variables que la propia plantilla liga
+     * con LET, LAMBDA, DOTIMES o DOLIST (las que no vienen de una coma) se renombran
+     * con símbolos nuevos en cada evaluación: así la expansión de una macro no
+     * captura las variables del código que recibe como argumento.
+     *
+     * @param template La plantilla
+     * @param scope El ámbito donde se evalúan las expresiones después de , y ,@
+     * @return El código o dato construido
+     */
+    private ASTNode quasiquote(ASTNode template, ContextualScope scope) {
+        Set<String> binders = new HashSet<>();
+        collectTemplateBinders(template, 1, binders);
+        Map<String, String> renames = new HashMap<>();
+        for (String binder : binders) {
+            renames.put(binder, gensym(binder));
+        }
+        return buildTemplate(template, 1, renames, scope);
+    }
+
+    /**
+     * Copia un nodo de una plantilla. depth es el nivel de anidamiento de
+     * QUASIQUOTE: solo las comas del nivel 1 se evalúan.
+     */
+    private ASTNode buildTemplate(ASTNode node, int depth, Map<String, String> renames, ContextualScope scope) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (children.size() == 1 && (value.equals("UNQUOTE") || value.equals("UNQUOTE-SPLICING"))) {
+            if (depth > 1) {
+                return wrap(value, buildTemplate(children.get(0), depth - 1, renames, scope));
+            }
+            if (value.equals("UNQUOTE-SPLICING")) {
+                throw new LispError(",@ debe estar dentro de una lista");
+            }
+            return toCode(evaluate(children.get(0), scope));
+        }
+        if (children.size() == 1 && value.equals("QUASIQUOTE")) {
+            return wrap(value, buildTemplate(children.get(0), depth + 1, renames, scope));
+        }
+
+        String literal = depth == 1 && renames.containsKey(value) ? renames.get(value) : value;
+        if (children.isEmpty()) {
+            ASTNode leaf = new ASTNode(literal);
+            if (node.isListForm()) {
+                leaf.markListForm();
+            }
+            return leaf;
+        }
+        List<ASTNode> elements = new ArrayList<>(children.size() + 1);
+        if (!value.isEmpty()) {
+            elements.add(new ASTNode(literal));
+        }
+        for (ASTNode child : children) {
+            if (depth == 1 && child.getValue().equals("UNQUOTE-SPLICING") && child.getChildren().size() == 1) {
+                splice(evaluate(child.getChildren().get(0), scope), elements);
+            } else {
+                elements.add(buildTemplate(child, depth, renames, scope));
+            }
+        }
+        return makeList(elements);
+    }
+
+    /**
+     * Crea el nodo (forma dato) de una plantilla anidada.
+     */
+    private static ASTNode wrap(String form, ASTNode datum) {
+        ASTNode node = new ASTNode(form);
+        node.addChild(datum);
+        return node;
+    }
+
+    /**
+     * Agrega los elementos de una lista insertada con ,@ a los elementos de otra.
+     */
+    private static void splice(Object list, List<ASTNode> elements) {
+        if (list instanceof ASTNode) {
+            ASTNode node = (ASTNode) list;
+            if (!node.getValue().isEmpty()) {
+                elements.add(node.getChildren().isEmpty() ? node : new ASTNode(node.getValue()));
+            }
+            elements.addAll(node.getChildren());
+            return;
+        }
+        for (Object tail = list; tail != null; tail = ((ConsCell) tail).getCdr()) {
+            if (!(tail instanceof ConsCell)) {
+                throw new LispError(",@ requiere una lista");
+            }
+            elements.add(toCode(((ConsCell) tail).getCar()));
+        }
+    }
+
+    /**
+     * Convierte un valor en código: los nodos se usan tal cual, las listas de celdas
+     * se convierten en nodos y los átomos en hojas.
+     *
+     * @param value El valor
+     * @return El nodo equivalente
+     */
+    static ASTNode toCode(Object value) {
+        if (value instanceof ASTNode) {
+            return (ASTNode) value;
+        }
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return new ASTNode("NIL");
+        }
+        if (Boolean.TRUE.equals(value)) {
+            return new ASTNode("T");
+        }
+        if (value instanceof Number || value instanceof String) {
+            return new ASTNode(ConsCell.format(value));
+        }
+        if (value instanceof ConsCell) {
+            List<ASTNode> elements = new ArrayList<>();
+            Object tail = value;
+            while (tail instanceof ConsCell) {
+                elements.add(toCode(((ConsCell) tail).getCar()));
+                tail = ((ConsCell) tail).getCdr();
+            }
+            if (tail != null) {
+                throw new LispError("No se puede usar el par punteado " + value + " como código");
+            }
+            return makeList(elements);
+        }
+        throw new LispError("No se puede usar " + value + " como código");
+    }
+
+    /**
+     * Construye el nodo de una lista con la misma forma que le daría el Parser: si el
+     * primer elemento es un símbolo, es el valor del nodo; si no, el nodo queda sin
+     * valor. Una lista de un solo símbolo es la hoja de ese símbolo, marcada como (g).
+     */
+    private static ASTNode makeList(List<ASTNode> elements) {
+        if (elements.isEmpty()) {
+            return new ASTNode("");
+        }
+        ASTNode first = elements.get(0);
+        if (!first.getChildren().isEmpty() || first.getValue().isEmpty()) {
+            ASTNode node = new ASTNode("");
+            for (ASTNode element : elements) {
+                node.addChild(element);
+            }
+            return node;
+        }
+        if (elements.size() == 1) {
+            ASTNode leaf = new ASTNode(first.getValue());
+            leaf.markListForm();
+            return leaf;
+        }
+        ASTNode node = new ASTNode(first.getValue());
+        for (int i = 1; i < elements.size(); i++) {
+            node.addChild(elements.get(i));
+        }
+        return node;
+    }
+
+    /**
+     * Agrega a binders los nombres que una plantilla liga con LET, LAMBDA, DOTIMES o
+     * DOLIST y que están escritos en la plantilla (no insertados con una coma).
+     */
+    private static void collectTemplateBinders(ASTNode node, int depth, Set<String> binders) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (children.size() == 1 && (value.equals("UNQUOTE") || value.equals("UNQUOTE-SPLICING"))) {
+            if (depth > 1) {
+                collectTemplateBinders(children.get(0), depth - 1, binders);
+            }
+            return;
+        }
+        if (children.size() == 1 && value.equals("QUASIQUOTE")) {
+            collectTemplateBinders(children.get(0), depth + 1, binders);
+            return;
+        }
+        if (depth == 1 && !children.isEmpty()) {
+            ASTNode first = children.get(0);
+            switch (value) {
+                case "LET":
+                    for (ASTNode binding : first.getValue().isEmpty() ? first.getChildren() : Collections.singletonList(first)) {
+                        addBinder(binding.getValue(), binders);
+                    }
+                    break;
+                case "LAMBDA":
+                    if (!isTemplatePrefix(first.getValue())) {
+                        addBinder(first.getValue(), binders);
+                        for (ASTNode param : first.getChildren()) {
+                            if (param.getChildren().isEmpty()) {
+                                addBinder(param.getValue(), binders);
+                            }
+                        }
+                    }
+                    break;
+                case "DOTIMES":
+                case "DOLIST":
+                    addBinder(first.getValue(), binders);
+                    break;
+                default:
+                    break;
+            }
+        }
+        for (ASTNode child : children) {
+            collectTemplateBinders(child, depth, binders);
+        }
+    }
+
+    private static void addBinder(String name, Set<String> binders) {
+        if (!name.isEmpty() && !isTemplatePrefix(name) && !name.startsWith("&")) {
+            binders.add(name);
+        }
+    }
+
+    private static boolean isTemplatePrefix(String value) {
+        return value.equals("UNQUOTE") || value.equals("UNQUOTE-SPLICING") || value.equals("QUASIQUOTE");
+    }
+
     /**
      * Cuenta el número de nodos en un AST.
      * 
@@ -595,21 +2016,614 @@ public class Evaluator {
         }
     }
     
+    /**
+     * Evalúa un nodo que debe producir un número. La variable de un ciclo numérico
+     * se lee directamente de su casilla, sin crear un Double.
+     *
+     * @param node El nodo a evaluar
+     * @param scope El ámbito contextual para la evaluación
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return El valor numérico
+     */
+    private double evaluateNumber(ASTNode node, ContextualScope scope, String operation) {
+        return evaluateNumber(node, scope, operation, null);
+    }
+
+    /**
+     * Evalúa un operando numérico y anota su tipo en el perfil del nodo que lo usa.
+     *
+     * @param node El nodo del operando
+     * @param scope El ámbito contextual para la evaluación
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @param feedback El perfil de tipos de la operación, o null para no anotar
+     * @return El valor numérico
+     */
+    private double evaluateNumber(ASTNode node, ContextualScope scope, String operation, TypeFeedback feedback) {
+        if (scope instanceof LoopScope && node.getChildren().isEmpty()) {
+            LoopScope loop = ((LoopScope) scope).findCounter(node.getValue());
+            if (loop != null) {
+                if (feedback != null) {
+                    feedback.recordKind(TypeFeedback.DOUBLE);
+                }
+                return loop.getCounter();
+            }
+        }
+        Object result = evaluate(node, scope);
+        if (feedback != null) {
+            feedback.record(result);
+        }
+        if (result instanceof Number) {
+            return ((Number) result).doubleValue();
+        }
+        throw new LispError(operation + " requiere argumentos numéricos");
+    }
+
+    /**
+     * Obtiene el encabezado (variable valor [resultado]) de DOTIMES o DOLIST.
+     */
+    private ASTNode loopHeader(ASTNode ast, String operation) {
+        if (ast.getChildren().isEmpty() || ast.getChildren().get(0).getChildren().isEmpty()) {
+            throw new LispError(operation + " requiere (variable valor [resultado]) como primer argumento");
+        }
+        return ast.getChildren().get(0);
+    }
+
+    /**
+     * Evalúa en orden las formas de un cuerpo a partir de una posición.
+     *
+     * @return El valor de la última forma, o null si no hay ninguna
+     */
+    private Object evaluateBody(List<ASTNode> body, int from, ContextualScope scope) {
+        Object result = null;
+        for (int i = from; i < body.size(); i++) {
+            result = evaluate(body.get(i), scope);
+        }
+        return result;
+    }
+
+    /**
+     * Crea la clausura de una expresión LAMBDA. En lugar de guardar el ámbito actual
+     * completo, se guardan solo las casillas (Cell) de las variables libres del cuerpo
+     * que son locales (parámetros, variables de LET o de ciclos); las globales se
+     * siguen buscando en el ámbito global al ejecutar. Así la clausura no mantiene
+     * vivos los ámbitos que la rodean, y tanto ella como el ámbito donde se creó y
+     * las demás clausuras que capturan la misma variable ven sus asignaciones.
+     *
+     * @param lambda El nodo LAMBDA
+     * @param scope El ámbito donde se evalúa la expresión
+     * @return La función
+     */
+    private Function makeClosure(ASTNode lambda, ContextualScope scope) {
+        List<ASTNode> children = lambda.getChildren();
+        String[] free = lambda.getFreeVariables();
+        if (free == null) {
+            Set<String> bound = new HashSet<>(Function.paramNames(children.get(0)));
+            Set<String> found = new java.util.LinkedHashSet<>();
+            for (int i = 1; i < children.size(); i++) {
+                collectFreeVariables(children.get(i), bound, found);
+            }
+            free = found.toArray(new String[0]);
+            lambda.setFreeVariables(free);
+        }
+
+        List<String> names = new ArrayList<>(free.length);
+        List<Cell> cells = new ArrayList<>(free.length);
+        for (String name : free) {
+            Cell cell = scope.captureCell(name);
+            if (cell != null) {
+                names.add(name);
+                cells.add(cell);
+            }
+        }
+        return new Function(children.get(0), new ArrayList<>(children.subList(1, children.size())),
+            scope.getGlobalScope(), names.toArray(new String[0]), cells.toArray(new Cell[0]));
+    }
+
+    /**
+     * Agrega a found los símbolos de una expresión que no están en bound. El
+     * resultado puede incluir nombres que no son variables (funciones globales,
+     * formas especiales); makeClosure() solo captura los que resultan ser locales.
+     *
+     * @param node La expresión
+     * @param bound Las variables definidas dentro del LAMBDA en este punto
+     * @param found Los símbolos libres encontrados
+     */
+    private static void collectFreeVariables(ASTNode node, Set<String> bound, Set<String> found) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (value.equals("QUOTE")) {
+            return;
+        }
+        if (!value.isEmpty() && !value.equals("'") && !isStringLiteral(value) && !bound.contains(value)) {
+            char first = value.charAt(0);
+            if (!Character.isDigit(first) && first != '.') {
+                found.add(value);
+            }
+        }
+
+        int start = 0;
+        Set<String> inner = bound;
+        if ((value.equals("LAMBDA") || value.equals("LET")) && !children.isEmpty()) {
+            // Los parámetros de un LAMBDA interno y las variables de un LET son locales a su cuerpo
+            inner = new HashSet<>(bound);
+            ASTNode first = children.get(0);
+            if (value.equals("LAMBDA")) {
+                inner.addAll(Function.paramNames(first));
+            } else {
+                List<ASTNode> bindings = first.getValue().isEmpty()
+                    ? first.getChildren() : Collections.singletonList(first);
+                for (ASTNode binding : bindings) {
+                    // Los valores iniciales se evalúan fuera del LET
+                    for (ASTNode init : binding.getChildren()) {
+                        collectFreeVariables(init, bound, found);
+                    }
+                    inner.add(binding.getValue());
+                }
+            }
+            start = 1;
+        }
+        for (int i = start; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            if (child.getValue().equals("'") && child.getChildren().isEmpty()) {
+                // El dato citado que sigue no contiene variables
+                i++;
+                continue;
+            }
+            collectFreeVariables(child, inner, found);
+        }
+    }
+
+    /**
+     * Evalúa los argumentos de una forma. Dentro de una lista el parser deja la
+     * comilla como un hijo "'" seguido del dato; ese par se toma como un solo
+     * argumento citado, igual que en los casos especiales de ATOM, LIST y EQUAL.
+     *
+     * @param ast El nodo de la forma
+     * @param scope El ámbito contextual para la evaluación
+     * @return Los valores de los argumentos
+     */
+    private List<Object> evaluateArguments(ASTNode ast, ContextualScope scope) {
+        return evaluateArguments(ast, scope, 0, new ArrayList<>(ast.getChildren().size()));
+    }
+
+    /**
+     * Evalúa los argumentos de una forma a partir de una posición, agregándolos a una lista.
+     */
+    private List<Object> evaluateArguments(ASTNode ast, ContextualScope scope, int from, List<Object> args) {
+        List<ASTNode> children = ast.getChildren();
+        for (int i = from; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            if (child.getValue().equals("'") && child.getChildren().isEmpty() && i + 1 < children.size()) {
+                args.add(internChild(ast, ++i));
+            } else {
+                args.add(evaluate(child, scope));
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Evalúa los argumentos de una forma cuyo primer argumento es una función, como
+     * (REDUCE + lista). El primer elemento del resultado es la función ya resuelta.
+     *
+     * @param ast El nodo de la forma
+     * @param scope El ámbito contextual para la evaluación
+     * @return La función seguida de los valores de los demás argumentos
+     */
+    private List<Object> evaluateCallArguments(ASTNode ast, ContextualScope scope) {
+        List<ASTNode> children = ast.getChildren();
+        if (children.isEmpty()) {
+            throw new LispError(ast.getValue() + " requiere una función como primer argumento");
+        }
+        List<Object> args = new ArrayList<>(children.size());
+        // La función puede venir citada ('f), que el parser deja como "'" seguido del símbolo
+        int rest = 1;
+        ASTNode functionNode = children.get(0);
+        if (functionNode.getValue().equals("'") && functionNode.getChildren().isEmpty() && children.size() > 1) {
+            functionNode = children.get(1);
+            rest = 2;
+        }
+        args.add(resolveFunction(functionNode, scope));
+        return evaluateArguments(ast, scope, rest, args);
+    }
+
+    /**
+     * Obtiene la función a la que se refiere un argumento: el nombre de una función
+     * definida con DEFUN, el de una función del sistema (como + o CONS), o una
+     * expresión cuyo valor es una función.
+     *
+     * @param node El nodo del argumento
+     * @param scope El ámbito contextual para la evaluación
+     * @return Una Function o una BuiltinFunction
+     */
+    private Object resolveFunction(ASTNode node, ContextualScope scope) {
+        if (node.getChildren().isEmpty() && !node.isListForm()) {
+            String name = node.getValue();
+            Object bound = scope.getVariable(name);
+            if (bound instanceof Function || bound instanceof Main.BuiltinFunction) {
+                return bound;
+            }
+            if (SPECIAL_FORMS.contains(name)) {
+                return new Main.BuiltinFunction(name);
+            }
+        }
+        Object result = evaluate(node, scope);
+        if (result instanceof String) {
+            result = scope.getVariable((String) result);
+        }
+        if (result instanceof Function || result instanceof Main.BuiltinFunction) {
+            return result;
+        }
+        throw new LispError("Se esperaba una función: " + node.getValue());
+    }
+
+    /**
+     * Aplica una función a una lista de argumentos ya evaluados.
+     *
+     * @param function Una Function (DEFUN) o una BuiltinFunction
+     * @param args Los argumentos
+     * @return El resultado
+     */
+    Object applyFunction(Object function, List<Object> args) {
+        if (function instanceof Function) {
+            return executeFunction((Function) function, args);
+        }
+        if (function instanceof Main.BuiltinFunction) {
+            return applyBuiltin(((Main.BuiltinFunction) function).getName(), args);
+        }
+        throw new LispError("No se puede aplicar " + function + " como función");
+    }
+
+    /**
+     * Aplica una función del sistema a argumentos ya evaluados. Solo las funciones
+     * que no necesitan el árbol de sus argumentos se pueden pasar como valor.
+     */
+    private Object applyBuiltin(String name, List<Object> args) {
+        switch (name) {
+            case "+":
+            case "*": {
+                boolean sum = name.equals("+");
+                double result = sum ? 0 : 1;
+                for (Object arg : args) {
+                    double operand = LispVector.toDouble(arg, name);
+                    result = sum ? result + operand : result * operand;
+                }
+                return result;
+            }
+            case "-":
+            case "/": {
+                if (args.isEmpty()) {
+                    throw new LispError(name + " requiere al menos un argumento");
+                }
+                double result = LispVector.toDouble(args.get(0), name);
+                if (args.size() == 1) {
+                    return name.equals("-") ? -result : 1 / result;
+                }
+                for (int i = 1; i < args.size(); i++) {
+                    double operand = LispVector.toDouble(args.get(i), name);
+                    if (name.equals("/")) {
+                        if (operand == 0) {
+                            throw new LispError("División por cero");
+                        }
+                        result /= operand;
+                    } else {
+                        result -= operand;
+                    }
+                }
+                return result;
+            }
+            case "<":
+            case ">":
+            case "=":
+            case "EQUAL": {
+                if (args.size() != 2) {
+                    throw new LispError(name + " requiere exactamente dos argumentos");
+                }
+                if (name.equals("EQUAL") || name.equals("=")) {
+                    return compareValues(args.get(0), args.get(1));
+                }
+                double a = LispVector.toDouble(args.get(0), name);
+                double b = LispVector.toDouble(args.get(1), name);
+                return name.equals("<") ? a < b : a > b;
+            }
+            case "CONS":
+                if (args.size() != 2) {
+                    throw new LispError("CONS requiere exactamente dos argumentos");
+                }
+                return new ConsCell(ConsCell.fromDatum(args.get(0)), ConsCell.fromDatum(args.get(1)));
+            default:
+                throw new LispError("La función " + name + " no se puede pasar como argumento");
+        }
+    }
+
+    /**
+     * Convierte un argumento en tabla hash.
+     *
+     * @param value El argumento
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return La tabla
+     */
+    private static LispHashTable toHashTable(Object value, String operation) {
+        if (value instanceof LispHashTable) {
+            return (LispHashTable) value;
+        }
+        throw new LispError(operation + " requiere una tabla hash");
+    }
+
+    /**
+     * Indica si el valor de un nodo es una cadena entre comillas dobles.
+     *
+     * @param value El valor del nodo
+     * @return true si es una cadena literal, false en caso contrario
+     */
+    static boolean isStringLiteral(String value) {
+        return value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"';
+    }
+
+    /**
+     * Obtiene el contenido de una cadena literal, sin las comillas.
+     *
+     * @param value El valor del nodo
+     * @return El contenido de la cadena
+     */
+    static String stringValue(String value) {
+        return value.substring(1, value.length() - 1);
+    }
+
+    /**
+     * Macro definida con DEFMACRO. El cuerpo se ejecuta como una función (el
+     * expansor) que recibe los argumentos de la llamada sin evaluar.
+     */
+    static final class Macro {
+        private final ASTNode params;
+        private final List<ASTNode> body;
+        private final Function expander;
+        private final int required;
+        private final boolean rest;
+
+        /**
+         * Constructor de la clase Macro.
+         *
+         * @param params Los parámetros; &REST o &BODY antes del último recibe los argumentos restantes
+         * @param body El cuerpo, que devuelve el código de la expansión
+         * @param globalScope El ámbito global
+         */
+        Macro(ASTNode params, List<ASTNode> body, ContextualScope globalScope) {
+            this.params = params;
+            this.body = body;
+            List<String> names = Function.paramNames(params);
+            int restIndex = Math.max(names.indexOf("&REST"), names.indexOf("&BODY"));
+            if (restIndex >= 0 && restIndex != names.size() - 2) {
+                throw new LispError("&REST debe ir seguido de un solo parámetro, al final");
+            }
+            this.rest = restIndex >= 0;
+            this.required = rest ? restIndex : names.size();
+            ASTNode expanderParams = new ASTNode("");
+            for (String name : names) {
+                if (!name.startsWith("&")) {
+                    expanderParams.addChild(new ASTNode(name));
+                }
+            }
+            this.expander = new Function(expanderParams, body, globalScope);
+        }
+
+        public ASTNode getParams() {
+            return params;
+        }
+
+        public List<ASTNode> getBody() {
+            return body;
+        }
+
+        Function getExpander() {
+            return expander;
+        }
+
+        /**
+         * Número de argumentos obligatorios.
+         */
+        int getRequired() {
+            return required;
+        }
+
+        /**
+         * Indica si la macro recibe los argumentos restantes en una lista.
+         */
+        boolean hasRest() {
+            return rest;
+        }
+
+        @Override
+        public String toString() {
+            return "#<MACRO>";
+        }
+    }
+
     /**
      * Clase interna para representar funciones de usuario.
      */
-    private static class Function {
+    static class Function {
         private final ASTNode params;
         private final List<ASTNode> body;
         private final ContextualScope parentScope;
+        /**
+         * Nombres de las casillas del ámbito de una llamada: los parámetros y, en una
+         * clausura, las variables capturadas. Se calculan una sola vez al definir la función.
+         */
+        private final String[] frameNames;
+        /**
+         * Número de parámetros.
+         */
+        private final int arity;
+        /**
+         * Casillas de las variables capturadas por LAMBDA; null en las funciones de DEFUN.
+         */
+        private final Cell[] captureCells;
+        /**
+         * Análisis del cuerpo que hace el Inliner la primera vez que se llama a la función.
+         */
+        private volatile Inliner.Summary inlineSummary;
+        /**
+         * Nombre con el que se definió la función, para el registro de compilación.
+         */
+        private String name = "LAMBDA";
+        /**
+         * Llamadas interpretadas que terminaron, contadas para decidir cuándo compilar
+         * el cuerpo (ver TraceCompiler).
+         */
+        private int invocations;
+        /**
+         * Cuerpo compilado, o null mientras se interpreta.
+         */
+        private volatile TraceCompiler.Trace trace;
+        /**
+         * Versiones especializadas para argumentos constantes (ver Specializer).
+         */
+        private volatile Specializer.Versions specializations;
         
         public Function(ASTNode params, List<ASTNode> body, ContextualScope parentScope) {
             this.params = params;
             this.body = body;
             this.parentScope = parentScope;
+            this.frameNames = paramNames(params).toArray(new String[0]);
+            this.arity = frameNames.length;
+            this.captureCells = null;
+        }
+
+        /**
+         * Constructor de una clausura creada con LAMBDA.
+         *
+         * @param params Los parámetros
+         * @param body El cuerpo
+         * @param globalScope El ámbito global
+         * @param captureNames Los nombres de las variables capturadas
+         * @param captureCells Sus casillas, en el mismo orden
+         */
+        Function(ASTNode params, List<ASTNode> body, ContextualScope globalScope,
+                 String[] captureNames, Cell[] captureCells) {
+            this.params = params;
+            this.body = body;
+            this.parentScope = globalScope;
+            List<String> names = paramNames(params);
+            this.arity = names.size();
+            names.addAll(Arrays.asList(captureNames));
+            this.frameNames = names.toArray(new String[0]);
+            this.captureCells = captureCells;
+        }
+
+        /**
+         * Indica si la función es una clausura creada con LAMBDA.
+         */
+        boolean isClosure() {
+            return captureCells != null;
+        }
+
+        String[] getFrameNames() {
+            return frameNames;
+        }
+
+        /**
+         * Número de parámetros que recibe la función.
+         */
+        int getArity() {
+            return arity;
+        }
+
+        /**
+         * Crea el ámbito de una llamada, con sus casillas; el llamador llena las primeras
+         * getArity() con los argumentos. En una clausura, las casillas que siguen ya
+         * tienen las Cell de las variables capturadas.
+         */
+        CallFrame newFrame() {
+            CallFrame frame = new CallFrame(parentScope, frameNames, captureCells == null);
+            if (captureCells != null) {
+                for (int i = 0; i < captureCells.length; i++) {
+                    frame.setArgument(arity + i, captureCells[i]);
+                }
+            }
+            return frame;
+        }
+
+        /**
+         * Nombres de las variables capturadas por la clausura.
+         */
+        String[] getCaptureNames() {
+            return Arrays.copyOfRange(frameNames, arity, frameNames.length);
+        }
+
+        Cell[] getCaptureCells() {
+            return captureCells;
+        }
+
+        Inliner.Summary getInlineSummary() {
+            return inlineSummary;
+        }
+
+        void setInlineSummary(Inliner.Summary inlineSummary) {
+            this.inlineSummary = inlineSummary;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Cuenta una llamada interpretada que terminó; sin sincronizar, igual que los
+         * perfiles de tipos.
+         */
+        void countInvocation() {
+            invocations++;
+        }
+
+        int getInvocations() {
+            return invocations;
+        }
+
+        Specializer.Versions getSpecializations() {
+            return specializations;
+        }
+
+        void setSpecializations(Specializer.Versions specializations) {
+            this.specializations = specializations;
+        }
+
+        /**
+         * Descarta las versiones especializadas, por ejemplo al redefinir la función.
+         */
+        void dropSpecializations() {
+            Specializer.Versions current = specializations;
+            if (current != null) {
+                current.clear();
+            }
+        }
+
+        TraceCompiler.Trace getTrace() {
+            return trace;
+        }
+
+        void setTrace(TraceCompiler.Trace trace) {
+            this.trace = trace;
+        }
+        
+        public ASTNode getParams() {
+            return params;
         }
         
         public List<String> getParamNames() {
+            return new ArrayList<>(Arrays.asList(frameNames).subList(0, arity));
+        }
+
+        /**
+         * Obtiene los nombres de los parámetros a partir del nodo de parámetros.
+         *
+         * @param params El nodo de parámetros
+         * @return Los nombres, en orden
+         */
+        static List<String> paramNames(ASTNode params) {
             List<String> paramNames = new ArrayList<>();
             
             // Caso 1: Si params es un nodo con valor y sin hijos (un solo parámetro)
@@ -646,7 +2660,7 @@ public class Evaluator {
         
         @Override
         public String toString() {
-            return "#<FUNCTION>";
+            return isClosure() ? "#<CLOSURE>" : "#<FUNCTION>";
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: FlightEvents.java
+ * Descripción: Interfaz de los eventos del intérprete para JDK Flight Recorder.
+ */
+
+/**
+ * Eventos del intérprete que se pueden registrar en una grabación de JDK Flight
+ * Recorder: la evaluación de cada expresión de nivel superior, las llamadas a
+ * funciones de usuario, el análisis léxico, el parseo y la carga de archivos e
+ * imágenes. Hay una implementación vacía (NoFlightEvents) que siempre está
+ * disponible, y una que usa jdk.jfr (JfrFlightEvents); esta última solo se compila
+ * con el perfil Maven "jfr" y sus eventos están desactivados hasta que una grabación
+ * los activa con la configuración estándar de JFR.
+ * <p>
+ * Cada evento se inicia con begin(), que devuelve null si el tipo de evento no está
+ * activo, y se termina con end(). Solo si end() devuelve true (el evento está activo
+ * y, en las llamadas, superó el umbral de duración) se calcula el texto del código y
+ * se llama a commit(), así que un evento descartado no cuesta más que medir el tiempo.
+ */
+interface FlightEvents {
+    /**
+     * Evaluación de una expresión de nivel superior: nombre es la cabeza de la
+     * expresión y cantidad su número de argumentos.
+     */
+    int FORM = 0;
+
+    /**
+     * Llamada a una función de usuario: nombre es la función y cantidad su aridad.
+     */
+    int CALL = 1;
+
+    /**
+     * Análisis léxico: nombre es "LEX" y cantidad el número de tokens.
+     */
+    int LEX = 2;
+
+    /**
+     * Parseo: nombre es "PARSE" y cantidad el número de expresiones.
+     */
+    int PARSE = 3;
+
+    /**
+     * Carga de un archivo, una imagen o un texto con definiciones: nombre es el
+     * archivo y cantidad el número de expresiones o de valores cargados.
+     */
+    int LOAD = 4;
+
+    /**
+     * Implementación activa: la de JFR si fue compilada y se puede usar, o la vacía.
+     */
+    FlightEvents EVENTS = load();
+
+    /**
+     * Elige la implementación con jdk.jfr si fue compilada (perfil Maven "jfr") y la
+     * JVM tiene Flight Recorder; en cualquier otro caso usa la implementación vacía.
+     * La propiedad -Dlisp.jfr=false obliga a usar la implementación vacía.
+     *
+     * @return La implementación que se debe usar
+     */
+    static FlightEvents load() {
+        if (!Boolean.parseBoolean(System.getProperty("lisp.jfr", "true"))) {
+            return new NoFlightEvents();
+        }
+        try {
+            return (FlightEvents) Class.forName("com.InterpreteLisp.JfrFlightEvents")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // La clase no se compiló, la JVM no tiene el módulo jdk.jfr o Flight Recorder no está disponible
+            return new NoFlightEvents();
+        }
+    }
+
+    /**
+     * Nombre de la implementación, para informar cuál está activa.
+     *
+     * @return El nombre de la implementación
+     */
+    String name();
+
+    /**
+     * Indica si alguna grabación registra las llamadas a funciones. Se consulta en
+     * cada llamada, así que debe ser tan barato como leer un campo.
+     *
+     * @return true si el evento CALL está activo
+     */
+    boolean isCallEnabled();
+
+    /**
+     * Empieza a medir un evento.
+     *
+     * @param kind El tipo de evento (FORM, CALL, LEX, PARSE o LOAD)
+     * @return El evento, o null si ese tipo no está activo
+     */
+    Object begin(int kind);
+
+    /**
+     * Termina de medir un evento.
+     *
+     * @param event El evento devuelto por begin()
+     * @return true si el evento se debe registrar con commit()
+     */
+    boolean end(Object event);
+
+    /**
+     * Registra un evento con sus datos.
+     *
+     * @param event El evento devuelto por begin()
+     * @param name El nombre de la función, de la fase o del archivo
+     * @param count La aridad o la cantidad de elementos procesados
+     * @param source El fragmento de código fuente
+     */
+    void commit(Object event, String name, int count, String source);
+}
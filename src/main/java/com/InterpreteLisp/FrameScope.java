@@ -0,0 +1,105 @@
+package com.InterpreteLisp;
+
+import java.util.Arrays;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: FrameScope.java
+ * Descripción: Ámbito compacto con un número fijo de variables guardadas en un arreglo.
+ */
+
+/**
+ * Ámbito con un conjunto fijo de variables (las de un LET, o los parámetros de un
+ * LAMBDA aplicado directamente) guardadas en dos arreglos paralelos. Son
+ * pocas variables, así que buscarlas recorriendo el arreglo es más barato que un
+ * HashMap, y crear el ámbito solo cuesta un objeto y un arreglo.
+ * Asignar una variable que no pertenece al ámbito la modifica en el ámbito superior.
+ * Una variable capturada por una clausura queda en una Cell dentro de su casilla
+ * (ver captureCell).
+ */
+final class FrameScope implements ContextualScope {
+    private final ContextualScope parent;
+    private final String[] names;
+    private final Object[] values;
+
+    /**
+     * Constructor de la clase FrameScope.
+     *
+     * @param parent El ámbito superior
+     * @param names Los nombres de las variables (el arreglo se comparte, no se modifica)
+     * @param values Los valores iniciales, en el mismo orden (el arreglo pasa a ser del ámbito)
+     */
+    FrameScope(ContextualScope parent, String[] names, Object[] values) {
+        this.parent = parent;
+        this.names = names;
+        this.values = values;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+        int index = indexOf(name);
+        if (index < 0) {
+            parent.setVariable(name, value);
+        } else if (values[index] instanceof Cell) {
+            ((Cell) values[index]).set(value);
+        } else {
+            values[index] = value;
+        }
+    }
+
+    @Override
+    public Object getVariable(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return parent.getVariable(name);
+        }
+        Object value = values[index];
+        return value instanceof Cell ? ((Cell) value).get() : value;
+    }
+
+    @Override
+    public Cell captureCell(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return parent.captureCell(name);
+        }
+        if (!(values[index] instanceof Cell)) {
+            values[index] = new Cell(values[index]);
+        }
+        return (Cell) values[index];
+    }
+
+    @Override
+    public boolean isLocalVariable(String name) {
+        return indexOf(name) >= 0 || parent.isLocalVariable(name);
+    }
+
+    @Override
+    public Environment getGlobalScope() {
+        return parent.getGlobalScope();
+    }
+
+    @Override
+    public ContextualScope createSubScope() {
+        return new Environment(this);
+    }
+
+    @Override
+    public void rollbackState() {
+        Arrays.fill(values, null);
+    }
+}
@@ -0,0 +1,152 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: IncrementalReader.java
+ * Descripción: Lector incremental que recibe la entrada línea por línea y entrega
+ * cada expresión de nivel superior en cuanto se cierra su último paréntesis.
+ */
+
+/**
+ * Lector incremental de expresiones LISP.
+ * Conserva entre líneas el estado de la expresión que se está leyendo (tokens
+ * pendientes, profundidad de paréntesis y una cadena sin cerrar), de modo que cada línea se analiza una
+ * sola vez y nunca se vuelve a escanear la entrada anterior.
+ */
+public class IncrementalReader {
+    /**
+     * Lexer utilizado para tokenizar cada línea recibida.
+     */
+    private final Lexer lexer;
+
+    /**
+     * Tokens de la expresión que todavía no se ha cerrado.
+     */
+    private List<Token> pending;
+
+    /**
+     * Profundidad actual de paréntesis de la expresión pendiente.
+     */
+    private int depth;
+
+    /**
+     * Texto de una cadena entre comillas dobles que empezó en una línea anterior y
+     * todavía no se ha cerrado (incluye la comilla inicial y los saltos de línea), o
+     * null si no hay ninguna.
+     */
+    private StringBuilder openString;
+
+    /**
+     * Constructor de la clase IncrementalReader.
+     */
+    public IncrementalReader() {
+        this.lexer = new Lexer();
+        this.pending = new ArrayList<>();
+        this.depth = 0;
+    }
+
+    /**
+     * Agrega una línea de entrada al lector.
+     * Devuelve los tokens de cada expresión de nivel superior que quedó completa
+     * con esta línea, en el mismo orden en que aparecen. Una cadena que no se
+     * cierra en la línea se guarda hasta la línea con su comilla de cierre, y se
+     * entrega como un solo token que conserva los saltos de línea.
+     *
+     * @param line La línea de entrada
+     * @return Lista con los tokens de cada expresión completa (puede estar vacía)
+     */
+    public List<List<Token>> feed(String line) {
+        List<List<Token>> completed = new ArrayList<>();
+        int start = 0;
+
+        if (openString != null) {
+            int close = line.indexOf('"');
+            if (close < 0) {
+                openString.append(line).append('\n');
+                return completed;
+            }
+            openString.append(line, 0, close + 1);
+            accept(new Token(openString.toString()), completed);
+            openString = null;
+            start = close + 1;
+        }
+
+        int end = unclosedQuote(line, start);
+        for (Token token : lexer.tokenize(line, start, end < 0 ? line.length() : end)) {
+            accept(token, completed);
+        }
+        if (end >= 0) {
+            openString = new StringBuilder().append(line, end, line.length()).append('\n');
+        }
+
+        return completed;
+    }
+
+    /**
+     * Agrega un token a la expresión pendiente y, si con él se cierra, la pasa a
+     * la lista de expresiones completas.
+     */
+    private void accept(Token token, List<List<Token>> completed) {
+        String value = token.getValue();
+
+        if (value.equals(")") && depth == 0) {
+            // Paréntesis de cierre sin apertura: se descarta igual que en Parser.parse()
+            return;
+        }
+
+        pending.add(token);
+
+        if (value.equals("(")) {
+            depth++;
+        } else if (value.equals(")")) {
+            depth--;
+        }
+
+        // Una comilla (o el prefijo de una plantilla) solo cierra la expresión cuando llega el dato que cita
+        if (depth == 0 && !Parser.isPrefix(token.getType()) && token.getType() != TokenType.QUOTE) {
+            completed.add(pending);
+            pending = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Busca una cadena que se abre en la línea y no se cierra en ella.
+     *
+     * @param line La línea de entrada
+     * @param start Posición desde la que se busca
+     * @return La posición de la comilla que abre la cadena, o -1 si todas se cierran
+     */
+    private static int unclosedQuote(String line, int start) {
+        int open = -1;
+        for (int i = line.indexOf('"', start); i >= 0; i = line.indexOf('"', i + 1)) {
+            open = open < 0 ? i : -1;
+        }
+        return open;
+    }
+
+    /**
+     * Indica si hay una expresión iniciada que todavía no se ha cerrado.
+     *
+     * @return true si hay tokens pendientes, false en caso contrario
+     */
+    public boolean isInsideForm() {
+        return !pending.isEmpty() || openString != null;
+    }
+
+    /**
+     * Descarta la expresión pendiente, por ejemplo después de un error.
+     */
+    public void reset() {
+        pending = new ArrayList<>();
+        depth = 0;
+        openString = null;
+    }
+}
@@ -0,0 +1,554 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: Inliner.java
+ * Descripción: Inserta el cuerpo de funciones pequeñas de DEFUN en sus llamadas y simplifica el resultado.
+ */
+
+/**
+ * Optimizador que reemplaza una llamada a una función pequeña de DEFUN por una
+ * copia de su cuerpo con los argumentos en lugar de los parámetros. La copia se
+ * evalúa en el ámbito de la llamada, así que no se crea el marco de la llamada.
+ * Solo se reemplazan los argumentos que no pueden fallar ni tener efectos
+ * (constantes y variables); los demás se evalúan una vez, en orden, en un LET
+ * alrededor de la copia, igual que en la llamada normal. Al copiar, las operaciones
+ * aritméticas con argumentos constantes se calculan y las cláusulas de COND cuya
+ * condición ya se conoce se eliminan o se eligen.
+ * La copia se guarda en el nodo de la llamada junto con la función que se
+ * insertó, igual que la expansión de una macro: si el nombre se redefine con
+ * DEFUN, la función encontrada ya no es la misma, la copia deja de usarse y la
+ * llamada vuelve a ser normal hasta que se inserta la nueva definición.
+ */
+final class Inliner {
+    /**
+     * Tamaño máximo (en nodos) del cuerpo de una función que se inserta.
+     */
+    static final int MAX_NODES = 40;
+
+    /**
+     * Máximo de cuerpos insertados uno dentro de otro. Limita el tamaño de las
+     * copias cuando dos funciones pequeñas se llaman entre sí.
+     */
+    static final int MAX_DEPTH = 2;
+
+    /**
+     * Formas que pueden aparecer en un cuerpo insertado porque no modifican variables.
+     * No todas son puras: CAR, CDR, la aritmética y las comparaciones pueden lanzar un
+     * error, pero el cuerpo insertado las evalúa igual que la llamada normal.
+     */
+    private static final Set<String> BODY_FORMS = new HashSet<>(Arrays.asList(
+        "+", "-", "*", "/", "=", "<", ">", "ATOM", "LIST", "EQUAL",
+        "COND", "CLAUSE", "QUOTE", "CONS", "CAR", "CDR"
+    ));
+
+    /**
+     * Marca de una llamada que se analizó y no se puede insertar.
+     */
+    private static final ASTNode NOT_INLINED = new ASTNode("");
+
+    private Inliner() {
+    }
+
+    /**
+     * Resultado del análisis del cuerpo de una función, que se hace una sola vez.
+     */
+    static final class Summary {
+        /**
+         * Indica si el cuerpo es lo bastante pequeño y no tiene efectos propios.
+         */
+        final boolean inlinable;
+        /**
+         * Símbolos del cuerpo que no son parámetros (variables globales y nombres de
+         * funciones). Si alguno es local en la llamada, la copia vería otra variable.
+         */
+        final String[] freeNames;
+        /**
+         * Cuántas veces aparece cada parámetro en el cuerpo.
+         */
+        final int[] uses;
+
+        Summary(boolean inlinable, String[] freeNames, int[] uses) {
+            this.inlinable = inlinable;
+            this.freeNames = freeNames;
+            this.uses = uses;
+        }
+    }
+
+    private static final Summary NOT_INLINABLE = new Summary(false, new String[0], new int[0]);
+
+    /**
+     * Obtiene el cuerpo insertado de una llamada, insertándolo la primera vez.
+     *
+     * @param call El nodo de la llamada
+     * @param function La función a la que está asociado el nombre de la llamada
+     * @param scope El ámbito donde se evalúa la llamada
+     * @return La copia del cuerpo para evaluar en el ámbito de la llamada, o null si
+     *         la llamada se debe hacer de forma normal
+     */
+    static ASTNode inline(ASTNode call, Evaluator.Function function, ContextualScope scope) {
+        ASTNode body = call.getExpansion(function);
+        if (body == null) {
+            // Una llamada del nivel superior se evalúa una sola vez: no vale la pena copiar
+            if (scope.getGlobalScope() == scope) {
+                return null;
+            }
+            body = expand(call, function);
+            call.setExpansion(function, body == null ? NOT_INLINED : body);
+            if (body == null) {
+                return null;
+            }
+        } else if (body == NOT_INLINED) {
+            return null;
+        }
+        for (String name : summary(function).freeNames) {
+            if (scope.isLocalVariable(name)) {
+                return null;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Analiza el cuerpo de una función y guarda el resultado en la función.
+     */
+    static Summary summary(Evaluator.Function function) {
+        Summary summary = function.getInlineSummary();
+        if (summary == null) {
+            summary = analyze(function);
+            function.setInlineSummary(summary);
+        }
+        return summary;
+    }
+
+    private static Summary analyze(Evaluator.Function function) {
+        List<ASTNode> body = function.getBody();
+        ContextualScope parent = function.getParentScope();
+        // Las clausuras y las funciones definidas dentro de otra ven variables que no
+        // están en el ámbito de la llamada
+        if (function.isClosure() || parent.getGlobalScope() != parent || body.size() != 1
+                || countNodes(body.get(0), MAX_NODES + 1) > MAX_NODES) {
+            return NOT_INLINABLE;
+        }
+        List<String> params = function.getParamNames();
+        int[] uses = new int[params.size()];
+        Set<String> freeNames = new LinkedHashSet<>();
+        if (!scan(body.get(0), params, uses, freeNames, parent)) {
+            return NOT_INLINABLE;
+        }
+        return new Summary(true, freeNames.toArray(new String[0]), uses);
+    }
+
+    /**
+     * Recorre el cuerpo contando los usos de los parámetros y los nombres libres.
+     *
+     * @return false si el cuerpo usa una forma con efectos o un parámetro como función
+     */
+    private static boolean scan(ASTNode node, List<String> params, int[] uses, Set<String> freeNames,
+                                ContextualScope globalScope) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            int index = params.indexOf(value);
+            if (index >= 0 && node.isListForm()) {
+                // (f) con f un parámetro: la llamada no se puede reemplazar por el argumento
+                return false;
+            }
+            if (index >= 0) {
+                uses[index]++;
+            } else if (!isConstant(node)) {
+                freeNames.add(value);
+            }
+            return true;
+        }
+        if (value.isEmpty() || params.contains(value)) {
+            return false;
+        }
+        if (Evaluator.SPECIAL_FORMS.contains(value) || value.equals("CLAUSE")) {
+            if (!BODY_FORMS.contains(value)) {
+                return false;
+            }
+            if (value.equals("QUOTE")) {
+                return true;
+            }
+        } else {
+            // Llamada a otra función: se mantiene como llamada en la copia; una macro
+            // recibiría los argumentos ya reemplazados, así que no se inserta
+            if (globalScope.getVariable(value) instanceof Evaluator.Macro) {
+                return false;
+            }
+            freeNames.add(value);
+        }
+        for (int i = 0; i < children.size(); i++) {
+            if (isQuoteMark(children.get(i)) && i + 1 < children.size()) {
+                i++;
+            } else if (!scan(children.get(i), params, uses, freeNames, globalScope)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Crea la copia del cuerpo de una función para una llamada.
+     *
+     * @return La copia, o null si esta llamada no se puede insertar
+     */
+    private static ASTNode expand(ASTNode call, Evaluator.Function function) {
+        if (call.getInlineDepth() >= MAX_DEPTH) {
+            return null;
+        }
+        Summary summary = summary(function);
+        List<ASTNode> args = call.getChildren();
+        if (!summary.inlinable || args.size() != summary.uses.length
+                || Arrays.asList(summary.freeNames).contains(call.getValue())) {
+            // Una función recursiva no se inserta en sí misma
+            return null;
+        }
+
+        List<String> params = function.getParamNames();
+        int depth = call.getInlineDepth() + 1;
+        boolean needsLet = false;
+        for (ASTNode arg : args) {
+            if (isQuoteMark(arg)) {
+                return null;
+            }
+            needsLet |= !isConstant(arg) && !isVariable(arg);
+        }
+
+        // Sin LET, las constantes y las variables se reemplazan directamente: no fallan
+        // ni tienen efectos, así que da igual cuándo ni cuántas veces se evalúan. Con
+        // LET, las variables también pasan por él para no quedar ocultas por un
+        // parámetro con su mismo nombre y para leerse en el orden de la llamada
+        Map<String, ASTNode> bindings = new HashMap<>();
+        ASTNode letBindings = node("", depth);
+        for (int i = 0; i < args.size(); i++) {
+            ASTNode arg = args.get(i);
+            if (isConstant(arg) || (!needsLet && isVariable(arg))) {
+                bindings.put(params.get(i), arg);
+            } else {
+                ASTNode binding = node(params.get(i), depth);
+                binding.addChild(arg);
+                letBindings.addChild(binding);
+            }
+        }
+        ASTNode body = copy(function.getBody().get(0), bindings, depth);
+        if (!needsLet) {
+            return body;
+        }
+        // (LET ((x argumento) ...) cuerpo): los argumentos se evalúan una vez, en
+        // orden y en el ámbito de la llamada, aunque el cuerpo no los use
+        ASTNode let = node("LET", depth);
+        let.addChild(letBindings);
+        let.addChild(body);
+        return let;
+    }
+
+    /**
+     * Copia un nodo del cuerpo reemplazando los parámetros y simplificando. También
+     * la usa el Specializer para las versiones de una función con argumentos constantes.
+     *
+     * @param node El nodo a copiar
+     * @param bindings El nodo que reemplaza a cada parámetro
+     * @param depth La profundidad de inserción de los nodos nuevos
+     * @return La copia
+     */
+    static ASTNode copy(ASTNode node, Map<String, ASTNode> bindings, int depth) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            if (node.isListForm()) {
+                ASTNode call = node(value, depth);
+                call.markListForm();
+                return call;
+            }
+            ASTNode arg = bindings.get(value);
+            return arg != null ? arg : node(value, depth);
+        }
+        if (value.equals("QUOTE")) {
+            return node;
+        }
+        if (value.equals("COND")) {
+            ASTNode cond = copyCond(children, bindings, depth);
+            if (cond != null) {
+                return cond;
+            }
+        }
+
+        List<ASTNode> copies = new ArrayList<>(children.size());
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            if (isQuoteMark(child) && i + 1 < children.size()) {
+                // 'dato: los datos citados se comparten tal cual
+                copies.add(child);
+                copies.add(children.get(++i));
+            } else {
+                copies.add(copy(child, bindings, depth));
+            }
+        }
+        ASTNode folded = foldArithmetic(value, copies, depth);
+        if (folded != null) {
+            return folded;
+        }
+        ASTNode result = node(value, depth);
+        for (ASTNode copy : copies) {
+            result.addChild(copy);
+        }
+        return result;
+    }
+
+    /**
+     * Copia un COND quitando las cláusulas cuya condición es siempre falsa y las que
+     * siguen a una condición siempre verdadera.
+     *
+     * @return La copia, o null si alguna cláusula no tiene la forma esperada (el error
+     *         se deja para la evaluación)
+     */
+    private static ASTNode copyCond(List<ASTNode> clauses, Map<String, ASTNode> bindings, int depth) {
+        for (ASTNode clause : clauses) {
+            if (!clause.getValue().equals("CLAUSE") || clause.getChildren().size() != 2) {
+                return null;
+            }
+        }
+        List<ASTNode> kept = new ArrayList<>();
+        for (ASTNode clause : clauses) {
+            ASTNode condition = copy(clause.getChildren().get(0), bindings, depth);
+            Boolean known = constantTruth(condition);
+            if (Boolean.FALSE.equals(known)) {
+                continue;
+            }
+            ASTNode result = copy(clause.getChildren().get(1), bindings, depth);
+            if (Boolean.TRUE.equals(known)) {
+                if (kept.isEmpty()) {
+                    return result;
+                }
+                kept.add(clause(node("T", depth), result, depth));
+                break;
+            }
+            kept.add(clause(condition, result, depth));
+        }
+        if (kept.isEmpty()) {
+            return node("NIL", depth);
+        }
+        ASTNode cond = node("COND", depth);
+        for (ASTNode clause : kept) {
+            cond.addChild(clause);
+        }
+        return cond;
+    }
+
+    /**
+     * Calcula una operación aritmética cuyos argumentos son todos números constantes,
+     * con las mismas reglas que el Evaluator.
+     *
+     * @return La hoja con el resultado, o null si no se puede calcular antes (por
+     *         ejemplo, una división por cero, que debe fallar al evaluar)
+     */
+    private static ASTNode foldArithmetic(String operation, List<ASTNode> args, int depth) {
+        if (!(operation.equals("+") || operation.equals("-") || operation.equals("*") || operation.equals("/"))) {
+            return null;
+        }
+        double[] numbers = new double[args.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            Double number = numberValue(args.get(i));
+            if (number == null) {
+                return null;
+            }
+            numbers[i] = number;
+        }
+
+        double result;
+        switch (operation) {
+            case "+":
+                result = 0;
+                for (double number : numbers) {
+                    result += number;
+                }
+                break;
+            case "*":
+                result = 1;
+                for (double number : numbers) {
+                    result *= number;
+                }
+                break;
+            case "-":
+                if (numbers.length == 0) {
+                    return null;
+                }
+                result = numbers.length == 1 ? -numbers[0] : numbers[0];
+                for (int i = 1; i < numbers.length; i++) {
+                    result -= numbers[i];
+                }
+                break;
+            default:
+                if (numbers.length < 2) {
+                    return null;
+                }
+                result = numbers[0];
+                for (int i = 1; i < numbers.length; i++) {
+                    if (numbers[i] == 0) {
+                        return null;
+                    }
+                    result /= numbers[i];
+                }
+                break;
+        }
+        // Infinity y NaN no se leen como números
+        return Double.isInfinite(result) || Double.isNaN(result) ? null : node(Double.toString(result), depth);
+    }
+
+    /**
+     * Valor de verdad de una condición de COND si se conoce sin evaluarla.
+     *
+     * @return TRUE o FALSE, o null si depende de la evaluación
+     */
+    private static Boolean constantTruth(ASTNode condition) {
+        String value = condition.getValue();
+        List<ASTNode> children = condition.getChildren();
+        if (children.isEmpty()) {
+            if (value.equals("T")) {
+                return true;
+            }
+            if (value.equals("NIL") || value.isEmpty()) {
+                return false;
+            }
+            Double number = numberValue(condition);
+            return number == null ? null : number != 0;
+        }
+        if (children.size() == 2 && (value.equals("<") || value.equals(">") || value.equals("="))) {
+            Double left = numberValue(children.get(0));
+            Double right = numberValue(children.get(1));
+            if (left == null || right == null) {
+                return null;
+            }
+            return value.equals("<") ? left < right : value.equals(">") ? left > right : left.doubleValue() == right;
+        }
+        if (children.size() == 2 && value.equals("EQUAL")) {
+            return constantEqual(children.get(0), children.get(1));
+        }
+        return null;
+    }
+
+    /**
+     * Resultado de EQUAL entre dos constantes (números, cadenas o datos citados con
+     * QUOTE), con las mismas reglas que el Evaluator.
+     *
+     * @return TRUE o FALSE, o null si alguno de los dos no es una constante de esos tipos
+     */
+    private static Boolean constantEqual(ASTNode left, ASTNode right) {
+        Double leftNumber = numberValue(left);
+        Double rightNumber = numberValue(right);
+        if (leftNumber != null && rightNumber != null) {
+            return leftNumber.doubleValue() == rightNumber;
+        }
+        boolean leftQuoted = left.getValue().equals("QUOTE") && left.getChildren().size() == 1;
+        boolean rightQuoted = right.getValue().equals("QUOTE") && right.getChildren().size() == 1;
+        if (leftQuoted && rightQuoted) {
+            return sameDatum(left.getChildren().get(0), right.getChildren().get(0));
+        }
+        if (Evaluator.isStringLiteral(left.getValue()) && Evaluator.isStringLiteral(right.getValue())
+                && left.getChildren().isEmpty() && right.getChildren().isEmpty()) {
+            return left.getValue().equals(right.getValue());
+        }
+        return null;
+    }
+
+    /**
+     * Compara dos datos citados por estructura, como EQUAL.
+     */
+    private static boolean sameDatum(ASTNode a, ASTNode b) {
+        if (!a.getValue().equals(b.getValue()) || a.getChildren().size() != b.getChildren().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.getChildren().size(); i++) {
+            if (!sameDatum(a.getChildren().get(i), b.getChildren().get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si un nodo es el nombre de una variable (una hoja que no es una llamada
+     * como (g)). Leer una variable no falla: si no existe, su valor es el símbolo.
+     */
+    private static boolean isVariable(ASTNode node) {
+        return node.getChildren().isEmpty() && !node.isListForm();
+    }
+
+    /**
+     * Indica si un nodo es un número, una cadena, NIL, () o un dato citado.
+     */
+    private static boolean isConstant(ASTNode node) {
+        String value = node.getValue();
+        if (!node.getChildren().isEmpty()) {
+            return value.equals("QUOTE");
+        }
+        return value.isEmpty() || value.equals("NIL") || numberValue(node) != null
+            || (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\""));
+    }
+
+    /**
+     * Valor de una hoja que es un número literal, leído igual que en el Evaluator.
+     */
+    private static Double numberValue(ASTNode node) {
+        String value = node.getValue();
+        if (!node.getChildren().isEmpty() || value.isEmpty()) {
+            return null;
+        }
+        char first = value.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isQuoteMark(ASTNode node) {
+        return node.getValue().equals("'") && node.getChildren().isEmpty();
+    }
+
+    /**
+     * Cuenta los nodos de un árbol, deteniéndose al llegar al límite.
+     */
+    private static int countNodes(ASTNode node, int limit) {
+        int count = 1;
+        for (ASTNode child : node.getChildren()) {
+            if (count >= limit) {
+                break;
+            }
+            count += countNodes(child, limit - count);
+        }
+        return count;
+    }
+
+    private static ASTNode node(String value, int depth) {
+        ASTNode node = new ASTNode(value);
+        node.setInlineDepth(depth);
+        return node;
+    }
+
+    private static ASTNode clause(ASTNode condition, ASTNode result, int depth) {
+        ASTNode clause = node("CLAUSE", depth);
+        clause.addChild(condition);
+        clause.addChild(result);
+        return clause;
+    }
+}
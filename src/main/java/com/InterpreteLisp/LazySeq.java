@@ -0,0 +1,443 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LazySeq.java
+ * Descripción: Secuencias perezosas con etapas MAP, FILTER y TAKE fusionadas en un solo recorrido.
+ */
+
+/**
+ * Secuencia perezosa: una fuente (un rango numérico, posiblemente infinito, una
+ * lista o un vector) seguida de una cadena de etapas (LAZY-MAP, LAZY-FILTER, TAKE).
+ * Crear una etapa no calcula nada: solo devuelve una secuencia nueva con una etapa
+ * más. Al consumir la secuencia (REDUCE, CAR, impresión...) cada elemento de la
+ * fuente pasa por todas las etapas en un solo ciclo, sin listas intermedias, por lo
+ * que la memoria usada no depende del tamaño de la secuencia.
+ */
+public final class LazySeq {
+    /**
+     * Cantidad máxima de elementos que se muestran al imprimir una secuencia.
+     */
+    static final int PRINT_LIMIT = 20;
+
+    private static final byte MAP = 0;
+    private static final byte FILTER = 1;
+    private static final byte TAKE = 2;
+
+    /**
+     * Receptor de los elementos producidos por la secuencia.
+     */
+    interface Sink {
+        /**
+         * Recibe un elemento.
+         *
+         * @param value El elemento
+         * @return false para detener el recorrido
+         */
+        boolean accept(Object value);
+    }
+
+    private final Evaluator evaluator;
+    /** Indica si la fuente es un rango numérico; si no, la fuente es source. */
+    private final boolean range;
+    /** Lista de celdas, vector, arreglo (ver indexed()) o null (lista vacía) cuando la fuente no es un rango. */
+    private final Object source;
+    private final double start;
+    private final double end;
+    private final double step;
+    private final byte[] kinds;
+    private final Object[] functions;
+    private final long[] limits;
+
+    private LazySeq(Evaluator evaluator, boolean range, Object source, double start, double end, double step,
+                    byte[] kinds, Object[] functions, long[] limits) {
+        this.evaluator = evaluator;
+        this.range = range;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.step = step;
+        this.kinds = kinds;
+        this.functions = functions;
+        this.limits = limits;
+    }
+
+    /**
+     * Crea un rango numérico desde start (inclusivo) hasta end (exclusivo).
+     *
+     * @param evaluator El evaluador que aplica las funciones de las etapas
+     * @param start El primer valor
+     * @param end El límite; infinito para un rango sin fin
+     * @param step El incremento, distinto de cero
+     * @return La secuencia
+     */
+    static LazySeq range(Evaluator evaluator, double start, double end, double step) {
+        if (step == 0) {
+            throw new LispError("RANGE requiere un incremento distinto de cero");
+        }
+        return new LazySeq(evaluator, true, null, start, end, step, new byte[0], new Object[0], new long[0]);
+    }
+
+    /**
+     * Convierte una colección en secuencia perezosa.
+     *
+     * @param evaluator El evaluador que aplica las funciones de las etapas
+     * @param collection Una secuencia, una lista (celdas o dato citado), un vector o NIL
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return La secuencia
+     */
+    static LazySeq of(Evaluator evaluator, Object collection, String operation) {
+        if (collection instanceof LazySeq) {
+            return (LazySeq) collection;
+        }
+        Object source = ConsCell.fromDatum(collection);
+        if (source != null && !(source instanceof ConsCell) && !(source instanceof LispVector)) {
+            throw new LispError(operation + " requiere una secuencia, lista o vector");
+        }
+        return new LazySeq(evaluator, false, source, 0, 0, 0, new byte[0], new Object[0], new long[0]);
+    }
+
+    /**
+     * Agrega una etapa que aplica una función a cada elemento.
+     */
+    LazySeq map(Object function) {
+        return withStage(MAP, function, 0);
+    }
+
+    /**
+     * Agrega una etapa que deja pasar solo los elementos que cumplen el predicado.
+     */
+    LazySeq filter(Object predicate) {
+        return withStage(FILTER, predicate, 0);
+    }
+
+    /**
+     * Agrega una etapa que deja pasar a lo sumo n elementos y luego detiene el recorrido.
+     */
+    LazySeq take(long n) {
+        return withStage(TAKE, null, Math.max(0, n));
+    }
+
+    private LazySeq withStage(byte kind, Object function, long limit) {
+        int n = kinds.length;
+        byte[] newKinds = Arrays.copyOf(kinds, n + 1);
+        Object[] newFunctions = Arrays.copyOf(functions, n + 1);
+        long[] newLimits = Arrays.copyOf(limits, n + 1);
+        newKinds[n] = kind;
+        newFunctions[n] = function;
+        newLimits[n] = limit;
+        return new LazySeq(evaluator, range, source, start, end, step, newKinds, newFunctions, newLimits);
+    }
+
+    /**
+     * Recorre la secuencia entregando cada elemento resultante al receptor.
+     *
+     * @param sink El receptor; puede detener el recorrido devolviendo false
+     */
+    void forEach(Sink sink) {
+        long[] taken = newTakeCounters();
+        if (taken == null) {
+            return;
+        }
+        if (source instanceof ConsCell) {
+            Object cell = source;
+            while (cell instanceof ConsCell) {
+                if (!push(((ConsCell) cell).getCar(), taken, sink)) {
+                    return;
+                }
+                cell = ((ConsCell) cell).getCdr();
+            }
+        } else {
+            traverse(0, Long.MAX_VALUE, taken, sink);
+        }
+    }
+
+    /**
+     * Recorre solo los elementos de la fuente con posición en [from, to), pasándolos
+     * por todas las etapas. La secuencia debe venir de indexed().
+     *
+     * @param from Primera posición de la fuente (inclusiva)
+     * @param to Última posición de la fuente (exclusiva)
+     * @param sink El receptor; puede detener el recorrido devolviendo false
+     */
+    void forEach(long from, long to, Sink sink) {
+        long[] taken = newTakeCounters();
+        if (taken != null) {
+            traverse(from, to, taken, sink);
+        }
+    }
+
+    /**
+     * Crea los contadores de las etapas TAKE; son locales a cada recorrido.
+     *
+     * @return Los contadores, o null si alguna etapa TAKE no deja pasar nada
+     */
+    private long[] newTakeCounters() {
+        for (int s = 0; s < kinds.length; s++) {
+            if (kinds[s] == TAKE && limits[s] == 0) {
+                return null;
+            }
+        }
+        return new long[kinds.length];
+    }
+
+    /**
+     * Recorre por posición una fuente de acceso directo (rango, vector o arreglo).
+     */
+    private void traverse(long from, long to, long[] taken, Sink sink) {
+        if (range) {
+            // Rango numérico: el valor se calcula desde el índice para no acumular error
+            for (long i = from; i < to; i++) {
+                double x = start + i * step;
+                if (step > 0 ? x >= end : x <= end) {
+                    return;
+                }
+                if (!push(x, taken, sink)) {
+                    return;
+                }
+            }
+        } else if (source instanceof LispVector) {
+            double[] values = ((LispVector) source).values();
+            int limit = (int) Math.min(to, values.length);
+            for (int i = (int) from; i < limit; i++) {
+                if (!push(values[i], taken, sink)) {
+                    return;
+                }
+            }
+        } else if (source instanceof Object[]) {
+            Object[] values = (Object[]) source;
+            int limit = (int) Math.min(to, values.length);
+            for (int i = (int) from; i < limit; i++) {
+                if (!push(values[i], taken, sink)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepara la secuencia para recorrerla por tramos independientes con
+     * forEach(from, to, sink): si la fuente es una lista, se copia a un arreglo para
+     * tener acceso por posición.
+     *
+     * @return La secuencia equivalente, o null si no se puede dividir: un rango
+     *         infinito, o una etapa TAKE, cuyo contador depende de los tramos anteriores
+     */
+    LazySeq indexed() {
+        if (range && Double.isInfinite(end)) {
+            return null;
+        }
+        for (byte kind : kinds) {
+            if (kind == TAKE) {
+                return null;
+            }
+        }
+        if (!(source instanceof ConsCell)) {
+            return this;
+        }
+        List<Object> elements = new ArrayList<>();
+        for (Object cell = source; cell instanceof ConsCell; cell = ((ConsCell) cell).getCdr()) {
+            elements.add(((ConsCell) cell).getCar());
+        }
+        return new LazySeq(evaluator, false, elements.toArray(), 0, 0, 0, kinds, functions, limits);
+    }
+
+    /**
+     * Número de elementos de la fuente, antes de aplicar las etapas.
+     * La secuencia debe venir de indexed().
+     *
+     * @return La cantidad de posiciones que recorre forEach(from, to, sink)
+     */
+    long sourceSize() {
+        if (range) {
+            double count = Math.ceil((end - start) / step);
+            long n = count > 0 ? (long) count : 0;
+            // Ajustar el redondeo para que coincida con la comparación de traverse()
+            while (n > 0 && (step > 0 ? start + (n - 1) * step >= end : start + (n - 1) * step <= end)) {
+                n--;
+            }
+            while (step > 0 ? start + n * step < end : start + n * step > end) {
+                n++;
+            }
+            return n;
+        }
+        if (source instanceof LispVector) {
+            return ((LispVector) source).length();
+        }
+        if (source instanceof Object[]) {
+            return ((Object[]) source).length;
+        }
+        return 0;
+    }
+
+    /**
+     * Pasa un elemento por todas las etapas.
+     *
+     * @return false si el recorrido debe detenerse
+     */
+    private boolean push(Object value, long[] taken, Sink sink) {
+        boolean last = false;
+        for (int s = 0; s < kinds.length; s++) {
+            switch (kinds[s]) {
+                case MAP:
+                    value = evaluator.call(functions[s], value);
+                    break;
+                case FILTER:
+                    if (!evaluator.isTruthy(evaluator.call(functions[s], value))) {
+                        return !last;
+                    }
+                    break;
+                default:
+                    // Al pasar el último elemento permitido, el recorrido termina después de entregarlo
+                    if (++taken[s] >= limits[s]) {
+                        last = true;
+                    }
+                    break;
+            }
+        }
+        return sink.accept(value) && !last;
+    }
+
+    /**
+     * Calcula todos los elementos y los devuelve como lista de celdas.
+     * Para una secuencia infinita no termina.
+     *
+     * @return La lista, o null si la secuencia está vacía
+     */
+    ConsCell toList() {
+        final List<Object> elements = new ArrayList<>();
+        forEach(new Sink() {
+            @Override
+            public boolean accept(Object value) {
+                elements.add(value);
+                return true;
+            }
+        });
+        ConsCell list = null;
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            list = new ConsCell(elements.get(i), list);
+        }
+        return list;
+    }
+
+    /**
+     * Obtiene el primer elemento sin calcular los demás.
+     *
+     * @return El primer elemento, o null si la secuencia está vacía
+     */
+    Object first() {
+        final Object[] result = new Object[1];
+        forEach(new Sink() {
+            @Override
+            public boolean accept(Object value) {
+                result[0] = value;
+                return false;
+            }
+        });
+        return result[0];
+    }
+
+    /**
+     * Muestra los primeros elementos; si hay más de PRINT_LIMIT termina en "...".
+     */
+    @Override
+    public String toString() {
+        final List<Object> elements = new ArrayList<>();
+        forEach(new Sink() {
+            @Override
+            public boolean accept(Object value) {
+                elements.add(value);
+                return elements.size() <= PRINT_LIMIT;
+            }
+        });
+        ConsCell list = null;
+        for (int i = Math.min(elements.size(), PRINT_LIMIT) - 1; i >= 0; i--) {
+            list = new ConsCell(elements.get(i), list);
+        }
+        String text = list == null ? "()" : list.toString();
+        if (elements.size() > PRINT_LIMIT) {
+            text = text.substring(0, text.length() - 1) + " ...)";
+        }
+        return text;
+    }
+
+    /**
+     * Receptor que reduce los elementos con una función de dos argumentos, de
+     * izquierda a derecha. Con + y * el acumulador se mantiene como double sin crear
+     * objetos en cada paso.
+     */
+    static final class Reducer implements Sink {
+        private final Evaluator evaluator;
+        private final Object function;
+        private final boolean primitive;
+        private final boolean sum;
+        private double number;
+        private Object value;
+        private boolean empty = true;
+
+        /**
+         * Constructor de la clase Reducer.
+         *
+         * @param evaluator El evaluador que aplica la función
+         * @param function Una Function (DEFUN) o una BuiltinFunction
+         */
+        Reducer(Evaluator evaluator, Object function) {
+            this.evaluator = evaluator;
+            this.function = function;
+            String builtin = function instanceof Main.BuiltinFunction ? ((Main.BuiltinFunction) function).getName() : "";
+            this.primitive = builtin.equals("+") || builtin.equals("*");
+            this.sum = builtin.equals("+");
+        }
+
+        /**
+         * Usa un valor inicial como primer acumulado.
+         *
+         * @param initial El valor inicial
+         */
+        void seed(Object initial) {
+            accept(initial);
+        }
+
+        @Override
+        public boolean accept(Object element) {
+            if (primitive) {
+                double operand = LispVector.toDouble(element, "REDUCE");
+                number = empty ? operand : (sum ? number + operand : number * operand);
+            } else if (empty) {
+                value = element;
+            } else {
+                value = evaluator.call(function, value, element);
+            }
+            empty = false;
+            return true;
+        }
+
+        /**
+         * Indica si todavía no se recibió ningún elemento.
+         */
+        boolean isEmpty() {
+            return empty;
+        }
+
+        /**
+         * Obtiene el resultado de la reducción.
+         *
+         * @return El acumulado; sin elementos, 0 para +, 1 para * y NIL para las demás funciones
+         */
+        Object result() {
+            if (primitive) {
+                return empty ? (sum ? 0.0 : 1.0) : number;
+            }
+            return value;
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.regex.*;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 01/03/2025
- * última modificación: 20/03/2025
+ * última modificación: 19/10/2026
  * File Name: Lexer.java
  * Descripción: Clase que se encarga de analizar la expresión LISP.
  * 
@@ -18,6 +18,14 @@ import java.util.regex.*;
  */
 
 public class Lexer {
+    /**
+     * Patrón de los tokens reconocidos. Se compila una sola vez y se comparte entre
+     * todas las instancias (Pattern es seguro para usarse desde varios hilos).
+     */
+    private static final Pattern TOKEN_PATTERN = Pattern.compile(
+        "\\(|\\)|\"[^\"]*\"|[a-zA-Z][a-zA-Z0-9]*(-[a-zA-Z0-9]+)*[+*]?"
+        + "|(?<![a-zA-Z0-9.)\"])[-+]?[0-9]+(\\.[0-9]+)?|[0-9]+(\\.[0-9]+)?|[-+*/='`]|,@?|&[a-zA-Z]+|<|>");
+
     /**
      * Lista de tokens obtenidos durante el análisis léxico.
      */
@@ -33,17 +41,39 @@ public class Lexer {
 
     /**
      * Divide una cadena de código en tokens según patrones definidos.
-     * Reconoce paréntesis, palabras, números y operadores aritméticos.
+     * Reconoce paréntesis, cadenas entre comillas dobles, símbolos (que pueden
+     * contener dígitos y guiones internos, como SAVE-IMAGE, y terminar en + o *, como V+),
+     * números (con signo si el signo va pegado al número y no a un token anterior,
+     * como en (+ x -3); en 1-2 el guion sigue siendo un operador), operadores
+     * aritméticos, la comilla invertida, la coma y la coma-arroba
+     * de las plantillas de macros, y los marcadores de parámetros como &REST.
      *
      * @param code La cadena de código LISP a analizar
      * @return Una lista de tokens extraídos del código
      */
     public List<Token> tokenize(String code) {
+        return tokenize(code, 0, code.length());
+    }
+
+    /**
+     * Divide en tokens solo una región de la cadena, sin copiarla.
+     *
+     * @param code La cadena de código LISP
+     * @param start Posición inicial de la región (inclusiva)
+     * @param end Posición final de la región (exclusiva)
+     * @return Una lista de tokens extraídos de la región
+     */
+    public List<Token> tokenize(String code, int start, int end) {
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.LEX);
         tokens.clear();
-        Matcher matcher = Pattern.compile("\\(|\\)|[a-zA-Z]+|[0-9]+(\\.[0-9]+)?|[-+*/=']|<|>").matcher(code);
+        Matcher matcher = TOKEN_PATTERN.matcher(code);
+        matcher.region(start, end);
         while (matcher.find()) {
             tokens.add(new Token(matcher.group()));
         }
+        if (event != null && FlightEvents.EVENTS.end(event)) {
+            FlightEvents.EVENTS.commit(event, "LEX", tokens.size(), code.substring(start, end));
+        }
         return tokens;
     }
 
@@ -114,8 +144,8 @@ public class Lexer {
      * @return true si la expresión es válida, false en caso contrario
      */
     public boolean isValidExpression(List<Token> tokens, Environment env) {
-        // Si comienza con una comilla simple, consideramos que es una expresión de QUOTE válida
-        if (tokens.size() > 0 && tokens.get(0).getValue().equals("'")) {
+        // Si comienza con una comilla simple o invertida, consideramos que es una expresión citada válida
+        if (tokens.size() > 0 && (tokens.get(0).getValue().equals("'") || tokens.get(0).getValue().equals("`"))) {
             return true;
         }
         
@@ -145,14 +175,40 @@ public class Lexer {
             "DEFUN",                    // Definición de funciones
             "ATOM", "LIST", "EQUAL", "<", ">", // Predicados
             "COND",                     // Condicional
-            "PRINT"                     // Función auxiliar
+            "PRINT",                    // Función auxiliar
+            "SAVE-IMAGE",               // Imagen del entorno
+            "CONS", "CAR", "CDR",       // Listas
+            "APPEND", "REVERSE",
+            "VECTOR", "MAKE-VECTOR",    // Vectores numéricos
+            "AREF", "ASET", "VSUM", "VDOT", "V+", "V*",
+            "VMIN", "VMAX", "VECTOR-BACKEND",
+            "MAKE-HASH-TABLE", "GETHASH", // Tablas hash
+            "PUTHASH", "REMHASH", "HASH-COUNT",
+            "RANGE", "LAZY-MAP",        // Secuencias perezosas
+            "LAZY-FILTER", "TAKE", "REDUCE",
+            "PREDUCE", "PMAPCAR",       // Procesamiento en paralelo
+            "DOTIMES", "DOLIST",        // Ciclos
+            "WHILE", "LOOP", "RETURN",
+            "LET", "LAMBDA",            // Ámbitos locales y clausuras
+            "BLOCK", "RETURN-FROM",     // Salidas no locales y errores
+            "CATCH", "THROW", "ERROR", "HANDLER-CASE",
+            "DEFMACRO", "MACROEXPAND",  // Macros
+            "GENSYM", "PROGN",
+            "COMPILATION-LOG",          // Compilación de trazas
+            "PROFILE",                  // Perfilado
+            "START-SAMPLING", "STOP-SAMPLING"
         ));
     
         // Verificar si el segundo token es un operador o función especial
         if (validOperators.contains(secondToken)) {
             return true;
         }
-    
+
+        // Aplicación directa de una expresión, como ((LAMBDA (x) x) 3)
+        if (secondToken.equals("(") && tokens.size() > 2 && tokens.get(2).getValue().equals("LAMBDA")) {
+            return true;
+        }
+
         // Verificar si el segundo token es una función definida por el usuario
         if (env != null && env.getVariable(secondToken) != null) {
             return true;
@@ -202,8 +258,8 @@ public class Lexer {
                 continue;
             }
             
-            // Manejar expresiones que comienzan con comilla simple
-            if (c == '\'') {
+            // Manejar expresiones que comienzan con comilla simple o con una plantilla (`)
+            if (c == '\'' || c == '`') {
                 int start = i;
                 i++; // Avanzar después de la comilla
                 
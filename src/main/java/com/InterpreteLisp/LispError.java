@@ -0,0 +1,151 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispError.java
+ * Descripción: Error de un programa LISP con su tipo y la traza de las llamadas LISP activas.
+ */
+
+/**
+ * Error durante la evaluación de un programa LISP. En lugar de la pila de Java,
+ * que es cara de capturar con recursión profunda y no dice nada sobre el
+ * programa, guarda una traza LISP: cada llamada a una función de DEFUN por la
+ * que pasa el error al propagarse agrega su forma, por ejemplo (fib 1). La traza
+ * solo se construye si hay un error; HANDLER-CASE atrapa el error por su tipo.
+ */
+public class LispError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tipo de los errores del intérprete y de ERROR con un solo argumento.
+     */
+    public static final String DEFAULT_TYPE = "ERROR";
+
+    /**
+     * Llamadas que se guardan en la traza; las demás solo se cuentan.
+     */
+    static final int MAX_FRAMES = 32;
+
+    private final String type;
+    private List<String> backtrace;
+    private int omittedFrames;
+
+    /**
+     * Crea un error del tipo ERROR.
+     *
+     * @param message El mensaje
+     */
+    public LispError(String message) {
+        this(DEFAULT_TYPE, message, null);
+    }
+
+    /**
+     * Crea un error de un tipo dado.
+     *
+     * @param type El tipo, con el que HANDLER-CASE elige la cláusula
+     * @param message El mensaje
+     * @param cause La excepción de Java que lo originó, o null
+     */
+    public LispError(String type, String message, Throwable cause) {
+        super(message, cause, true, false);
+        this.type = type;
+    }
+
+    /**
+     * Convierte cualquier excepción de la evaluación en un error LISP.
+     *
+     * @param e La excepción
+     * @return La misma excepción si ya es un LispError, o un ERROR con su mensaje
+     */
+    static LispError from(RuntimeException e) {
+        if (e instanceof LispError) {
+            return (LispError) e;
+        }
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return new LispError(DEFAULT_TYPE, message, e);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Indica si la traza todavía tiene espacio para otra llamada. Se consulta antes
+     * de armar el texto de la llamada, que formatea todos sus argumentos.
+     *
+     * @return true si addFrame() guardaría la llamada
+     */
+    boolean wantsFrame() {
+        return backtrace == null || backtrace.size() < MAX_FRAMES;
+    }
+
+    /**
+     * Cuenta una llamada que no se guarda porque la traza ya está llena.
+     */
+    void omitFrame() {
+        omittedFrames++;
+    }
+
+    /**
+     * Agrega a la traza una llamada por la que pasó el error.
+     *
+     * @param call La forma de la llamada, por ejemplo (fib 1)
+     */
+    void addFrame(String call) {
+        if (backtrace == null) {
+            backtrace = new ArrayList<>();
+        }
+        if (backtrace.size() < MAX_FRAMES) {
+            backtrace.add(call);
+        } else {
+            omitFrame();
+        }
+    }
+
+    /**
+     * Obtiene la traza LISP, de la llamada más interna a la más externa.
+     */
+    public List<String> getBacktrace() {
+        return backtrace == null ? Collections.<String>emptyList() : Collections.unmodifiableList(backtrace);
+    }
+
+    /**
+     * Número de llamadas que no se guardaron en la traza por exceder MAX_FRAMES.
+     */
+    public int getOmittedFrames() {
+        return omittedFrames;
+    }
+
+    /**
+     * Formatea la traza LISP, una llamada por línea.
+     *
+     * @return La traza, o una cadena vacía si el error ocurrió fuera de una función
+     */
+    public String formatBacktrace() {
+        StringBuilder sb = new StringBuilder();
+        for (String call : getBacktrace()) {
+            sb.append("  en ").append(call).append('\n');
+        }
+        if (omittedFrames > 0) {
+            sb.append("  ... y ").append(omittedFrames).append(" llamadas más\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Un error se muestra como su mensaje, por ejemplo al imprimir la variable de HANDLER-CASE.
+     */
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
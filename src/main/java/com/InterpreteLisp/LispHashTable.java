@@ -0,0 +1,391 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispHashTable.java
+ * Descripción: Tabla hash de direccionamiento abierto para MAKE-HASH-TABLE, GETHASH y PUTHASH.
+ */
+
+/**
+ * Tabla hash de direccionamiento abierto con sondeo lineal.
+ * <ul>
+ *   <li>Las llaves numéricas enteras (fixnums) se guardan en un long[] sin crear
+ *       objetos; el resto de las llaves (símbolos, otros números, listas) se guardan
+ *       en un Object[] y se comparan con equals(), igual que EQUAL.</li>
+ *   <li>Al crecer no se copia toda la tabla de una vez: la tabla anterior se conserva
+ *       y cada escritura (put o remove) traslada unas cuantas casillas a la nueva
+ *       (rehash incremental), de modo que ninguna operación individual hace una pausa
+ *       larga. Las lecturas buscan en las dos tablas sin trasladar nada.</li>
+ * </ul>
+ * get() y size() no modifican la tabla, así que varios hilos pueden leerla a la vez
+ * (por ejemplo desde PMAPCAR) mientras ninguno escriba; las escrituras concurrentes
+ * no están sincronizadas.
+ * Las llaves se normalizan con ConsCell.fromDatum(), así que un dato citado y la
+ * lista de celdas equivalente son la misma llave.
+ */
+public final class LispHashTable {
+    /**
+     * Capacidad mínima de la tabla (siempre potencia de dos).
+     */
+    static final int MIN_CAPACITY = 8;
+
+    /**
+     * Casillas de la tabla anterior que se trasladan en cada operación durante un rehash.
+     */
+    static final int MIGRATION_STEP = 16;
+
+    /**
+     * Llave que representa a NIL, ya que null marca las casillas sin llave de objeto.
+     */
+    private static final Object NIL_KEY = new Object();
+
+    private Table current;
+    private Table old;
+    private int migrated;
+
+    /**
+     * Constructor con la capacidad mínima.
+     */
+    public LispHashTable() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor con un número de elementos esperado.
+     *
+     * @param expectedSize Número de elementos que se espera guardar
+     */
+    public LispHashTable(int expectedSize) {
+        this.current = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Capacidad (potencia de dos) para guardar n elementos con un factor de carga de 1/2.
+     */
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Obtiene el valor asociado a una llave. No traslada casillas de un rehash en
+     * curso, para que leer no modifique la tabla.
+     *
+     * @param key La llave
+     * @return El valor, o null si la llave no existe
+     */
+    public Object get(Object key) {
+        Object normalized = normalize(key);
+        if (isFixnum(normalized)) {
+            long fixnum = ((Double) normalized).longValue();
+            int slot = current.findFixnum(fixnum);
+            if (slot >= 0) {
+                return current.values[slot];
+            }
+            if (old != null && (slot = old.findFixnum(fixnum)) >= 0) {
+                return old.values[slot];
+            }
+        } else {
+            int slot = current.findObject(normalized);
+            if (slot >= 0) {
+                return current.values[slot];
+            }
+            if (old != null && (slot = old.findObject(normalized)) >= 0) {
+                return old.values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Asocia un valor a una llave, reemplazando el valor anterior si existía.
+     *
+     * @param key La llave
+     * @param value El valor
+     */
+    public void put(Object key, Object value) {
+        migrateStep();
+        Object normalized = normalize(key);
+        // Si la llave todavía está en la tabla anterior, se mueve a la nueva
+        if (old != null) {
+            removeFrom(old, normalized);
+        }
+        if (current.used + 1 > current.capacity() / 2) {
+            grow();
+        }
+        if (isFixnum(normalized)) {
+            current.putFixnum(((Double) normalized).longValue(), value);
+        } else {
+            current.putObject(normalized, value);
+        }
+    }
+
+    /**
+     * Elimina una llave.
+     *
+     * @param key La llave
+     * @return true si la llave existía
+     */
+    public boolean remove(Object key) {
+        migrateStep();
+        Object normalized = normalize(key);
+        boolean removed = removeFrom(current, normalized);
+        if (old != null) {
+            removed |= removeFrom(old, normalized);
+        }
+        return removed;
+    }
+
+    /**
+     * Número de llaves guardadas.
+     *
+     * @return La cantidad de llaves
+     */
+    public int size() {
+        return current.size + (old != null ? old.size : 0);
+    }
+
+    /**
+     * Indica si hay un rehash incremental en curso.
+     *
+     * @return true si todavía quedan casillas por trasladar
+     */
+    boolean isRehashing() {
+        return old != null;
+    }
+
+    /**
+     * Devuelve las llaves y los valores intercalados (llave, valor, llave, valor...);
+     * se usa para guardar la tabla en la imagen del entorno.
+     *
+     * @return Arreglo con 2 * size() elementos
+     */
+    Object[] keysAndValues() {
+        Object[] result = new Object[size() * 2];
+        int next = current.copyEntries(result, 0);
+        if (old != null) {
+            old.copyEntries(result, next);
+        }
+        return result;
+    }
+
+    private static boolean removeFrom(Table table, Object normalized) {
+        int slot = isFixnum(normalized)
+            ? table.findFixnum(((Double) normalized).longValue())
+            : table.findObject(normalized);
+        if (slot < 0) {
+            return false;
+        }
+        table.delete(slot);
+        return true;
+    }
+
+    /**
+     * Inicia un rehash: la tabla actual pasa a ser la anterior y se crea una nueva
+     * con espacio para todos los elementos. Si había otro rehash en curso se termina antes.
+     */
+    private void grow() {
+        while (old != null) {
+            migrateStep();
+        }
+        old = current;
+        migrated = 0;
+        current = new Table(capacityFor(Math.max(old.size * 2, MIN_CAPACITY)));
+        migrateStep();
+    }
+
+    /**
+     * Traslada algunas casillas de la tabla anterior a la actual.
+     * Las casillas trasladadas quedan marcadas como borradas para no cortar las
+     * secuencias de sondeo de las llaves que aún no se trasladan.
+     */
+    private void migrateStep() {
+        if (old == null) {
+            return;
+        }
+        int end = Math.min(migrated + MIGRATION_STEP, old.capacity());
+        for (int slot = migrated; slot < end; slot++) {
+            byte kind = old.kinds[slot];
+            if (kind == Table.FIXNUM) {
+                current.putFixnum(old.fixnumKeys[slot], old.values[slot]);
+                old.delete(slot);
+            } else if (kind == Table.OBJECT) {
+                current.putObject(old.objectKeys[slot], old.values[slot]);
+                old.delete(slot);
+            }
+        }
+        migrated = end;
+        if (migrated == old.capacity()) {
+            old = null;
+        }
+    }
+
+    /**
+     * Normaliza una llave: los datos citados se convierten en átomos o celdas, y NIL
+     * se reemplaza por una llave especial.
+     */
+    private static Object normalize(Object key) {
+        Object normalized = ConsCell.fromDatum(key);
+        if (normalized == null) {
+            return NIL_KEY;
+        }
+        if (normalized instanceof Number && !(normalized instanceof Double)) {
+            return ((Number) normalized).doubleValue();
+        }
+        return normalized;
+    }
+
+    /**
+     * Indica si una llave normalizada es un número entero que cabe en un long.
+     */
+    private static boolean isFixnum(Object key) {
+        if (!(key instanceof Double)) {
+            return false;
+        }
+        double d = (Double) key;
+        return d == Math.rint(d) && Math.abs(d) < 0x1p62;
+    }
+
+    /**
+     * Mezcla los bits de un hash para que el sondeo lineal se reparta bien.
+     */
+    private static int mix(long hash) {
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "#<HASH-TABLE " + size() + ">";
+    }
+
+    /**
+     * Arreglos paralelos de una tabla de direccionamiento abierto.
+     */
+    private static final class Table {
+        static final byte EMPTY = 0;
+        static final byte FIXNUM = 1;
+        static final byte OBJECT = 2;
+        static final byte DELETED = 3;
+
+        final byte[] kinds;
+        final long[] fixnumKeys;
+        final Object[] objectKeys;
+        final Object[] values;
+        final int mask;
+        /** Llaves vivas. */
+        int size;
+        /** Casillas ocupadas por llaves vivas o borradas. */
+        int used;
+
+        Table(int capacity) {
+            this.kinds = new byte[capacity];
+            this.fixnumKeys = new long[capacity];
+            this.objectKeys = new Object[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return kinds.length;
+        }
+
+        int findFixnum(long key) {
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                byte kind = kinds[slot];
+                if (kind == EMPTY) {
+                    return -1;
+                }
+                if (kind == FIXNUM && fixnumKeys[slot] == key) {
+                    return slot;
+                }
+            }
+        }
+
+        int findObject(Object key) {
+            for (int slot = mix(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                byte kind = kinds[slot];
+                if (kind == EMPTY) {
+                    return -1;
+                }
+                if (kind == OBJECT && key.equals(objectKeys[slot])) {
+                    return slot;
+                }
+            }
+        }
+
+        void putFixnum(long key, Object value) {
+            int target = -1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                byte kind = kinds[slot];
+                if (kind == FIXNUM && fixnumKeys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                if (kind == DELETED && target < 0) {
+                    target = slot;
+                } else if (kind == EMPTY) {
+                    insert(target >= 0 ? target : slot, FIXNUM, value);
+                    fixnumKeys[target >= 0 ? target : slot] = key;
+                    return;
+                }
+            }
+        }
+
+        void putObject(Object key, Object value) {
+            int target = -1;
+            for (int slot = mix(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                byte kind = kinds[slot];
+                if (kind == OBJECT && key.equals(objectKeys[slot])) {
+                    values[slot] = value;
+                    return;
+                }
+                if (kind == DELETED && target < 0) {
+                    target = slot;
+                } else if (kind == EMPTY) {
+                    insert(target >= 0 ? target : slot, OBJECT, value);
+                    objectKeys[target >= 0 ? target : slot] = key;
+                    return;
+                }
+            }
+        }
+
+        private void insert(int slot, byte kind, Object value) {
+            // Reutilizar una casilla borrada no aumenta las casillas ocupadas
+            if (kinds[slot] == EMPTY) {
+                used++;
+            }
+            kinds[slot] = kind;
+            values[slot] = value;
+            size++;
+        }
+
+        void delete(int slot) {
+            kinds[slot] = DELETED;
+            objectKeys[slot] = null;
+            values[slot] = null;
+            size--;
+        }
+
+        int copyEntries(Object[] out, int next) {
+            for (int slot = 0; slot < kinds.length; slot++) {
+                if (kinds[slot] == FIXNUM) {
+                    out[next++] = (double) fixnumKeys[slot];
+                    out[next++] = values[slot];
+                } else if (kinds[slot] == OBJECT) {
+                    out[next++] = objectKeys[slot] == NIL_KEY ? null : objectKeys[slot];
+                    out[next++] = values[slot];
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.InterpreteLisp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispVector.java
+ * Descripción: Vector numérico respaldado por un arreglo double[] con operaciones en bloque.
+ */
+
+/**
+ * Vector numérico de tamaño fijo. Los elementos se guardan en un double[] sin
+ * objetos intermedios, y las operaciones en bloque (suma, producto punto, suma y
+ * producto elemento a elemento) recorren el arreglo directamente en Java en lugar
+ * de evaluar una expresión LISP por elemento. Esas operaciones se delegan en
+ * VectorKernels, que puede usar instrucciones SIMD cuando están disponibles.
+ */
+public final class LispVector {
+    /**
+     * Implementación de las operaciones en bloque elegida al cargar la clase.
+     */
+    static final VectorKernels KERNELS = loadKernels();
+
+    private final double[] values;
+
+    /**
+     * Constructor que usa directamente el arreglo recibido, sin copiarlo.
+     *
+     * @param values Los elementos del vector
+     */
+    public LispVector(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Elige la implementación SIMD si fue compilada (perfil Maven "simd") y el módulo
+     * jdk.incubator.vector está habilitado; en cualquier otro caso usa la escalar.
+     * La propiedad -Dlisp.simd=false obliga a usar la implementación escalar.
+     */
+    private static VectorKernels loadKernels() {
+        if (!Boolean.parseBoolean(System.getProperty("lisp.simd", "true"))) {
+            return new ScalarVectorKernels();
+        }
+        try {
+            VectorKernels simd = (VectorKernels) Class.forName("com.InterpreteLisp.SimdVectorKernels")
+                .getDeclaredConstructor().newInstance();
+            // Una primera operación comprueba que el módulo realmente se puede usar
+            simd.sum(new double[] {1});
+            return simd;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // La clase no se compiló o el módulo no está habilitado
+            return new ScalarVectorKernels();
+        }
+    }
+
+    /**
+     * Indica qué implementación de las operaciones en bloque está activa.
+     *
+     * @return "ESCALAR" o "SIMD (n x double)"
+     */
+    public static String backend() {
+        return KERNELS.name();
+    }
+
+    /**
+     * Crea un vector con todos sus elementos iguales.
+     *
+     * @param length El tamaño del vector
+     * @param initial El valor inicial de cada elemento
+     * @return El vector nuevo
+     */
+    public static LispVector filled(int length, double initial) {
+        double[] values = new double[length];
+        if (initial != 0) {
+            Arrays.fill(values, initial);
+        }
+        return new LispVector(values);
+    }
+
+    public int length() {
+        return values.length;
+    }
+
+    /**
+     * Acceso directo al arreglo interno, para las operaciones en bloque.
+     *
+     * @return El arreglo de elementos (no es una copia)
+     */
+    double[] values() {
+        return values;
+    }
+
+    /**
+     * Obtiene un elemento del vector.
+     *
+     * @param index La posición
+     * @return El elemento
+     */
+    public double get(int index) {
+        checkIndex(index, "AREF");
+        return values[index];
+    }
+
+    /**
+     * Modifica un elemento del vector.
+     *
+     * @param index La posición
+     * @param value El valor nuevo
+     */
+    public void set(int index, double value) {
+        checkIndex(index, "ASET");
+        values[index] = value;
+    }
+
+    private void checkIndex(int index, String operation) {
+        if (index < 0 || index >= values.length) {
+            throw new LispError(operation + ": índice fuera de rango: " + index);
+        }
+    }
+
+    /**
+     * Suma todos los elementos.
+     *
+     * @return La suma
+     */
+    public double sum() {
+        return KERNELS.sum(values);
+    }
+
+    /**
+     * Producto punto con otro vector del mismo tamaño.
+     *
+     * @param other El otro vector
+     * @return La suma de los productos elemento a elemento
+     */
+    public double dot(LispVector other) {
+        checkSameLength(other, "VDOT");
+        return KERNELS.dot(values, other.values);
+    }
+
+    /**
+     * Obtiene el menor elemento.
+     *
+     * @return El mínimo
+     */
+    public double min() {
+        checkNotEmpty("VMIN");
+        return KERNELS.min(values);
+    }
+
+    /**
+     * Obtiene el mayor elemento.
+     *
+     * @return El máximo
+     */
+    public double max() {
+        checkNotEmpty("VMAX");
+        return KERNELS.max(values);
+    }
+
+    /**
+     * Suma elemento a elemento; el resultado es un vector nuevo.
+     *
+     * @param other El otro vector
+     * @return El vector suma
+     */
+    public LispVector add(LispVector other) {
+        checkSameLength(other, "V+");
+        double[] result = new double[values.length];
+        KERNELS.add(values, other.values, result);
+        return new LispVector(result);
+    }
+
+    /**
+     * Suma un escalar a cada elemento.
+     *
+     * @param scalar El escalar
+     * @return El vector resultante
+     */
+    public LispVector add(double scalar) {
+        double[] result = new double[values.length];
+        KERNELS.add(values, scalar, result);
+        return new LispVector(result);
+    }
+
+    /**
+     * Producto elemento a elemento; el resultado es un vector nuevo.
+     *
+     * @param other El otro vector
+     * @return El vector producto
+     */
+    public LispVector multiply(LispVector other) {
+        checkSameLength(other, "V*");
+        double[] result = new double[values.length];
+        KERNELS.multiply(values, other.values, result);
+        return new LispVector(result);
+    }
+
+    /**
+     * Multiplica cada elemento por un escalar.
+     *
+     * @param scalar El escalar
+     * @return El vector resultante
+     */
+    public LispVector multiply(double scalar) {
+        double[] result = new double[values.length];
+        KERNELS.multiply(values, scalar, result);
+        return new LispVector(result);
+    }
+
+    private void checkNotEmpty(String operation) {
+        if (values.length == 0) {
+            throw new LispError(operation + " requiere un vector no vacío");
+        }
+    }
+
+    private void checkSameLength(LispVector other, String operation) {
+        if (other.values.length != values.length) {
+            throw new LispError(operation + " requiere vectores del mismo tamaño");
+        }
+    }
+
+    /**
+     * Construye un vector a partir de los argumentos de VECTOR.
+     *
+     * @param args Los elementos, todos numéricos
+     * @return El vector nuevo
+     */
+    static LispVector of(List<Object> args) {
+        double[] values = new double[args.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toDouble(args.get(i), "VECTOR");
+        }
+        return new LispVector(values);
+    }
+
+    /**
+     * Convierte un argumento en vector.
+     *
+     * @param value El argumento
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return El vector
+     */
+    static LispVector toVector(Object value, String operation) {
+        if (value instanceof LispVector) {
+            return (LispVector) value;
+        }
+        throw new LispError(operation + " requiere un vector");
+    }
+
+    /**
+     * Convierte un argumento en número.
+     *
+     * @param value El argumento
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return El valor numérico
+     */
+    static double toDouble(Object value, String operation) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new LispError(operation + " requiere argumentos numéricos");
+    }
+
+    /**
+     * Convierte un argumento en índice o tamaño entero.
+     *
+     * @param value El argumento
+     * @param operation El nombre de la operación, para el mensaje de error
+     * @return El entero
+     */
+    static int toIndex(Object value, String operation) {
+        double number = toDouble(value, operation);
+        if (number != Math.floor(number) || Double.isInfinite(number)) {
+            throw new LispError(operation + " requiere un índice entero");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Dos vectores son iguales si tienen los mismos elementos en el mismo orden.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LispVector && Arrays.equals(values, ((LispVector) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    /**
+     * Representación en notación LISP, por ejemplo #(1 2.5 3).
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("#(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            double d = values[i];
+            if (d == Math.floor(d) && !Double.isInfinite(d)) {
+                sb.append((long) d);
+            } else {
+                sb.append(d);
+            }
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LoopScope.java
+ * Descripción: Ámbito de un ciclo DOTIMES o DOLIST con la variable del ciclo en una casilla propia.
+ */
+
+/**
+ * Ámbito de un ciclo (DOTIMES, DOLIST). Se crea una sola vez por ciclo y se
+ * reutiliza en todas las iteraciones: solo contiene la variable del ciclo, que se
+ * actualiza en su lugar. Un contador numérico se guarda como double, así que
+ * avanzar el ciclo no crea objetos; el Double solo se crea si el cuerpo lee la
+ * variable fuera de una operación aritmética, y a lo sumo una vez por iteración.
+ * Cualquier otra variable se busca y se asigna en el ámbito que contiene al ciclo,
+ * de modo que (SETQ total ...) dentro del cuerpo modifica la variable de afuera.
+ */
+final class LoopScope implements ContextualScope {
+    private final ContextualScope parent;
+    private final String name;
+    private boolean numeric;
+    private double counter;
+    private Object value;
+
+    /**
+     * Constructor de la clase LoopScope.
+     *
+     * @param parent El ámbito que contiene al ciclo
+     * @param name El nombre de la variable del ciclo
+     */
+    LoopScope(ContextualScope parent, String name) {
+        this.parent = parent;
+        this.name = name;
+    }
+
+    /**
+     * Asigna un valor numérico a la variable del ciclo sin crear objetos.
+     *
+     * @param number El valor
+     */
+    void setCounter(double number) {
+        this.numeric = true;
+        this.counter = number;
+        this.value = null;
+    }
+
+    /**
+     * Busca la variable de un ciclo numérico en este ámbito y en los ciclos que lo contienen.
+     *
+     * @param variable El nombre de la variable
+     * @return El ámbito del ciclo cuya variable numérica tiene ese nombre, o null
+     */
+    LoopScope findCounter(String variable) {
+        LoopScope loop = this;
+        while (true) {
+            if (loop.name.equals(variable)) {
+                return loop.numeric ? loop : null;
+            }
+            if (!(loop.parent instanceof LoopScope)) {
+                return null;
+            }
+            loop = (LoopScope) loop.parent;
+        }
+    }
+
+    /**
+     * Obtiene el valor numérico actual de la variable del ciclo.
+     */
+    double getCounter() {
+        return counter;
+    }
+
+    @Override
+    public void setVariable(String variable, Object newValue) {
+        if (!variable.equals(name)) {
+            parent.setVariable(variable, newValue);
+        } else if (newValue instanceof Number) {
+            setCounter(((Number) newValue).doubleValue());
+        } else {
+            numeric = false;
+            value = newValue;
+        }
+    }
+
+    @Override
+    public Object getVariable(String variable) {
+        if (!variable.equals(name)) {
+            return parent.getVariable(variable);
+        }
+        if (numeric && value == null) {
+            // El Double se crea una sola vez por valor del contador
+            value = counter;
+        }
+        return value;
+    }
+
+    /**
+     * La variable del ciclo toma un valor nuevo en cada iteración, como si cada
+     * iteración la volviera a definir: una clausura creada en el cuerpo recibe una
+     * casilla propia con el valor de esa iteración, que el ciclo no modifica.
+     */
+    @Override
+    public Cell captureCell(String variable) {
+        return variable.equals(name) ? new Cell(getVariable(variable)) : parent.captureCell(variable);
+    }
+
+    @Override
+    public boolean isLocalVariable(String variable) {
+        return variable.equals(name) || parent.isLocalVariable(variable);
+    }
+
+    @Override
+    public Environment getGlobalScope() {
+        return parent.getGlobalScope();
+    }
+
+    @Override
+    public ContextualScope createSubScope() {
+        return new Environment(this);
+    }
+
+    @Override
+    public void rollbackState() {
+        numeric = false;
+        value = null;
+    }
+}
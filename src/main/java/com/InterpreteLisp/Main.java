@@ -1,7 +1,12 @@
 package com.InterpreteLisp;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /*
  * Universidad del Valle de Guatemala
@@ -9,13 +14,26 @@ import java.util.Scanner;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 11/03/2025
- * última modificación: 20/03/2025
+ * última modificación: 19/10/2026
  * File Name: Main.java
  * Descripción: Clase principal que utiliza el Lexer, Parser y Evaluator para:
  * 1. Tokenizar la expresión LISP.
  * 2. Verificar si la expresión está balanceada.
  * 3. Crear un AST a partir de los tokens.
  * 4. Evaluar el AST en un entorno de ejecución.
+ *
+ * Argumentos opcionales:
+ *   --stream                  modo de lectura incremental: cada expresión se evalúa
+ *                             en cuanto se cierra, sin esperar una línea en blanco.
+ *   --image archivo           restaura el entorno guardado con (SAVE-IMAGE "archivo").
+ *   --load archivo            carga las definiciones del archivo antes de iniciar
+ *                             (usa archivo.lspc si está al día con el código fuente).
+ *   --compile fuente salida   escribe la versión precompilada del archivo fuente y termina.
+ *   --trace-threshold n m     compila una función tras n llamadas y un ciclo tras m
+ *                             iteraciones (0 desactiva la compilación).
+ *   --trace-log               muestra cada función o ciclo en cuanto se compila.
+ *   --sample ms archivo       muestrea la pila de llamadas cada ms milisegundos y, al
+ *                             terminar, escribe las pilas colapsadas en el archivo.
  */
 
 public class Main {
@@ -28,6 +46,65 @@ public class Main {
         initializeBuiltins(globalEnv);
         Evaluator evaluator = new Evaluator();
 
+        boolean streaming = false;
+        for (int i = 0; i < args.length; i++) {
+            try {
+                if (args[i].equals("--stream")) {
+                    streaming = true;
+                } else if (args[i].equals("--image") && i + 1 < args.length) {
+                    EnvironmentImage.restore(globalEnv, Paths.get(args[++i]));
+                } else if (args[i].equals("--load") && i + 1 < args.length) {
+                    globalEnv.loadFile(Paths.get(args[++i]), evaluator);
+                } else if (args[i].equals("--compile") && i + 2 < args.length) {
+                    String source = new String(Files.readAllBytes(Paths.get(args[i + 1])), StandardCharsets.UTF_8);
+                    CompactAST program = CompiledProgram.compile(source, Paths.get(args[i + 2]));
+                    System.out.println("Programa compilado en " + args[i + 2] + ": "
+                        + program.getRootCount() + " expresiones, " + program.getNodeCount() + " nodos.");
+                    scanner.close();
+                    return;
+                } else if (args[i].equals("--trace-threshold") && i + 2 < args.length) {
+                    evaluator.setTraceThresholds(Integer.parseInt(args[i + 1]), Integer.parseInt(args[i + 2]));
+                    i += 2;
+                } else if (args[i].equals("--trace-log")) {
+                    evaluator.setCompilationListener(new Consumer<String>() {
+                        @Override
+                        public void accept(String line) {
+                            System.out.println("; " + line);
+                        }
+                    });
+                } else if (args[i].equals("--sample") && i + 2 < args.length) {
+                    final SamplingProfiler sampler =
+                        evaluator.startSampling((long) (Double.parseDouble(args[i + 1]) * 1e6));
+                    final String output = args[i + 2];
+                    Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            sampler.stop();
+                            try {
+                                sampler.writeCollapsedStacks(Paths.get(output));
+                            } catch (IOException e) {
+                                System.err.println("No se pudo escribir el muestreo: " + e.getMessage());
+                            }
+                        }
+                    }));
+                    i += 2;
+                } else {
+                    System.out.println("Argumento no reconocido: " + args[i]);
+                }
+            } catch (IOException e) {
+                System.out.println("Error al leer el archivo: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.out.println("Error al cargar el archivo: " + e.getMessage());
+            }
+        }
+
+        // Modo incremental para entradas redirigidas o generadas por otros programas
+        if (streaming) {
+            runStreaming(scanner, globalEnv, evaluator);
+            scanner.close();
+            return;
+        }
+
         System.out.println("\nBienvenido al Intérprete LISP");
         System.out.println("Este intérprete posee: operaciones aritméticas, QUOTE, DEFUN, SETQ, predicados (ATOM, LIST, EQUAL, <, >), COND y paso de parámetros.");
         System.out.println("Funcionamiento: Ingrese la expresión LISP a ejecutar, es importante considerar que puede ejecutar varias líneas");
@@ -143,10 +220,10 @@ public class Main {
                             
                             // Evaluar el AST
                             try {
-                                Object result = evaluator.evaluate(ast, globalEnv);
+                                Object result = evaluator.evaluateTopLevel(ast, globalEnv);
                                 System.out.println("Resultado: " + formatResult(result));
                             } catch (Exception e) {
-                                System.out.println("Error durante la evaluación: " + e.getMessage());
+                                printEvaluationError(e);
                             }
                         }
                     }
@@ -158,6 +235,50 @@ public class Main {
         
         scanner.close();
     }
+
+    /**
+     * Ejecuta el intérprete en modo incremental.
+     * Cada línea se entrega al IncrementalReader y cada expresión de nivel superior
+     * se parsea y evalúa en cuanto llega su paréntesis de cierre, de modo que los
+     * resultados se muestran mientras la entrada sigue llegando.
+     *
+     * @param scanner La fuente de líneas de entrada
+     * @param globalEnv El entorno global
+     * @param evaluator El evaluador
+     */
+    private static void runStreaming(Scanner scanner, Environment globalEnv, Evaluator evaluator) {
+        IncrementalReader reader = new IncrementalReader();
+
+        while (scanner.hasNextLine()) {
+            String line = scanner.nextLine().trim();
+
+            // Los comandos de salida solo se reconocen fuera de una expresión
+            if (!reader.isInsideForm() && (line.equalsIgnoreCase("exit") || line.equalsIgnoreCase("salir"))) {
+                break;
+            }
+
+            for (List<Token> tokens : reader.feed(line)) {
+                try {
+                    Parser parser = new Parser(tokens);
+                    for (ASTNode ast : parser.parse()) {
+                        try {
+                            Object result = evaluator.evaluateTopLevel(ast, globalEnv);
+                            System.out.println("Resultado: " + formatResult(result));
+                        } catch (Exception e) {
+                            printEvaluationError(e);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Error al parsear la expresión: " + e.getMessage());
+                }
+            }
+            System.out.flush();
+        }
+
+        if (reader.isInsideForm()) {
+            System.out.println("Advertencia: La entrada terminó con una expresión incompleta.");
+        }
+    }
     
     /**
      * Inicializa las funciones integradas del intérprete LISP.
@@ -189,6 +310,78 @@ public class Main {
         env.defineSystemFunction("SETQ", new BuiltinFunction("SETQ"));
         env.defineSystemFunction("DEFUN", new BuiltinFunction("DEFUN"));
         env.defineSystemFunction("COND", new BuiltinFunction("COND"));
+        env.defineSystemFunction("SAVE-IMAGE", new BuiltinFunction("SAVE-IMAGE"));
+        
+        // Listas
+        env.defineSystemFunction("CONS", new BuiltinFunction("CONS"));
+        env.defineSystemFunction("CAR", new BuiltinFunction("CAR"));
+        env.defineSystemFunction("CDR", new BuiltinFunction("CDR"));
+        env.defineSystemFunction("APPEND", new BuiltinFunction("APPEND"));
+        env.defineSystemFunction("REVERSE", new BuiltinFunction("REVERSE"));
+        
+        // Vectores numéricos
+        env.defineSystemFunction("VECTOR", new BuiltinFunction("VECTOR"));
+        env.defineSystemFunction("MAKE-VECTOR", new BuiltinFunction("MAKE-VECTOR"));
+        env.defineSystemFunction("AREF", new BuiltinFunction("AREF"));
+        env.defineSystemFunction("ASET", new BuiltinFunction("ASET"));
+        env.defineSystemFunction("VSUM", new BuiltinFunction("VSUM"));
+        env.defineSystemFunction("VDOT", new BuiltinFunction("VDOT"));
+        env.defineSystemFunction("V+", new BuiltinFunction("V+"));
+        env.defineSystemFunction("V*", new BuiltinFunction("V*"));
+        env.defineSystemFunction("VMIN", new BuiltinFunction("VMIN"));
+        env.defineSystemFunction("VMAX", new BuiltinFunction("VMAX"));
+        env.defineSystemFunction("VECTOR-BACKEND", new BuiltinFunction("VECTOR-BACKEND"));
+        
+        // Tablas hash
+        env.defineSystemFunction("MAKE-HASH-TABLE", new BuiltinFunction("MAKE-HASH-TABLE"));
+        env.defineSystemFunction("GETHASH", new BuiltinFunction("GETHASH"));
+        env.defineSystemFunction("PUTHASH", new BuiltinFunction("PUTHASH"));
+        env.defineSystemFunction("REMHASH", new BuiltinFunction("REMHASH"));
+        env.defineSystemFunction("HASH-COUNT", new BuiltinFunction("HASH-COUNT"));
+        
+        // Secuencias perezosas
+        env.defineSystemFunction("RANGE", new BuiltinFunction("RANGE"));
+        env.defineSystemFunction("LAZY-MAP", new BuiltinFunction("LAZY-MAP"));
+        env.defineSystemFunction("LAZY-FILTER", new BuiltinFunction("LAZY-FILTER"));
+        env.defineSystemFunction("TAKE", new BuiltinFunction("TAKE"));
+        env.defineSystemFunction("REDUCE", new BuiltinFunction("REDUCE"));
+        
+        // Procesamiento en paralelo
+        env.defineSystemFunction("PREDUCE", new BuiltinFunction("PREDUCE"));
+        env.defineSystemFunction("PMAPCAR", new BuiltinFunction("PMAPCAR"));
+        
+        // Ciclos
+        env.defineSystemFunction("DOTIMES", new BuiltinFunction("DOTIMES"));
+        env.defineSystemFunction("DOLIST", new BuiltinFunction("DOLIST"));
+        env.defineSystemFunction("WHILE", new BuiltinFunction("WHILE"));
+        env.defineSystemFunction("LOOP", new BuiltinFunction("LOOP"));
+        env.defineSystemFunction("RETURN", new BuiltinFunction("RETURN"));
+        
+        // Ámbitos locales y clausuras
+        env.defineSystemFunction("LET", new BuiltinFunction("LET"));
+        env.defineSystemFunction("LAMBDA", new BuiltinFunction("LAMBDA"));
+        
+        // Salidas no locales y errores
+        env.defineSystemFunction("BLOCK", new BuiltinFunction("BLOCK"));
+        env.defineSystemFunction("RETURN-FROM", new BuiltinFunction("RETURN-FROM"));
+        env.defineSystemFunction("CATCH", new BuiltinFunction("CATCH"));
+        env.defineSystemFunction("THROW", new BuiltinFunction("THROW"));
+        env.defineSystemFunction("ERROR", new BuiltinFunction("ERROR"));
+        env.defineSystemFunction("HANDLER-CASE", new BuiltinFunction("HANDLER-CASE"));
+
+        // Macros
+        env.defineSystemFunction("DEFMACRO", new BuiltinFunction("DEFMACRO"));
+        env.defineSystemFunction("MACROEXPAND", new BuiltinFunction("MACROEXPAND"));
+        env.defineSystemFunction("GENSYM", new BuiltinFunction("GENSYM"));
+        env.defineSystemFunction("PROGN", new BuiltinFunction("PROGN"));
+        
+        // Compilación de trazas
+        env.defineSystemFunction("COMPILATION-LOG", new BuiltinFunction("COMPILATION-LOG"));
+        
+        // Perfilado
+        env.defineSystemFunction("PROFILE", new BuiltinFunction("PROFILE"));
+        env.defineSystemFunction("START-SAMPLING", new BuiltinFunction("START-SAMPLING"));
+        env.defineSystemFunction("STOP-SAMPLING", new BuiltinFunction("STOP-SAMPLING"));
         
         // Funciones auxiliares
         env.defineSystemFunction("PRINT", new BuiltinFunction("PRINT") {
@@ -206,19 +399,36 @@ public class Main {
     /**
      * Clase interna para representar funciones integradas del sistema.
      */
-    private static class BuiltinFunction {
+    static class BuiltinFunction {
         private final String name;
         
         public BuiltinFunction(String name) {
             this.name = name;
         }
         
+        public String getName() {
+            return name;
+        }
+        
         @Override
         public String toString() {
             return "#<BUILTIN-FUNCTION:" + name + ">";
         }
     }
     
+    /**
+     * Muestra un error de evaluación y, si es un error LISP, las llamadas activas
+     * cuando ocurrió.
+     *
+     * @param e La excepción
+     */
+    private static void printEvaluationError(Exception e) {
+        System.out.println("Error durante la evaluación: " + e.getMessage());
+        if (e instanceof LispError) {
+            System.out.print(((LispError) e).formatBacktrace());
+        }
+    }
+
     /**
      * Formatea el resultado de la evaluación para mostrarlo al usuario.
      * 
@@ -232,6 +442,8 @@ public class Main {
             return ((Boolean) result) ? "T" : "NIL";
         } else if (result instanceof ASTNode) {
             return formatASTNode((ASTNode) result);
+        } else if (result instanceof LispVector) {
+            return result.toString();
         } else if (result instanceof Double) {
             double d = (Double) result;
             // Si es un número entero, mostrarlo sin decimal
@@ -0,0 +1,43 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: NoFlightEvents.java
+ * Descripción: Implementación vacía de los eventos de JDK Flight Recorder.
+ */
+
+/**
+ * Implementación de FlightEvents que no registra nada. Es la implementación por
+ * defecto cuando la versión con jdk.jfr no fue compilada o la JVM no tiene Flight
+ * Recorder.
+ */
+final class NoFlightEvents implements FlightEvents {
+    @Override
+    public String name() {
+        return "DESACTIVADO";
+    }
+
+    @Override
+    public boolean isCallEnabled() {
+        return false;
+    }
+
+    @Override
+    public Object begin(int kind) {
+        return null;
+    }
+
+    @Override
+    public boolean end(Object event) {
+        return false;
+    }
+
+    @Override
+    public void commit(Object event, String name, int count, String source) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: NonLocalExit.java
+ * Descripción: Salida no local de THROW, RETURN-FROM y RETURN, sin pila de llamadas de Java.
+ */
+
+/**
+ * Salida no local hacia un CATCH (con THROW) o un BLOCK (con RETURN-FROM; RETURN
+ * sale del bloque NIL que establecen los ciclos). Es un mecanismo de control, no
+ * un error: no guarda la pila de llamadas ni suprime excepciones, así que crearla
+ * cuesta lo mismo que un objeto pequeño y lanzarla solo recorre los marcos de
+ * Java hasta el CATCH o BLOCK correspondiente.
+ */
+final class NonLocalExit extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Salida hacia un BLOCK, identificado por su nombre.
+     */
+    static final byte BLOCK = 0;
+
+    /**
+     * Salida hacia un CATCH, identificado por el valor de su etiqueta.
+     */
+    static final byte CATCH = 1;
+
+    /**
+     * Nombre del bloque que establecen DOTIMES, DOLIST, WHILE y LOOP.
+     */
+    static final String LOOP_BLOCK = "NIL";
+
+    private final byte kind;
+    private final transient Object tag;
+    private final transient Object value;
+
+    /**
+     * Constructor de la clase NonLocalExit.
+     *
+     * @param kind BLOCK o CATCH
+     * @param tag El nombre del bloque o la etiqueta del CATCH
+     * @param value El valor con el que termina el bloque o el CATCH
+     */
+    NonLocalExit(byte kind, Object tag, Object value) {
+        super(null, null, false, false);
+        this.kind = kind;
+        this.tag = tag;
+        this.value = value;
+    }
+
+    /**
+     * Obtiene el valor de la salida si está dirigida al destino indicado; si no,
+     * la vuelve a lanzar para que siga hacia un destino más externo.
+     *
+     * @param targetKind BLOCK o CATCH
+     * @param targetTag El nombre del bloque o la etiqueta del CATCH que la recibe
+     * @return El valor de la salida
+     */
+    Object valueFor(byte targetKind, Object targetTag) {
+        if (kind != targetKind || !sameTag(tag, targetTag)) {
+            throw this;
+        }
+        return value;
+    }
+
+    /**
+     * Compara etiquetas: los símbolos por su nombre y los números por su valor.
+     */
+    private static boolean sameTag(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * El mensaje solo se construye si la salida no encontró su destino.
+     */
+    @Override
+    public String getMessage() {
+        if (kind == CATCH) {
+            return "THROW sin CATCH para la etiqueta " + tag;
+        }
+        return LOOP_BLOCK.equals(tag) ? "RETURN fuera de un ciclo" : "RETURN-FROM sin BLOCK " + tag;
+    }
+}
@@ -0,0 +1,235 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParallelLoader.java
+ * Descripción: Clase que tokeniza y parsea archivos grandes de definiciones en paralelo.
+ */
+
+/**
+ * Cargador paralelo de programas LISP.
+ * Primero recorre la entrada contando la profundidad de paréntesis para encontrar
+ * dónde empieza cada expresión de nivel superior. Luego agrupa esas expresiones en
+ * bloques contiguos que se tokenizan y parsean en paralelo en un ForkJoinPool.
+ * Los resultados se devuelven en el mismo orden del código fuente, por lo que la
+ * evaluación posterior es idéntica a la de una carga secuencial.
+ */
+public class ParallelLoader {
+    /**
+     * Por debajo de este tamaño (en caracteres) la entrada se procesa en un solo hilo.
+     */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    /**
+     * Tamaño mínimo de cada bloque de trabajo, en caracteres.
+     */
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * Constructor privado: la clase solo expone métodos estáticos.
+     */
+    private ParallelLoader() {
+    }
+
+    /**
+     * Tokeniza y parsea la entrada completa.
+     *
+     * @param input El código fuente
+     * @return Los nodos AST de nivel superior en orden de aparición
+     */
+    public static List<ASTNode> parse(String input) {
+        return parse(input, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Tokeniza y parsea la entrada completa usando el pool indicado.
+     *
+     * @param input El código fuente
+     * @param pool El pool donde se ejecutan los bloques
+     * @return Los nodos AST de nivel superior en orden de aparición
+     */
+    public static List<ASTNode> parse(String input, ForkJoinPool pool) {
+        if (input.length() < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            return parseRegion(input, 0, input.length());
+        }
+
+        int[] chunks = splitChunks(input, findFormStarts(input), pool.getParallelism());
+        return pool.invoke(new ParseTask(input, chunks, 0, chunks.length - 1));
+    }
+
+    /**
+     * Encuentra la posición inicial de cada expresión de nivel superior.
+     * Una comilla, una comilla invertida, una coma o una coma-arroba a profundidad
+     * cero se une con el dato que la sigue, los paréntesis
+     * de cierre sueltos se ignoran igual que en Parser.parse() y el contenido de
+     * las cadenas entre comillas dobles no se analiza.
+     *
+     * @param input El código fuente
+     * @return Las posiciones iniciales, en orden creciente
+     */
+    static int[] findFormStarts(String input) {
+        int[] starts = new int[16];
+        int count = 0;
+        int depth = 0;
+        boolean afterQuote = false;
+        // El dato pendiente viene de un prefijo de plantilla (`, , o ,@) y no de una comilla
+        boolean afterPrefix = false;
+        int length = input.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            boolean startsForm = depth == 0 && !afterQuote && c != ')';
+            if (startsForm) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i;
+            }
+
+            if (c == '(') {
+                depth++;
+                afterQuote = false;
+                afterPrefix = false;
+                i++;
+            } else if (c == ')') {
+                if (depth > 0) {
+                    depth--;
+                }
+                i++;
+            } else if (c == '\'') {
+                // La comilla cita lo que sigue; una segunda comilla seguida es el dato citado,
+                // pero después de un prefijo de plantilla empieza otra cita
+                afterQuote = depth == 0 && (!afterQuote || afterPrefix);
+                afterPrefix = false;
+                i++;
+            } else if (c == '`' || c == ',') {
+                // Un prefijo de plantilla se une con lo que sigue, igual que la comilla; si
+                // sigue a una comilla, el Parser lo toma como el símbolo citado
+                if (depth == 0) {
+                    afterPrefix = !afterQuote || afterPrefix;
+                    afterQuote = afterPrefix;
+                }
+                i += c == ',' && i + 1 < length && input.charAt(i + 1) == '@' ? 2 : 1;
+            } else if (c == '"') {
+                if (depth == 0) {
+                    afterQuote = false;
+                    afterPrefix = false;
+                }
+                // Una cadena puede contener paréntesis y comillas simples: se salta completa
+                int close = input.indexOf('"', i + 1);
+                i = close < 0 ? length : close + 1;
+            } else {
+                if (depth == 0) {
+                    afterQuote = false;
+                    afterPrefix = false;
+                }
+                // Saltar el resto del átomo
+                while (i < length) {
+                    char a = input.charAt(i);
+                    if (Character.isWhitespace(a) || a == '(' || a == ')' || a == '\'' || a == '"'
+                            || a == '`' || a == ',') {
+                        break;
+                    }
+                    i++;
+                }
+            }
+        }
+
+        return Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * Agrupa las expresiones en bloques contiguos de tamaño parecido.
+     *
+     * @param input El código fuente
+     * @param formStarts Posiciones iniciales de las expresiones
+     * @param parallelism Número de hilos disponibles
+     * @return Los límites de los bloques: el bloque k va de chunks[k] a chunks[k + 1]
+     */
+    static int[] splitChunks(String input, int[] formStarts, int parallelism) {
+        // Unos cuatro bloques por hilo permiten que el robo de trabajo equilibre la carga
+        int target = Math.max(MIN_CHUNK_SIZE, input.length() / (parallelism * 4));
+
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int last = 0;
+        for (int start : formStarts) {
+            if (start - last >= target) {
+                bounds.add(start);
+                last = start;
+            }
+        }
+        bounds.add(input.length());
+
+        int[] chunks = new int[bounds.size()];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = bounds.get(i);
+        }
+        return chunks;
+    }
+
+    /**
+     * Tokeniza y parsea una región del código en el hilo actual.
+     *
+     * @param input El código fuente
+     * @param start Inicio de la región (inclusivo)
+     * @param end Fin de la región (exclusivo)
+     * @return Los nodos AST de la región
+     */
+    private static List<ASTNode> parseRegion(String input, int start, int end) {
+        List<Token> tokens = new Lexer().tokenize(input, start, end);
+        return new Parser(tokens).parseIterative();
+    }
+
+    /**
+     * Tarea que parsea un rango de bloques dividiéndolo a la mitad hasta llegar a un bloque.
+     */
+    private static class ParseTask extends RecursiveTask<List<ASTNode>> {
+        private static final long serialVersionUID = 1L;
+
+        private final String input;
+        private final int[] chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(String input, int[] chunks, int from, int to) {
+            this.input = input;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ASTNode> compute() {
+            if (to - from == 1) {
+                return parseRegion(input, chunks[from], chunks[to]);
+            }
+
+            int middle = (from + to) >>> 1;
+            ParseTask left = new ParseTask(input, chunks, from, middle);
+            ParseTask right = new ParseTask(input, chunks, middle, to);
+            left.fork();
+            List<ASTNode> rightResult = right.compute();
+            List<ASTNode> result = left.join();
+            result.addAll(rightResult);
+            return result;
+        }
+    }
+}
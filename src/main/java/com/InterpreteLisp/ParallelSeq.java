@@ -0,0 +1,326 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParallelSeq.java
+ * Descripción: PREDUCE y PMAPCAR: reducción y MAPCAR en paralelo sobre listas, vectores y rangos.
+ */
+
+/**
+ * Reducción y MAPCAR en paralelo sobre el ForkJoinPool común.
+ * <ul>
+ *   <li>Los primeros elementos se procesan en el hilo actual midiendo el tiempo; con
+ *       ese costo por elemento se estima el resto. Si el trabajo que falta es pequeño
+ *       se termina en el mismo hilo, así las entradas chicas no pagan el costo de
+ *       crear tareas.</li>
+ *   <li>Si no, el resto se divide a la mitad recursivamente. El tamaño mínimo de un
+ *       tramo se calcula con el costo medido, y además se deja de dividir cuando el
+ *       hilo ya tiene suficientes tareas pendientes para que otros las roben.</li>
+ *   <li>Los resultados parciales se combinan en el orden de la secuencia, por lo que
+ *       basta con que la función de PREDUCE sea asociativa (no hace falta que sea
+ *       conmutativa) y PMAPCAR conserva el orden de los elementos.</li>
+ * </ul>
+ * Las funciones se ejecutan en varios hilos a la vez sobre el mismo Evaluator. Lo
+ * que comparten se puede usar así:
+ * <ul>
+ *   <li>Variables globales y tablas hash: solo lectura. Mientras la operación está en
+ *       curso, un SETQ o DEFUN global, PUTHASH y REMHASH lanzan un LispError (ver
+ *       Environment.enterParallel()); GETHASH no modifica la tabla.</li>
+ *   <li>Variables capturadas por una clausura: se leen y se asignan en su Cell, que
+ *       es volatile, pero un SETQ que lee y asigna la misma variable en paralelo no es
+ *       atómico y puede perder actualizaciones.</li>
+ *   <li>Vectores: ASET en posiciones distintas es seguro; en la misma posición gana
+ *       cualquiera de las escrituras.</li>
+ *   <li>Los datos que el Evaluator guarda en el árbol (expansiones, perfiles de
+ *       tipos, trazas, datos citados) se publican en campos volatile y no modifican
+ *       el árbol del programa; sus contadores pueden perder incrementos, lo que solo
+ *       adelanta o atrasa una optimización.</li>
+ * </ul>
+ */
+public class ParallelSeq {
+    /**
+     * Si el trabajo que falta se estima por debajo de este tiempo (en nanosegundos),
+     * se hace en el hilo actual.
+     */
+    static final long SEQUENTIAL_NANOS = 1000000L;
+
+    /**
+     * Tiempo de trabajo aproximado de cada tramo (en nanosegundos); un tramo más
+     * pequeño gastaría proporcionalmente mucho en crear y robar tareas.
+     */
+    static final long LEAF_NANOS = 100000L;
+
+    /**
+     * Elementos de la fuente que se procesan en el hilo actual para medir el costo.
+     */
+    static final int SAMPLE_SIZE = 64;
+
+    /**
+     * Se deja de dividir cuando el hilo tiene más de estas tareas pendientes sin robar.
+     */
+    static final int SURPLUS_LIMIT = 3;
+
+    /**
+     * Resultado de un tramo en el que ningún elemento pasó las etapas de la secuencia.
+     */
+    private static final Object EMPTY = new Object();
+
+    /**
+     * Constructor privado: la clase solo expone métodos estáticos.
+     */
+    private ParallelSeq() {
+    }
+
+    /**
+     * Reduce una colección en paralelo (PREDUCE).
+     *
+     * @param evaluator El evaluador que aplica la función
+     * @param function Función asociativa de dos argumentos
+     * @param collection Una lista, un vector o una secuencia perezosa finita
+     * @param hasInitial Si se recibió un valor inicial
+     * @param initial El valor inicial, que se combina a la izquierda del resultado
+     * @return El resultado, o el de REDUCE sobre una secuencia vacía
+     */
+    static Object reduce(Evaluator evaluator, Object function, Object collection, boolean hasInitial, Object initial) {
+        return reduce(evaluator, function, collection, hasInitial, initial, ForkJoinPool.commonPool(), SEQUENTIAL_NANOS);
+    }
+
+    /**
+     * Reduce una colección en paralelo usando el pool y el umbral indicados.
+     */
+    static Object reduce(final Evaluator evaluator, final Object function, Object collection,
+                         boolean hasInitial, Object initial, ForkJoinPool pool, long sequentialNanos) {
+        LazySeq seq = LazySeq.of(evaluator, collection, "PREDUCE");
+        LazySeq indexed = seq.indexed();
+        Object result;
+        if (indexed == null) {
+            // Una etapa TAKE obliga a recorrer la secuencia en orden
+            LazySeq.Reducer reducer = new LazySeq.Reducer(evaluator, function);
+            seq.forEach(reducer);
+            result = reducer.isEmpty() ? EMPTY : reducer.result();
+        } else {
+            result = run(new ReduceTask(evaluator, function, indexed, 0, indexed.sourceSize()), pool, sequentialNanos);
+        }
+
+        if (hasInitial) {
+            return result == EMPTY ? initial : evaluator.call(function, initial, result);
+        }
+        return result == EMPTY ? new LazySeq.Reducer(evaluator, function).result() : result;
+    }
+
+    /**
+     * Aplica una función a cada elemento de una colección en paralelo (PMAPCAR).
+     *
+     * @param evaluator El evaluador que aplica la función
+     * @param function Función de un argumento
+     * @param collection Una lista, un vector o una secuencia perezosa finita
+     * @return La lista de resultados, en el orden de la colección
+     */
+    static ConsCell map(Evaluator evaluator, Object function, Object collection) {
+        return map(evaluator, function, collection, ForkJoinPool.commonPool(), SEQUENTIAL_NANOS);
+    }
+
+    /**
+     * Aplica una función a cada elemento usando el pool y el umbral indicados.
+     */
+    static ConsCell map(Evaluator evaluator, Object function, Object collection,
+                        ForkJoinPool pool, long sequentialNanos) {
+        LazySeq seq = LazySeq.of(evaluator, collection, "PMAPCAR");
+        LazySeq indexed = seq.indexed();
+        List<Object> results;
+        if (indexed == null) {
+            results = new ArrayList<>();
+            seq.forEach(new MapSink(evaluator, function, results));
+        } else {
+            results = run(new MapTask(evaluator, function, indexed, 0, indexed.sourceSize()), pool, sequentialNanos);
+        }
+
+        ConsCell list = null;
+        for (int i = results.size() - 1; i >= 0; i--) {
+            list = new ConsCell(results.get(i), list);
+        }
+        return list;
+    }
+
+    /**
+     * Procesa una muestra en el hilo actual y, según el costo medido, termina en el
+     * mismo hilo o reparte el resto en el pool.
+     *
+     * @param task La tarea que cubre toda la fuente
+     * @param pool El pool donde se ejecutan los tramos
+     * @param sequentialNanos Umbral de trabajo por debajo del cual no se divide
+     * @return El resultado combinado
+     */
+    private static <T> T run(ChunkTask<T> task, ForkJoinPool pool, long sequentialNanos) {
+        long size = task.to;
+        long sample = Math.min(size, SAMPLE_SIZE);
+        long started = System.nanoTime();
+        T prefix = task.leaf(0, sample);
+        long perElement = Math.max(1, (System.nanoTime() - started) / Math.max(1, sample));
+
+        long remaining = size - sample;
+        if (remaining == 0) {
+            return prefix;
+        }
+        T rest;
+        if (pool.getParallelism() < 2 || remaining * perElement < sequentialNanos) {
+            rest = task.leaf(sample, size);
+        } else {
+            ChunkTask<T> parallel = task.create(sample, size);
+            parallel.leafSize = Math.max(1, LEAF_NANOS / perElement);
+            rest = pool.invoke(parallel);
+        }
+        return task.combine(prefix, rest);
+    }
+
+    /**
+     * Tarea que cubre un tramo [from, to) de la fuente; lo divide a la mitad mientras
+     * sea más grande que leafSize y el hilo no tenga demasiadas tareas pendientes.
+     */
+    private abstract static class ChunkTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        final Evaluator evaluator;
+        final Object function;
+        final LazySeq seq;
+        final long from;
+        final long to;
+        long leafSize;
+
+        ChunkTask(Evaluator evaluator, Object function, LazySeq seq, long from, long to) {
+            this.evaluator = evaluator;
+            this.function = function;
+            this.seq = seq;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Procesa un tramo en el hilo actual.
+         */
+        abstract T leaf(long start, long end);
+
+        /**
+         * Combina los resultados de dos tramos contiguos (izquierdo y derecho).
+         */
+        abstract T combine(T left, T right);
+
+        /**
+         * Crea una tarea del mismo tipo para otro tramo.
+         */
+        abstract ChunkTask<T> create(long start, long end);
+
+        @Override
+        protected T compute() {
+            long size = to - from;
+            if (size <= leafSize || getSurplusQueuedTaskCount() > SURPLUS_LIMIT) {
+                return leaf(from, to);
+            }
+
+            long middle = from + size / 2;
+            ChunkTask<T> left = create(from, middle);
+            ChunkTask<T> right = create(middle, to);
+            left.leafSize = leafSize;
+            right.leafSize = leafSize;
+            left.fork();
+            T rightResult = right.compute();
+            return combine(left.join(), rightResult);
+        }
+    }
+
+    /**
+     * Tramo de PREDUCE: cada tramo se reduce por separado y los parciales se
+     * combinan con la misma función.
+     */
+    private static final class ReduceTask extends ChunkTask<Object> {
+        private static final long serialVersionUID = 1L;
+
+        ReduceTask(Evaluator evaluator, Object function, LazySeq seq, long from, long to) {
+            super(evaluator, function, seq, from, to);
+        }
+
+        @Override
+        Object leaf(long start, long end) {
+            LazySeq.Reducer reducer = new LazySeq.Reducer(evaluator, function);
+            seq.forEach(start, end, reducer);
+            return reducer.isEmpty() ? EMPTY : reducer.result();
+        }
+
+        @Override
+        Object combine(Object left, Object right) {
+            if (left == EMPTY) {
+                return right;
+            }
+            if (right == EMPTY) {
+                return left;
+            }
+            return evaluator.call(function, left, right);
+        }
+
+        @Override
+        ChunkTask<Object> create(long start, long end) {
+            return new ReduceTask(evaluator, function, seq, start, end);
+        }
+    }
+
+    /**
+     * Tramo de PMAPCAR: cada tramo produce su lista de resultados y las listas se
+     * concatenan en orden.
+     */
+    private static final class MapTask extends ChunkTask<List<Object>> {
+        private static final long serialVersionUID = 1L;
+
+        MapTask(Evaluator evaluator, Object function, LazySeq seq, long from, long to) {
+            super(evaluator, function, seq, from, to);
+        }
+
+        @Override
+        List<Object> leaf(long start, long end) {
+            List<Object> results = new ArrayList<>();
+            seq.forEach(start, end, new MapSink(evaluator, function, results));
+            return results;
+        }
+
+        @Override
+        List<Object> combine(List<Object> left, List<Object> right) {
+            left.addAll(right);
+            return left;
+        }
+
+        @Override
+        ChunkTask<List<Object>> create(long start, long end) {
+            return new MapTask(evaluator, function, seq, start, end);
+        }
+    }
+
+    /**
+     * Receptor que aplica la función a cada elemento y guarda el resultado.
+     */
+    private static final class MapSink implements LazySeq.Sink {
+        private final Evaluator evaluator;
+        private final Object function;
+        private final List<Object> results;
+
+        MapSink(Evaluator evaluator, Object function, List<Object> results) {
+            this.evaluator = evaluator;
+            this.function = function;
+            this.results = results;
+        }
+
+        @Override
+        public boolean accept(Object value) {
+            results.add(evaluator.call(function, value));
+            return true;
+        }
+    }
+}
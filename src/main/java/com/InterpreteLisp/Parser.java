@@ -1,6 +1,8 @@
 package com.InterpreteLisp;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /*
@@ -9,7 +11,7 @@ import java.util.List;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 11/03/2025
- * última modificación: 20/03/2025
+ * última modificación: 19/10/2026
  * File Name: Parser.java
  * Descripción: Clase que se encarga de analizar la expresión LISP.
  * 
@@ -36,6 +38,7 @@ public class Parser
      * @return Una lista de nodos del árbol de sintaxis abstracta.
      */ 
     public List<ASTNode> parse() {
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.PARSE);
         List<ASTNode> expressions = new ArrayList<>();
         while (currentTokenIndex < tokens.size()) {
             if (peek().getValue().equals(")")) {
@@ -45,6 +48,7 @@ public class Parser
             }
             expressions.add(parseExpression());
         }
+        commitParse(event, expressions);
         return expressions;
     }
 
@@ -59,6 +63,18 @@ public class Parser
             throw new RuntimeException("Unexpected end of input");
         }
         
+        // `x, ,x y ,@x se convierten en (QUASIQUOTE x), (UNQUOTE x) y (UNQUOTE-SPLICING x)
+        if (isPrefix(peek().getType())) {
+            ASTNode prefixNode = new ASTNode(prefixForm(consumeAny().getType()));
+            Token next = peek();
+            if (next.getType() == TokenType.LPAREN || next.getType() == TokenType.QUOTE || isPrefix(next.getType())) {
+                prefixNode.addChild(parseExpression());
+            } else {
+                prefixNode.addChild(parseAtom(consumeAny().getValue()));
+            }
+            return prefixNode;
+        }
+
         // Comprobar si la expresión comienza con comilla simple
         if (peek().getValue().equals("'")) {
             consume("'");
@@ -122,7 +138,7 @@ public class Parser
                 ASTNode clauseNode = new ASTNode("CLAUSE");
                 
                 // Procesar la condición de la cláusula
-                if (peek().getValue().equals("(")) {
+                if (peek().getValue().equals("(") || isPrefix(peek().getType())) {
                     // La condición es una expresión entre paréntesis
                     clauseNode.addChild(parseExpression());
                 } else {
@@ -137,8 +153,8 @@ public class Parser
                     ASTNode quoteNode = new ASTNode("QUOTE");
                     quoteNode.addChild(parseAtom(consumeAny().getValue()));
                     clauseNode.addChild(quoteNode);
-                } else if (peek().getValue().equals("(")) {
-                    // Si el resultado es una expresión entre paréntesis
+                } else if (peek().getValue().equals("(") || isPrefix(peek().getType())) {
+                    // Si el resultado es una expresión entre paréntesis o una plantilla
                     clauseNode.addChild(parseExpression());
                 } else {
                     // Si el resultado es un átomo
@@ -153,11 +169,15 @@ public class Parser
             return condNode;
         }
         else { // si no es quote o COND: 
-            Token firstToken = consumeAny();
-            ASTNode node = new ASTNode(firstToken.getValue());
+            // Si la lista empieza con otra lista, como ((x 1) (y 2)) o ((LAMBDA (x) x) 3),
+            // o está vacía, el nodo queda sin valor y todos los elementos son sus hijos
+            String head = peek().getValue();
+            ASTNode node = head.equals("(") || head.equals(")") || isPrefix(peek().getType())
+                ? new ASTNode("")
+                : new ASTNode(consumeAny().getValue());
     
             while (!peek().getValue().equals(")")) {
-                if (peek().getValue().equals("(")) {
+                if (peek().getValue().equals("(") || isPrefix(peek().getType())) {
                     node.addChild(parseExpression());
                 } 
                 else {
@@ -167,16 +187,386 @@ public class Parser
             }
     
             consume(")");
+            if (!node.getValue().isEmpty() && node.getChildren().isEmpty()) {
+                // (g) queda sin hijos como el símbolo g; la marca distingue la llamada
+                node.markListForm();
+            }
             return node; // devuelve el nodo principal
         }
     }
 
+    /**
+     * Variante iterativa de parse().
+     * Construye exactamente los mismos árboles que el parser recursivo, pero usa una
+     * pila explícita en lugar de la pila de Java, por lo que admite expresiones con
+     * cualquier nivel de anidamiento. Las decisiones se toman con un switch sobre el
+     * tipo del token en lugar de comparar cadenas.
+     *
+     * @return Una lista de nodos del árbol de sintaxis abstracta.
+     */
+    public List<ASTNode> parseIterative() {
+        Object event = FlightEvents.EVENTS.begin(FlightEvents.PARSE);
+        List<ASTNode> expressions = new ArrayList<>();
+        Deque<ParseFrame> stack = new ArrayDeque<>();
+        while (currentTokenIndex < tokens.size()) {
+            if (peek().getType() == TokenType.RPAREN) {
+                // Igual que en parse(): un paréntesis de cierre suelto se descarta
+                currentTokenIndex++;
+                continue;
+            }
+            expressions.add(parseExpressionIterative(stack));
+        }
+        commitParse(event, expressions);
+        return expressions;
+    }
+
+    /**
+     * Registra el evento PARSE de Flight Recorder con el código de la primera expresión.
+     */
+    private static void commitParse(Object event, List<ASTNode> expressions) {
+        if (event != null && FlightEvents.EVENTS.end(event)) {
+            FlightEvents.EVENTS.commit(event, "PARSE", expressions.size(),
+                expressions.isEmpty() ? "" : expressions.get(0).toSource());
+        }
+    }
+
+    /**
+     * Analiza una expresión completa usando la pila de marcos recibida.
+     * Cada marco representa una expresión abierta; cuando un marco termina, su nodo
+     * se entrega al marco que está debajo en la pila.
+     *
+     * @param stack Pila de trabajo (vacía al entrar y al salir)
+     * @return El nodo de la expresión analizada
+     */
+    private ASTNode parseExpressionIterative(Deque<ParseFrame> stack) {
+        beginExpression(stack);
+        ASTNode completed = null;
+
+        while (true) {
+            if (completed != null) {
+                if (stack.isEmpty()) {
+                    return completed;
+                }
+                deliver(stack.peek(), completed);
+                completed = null;
+            }
+
+            ParseFrame frame = stack.peek();
+            switch (frame.kind) {
+                case ParseFrame.LIST: {
+                    Token token = peek();
+                    switch (token.getType()) {
+                        case RPAREN:
+                            currentTokenIndex++;
+                            stack.pop();
+                            if (!frame.node.getValue().isEmpty() && frame.node.getChildren().isEmpty()) {
+                                frame.node.markListForm();
+                            }
+                            completed = frame.node;
+                            break;
+                        case LPAREN:
+                        case BACKQUOTE:
+                        case COMMA:
+                        case COMMA_AT:
+                            beginExpression(stack);
+                            break;
+                        default:
+                            // Dentro de una lista la comilla se conserva como átomo, igual que en parseExpression()
+                            currentTokenIndex++;
+                            frame.node.addChild(parseAtom(token.getValue()));
+                            break;
+                    }
+                    break;
+                }
+                case ParseFrame.QUOTE_PREFIX:
+                    if (frame.state == ParseFrame.RECEIVED) {
+                        stack.pop();
+                        completed = frame.node;
+                    } else if (peek().getType() == TokenType.LPAREN) {
+                        frame.state = ParseFrame.WAITING;
+                        beginExpression(stack);
+                    } else {
+                        frame.node.addChild(parseAtom(consumeAny().getValue()));
+                        stack.pop();
+                        completed = frame.node;
+                    }
+                    break;
+                case ParseFrame.PREFIX:
+                    if (frame.state == ParseFrame.RECEIVED) {
+                        stack.pop();
+                        completed = frame.node;
+                    } else if (peek().getType() == TokenType.LPAREN || peek().getType() == TokenType.QUOTE
+                            || isPrefix(peek().getType())) {
+                        frame.state = ParseFrame.WAITING;
+                        beginExpression(stack);
+                    } else {
+                        frame.node.addChild(parseAtom(consumeAny().getValue()));
+                        stack.pop();
+                        completed = frame.node;
+                    }
+                    break;
+                case ParseFrame.PAREN_QUOTE:
+                    if (frame.state == ParseFrame.RECEIVED) {
+                        consume(")");
+                        stack.pop();
+                        completed = frame.node;
+                    } else if (peek().getType() == TokenType.LPAREN) {
+                        frame.state = ParseFrame.WAITING;
+                        beginExpression(stack);
+                    } else {
+                        // Para casos como (QUOTE symbol)
+                        frame.node.addChild(parseAtom(consumeAny().getValue()));
+                        consume(")");
+                        stack.pop();
+                        completed = frame.node;
+                    }
+                    break;
+                case ParseFrame.PAREN_TICK:
+                    if (frame.state == ParseFrame.RECEIVED) {
+                        consume(")");
+                        stack.pop();
+                        completed = frame.node;
+                    } else {
+                        frame.state = ParseFrame.WAITING;
+                        beginExpression(stack);
+                    }
+                    break;
+                case ParseFrame.COND:
+                    completed = stepCond(frame, stack);
+                    break;
+                default:
+                    throw new IllegalStateException("Marco de parseo desconocido: " + frame.kind);
+            }
+        }
+    }
+
+    /**
+     * Avanza un paso en el análisis de un COND.
+     * Replica las reglas de las cláusulas de parseExpression(): cada cláusula tiene
+     * una condición y un resultado, y un resultado con comilla cita un solo átomo.
+     *
+     * @param frame El marco del COND
+     * @param stack La pila de trabajo
+     * @return El nodo COND si se terminó de analizar, o null si falta entrada
+     */
+    private ASTNode stepCond(ParseFrame frame, Deque<ParseFrame> stack) {
+        switch (frame.state) {
+            case ParseFrame.COND_NEXT_CLAUSE:
+                if (peek().getType() == TokenType.RPAREN) {
+                    currentTokenIndex++;
+                    stack.pop();
+                    return frame.node;
+                }
+                if (peek().getType() != TokenType.LPAREN) {
+                    throw new RuntimeException("Expected '(' at start of COND clause");
+                }
+                currentTokenIndex++;
+                frame.clause = new ASTNode("CLAUSE");
+                frame.state = ParseFrame.COND_CONDITION;
+                return null;
+            case ParseFrame.COND_CONDITION:
+                if (peek().getType() == TokenType.LPAREN || isPrefix(peek().getType())) {
+                    frame.state = ParseFrame.COND_WAITING_CONDITION;
+                    beginExpression(stack);
+                } else {
+                    frame.clause.addChild(parseAtom(consumeAny().getValue()));
+                    frame.state = ParseFrame.COND_RESULT;
+                }
+                return null;
+            case ParseFrame.COND_RESULT:
+                switch (peek().getType()) {
+                    case QUOTE: {
+                        currentTokenIndex++;
+                        ASTNode quoteNode = new ASTNode("QUOTE");
+                        quoteNode.addChild(parseAtom(consumeAny().getValue()));
+                        frame.clause.addChild(quoteNode);
+                        frame.state = ParseFrame.COND_CLAUSE_END;
+                        break;
+                    }
+                    case LPAREN:
+                    case BACKQUOTE:
+                    case COMMA:
+                    case COMMA_AT:
+                        frame.state = ParseFrame.COND_WAITING_RESULT;
+                        beginExpression(stack);
+                        break;
+                    default:
+                        frame.clause.addChild(parseAtom(consumeAny().getValue()));
+                        frame.state = ParseFrame.COND_CLAUSE_END;
+                        break;
+                }
+                return null;
+            case ParseFrame.COND_CLAUSE_END:
+                consume(")");
+                frame.node.addChild(frame.clause);
+                frame.clause = null;
+                frame.state = ParseFrame.COND_NEXT_CLAUSE;
+                return null;
+            default:
+                throw new IllegalStateException("Estado de COND inválido: " + frame.state);
+        }
+    }
+
+    /**
+     * Abre una nueva expresión: consume su inicio y apila el marco correspondiente.
+     * Equivale a la parte inicial de parseExpression().
+     *
+     * @param stack La pila de trabajo
+     */
+    private void beginExpression(Deque<ParseFrame> stack) {
+        Token token = peek();
+
+        if (token.getType() == TokenType.QUOTE) {
+            currentTokenIndex++;
+            stack.push(new ParseFrame(ParseFrame.QUOTE_PREFIX, new ASTNode("QUOTE")));
+            return;
+        }
+
+        if (isPrefix(token.getType())) {
+            currentTokenIndex++;
+            stack.push(new ParseFrame(ParseFrame.PREFIX, new ASTNode(prefixForm(token.getType()))));
+            return;
+        }
+
+        if (token.getType() != TokenType.LPAREN) {
+            throw new RuntimeException("Expected '(' at position " + currentTokenIndex + " but found " + token.getValue());
+        }
+        currentTokenIndex++;
+
+        Token next = peek();
+        switch (next.getType()) {
+            case QUOTE:
+                currentTokenIndex++;
+                stack.push(new ParseFrame(ParseFrame.PAREN_TICK, new ASTNode("QUOTE")));
+                return;
+            case SYMBOL:
+                if (next.getValue().equals("QUOTE")) {
+                    currentTokenIndex++;
+                    stack.push(new ParseFrame(ParseFrame.PAREN_QUOTE, new ASTNode("QUOTE")));
+                    return;
+                }
+                if (next.getValue().equals("COND")) {
+                    currentTokenIndex++;
+                    ParseFrame condFrame = new ParseFrame(ParseFrame.COND, new ASTNode(next.getValue()));
+                    condFrame.state = ParseFrame.COND_NEXT_CLAUSE;
+                    stack.push(condFrame);
+                    return;
+                }
+                break;
+            case LPAREN:
+            case RPAREN:
+            case BACKQUOTE:
+            case COMMA:
+            case COMMA_AT:
+                // Lista que empieza con otra lista, con una plantilla, o lista vacía: el nodo queda sin valor
+                // y el marco LIST agrega todos los elementos como hijos
+                stack.push(new ParseFrame(ParseFrame.LIST, new ASTNode("")));
+                return;
+            default:
+                break;
+        }
+
+        // Lista común: el primer token es el valor del nodo
+        currentTokenIndex++;
+        stack.push(new ParseFrame(ParseFrame.LIST, new ASTNode(next.getValue())));
+    }
+
+    /**
+     * Entrega el nodo de una expresión terminada al marco que la estaba esperando.
+     *
+     * @param parent El marco en la cima de la pila
+     * @param child El nodo terminado
+     */
+    private void deliver(ParseFrame parent, ASTNode child) {
+        switch (parent.kind) {
+            case ParseFrame.LIST:
+                parent.node.addChild(child);
+                break;
+            case ParseFrame.COND:
+                parent.clause.addChild(child);
+                parent.state = parent.state == ParseFrame.COND_WAITING_CONDITION
+                        ? ParseFrame.COND_RESULT
+                        : ParseFrame.COND_CLAUSE_END;
+                break;
+            default:
+                parent.node.addChild(child);
+                parent.state = ParseFrame.RECEIVED;
+                break;
+        }
+    }
+
+    /**
+     * Indica si un token es el prefijo de una plantilla: comilla invertida, coma o coma-arroba.
+     *
+     * @param type El tipo del token
+     * @return true si es uno de los prefijos
+     */
+    static boolean isPrefix(TokenType type) {
+        return type == TokenType.BACKQUOTE || type == TokenType.COMMA || type == TokenType.COMMA_AT;
+    }
+
+    /**
+     * Obtiene la forma que representa un prefijo de plantilla.
+     */
+    private static String prefixForm(TokenType type) {
+        switch (type) {
+            case BACKQUOTE:
+                return "QUASIQUOTE";
+            case COMMA:
+                return "UNQUOTE";
+            default:
+                return "UNQUOTE-SPLICING";
+        }
+    }
+
+    /**
+     * Marco de la pila del parser iterativo: una expresión que todavía no se cierra.
+     */
+    private static class ParseFrame {
+        // Tipos de marco
+        static final int LIST = 0;          // (op arg...)
+        static final int QUOTE_PREFIX = 1;  // 'x fuera de una lista
+        static final int PAREN_QUOTE = 2;   // (QUOTE x)
+        static final int PAREN_TICK = 3;    // (' x)
+        static final int COND = 4;          // (COND (c r)...)
+        static final int PREFIX = 5;        // `x, ,x o ,@x
+
+        // Estados de los marcos de QUOTE
+        static final int START = 0;
+        static final int WAITING = 1;
+        static final int RECEIVED = 2;
+
+        // Estados del marco de COND
+        static final int COND_NEXT_CLAUSE = 10;
+        static final int COND_CONDITION = 11;
+        static final int COND_WAITING_CONDITION = 12;
+        static final int COND_RESULT = 13;
+        static final int COND_WAITING_RESULT = 14;
+        static final int COND_CLAUSE_END = 15;
+
+        final int kind;
+        final ASTNode node;
+        ASTNode clause;
+        int state;
+
+        ParseFrame(int kind, ASTNode node) {
+            this.kind = kind;
+            this.node = node;
+            this.state = START;
+        }
+    }
+
     /**
      * Método que analiza un átomo de la expresión LISP.
      * @param rawValue El valor del átomo.
      * @return Un nodo del árbol de sintaxis abstracta.
      */
     private ASTNode parseAtom(String rawValue) {
+        // Los símbolos no pueden ser números: se evita el costo de las excepciones de parseo
+        char first = rawValue.isEmpty() ? ' ' : rawValue.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return new ASTNode(rawValue);
+        }
         try {
             int intValue = Integer.parseInt(rawValue);
             return new ASTNode(String.valueOf(intValue));
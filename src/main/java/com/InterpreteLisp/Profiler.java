@@ -0,0 +1,301 @@
+package com.InterpreteLisp;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: Profiler.java
+ * Descripción: Perfil de las llamadas a funciones durante una evaluación con PROFILE.
+ */
+
+/**
+ * Perfil de las llamadas a funciones de usuario. El Evaluator avisa al entrar y al
+ * salir de cada llamada (solo mientras hay un perfil activo; si no, el costo es leer
+ * un campo en null). Por cada función se cuentan las llamadas, el tiempo inclusivo
+ * (con las llamadas que hace) y el propio (sin ellas); también se cuentan las
+ * llamadas entre cada par de funciones y el tiempo propio de cada pila de llamadas,
+ * que se puede escribir en el formato de pilas colapsadas que leen las herramientas
+ * de flame graphs (una línea "A;B;C microsegundos" por pila).
+ * <p>
+ * En una función recursiva el tiempo inclusivo se cuenta solo en la llamada más
+ * externa, para no sumar el mismo tiempo varias veces. Cada hilo (por ejemplo los de
+ * PMAPCAR) tiene su propia pila; los totales se combinan al salir de cada llamada.
+ */
+final class Profiler {
+    /**
+     * Nombre del llamador de las funciones que se llaman desde el nivel superior.
+     */
+    static final String ROOT = "(inicio)";
+
+    /**
+     * Totales de una función.
+     */
+    static final class Stats {
+        private final String name;
+        private long calls;
+        private long inclusiveNanos;
+        private long selfNanos;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getCalls() {
+            return calls;
+        }
+
+        long getInclusiveNanos() {
+            return inclusiveNanos;
+        }
+
+        long getSelfNanos() {
+            return selfNanos;
+        }
+    }
+
+    /**
+     * Pila de llamadas en el árbol de contextos: un nodo por cada camino distinto
+     * desde el nivel superior, con sus llamadas y el tiempo propio acumulado en ese camino.
+     */
+    private static final class CallPath {
+        final CallPath parent;
+        final String name;
+        final Map<String, CallPath> children = new HashMap<>();
+        long calls;
+        long selfNanos;
+
+        CallPath(CallPath parent, String name) {
+            this.parent = parent;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Llamada activa en la pila de un hilo.
+     */
+    private static final class Activation {
+        final Activation parent;
+        final CallPath path;
+        final long start;
+        long childNanos;
+
+        Activation(Activation parent, CallPath path, long start) {
+            this.parent = parent;
+            this.path = path;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Pila de un hilo y cuántas llamadas de cada función están activas en ella.
+     */
+    private static final class ThreadState {
+        Activation top;
+        final Map<String, int[]> active = new HashMap<>();
+    }
+
+    private final ThreadLocal<ThreadState> threads = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            return new ThreadState();
+        }
+    };
+    private final CallPath root = new CallPath(null, ROOT);
+    private final Map<String, Stats> functions = new HashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long elapsedNanos = -1;
+
+    /**
+     * Registra la entrada a una llamada.
+     *
+     * @param name El nombre de la función
+     */
+    void enter(String name) {
+        ThreadState state = threads.get();
+        CallPath parentPath = state.top == null ? root : state.top.path;
+        CallPath path;
+        synchronized (this) {
+            path = parentPath.children.get(name);
+            if (path == null) {
+                path = new CallPath(parentPath, name);
+                parentPath.children.put(name, path);
+            }
+        }
+        int[] depth = state.active.get(name);
+        if (depth == null) {
+            depth = new int[1];
+            state.active.put(name, depth);
+        }
+        depth[0]++;
+        state.top = new Activation(state.top, path, System.nanoTime());
+    }
+
+    /**
+     * Registra la salida de la llamada más reciente del hilo, también si terminó con un error.
+     */
+    void exit() {
+        long now = System.nanoTime();
+        ThreadState state = threads.get();
+        Activation activation = state.top;
+        Activation parent = activation.parent;
+        state.top = parent;
+        long elapsed = now - activation.start;
+        long self = elapsed - activation.childNanos;
+        if (parent != null) {
+            parent.childNanos += elapsed;
+        }
+        String name = activation.path.name;
+        boolean outermost = --state.active.get(name)[0] == 0;
+        synchronized (this) {
+            Stats stats = functions.get(name);
+            if (stats == null) {
+                stats = new Stats(name);
+                functions.put(name, stats);
+            }
+            stats.calls++;
+            stats.selfNanos += self;
+            if (outermost) {
+                stats.inclusiveNanos += elapsed;
+            }
+            activation.path.calls++;
+            activation.path.selfNanos += self;
+        }
+    }
+
+    /**
+     * Termina el perfil; el tiempo total es el transcurrido hasta aquí.
+     */
+    synchronized void stop() {
+        if (elapsedNanos < 0) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Obtiene los totales de una función.
+     *
+     * @param name El nombre de la función
+     * @return Los totales, o null si no se llamó
+     */
+    synchronized Stats getStats(String name) {
+        return functions.get(name);
+    }
+
+    /**
+     * Obtiene cuántas veces una función llamó a otra.
+     *
+     * @param caller El nombre de la función que llama, o ROOT
+     * @param callee El nombre de la función llamada
+     */
+    synchronized long getEdgeCount(String caller, String callee) {
+        Long count = edges().get(caller + " -> " + callee);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Suma las llamadas de cada par de funciones en todos los caminos del árbol.
+     */
+    private Map<String, Long> edges() {
+        Map<String, Long> edges = new HashMap<>();
+        List<CallPath> pending = new ArrayList<>(root.children.values());
+        while (!pending.isEmpty()) {
+            CallPath path = pending.remove(pending.size() - 1);
+            String edge = path.parent.name + " -> " + path.name;
+            Long count = edges.get(edge);
+            edges.put(edge, count == null ? path.calls : count + path.calls);
+            pending.addAll(path.children.values());
+        }
+        return edges;
+    }
+
+    /**
+     * Construye el reporte: las funciones ordenadas por tiempo propio y las llamadas
+     * entre funciones ordenadas por cantidad.
+     *
+     * @return El reporte, con una línea por función y por par de funciones
+     */
+    synchronized String report() {
+        List<Stats> sorted = new ArrayList<>(functions.values());
+        Collections.sort(sorted, new Comparator<Stats>() {
+            @Override
+            public int compare(Stats a, Stats b) {
+                return Long.compare(b.selfNanos, a.selfNanos);
+            }
+        });
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Perfil: %.3f ms en total%n",
+            (elapsedNanos < 0 ? System.nanoTime() - startNanos : elapsedNanos) / 1e6));
+        report.append(String.format(Locale.ROOT, "%-24s %10s %14s %14s%n",
+            "Función", "Llamadas", "Inclusivo (ms)", "Propio (ms)"));
+        for (Stats stats : sorted) {
+            report.append(String.format(Locale.ROOT, "%-24s %10d %14.3f %14.3f%n",
+                stats.name, stats.calls, stats.inclusiveNanos / 1e6, stats.selfNanos / 1e6));
+        }
+        List<Map.Entry<String, Long>> calls = new ArrayList<>(edges().entrySet());
+        Collections.sort(calls, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> a, Map.Entry<String, Long> b) {
+                int byCount = Long.compare(b.getValue(), a.getValue());
+                return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+            }
+        });
+        report.append(String.format("Llamadas entre funciones:%n"));
+        for (Map.Entry<String, Long> call : calls) {
+            report.append(String.format(Locale.ROOT, "  %-40s %10d%n", call.getKey(), call.getValue()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Escribe el tiempo propio de cada pila de llamadas en el formato de pilas
+     * colapsadas ("A;B;C microsegundos"), ordenadas por pila. Las pilas de menos de
+     * un microsegundo se omiten.
+     *
+     * @param file El archivo de salida
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    void writeCollapsedStacks(Path file) throws IOException {
+        Map<String, Long> sorted = new TreeMap<>();
+        synchronized (this) {
+            for (CallPath path : root.children.values()) {
+                collect(path, path.name, sorted);
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> stack : sorted.entrySet()) {
+                long micros = stack.getValue() / 1000;
+                if (micros > 0) {
+                    out.write(stack.getKey() + " " + micros + "\n");
+                }
+            }
+        }
+    }
+
+    private static void collect(CallPath path, String stack, Map<String, Long> stacks) {
+        stacks.put(stack, path.selfNanos);
+        for (CallPath child : path.children.values()) {
+            collect(child, stack + ";" + child.name, stacks);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: QuoteInterner.java
+ * Descripción: Tabla de hash-consing para los datos citados con QUOTE.
+ */
+
+/**
+ * Tabla de hash-consing para datos citados.
+ * Todas las estructuras citadas que son estructuralmente iguales comparten una sola
+ * instancia canónica de ASTNode, con su hash estructural cacheado. Como la tabla se
+ * construye de abajo hacia arriba, dos nodos canónicos de la misma tabla son iguales
+ * si y solo si son el mismo objeto, lo que permite a EQUAL responder por identidad.
+ * Cada Evaluator tiene su propia tabla; el hash estructural sí se calcula igual en
+ * todas, así que EQUAL descarta por hash los datos canónicos de tablas distintas y
+ * solo recorre los que tienen el mismo.
+ */
+public class QuoteInterner {
+    /**
+     * Instancias canónicas indexadas por su valor y sus hijos (ya canónicos).
+     */
+    private final ConcurrentHashMap<Key, ASTNode> table;
+
+    /**
+     * Constructor de la clase QuoteInterner.
+     */
+    public QuoteInterner() {
+        this.table = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Devuelve la instancia canónica de un dato citado.
+     * Se recorre el árbol en post-orden con una pila explícita, de modo que se
+     * pueden internar estructuras de cualquier profundidad.
+     *
+     * @param node El dato citado
+     * @return La instancia canónica estructuralmente igual al dato
+     */
+    public ASTNode intern(ASTNode node) {
+        if (node.isCanonical()) {
+            return node;
+        }
+
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(node));
+        ASTNode result = null;
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            List<ASTNode> children = frame.node.getChildren();
+
+            if (result != null) {
+                frame.canonicalChildren[frame.next++] = result;
+                result = null;
+            }
+
+            if (frame.next < children.size()) {
+                ASTNode child = children.get(frame.next);
+                if (child.isCanonical()) {
+                    frame.canonicalChildren[frame.next++] = child;
+                } else {
+                    stack.push(new Frame(child));
+                }
+                continue;
+            }
+
+            stack.pop();
+            result = canonicalize(frame.node, frame.canonicalChildren);
+        }
+
+        return result;
+    }
+
+    /**
+     * Busca o registra la instancia canónica de un nodo cuyos hijos ya son canónicos.
+     */
+    private ASTNode canonicalize(ASTNode node, ASTNode[] canonicalChildren) {
+        Key key = new Key(node.getValue(), canonicalChildren);
+        ASTNode existing = table.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Se crea siempre un nodo nuevo (y no se reutiliza el original) para que el
+        // árbol del programa nunca quede marcado como canónico si otro hilo gana la carrera
+        ASTNode candidate = new ASTNode(node.getValue());
+        for (ASTNode child : canonicalChildren) {
+            candidate.addChild(child);
+        }
+        candidate.markCanonical(key.hash);
+
+        existing = table.putIfAbsent(key, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    /**
+     * Número de estructuras canónicas registradas.
+     *
+     * @return El tamaño de la tabla
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Nodo pendiente en el recorrido post-orden.
+     */
+    private static class Frame {
+        final ASTNode node;
+        final ASTNode[] canonicalChildren;
+        int next;
+
+        Frame(ASTNode node) {
+            this.node = node;
+            this.canonicalChildren = new ASTNode[node.getChildren().size()];
+        }
+    }
+
+    /**
+     * Llave de la tabla: valor del nodo más la identidad de sus hijos canónicos.
+     */
+    private static final class Key {
+        final String value;
+        final ASTNode[] children;
+        final int hash;
+
+        Key(String value, ASTNode[] children) {
+            this.value = value;
+            this.children = children;
+            int h = value.hashCode();
+            for (ASTNode child : children) {
+                h = 31 * h + child.getStructuralHash();
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (hash != other.hash || !value.equals(other.value) || children.length != other.children.length) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != other.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.InterpreteLisp;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SamplingProfiler.java
+ * Descripción: Perfil por muestreo de la pila de llamadas LISP.
+ */
+
+/**
+ * Perfil por muestreo. Mientras está activo, el Evaluator guarda en una pila sombra
+ * por hilo la función y el nodo de la llamada de cada llamada activa (dos escrituras
+ * en un arreglo al entrar y una al salir). Un hilo aparte lee esas pilas cada cierto
+ * intervalo y cuenta cuántas veces aparece cada pila de llamadas LISP.
+ * <p>
+ * A diferencia de Profiler, que mide cada llamada, el costo no depende de cuántas
+ * llamadas haya ni de cuánto duren, así que se puede dejar activo mientras se usa el
+ * intérprete. La lectura no detiene al hilo que se muestrea: si la pila cambia
+ * mientras se copia, la muestra puede mezclar dos pilas cercanas, lo que no afecta
+ * los totales de forma apreciable.
+ */
+final class SamplingProfiler {
+    /**
+     * Intervalo entre muestras por omisión, en nanosegundos (1 ms).
+     */
+    static final long DEFAULT_INTERVAL_NANOS = 1000000L;
+
+    /**
+     * Llamadas activas de un hilo. Solo el hilo dueño escribe; el hilo de muestreo lee
+     * la profundidad (volatile) y luego las casillas que están por debajo. El dueño
+     * escribe la profundidad con lazySet, que ordena las escrituras anteriores sin el
+     * costo de una barrera completa en cada llamada; la muestra puede ver la
+     * profundidad con un poco de retraso, lo que no importa.
+     */
+    static final class ShadowStack {
+        private static final AtomicIntegerFieldUpdater<ShadowStack> DEPTH =
+            AtomicIntegerFieldUpdater.newUpdater(ShadowStack.class, "depth");
+
+        private final Thread owner = Thread.currentThread();
+        private Evaluator.Function[] functions = new Evaluator.Function[64];
+        private ASTNode[] sites = new ASTNode[64];
+        private volatile int depth;
+        /**
+         * Copia de la profundidad que solo usa el dueño, para no leer el campo volatile.
+         */
+        private int top;
+
+        void push(Evaluator.Function function, ASTNode site) {
+            int d = top;
+            if (d == functions.length) {
+                Evaluator.Function[] grownFunctions = new Evaluator.Function[d * 2];
+                ASTNode[] grownSites = new ASTNode[d * 2];
+                System.arraycopy(functions, 0, grownFunctions, 0, d);
+                System.arraycopy(sites, 0, grownSites, 0, d);
+                functions = grownFunctions;
+                sites = grownSites;
+            }
+            functions[d] = function;
+            sites[d] = site;
+            top = d + 1;
+            DEPTH.lazySet(this, d + 1);
+        }
+
+        void pop() {
+            DEPTH.lazySet(this, --top);
+        }
+
+        int getDepth() {
+            return depth;
+        }
+    }
+
+    private final long intervalNanos;
+    private final List<ShadowStack> stacks = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ShadowStack> current = new ThreadLocal<ShadowStack>() {
+        @Override
+        protected ShadowStack initialValue() {
+            ShadowStack stack = new ShadowStack();
+            stacks.add(stack);
+            return stack;
+        }
+    };
+    /**
+     * Última pila entregada por currentStack(), para no buscar en el ThreadLocal
+     * cuando las llamadas siguen en el mismo hilo (el caso común).
+     */
+    private ShadowStack last = current.get();
+    /**
+     * Muestras por pila colapsada ("A;B;C"); solo las modifica el hilo de muestreo.
+     */
+    private final Map<String, long[]> samples = new HashMap<>();
+    /**
+     * Muestras por nodo de la llamada más interna.
+     */
+    private final Map<ASTNode, long[]> sites = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long sampleCount;
+    private final long startNanos;
+    private long elapsedNanos;
+
+    /**
+     * Crea el perfil e inicia el hilo de muestreo.
+     *
+     * @param intervalNanos Intervalo entre muestras, en nanosegundos
+     */
+    SamplingProfiler(long intervalNanos) {
+        if (intervalNanos <= 0) {
+            throw new LispError("El intervalo de muestreo debe ser positivo");
+        }
+        this.intervalNanos = intervalNanos;
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sampleLoop();
+            }
+        }, "lisp-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Obtiene la pila sombra del hilo actual, creándola la primera vez.
+     */
+    ShadowStack currentStack() {
+        ShadowStack stack = last;
+        if (stack.owner != Thread.currentThread()) {
+            stack = current.get();
+            last = stack;
+        }
+        return stack;
+    }
+
+    private void sampleLoop() {
+        List<Evaluator.Function> functions = new ArrayList<>();
+        List<ASTNode> callSites = new ArrayList<>();
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            if (!running) {
+                break;
+            }
+            synchronized (this) {
+                for (ShadowStack stack : stacks) {
+                    if (copy(stack, functions, callSites)) {
+                        record(functions, callSites);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia la pila de un hilo.
+     *
+     * @return false si el hilo no está dentro de ninguna llamada
+     */
+    private static boolean copy(ShadowStack stack, List<Evaluator.Function> functions, List<ASTNode> callSites) {
+        int depth = stack.getDepth();
+        Evaluator.Function[] stackFunctions = stack.functions;
+        ASTNode[] stackSites = stack.sites;
+        depth = Math.min(depth, Math.min(stackFunctions.length, stackSites.length));
+        functions.clear();
+        callSites.clear();
+        for (int i = 0; i < depth; i++) {
+            Evaluator.Function function = stackFunctions[i];
+            if (function == null) {
+                return false;
+            }
+            functions.add(function);
+            callSites.add(stackSites[i]);
+        }
+        return depth > 0;
+    }
+
+    private void record(List<Evaluator.Function> functions, List<ASTNode> callSites) {
+        StringBuilder key = new StringBuilder();
+        for (Evaluator.Function function : functions) {
+            key.append(key.length() == 0 ? "" : ";").append(function.getName());
+        }
+        add(samples, key.toString(), 1);
+        ASTNode site = callSites.get(callSites.size() - 1);
+        if (site != null) {
+            add(sites, site, 1);
+        }
+        sampleCount++;
+    }
+
+    /**
+     * Detiene el hilo de muestreo y espera a que termine. Las llamadas que siguen
+     * activas pueden seguir usando su pila, pero ya no se muestrean.
+     */
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Número de muestras tomadas (una por cada hilo que estaba dentro de una llamada).
+     */
+    synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Obtiene las muestras de cada pila colapsada ("A;B;C").
+     */
+    synchronized Map<String, Long> getStacks() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : samples.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Construye el reporte: las funciones ordenadas por muestras propias (en las que
+     * están en el tope de la pila), con las inclusivas (en las que aparecen en
+     * cualquier posición), y los nodos de llamada más frecuentes en el tope.
+     *
+     * @param limit Máximo de funciones y de nodos que se muestran
+     */
+    synchronized String report(int limit) {
+        Map<String, long[]> self = new HashMap<>();
+        Map<String, long[]> inclusive = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : samples.entrySet()) {
+            String[] frames = entry.getKey().split(";");
+            long count = entry.getValue()[0];
+            add(self, frames[frames.length - 1], count);
+            Set<String> seen = new HashSet<>();
+            for (String frame : frames) {
+                if (seen.add(frame)) {
+                    add(inclusive, frame, count);
+                }
+            }
+        }
+        long total = Math.max(sampleCount, 1);
+        StringBuilder report = new StringBuilder();
+        long elapsed = running ? System.nanoTime() - startNanos : elapsedNanos;
+        report.append(String.format(Locale.ROOT, "Muestreo: %d muestras en %.3f s (cada %.3f ms)%n",
+            sampleCount, elapsed / 1e9, intervalNanos / 1e6));
+        report.append(String.format(Locale.ROOT, "%-24s %10s %10s %10s%n",
+            "Función", "Propio", "Inclusivo", "% propio"));
+        for (Map.Entry<String, long[]> entry : sortedByCount(self, limit)) {
+            String name = entry.getKey();
+            long count = entry.getValue()[0];
+            report.append(String.format(Locale.ROOT, "%-24s %10d %10d %9.1f%%%n",
+                name, count, inclusive.get(name)[0], 100.0 * count / total));
+        }
+        if (!sites.isEmpty()) {
+            report.append(String.format("Llamadas más frecuentes en el tope de la pila:%n"));
+            for (Map.Entry<ASTNode, long[]> entry : sortedByCount(sites, limit)) {
+                report.append(String.format(Locale.ROOT, "  %-40s %10d%n",
+                    entry.getKey().toSource(), entry.getValue()[0]));
+            }
+        }
+        return report.toString();
+    }
+
+    private static <K> void add(Map<K, long[]> counts, K key, long amount) {
+        long[] count = counts.get(key);
+        if (count == null) {
+            counts.put(key, new long[] {amount});
+        } else {
+            count[0] += amount;
+        }
+    }
+
+    private static <K> List<Map.Entry<K, long[]>> sortedByCount(Map<K, long[]> counts, int limit) {
+        List<Map.Entry<K, long[]>> sorted = new ArrayList<>(counts.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<K, long[]>>() {
+            @Override
+            public int compare(Map.Entry<K, long[]> a, Map.Entry<K, long[]> b) {
+                return Long.compare(b.getValue()[0], a.getValue()[0]);
+            }
+        });
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    /**
+     * Escribe las muestras de cada pila en el formato de pilas colapsadas
+     * ("A;B;C muestras") que leen las herramientas de flame graphs.
+     *
+     * @param file El archivo de salida
+     * @throws IOException Si no se puede escribir el archivo
+     */
+    void writeCollapsedStacks(Path file) throws IOException {
+        Map<String, Long> sorted = getStacks();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> stack : sorted.entrySet()) {
+                out.write(stack.getKey() + " " + stack.getValue() + "\n");
+            }
+        }
+    }
+}
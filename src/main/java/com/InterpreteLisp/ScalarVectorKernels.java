@@ -0,0 +1,88 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ScalarVectorKernels.java
+ * Descripción: Implementación escalar de las operaciones en bloque de LispVector.
+ */
+
+/**
+ * Implementación de VectorKernels con ciclos simples sobre los arreglos.
+ * Es la implementación por defecto cuando no está disponible la versión SIMD.
+ */
+final class ScalarVectorKernels implements VectorKernels {
+
+    @Override
+    public String name() {
+        return "ESCALAR";
+    }
+
+    @Override
+    public double sum(double[] a) {
+        double total = 0;
+        for (double value : a) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public double dot(double[] a, double[] b) {
+        double total = 0;
+        for (int i = 0; i < a.length; i++) {
+            total += a[i] * b[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double min(double[] a) {
+        double result = Double.POSITIVE_INFINITY;
+        for (double value : a) {
+            result = Math.min(result, value);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] a) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (double value : a) {
+            result = Math.max(result, value);
+        }
+        return result;
+    }
+
+    @Override
+    public void add(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < a.length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out) {
+        for (int i = 0; i < a.length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void add(double[] a, double scalar, double[] out) {
+        for (int i = 0; i < a.length; i++) {
+            out[i] = a[i] + scalar;
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double scalar, double[] out) {
+        for (int i = 0; i < a.length; i++) {
+            out[i] = a[i] * scalar;
+        }
+    }
+}
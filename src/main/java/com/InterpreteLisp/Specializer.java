@@ -0,0 +1,317 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: Specializer.java
+ * Descripción: Versiones de las funciones de DEFUN especializadas para argumentos constantes.
+ */
+
+/**
+ * Crea versiones de una función de DEFUN especializadas para los valores constantes
+ * que recibe en una llamada, como el 3 y el 'STRICT de (SCORE rec 3 'STRICT). En la
+ * versión, los parámetros constantes se reemplazan por su valor y el cuerpo se
+ * simplifica con el Inliner: la aritmética con constantes se calcula y las cláusulas
+ * de COND cuya condición ya se conoce se eliminan o se eligen.
+ * <p>
+ * La versión recibe los mismos argumentos que la función original (los constantes no
+ * se vuelven a leer), así que se llama igual y los errores muestran la llamada completa.
+ * Las versiones se guardan en la función, una por combinación de valores, hasta
+ * MAX_VERSIONS; cada llamada recuerda la versión que eligió junto con la función
+ * original. Si el nombre se redefine con DEFUN, la función encontrada ya no es la
+ * misma, la llamada vuelve a elegir y las versiones de la definición anterior se
+ * descartan.
+ * <p>
+ * Solo se especializan los parámetros que aparecen en la condición de algún COND y
+ * que el cuerpo no asigna ni vuelve a ligar. Un argumento NIL no se especializa,
+ * porque un parámetro NIL se evalúa a su propio nombre.
+ */
+final class Specializer {
+    /**
+     * Máximo de versiones especializadas de una misma función.
+     */
+    static final int MAX_VERSIONS = 8;
+
+    /**
+     * Formas que ligan variables o tratan el código como dato; un cuerpo que las usa
+     * no se especializa.
+     */
+    private static final Set<String> UNSUPPORTED_FORMS = new HashSet<>(Arrays.asList(
+        "LET", "LAMBDA", "DEFUN", "DEFMACRO", "QUASIQUOTE", "MACROEXPAND",
+        "BLOCK", "RETURN-FROM", "HANDLER-CASE"
+    ));
+
+    private Specializer() {
+    }
+
+    /**
+     * Versión elegida en una llamada, junto con la función original.
+     */
+    static final class Site {
+        final Evaluator.Function base;
+        final Evaluator.Function version;
+
+        Site(Evaluator.Function base, Evaluator.Function version) {
+            this.base = base;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Versiones especializadas de una función y el análisis de su cuerpo.
+     */
+    static final class Versions {
+        /**
+         * Parámetros que se pueden reemplazar por un valor constante.
+         */
+        private final boolean[] candidates;
+        private final Map<String, Evaluator.Function> byKey = new ConcurrentHashMap<>();
+
+        Versions(boolean[] candidates) {
+            this.candidates = candidates;
+        }
+
+        /**
+         * Número de versiones creadas.
+         */
+        int size() {
+            return byKey.size();
+        }
+
+        void clear() {
+            byKey.clear();
+        }
+    }
+
+    /**
+     * Elige la función que se llama desde un nodo: una versión especializada si la
+     * llamada tiene argumentos constantes que la función puede aprovechar, o la
+     * función original.
+     *
+     * @param call El nodo de la llamada
+     * @param function La función ligada al nombre de la llamada
+     * @param scope El ámbito donde se evalúa la llamada
+     * @return La función que se debe llamar, con la misma aridad
+     */
+    static Evaluator.Function select(ASTNode call, Evaluator.Function function, ContextualScope scope) {
+        Site site = call.getSpecialization();
+        if (site != null && site.base == function) {
+            return site.version;
+        }
+        // Una llamada del nivel superior se evalúa una sola vez: no vale la pena copiar
+        if (scope.getGlobalScope() == scope) {
+            return function;
+        }
+        Evaluator.Function version = specialize(call, function);
+        call.setSpecialization(new Site(function, version));
+        return version;
+    }
+
+    /**
+     * Obtiene o crea la versión de una función para los argumentos constantes de una llamada.
+     *
+     * @return La versión, o la función original si no hay nada que especializar
+     */
+    private static Evaluator.Function specialize(ASTNode call, Evaluator.Function function) {
+        if (function.isClosure()) {
+            return function;
+        }
+        List<String> params = function.getParamNames();
+        ASTNode[] constants = constantArguments(call, params.size());
+        if (constants == null) {
+            return function;
+        }
+        Versions versions = versions(function);
+        Map<String, ASTNode> bindings = new HashMap<>();
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < constants.length; i++) {
+            if (constants[i] != null && versions.candidates[i]) {
+                bindings.put(params.get(i), constants[i]);
+                key.append(key.length() == 0 ? "" : ", ").append(params.get(i)).append('=')
+                    .append(describe(constants[i]));
+            }
+        }
+        if (bindings.isEmpty()) {
+            return function;
+        }
+        String id = key.toString();
+        Evaluator.Function version = versions.byKey.get(id);
+        if (version == null) {
+            if (versions.size() >= MAX_VERSIONS) {
+                return function;
+            }
+            List<ASTNode> body = new ArrayList<>(function.getBody().size());
+            for (ASTNode form : function.getBody()) {
+                body.add(Inliner.copy(form, bindings, 0));
+            }
+            version = new Evaluator.Function(function.getParams(), body, function.getParentScope());
+            version.setName(function.getName() + "{" + id + "}");
+            Evaluator.Function previous = versions.byKey.putIfAbsent(id, version);
+            if (previous != null) {
+                version = previous;
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Obtiene las versiones de una función, analizando su cuerpo la primera vez.
+     */
+    static Versions versions(Evaluator.Function function) {
+        Versions versions = function.getSpecializations();
+        if (versions == null) {
+            versions = new Versions(analyze(function));
+            function.setSpecializations(versions);
+        }
+        return versions;
+    }
+
+    /**
+     * Decide qué parámetros se pueden reemplazar por una constante.
+     */
+    private static boolean[] analyze(Evaluator.Function function) {
+        List<String> params = function.getParamNames();
+        boolean[] inCondition = new boolean[params.size()];
+        boolean[] unsafe = new boolean[params.size()];
+        ContextualScope globalScope = function.getParentScope().getGlobalScope();
+        for (ASTNode form : function.getBody()) {
+            if (!scan(form, params, inCondition, unsafe, false, globalScope)) {
+                return new boolean[params.size()];
+            }
+        }
+        boolean[] candidates = new boolean[params.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = inCondition[i] && !unsafe[i];
+        }
+        return candidates;
+    }
+
+    /**
+     * Recorre el cuerpo anotando los parámetros usados en condiciones de COND y los
+     * que se asignan, se ligan o se usan como función.
+     *
+     * @return false si el cuerpo usa una forma que no se especializa
+     */
+    private static boolean scan(ASTNode node, List<String> params, boolean[] inCondition, boolean[] unsafe,
+                                boolean condition, ContextualScope globalScope) {
+        String value = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            int index = params.indexOf(value);
+            if (index >= 0 && node.isListForm()) {
+                // (f) con f un parámetro: se usa como función
+                unsafe[index] = true;
+            } else if (index >= 0 && condition) {
+                inCondition[index] = true;
+            }
+            return true;
+        }
+        if (UNSUPPORTED_FORMS.contains(value) || globalScope.getVariable(value) instanceof Evaluator.Macro) {
+            return false;
+        }
+        if (value.equals("QUOTE")) {
+            return true;
+        }
+        int index = params.indexOf(value);
+        if (index >= 0) {
+            // (p ...) usa el parámetro como función, o es el encabezado de DOTIMES o DOLIST
+            unsafe[index] = true;
+        }
+        if (value.equals("SETQ") && children.get(0).getChildren().isEmpty()) {
+            int target = params.indexOf(children.get(0).getValue());
+            if (target >= 0) {
+                unsafe[target] = true;
+            }
+        }
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            if (isQuoteMark(child) && i + 1 < children.size()) {
+                i++;
+                continue;
+            }
+            boolean childCondition = condition || (value.equals("CLAUSE") && i == 0);
+            if (!scan(child, params, inCondition, unsafe, childCondition, globalScope)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene los argumentos constantes de una llamada, uno por parámetro.
+     *
+     * @return Para cada parámetro, el nodo que se pone en lugar del parámetro (null si
+     *         el argumento no es constante), o null si no hay ninguno o la llamada no
+     *         tiene la aridad de la función
+     */
+    private static ASTNode[] constantArguments(ASTNode call, int arity) {
+        List<ASTNode> children = call.getChildren();
+        ASTNode[] constants = new ASTNode[arity];
+        boolean any = false;
+        int position = 0;
+        for (int i = 0; i < children.size(); i++, position++) {
+            if (position >= arity) {
+                return null;
+            }
+            ASTNode child = children.get(i);
+            ASTNode constant = null;
+            if (isQuoteMark(child) && i + 1 < children.size()) {
+                // 'dato se reemplaza por (QUOTE dato), que se evalúa al mismo dato canónico
+                constant = new ASTNode("QUOTE");
+                constant.addChild(children.get(++i));
+            } else if (child.getValue().equals("QUOTE") && child.getChildren().size() == 1) {
+                constant = child;
+            } else if (child.getChildren().isEmpty() && (isNumber(child.getValue())
+                    || Evaluator.isStringLiteral(child.getValue()))) {
+                constant = child;
+            }
+            constants[position] = constant;
+            any |= constant != null;
+        }
+        return any && position == arity ? constants : null;
+    }
+
+    /**
+     * Texto de un valor constante para la clave de la versión y su nombre.
+     */
+    private static String describe(ASTNode constant) {
+        if (constant.getValue().equals("QUOTE")) {
+            return "'" + constant.getChildren().get(0);
+        }
+        String value = constant.getValue();
+        return isNumber(value) ? ConsCell.format(Double.parseDouble(value)) : value;
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return false;
+        }
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isQuoteMark(ASTNode node) {
+        return node.getValue().equals("'") && node.getChildren().isEmpty();
+    }
+}
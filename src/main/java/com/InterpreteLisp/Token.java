@@ -6,7 +6,7 @@ package com.InterpreteLisp;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 01/03/2025
- * última modificación: 16/03/2025
+ * última modificación: 19/10/2026
  * File Name: Token.java
  * Descripción: Clase que se encarga de almacenar los tokens de la expresión LISP.
  */
@@ -23,6 +23,11 @@ public class Token
      */
     private String value; 
 
+    /**
+     * Categoría léxica del token, calculada una sola vez al crearlo.
+     */
+    private TokenType type;
+
     /**
      * Constructor que crea un nuevo token con el valor especificado.
      *
@@ -30,6 +35,54 @@ public class Token
      */
     public Token(String value) {
         this.value = value; 
+        this.type = classify(value);
+    }
+
+    /**
+     * Determina la categoría léxica de un valor textual.
+     *
+     * @param value El valor textual del token
+     * @return La categoría del token
+     */
+    private static TokenType classify(String value) {
+        if (value.length() == 1) {
+            switch (value.charAt(0)) {
+                case '(': return TokenType.LPAREN;
+                case ')': return TokenType.RPAREN;
+                case '\'': return TokenType.QUOTE;
+                case '`': return TokenType.BACKQUOTE;
+                case ',': return TokenType.COMMA;
+                default: break;
+            }
+        }
+        if (value.equals(",@")) {
+            return TokenType.COMMA_AT;
+        }
+        if (isNumber(value)) {
+            return TokenType.NUMBER;
+        }
+        if (value.length() >= 2 && value.charAt(0) == '"') {
+            return TokenType.STRING;
+        }
+        return TokenType.SYMBOL;
+    }
+
+    /**
+     * Indica si un valor textual es un literal numérico: un dígito al inicio, o un
+     * signo (+ o -) seguido de un dígito, como en -3.
+     *
+     * @param value El valor textual del token
+     * @return true si el valor es un número
+     */
+    private static boolean isNumber(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            return value.length() > 1 && Character.isDigit(value.charAt(1));
+        }
+        return Character.isDigit(first);
     }
 
     /**
@@ -41,6 +94,15 @@ public class Token
         return value;
     }
 
+    /**
+     * Obtiene la categoría léxica del token.
+     *
+     * @return El tipo del token
+     */
+    public TokenType getType() {
+        return type;
+    }
+
     /**
      * Devuelve una representación en forma de cadena del token.
      *
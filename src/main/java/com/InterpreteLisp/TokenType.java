@@ -0,0 +1,37 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TokenType.java
+ * Descripción: Enumeración con las categorías léxicas de los tokens.
+ */
+
+/**
+ * Categoría de un token. Permite que el Parser decida con un switch en lugar de
+ * comparar el texto del token en cada paso.
+ */
+public enum TokenType {
+    /** Paréntesis de apertura "(". */
+    LPAREN,
+    /** Paréntesis de cierre ")". */
+    RPAREN,
+    /** Comilla simple "'", notación abreviada de QUOTE. */
+    QUOTE,
+    /** Comilla invertida "`", notación abreviada de QUASIQUOTE. */
+    BACKQUOTE,
+    /** Coma ",", notación abreviada de UNQUOTE dentro de una plantilla. */
+    COMMA,
+    /** Coma-arroba ",@", notación abreviada de UNQUOTE-SPLICING dentro de una plantilla. */
+    COMMA_AT,
+    /** Cadena entre comillas dobles. */
+    STRING,
+    /** Literal numérico. */
+    NUMBER,
+    /** Cualquier otro símbolo u operador. */
+    SYMBOL
+}
@@ -0,0 +1,650 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TraceCompiler.java
+ * Descripción: Compilación de trazas para las funciones y los ciclos que se ejecutan muchas veces.
+ */
+
+/**
+ * Compila el cuerpo de las funciones y de los ciclos que se ejecutan muchas veces.
+ * Cada Function cuenta sus llamadas terminadas y cada ciclo (DOTIMES, DOLIST, WHILE, LOOP)
+ * cuenta sus iteraciones; mientras tanto, el Evaluator anota en cada COND qué
+ * cláusulas llegaron a evaluar su resultado. Al pasar el umbral, el cuerpo se
+ * compila una sola vez a una traza: un árbol de operaciones que lee los parámetros
+ * directamente de su casilla, evalúa los COND sin buscar la forma en la cadena de
+ * evaluate() y llama a las funciones de usuario sin volver a buscarlas.
+ * <p>
+ * La traza solo sigue el camino que se ejecutó. Cada llamada directa tiene una
+ * guarda que verifica que el nombre sigue ligado a la misma función, y una cláusula
+ * de COND que nunca se tomó queda como salida lateral: si se toma, su resultado se
+ * interpreta y la cláusula se anota. Después de SIDE_EXIT_LIMIT salidas la traza se
+ * descarta y se vuelve a compilar con el perfil nuevo, hasta MAX_RECOMPILES veces.
+ * La aritmética se compila solo si el nodo no se especializó por tipos (ver
+ * TypeFeedback), por ejemplo porque sus operandos incluyen llamadas.
+ * Lo que la traza no compila (LET, llamadas a macros o a funciones que
+ * se insertan con el Inliner...) se evalúa con evaluate(), así que conserva sus
+ * propias optimizaciones.
+ * <p>
+ * Solo se compila el código que llega al umbral; con un umbral de 0 no se compila nada.
+ */
+final class TraceCompiler {
+    /**
+     * Llamadas a una función antes de compilarla.
+     */
+    static final int DEFAULT_INVOCATIONS = 100;
+
+    /**
+     * Iteraciones de un ciclo antes de compilar su cuerpo.
+     */
+    static final int DEFAULT_BACK_EDGES = 1000;
+
+    /**
+     * Salidas laterales que se toleran antes de descartar una traza.
+     */
+    static final int SIDE_EXIT_LIMIT = 64;
+
+    /**
+     * Veces que se puede volver a compilar la traza de una misma función o ciclo.
+     */
+    static final int MAX_RECOMPILES = 3;
+
+    /**
+     * Operaciones numéricas que la traza compila cuando sus operandos no se pudieron
+     * especializar por tipos, por ejemplo porque incluyen llamadas.
+     */
+    private static final Set<String> ARITHMETIC = new HashSet<>(Arrays.asList(
+        "+", "-", "*", "/", "<", ">", "="
+    ));
+    private static final Set<String> COMPARISONS = new HashSet<>(Arrays.asList("<", ">", "="));
+
+    private volatile int invocationThreshold = DEFAULT_INVOCATIONS;
+    private volatile int backEdgeThreshold = DEFAULT_BACK_EDGES;
+    private final List<String> log = new CopyOnWriteArrayList<>();
+    private volatile Consumer<String> listener;
+
+    /**
+     * Cambia los umbrales de compilación. Un umbral de 0 desactiva la compilación
+     * de ese tipo de código; las trazas ya compiladas se siguen usando.
+     *
+     * @param invocations Llamadas a una función antes de compilarla
+     * @param backEdges Iteraciones de un ciclo antes de compilar su cuerpo
+     */
+    void setThresholds(int invocations, int backEdges) {
+        if (invocations < 0 || backEdges < 0) {
+            throw new IllegalArgumentException("Los umbrales no pueden ser negativos");
+        }
+        this.invocationThreshold = invocations;
+        this.backEdgeThreshold = backEdges;
+    }
+
+    /**
+     * Obtiene el registro de las trazas compiladas y descartadas, en orden.
+     */
+    List<String> getLog() {
+        return new ArrayList<>(log);
+    }
+
+    /**
+     * Indica a quién avisar cada vez que se agrega una línea al registro.
+     *
+     * @param listener El receptor de las líneas, o null para no avisar
+     */
+    void setListener(Consumer<String> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Obtiene la traza de una función, compilándola si la función ya pasó el umbral
+     * o si su traza anterior fue descartada. Se cuentan las llamadas que terminaron
+     * (ver Evaluator.executeFrame): en una función recursiva las primeras llamadas en
+     * terminar son los casos base, así que al compilar el perfil de los COND ya
+     * incluye las cláusulas de la recursión y las del caso base.
+     *
+     * @param evaluator El evaluador
+     * @param function La función
+     * @param scope El ámbito de la llamada
+     * @return La traza, o null si el cuerpo se debe interpretar
+     */
+    Trace forFunction(Evaluator evaluator, Evaluator.Function function, ContextualScope scope) {
+        Trace trace = function.getTrace();
+        if (trace != null && trace.valid) {
+            return trace;
+        }
+        if (!shouldCompile(trace, invocationThreshold, function.getInvocations())) {
+            return null;
+        }
+        String[] slots = function.isClosure() ? null : function.getFrameNames();
+        trace = compile(evaluator, function.getName(), "llamadas", function.getBody(), 0, scope, slots, trace);
+        function.setTrace(trace);
+        return trace.valid ? trace : null;
+    }
+
+    /**
+     * Cuenta una iteración de un ciclo y obtiene la traza de su cuerpo, compilándola
+     * si el ciclo acaba de pasar el umbral o si su traza anterior fue descartada.
+     *
+     * @param evaluator El evaluador
+     * @param loop El nodo del ciclo
+     * @param body Los nodos del ciclo
+     * @param from La posición de la primera forma del cuerpo
+     * @param scope El ámbito del cuerpo
+     * @return La traza, o null si el cuerpo se debe interpretar
+     */
+    Trace forLoop(Evaluator evaluator, ASTNode loop, List<ASTNode> body, int from, ContextualScope scope) {
+        Trace trace = loop.getTrace();
+        if (trace != null && trace.valid) {
+            return trace;
+        }
+        if (!shouldCompile(trace, backEdgeThreshold, trace == null ? loop.countBackEdge() : 0)) {
+            return null;
+        }
+        String name = loop.getValue();
+        if (from > 0 && !body.get(0).getValue().isEmpty()) {
+            name += " " + body.get(0).getValue();
+        }
+        trace = compile(evaluator, name, "iteraciones", body, from, scope, null, trace);
+        loop.setTrace(trace);
+        return trace.valid ? trace : null;
+    }
+
+    private static boolean shouldCompile(Trace previous, int threshold, int count) {
+        if (threshold <= 0) {
+            return false;
+        }
+        if (previous == null) {
+            return count >= threshold;
+        }
+        return previous.generation < MAX_RECOMPILES;
+    }
+
+    private Trace compile(Evaluator evaluator, String name, String unit, List<ASTNode> body, int from,
+                          ContextualScope scope, String[] slots, Trace previous) {
+        Trace trace = new Trace(this, name, previous == null ? 0 : previous.generation + 1);
+        Builder builder = new Builder(evaluator, trace, scope, slots);
+        Op[] ops = new Op[body.size() - from];
+        boolean compiled = false;
+        for (int i = 0; i < ops.length; i++) {
+            ops[i] = builder.compile(body.get(from + i));
+            compiled |= !(ops[i] instanceof Interpret);
+        }
+        trace.body = ops;
+        if (!compiled) {
+            // Nada que ganar: el cuerpo se sigue interpretando y no se vuelve a intentar
+            trace.valid = false;
+            trace.generation = MAX_RECOMPILES;
+            return trace;
+        }
+        String detail = " (" + builder.takenClauses + " de " + builder.clauses + " cláusulas de COND, "
+            + builder.calls + " llamadas directas)";
+        if (previous == null) {
+            record("Compilada: " + name + " tras " + (unit.equals("llamadas")
+                ? invocationThreshold : backEdgeThreshold) + " " + unit + detail);
+        } else {
+            record("Recompilada: " + name + detail);
+        }
+        return trace;
+    }
+
+    private void record(String line) {
+        log.add(line);
+        Consumer<String> current = listener;
+        if (current != null) {
+            current.accept(line);
+        }
+    }
+
+    /**
+     * Cuerpo compilado de una función o de un ciclo.
+     */
+    static final class Trace {
+        private final TraceCompiler owner;
+        private final String name;
+        private int generation;
+        private Op[] body;
+        private volatile boolean valid = true;
+        // Se cuenta sin sincronizar: un incremento perdido solo atrasa el descarte
+        private int sideExits;
+
+        Trace(TraceCompiler owner, String name, int generation) {
+            this.owner = owner;
+            this.name = name;
+            this.generation = generation;
+        }
+
+        /**
+         * Ejecuta el cuerpo compilado.
+         *
+         * @param evaluator El evaluador
+         * @param scope El ámbito de la llamada o del ciclo
+         * @return El valor de la última forma
+         */
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            Object result = null;
+            for (Op op : body) {
+                result = op.execute(evaluator, scope);
+            }
+            return result;
+        }
+
+        /**
+         * Indica si la traza se sigue usando.
+         */
+        boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * Cuenta una salida lateral y descarta la traza al llegar al límite.
+         */
+        void sideExit() {
+            if (++sideExits == SIDE_EXIT_LIMIT) {
+                valid = false;
+                owner.record("Descartada: " + name + " tras " + SIDE_EXIT_LIMIT + " salidas laterales");
+            }
+        }
+    }
+
+    /**
+     * Traduce los nodos del cuerpo a operaciones, contando lo que se compiló.
+     */
+    private static final class Builder {
+        private final Evaluator evaluator;
+        private final Trace trace;
+        private final ContextualScope scope;
+        private final String[] slots;
+        private int clauses;
+        private int takenClauses;
+        private int calls;
+
+        Builder(Evaluator evaluator, Trace trace, ContextualScope scope, String[] slots) {
+            this.evaluator = evaluator;
+            this.trace = trace;
+            this.scope = scope;
+            this.slots = slots;
+        }
+
+        Op compile(ASTNode node) {
+            String value = node.getValue();
+            List<ASTNode> children = node.getChildren();
+            if (children.isEmpty()) {
+                // (g) puede ser una llamada sin argumentos: se deja al intérprete
+                return node.isListForm() ? new Interpret(node) : compileLeaf(node);
+            }
+            if (value.equals("COND")) {
+                return compileCond(node);
+            }
+            if (ARITHMETIC.contains(value) && !(isSpecialized(node) && !containsCall(node))
+                    && (children.size() == 2 || (!COMPARISONS.contains(value) && !value.equals("/")))) {
+                return new Arithmetic(value, compileAll(children));
+            }
+            if (value.equals("SETQ") && children.size() == 2 && children.get(0).getChildren().isEmpty()) {
+                String name = children.get(0).getValue();
+                return new Setq(name, slotOf(name), compile(children.get(1)));
+            }
+            if (!value.isEmpty() && !Evaluator.SPECIAL_FORMS.contains(value)) {
+                return compileCall(node);
+            }
+            return new Interpret(node);
+        }
+
+        private Op compileLeaf(ASTNode node) {
+            String value = node.getValue();
+            if (value.equals("NIL") || value.isEmpty()) {
+                return new Constant(null);
+            }
+            char first = value.charAt(0);
+            if (Character.isDigit(first) || first == '-' || first == '+' || first == '.') {
+                try {
+                    return new Constant(Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    // Es un símbolo
+                }
+            }
+            if (Evaluator.isStringLiteral(value)) {
+                return new Constant(Evaluator.stringValue(value));
+            }
+            if (Evaluator.SPECIAL_FORMS.contains(value) || value.equals("'")) {
+                // Una forma sin argumentos, como (GENSYM)
+                return new Interpret(node);
+            }
+            return new Variable(value, slotOf(value));
+        }
+
+        private Op compileCond(ASTNode node) {
+            List<ASTNode> children = node.getChildren();
+            List<Op> conditions = new ArrayList<>();
+            List<Op> results = new ArrayList<>();
+            for (int i = 0; i < children.size(); i++) {
+                ASTNode clause = children.get(i);
+                if (!clause.getValue().equals("CLAUSE") || clause.getChildren().size() != 2) {
+                    // El error lo informa evaluate()
+                    return new Interpret(node);
+                }
+                ASTNode condition = clause.getChildren().get(0);
+                ASTNode result = clause.getChildren().get(1);
+                boolean always = condition.getValue().equals("T") && condition.getChildren().isEmpty();
+                conditions.add(always ? null : compile(condition));
+                clauses++;
+                if (node.isClauseTaken(i)) {
+                    takenClauses++;
+                    results.add(compile(result));
+                } else {
+                    results.add(new SideExit(trace, node, i, result));
+                }
+                if (always) {
+                    // Las cláusulas siguientes no se pueden alcanzar
+                    break;
+                }
+            }
+            return new Cond(conditions.toArray(new Op[0]), results.toArray(new Op[0]));
+        }
+
+        private Op compileCall(ASTNode node) {
+            List<ASTNode> children = node.getChildren();
+            for (ASTNode child : children) {
+                if (child.getValue().equals("'") && child.getChildren().isEmpty()) {
+                    return new Interpret(node);
+                }
+            }
+            String name = node.getValue();
+            Object callee = scope.getVariable(name);
+            if (!(callee instanceof Evaluator.Function)) {
+                // Macros, funciones del sistema y nombres sin ligar siguen el camino general
+                return new Interpret(node);
+            }
+            Evaluator.Function target = (Evaluator.Function) callee;
+            if (target.getArity() != children.size()
+                    || (evaluator.isInlining() && Inliner.inline(node, target, scope) != null)) {
+                return new Interpret(node);
+            }
+            Op[] arguments = compileAll(children);
+            calls++;
+            return new Call(trace, node, target, arguments);
+        }
+
+        private Op[] compileAll(List<ASTNode> nodes) {
+            Op[] ops = new Op[nodes.size()];
+            for (int i = 0; i < ops.length; i++) {
+                ops[i] = compile(nodes.get(i));
+            }
+            return ops;
+        }
+
+        /**
+         * Indica si un nodo ya tiene una versión especializada por tipos. Si sus
+         * operandos son solo números y variables, esa versión es más rápida que la traza
+         * porque no crea objetos entre las operaciones.
+         */
+        private static boolean isSpecialized(ASTNode node) {
+            TypeFeedback feedback = node.getTypeFeedback();
+            return feedback != null && feedback.getSpecialized() != null;
+        }
+
+        /**
+         * Indica si una expresión aritmética contiene alguna forma que no es aritmética.
+         */
+        private static boolean containsCall(ASTNode node) {
+            for (ASTNode child : node.getChildren()) {
+                if (!child.getChildren().isEmpty()
+                        && (!ARITHMETIC.contains(child.getValue()) || containsCall(child))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Posición de un parámetro en las casillas de la llamada, o -1.
+         */
+        private int slotOf(String name) {
+            if (slots != null) {
+                for (int i = 0; i < slots.length; i++) {
+                    if (slots[i].equals(name)) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Operación de una traza.
+     */
+    abstract static class Op {
+        abstract Object execute(Evaluator evaluator, ContextualScope scope);
+    }
+
+    static final class Constant extends Op {
+        private final Object value;
+
+        Constant(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            return value;
+        }
+    }
+
+    /**
+     * Lectura de una variable; igual que en evaluate(), un símbolo sin valor se
+     * evalúa a su nombre.
+     */
+    static final class Variable extends Op {
+        private final String name;
+        private final int slot;
+
+        Variable(String name, int slot) {
+            this.name = name;
+            this.slot = slot;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            Object value = slot >= 0 && scope instanceof CallFrame
+                ? ((CallFrame) scope).getSlot(slot) : scope.getVariable(name);
+            return value != null ? value : name;
+        }
+    }
+
+    static final class Setq extends Op {
+        private final String name;
+        private final int slot;
+        private final Op value;
+
+        Setq(String name, int slot, Op value) {
+            this.name = name;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            Object result = value.execute(evaluator, scope);
+            if (slot >= 0 && scope instanceof CallFrame) {
+                ((CallFrame) scope).setSlot(slot, result);
+            } else {
+                scope.setVariable(name, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * COND con las condiciones compiladas; una condición null es la cláusula T.
+     */
+    static final class Cond extends Op {
+        private final Op[] conditions;
+        private final Op[] results;
+
+        Cond(Op[] conditions, Op[] results) {
+            this.conditions = conditions;
+            this.results = results;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i] == null || evaluator.isTruthy(conditions[i].execute(evaluator, scope))) {
+                    return results[i].execute(evaluator, scope);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resultado de una cláusula que no se había tomado: se interpreta y se anota,
+     * para que la próxima compilación la incluya.
+     */
+    static final class SideExit extends Op {
+        private final Trace trace;
+        private final ASTNode cond;
+        private final int index;
+        private final ASTNode result;
+
+        SideExit(Trace trace, ASTNode cond, int index, ASTNode result) {
+            this.trace = trace;
+            this.cond = cond;
+            this.index = index;
+            this.result = result;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            trace.sideExit();
+            cond.recordClause(index);
+            return evaluator.evaluate(result, scope);
+        }
+    }
+
+    /**
+     * Aritmética o comparación con los operandos compilados. Los errores son los
+     * mismos que los de evaluate().
+     */
+    static final class Arithmetic extends Op {
+        private final String operation;
+        private final char operator;
+        private final Op[] operands;
+
+        Arithmetic(String operation, Op[] operands) {
+            this.operation = operation;
+            this.operator = operation.charAt(0);
+            this.operands = operands;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            if (operator == '=') {
+                Object first = operands[0].execute(evaluator, scope);
+                Object second = operands[1].execute(evaluator, scope);
+                if (first instanceof Number && second instanceof Number) {
+                    return ((Number) first).doubleValue() == ((Number) second).doubleValue();
+                }
+                return evaluator.compareValues(first, second);
+            }
+            if (operator == '<') {
+                return number(evaluator, scope, 0) < number(evaluator, scope, 1);
+            }
+            if (operator == '>') {
+                return number(evaluator, scope, 0) > number(evaluator, scope, 1);
+            }
+            if (operator == '+' || operator == '*') {
+                double result = operator == '+' ? 0 : 1;
+                for (int i = 0; i < operands.length; i++) {
+                    double operand = number(evaluator, scope, i);
+                    result = operator == '+' ? result + operand : result * operand;
+                }
+                return result;
+            }
+            double result = number(evaluator, scope, 0);
+            if (operands.length == 1) {
+                return -result;
+            }
+            for (int i = 1; i < operands.length; i++) {
+                double operand = number(evaluator, scope, i);
+                if (operator == '-') {
+                    result -= operand;
+                } else if (operand == 0) {
+                    throw new LispError("División por cero");
+                } else {
+                    result /= operand;
+                }
+            }
+            return result;
+        }
+
+        private double number(Evaluator evaluator, ContextualScope scope, int index) {
+            Object value = operands[index].execute(evaluator, scope);
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            throw new LispError(operation + " requiere argumentos numéricos");
+        }
+    }
+
+    /**
+     * Llamada directa a una función de usuario, con una guarda sobre la función
+     * ligada al nombre. Si el nombre cambió, la llamada se interpreta.
+     */
+    static final class Call extends Op {
+        private final Trace trace;
+        private final ASTNode node;
+        private final String name;
+        private final Evaluator.Function target;
+        private final Op[] arguments;
+
+        Call(Trace trace, ASTNode node, Evaluator.Function target, Op[] arguments) {
+            this.trace = trace;
+            this.node = node;
+            this.name = node.getValue();
+            this.target = target;
+            this.arguments = arguments;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            if (scope.getVariable(name) != target) {
+                trace.sideExit();
+                return evaluator.evaluate(node, scope);
+            }
+            CallFrame frame = target.newFrame();
+            for (int i = 0; i < arguments.length; i++) {
+                frame.setArgument(i, arguments[i].execute(evaluator, scope));
+            }
+            return evaluator.invoke(name, target, frame, node);
+        }
+    }
+
+    /**
+     * Forma que la traza no compila: se evalúa con evaluate().
+     */
+    static final class Interpret extends Op {
+        private final ASTNode node;
+
+        Interpret(ASTNode node) {
+            this.node = node;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            return evaluator.evaluate(node, scope);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TypeFeedback.java
+ * Descripción: Perfil de tipos de un nodo aritmético o de comparación y su versión especializada.
+ */
+
+/**
+ * Perfil de tipos de un nodo aritmético (+, -, *, /) o de comparación (<, >, =).
+ * Mientras el nodo se evalúa de forma genérica, el Evaluator anota aquí el tipo de
+ * cada operando. Después de WARMUP evaluaciones, si los operandos siempre fueron
+ * números, el nodo se especializa: se compila a un árbol de nodos que calculan
+ * con double sin crear objetos, leen las variables directamente del ámbito y usan
+ * los literales ya convertidos, sin pasar por evaluate() en cada operando.
+ * <p>
+ * La especialización supone que las variables siguen teniendo el tipo observado
+ * (en este intérprete los números son Double; otros Number, como los Integer de
+ * una imagen, se aceptan en una versión menos específica). Si una lectura encuentra
+ * otro tipo, el valor se usa igual en esa evaluación y el nodo se desoptimiza: vuelve
+ * a la versión genérica y a perfilar. Después de MAX_DEOPTS desoptimizaciones el
+ * nodo se queda genérico.
+ */
+final class TypeFeedback {
+    /**
+     * Tipos de operando observados (se combinan como bits).
+     */
+    static final int DOUBLE = 1;
+    static final int OTHER_NUMBER = 2;
+    static final int NON_NUMBER = 4;
+
+    /**
+     * Evaluaciones genéricas antes de especializar.
+     */
+    static final int WARMUP = 2;
+
+    /**
+     * Desoptimizaciones después de las cuales el nodo ya no se especializa.
+     */
+    static final int MAX_DEOPTS = 3;
+
+    /**
+     * Señal de una lectura de = que encontró un valor que no es número: la
+     * comparación se debe repetir con la versión genérica. Es compartida porque no
+     * lleva datos ni pila.
+     */
+    private static final Deoptimization DEOPTIMIZATION = new Deoptimization();
+
+    // Los contadores se actualizan sin sincronizar: con PREDUCE o PMAPCAR pueden
+    // perderse incrementos, lo que solo adelanta o atrasa la especialización
+    private int seen;
+    private int executions;
+    private int deopts;
+    private volatile Specialized specialized;
+
+    /**
+     * Anota el tipo de un operando.
+     *
+     * @param value El valor del operando
+     */
+    void record(Object value) {
+        seen |= kindOf(value);
+    }
+
+    /**
+     * Anota un tipo de operando ya conocido.
+     *
+     * @param kind DOUBLE, OTHER_NUMBER o NON_NUMBER
+     */
+    void recordKind(int kind) {
+        seen |= kind;
+    }
+
+    static int kindOf(Object value) {
+        if (value instanceof Double) {
+            return DOUBLE;
+        }
+        return value instanceof Number ? OTHER_NUMBER : NON_NUMBER;
+    }
+
+    /**
+     * Tipos observados hasta ahora.
+     */
+    int getSeen() {
+        return seen;
+    }
+
+    /**
+     * Obtiene la versión especializada del nodo.
+     *
+     * @return La versión especializada, o null si el nodo se evalúa de forma genérica
+     */
+    Specialized getSpecialized() {
+        return specialized;
+    }
+
+    /**
+     * Indica si el nodo se quedó genérico para siempre.
+     */
+    boolean isGeneric() {
+        return deopts >= MAX_DEOPTS;
+    }
+
+    /**
+     * Se llama después de cada evaluación genérica completa del nodo; al llegar a
+     * WARMUP evaluaciones lo especializa.
+     *
+     * @param ast El nodo
+     */
+    void profiled(ASTNode ast) {
+        if (specialized != null || isGeneric() || ++executions < WARMUP) {
+            return;
+        }
+        Specialized compiled = (seen & NON_NUMBER) == 0 ? compile(ast) : null;
+        if (compiled == null) {
+            // = con operandos que no son números, o una forma que no se puede compilar
+            deopts = MAX_DEOPTS;
+        }
+        specialized = compiled;
+    }
+
+    /**
+     * Descarta la versión especializada porque una suposición falló.
+     *
+     * @param kind El tipo encontrado
+     */
+    void deoptimize(int kind) {
+        seen |= kind;
+        executions = 0;
+        deopts++;
+        specialized = null;
+    }
+
+    /**
+     * Compila la versión especializada de un nodo.
+     *
+     * @return La versión especializada, o null si no se puede especializar
+     */
+    private Specialized compile(ASTNode ast) {
+        String operation = ast.getValue();
+        List<ASTNode> children = ast.getChildren();
+        boolean exact = (seen & OTHER_NUMBER) == 0;
+        switch (operation) {
+            case "<":
+            case ">":
+                return new Comparison(operation, operand(children.get(0), operation, exact),
+                    operand(children.get(1), operation, exact));
+            case "=":
+                // Con operandos que no son números = compara de otra forma: solo se
+                // especializa si los operandos se pueden repetir sin efectos
+                if (!isPureNumeric(children.get(0)) || !isPureNumeric(children.get(1))) {
+                    return null;
+                }
+                return new NumericEqual(this, ast, operand(children.get(0), operation, exact),
+                    operand(children.get(1), operation, exact));
+            default:
+                NumericNode body = arithmetic(ast, exact);
+                return body == null ? null : new Arithmetic(body);
+        }
+    }
+
+    /**
+     * Compila una operación aritmética con un número de operandos válido.
+     *
+     * @return El nodo, o null si no es una operación aritmética válida
+     */
+    private NumericNode arithmetic(ASTNode node, boolean exact) {
+        String operation = node.getValue();
+        List<ASTNode> children = node.getChildren();
+        if (!isArithmetic(node)) {
+            return null;
+        }
+        NumericNode[] operands = new NumericNode[children.size()];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = operand(children.get(i), operation, exact);
+        }
+        switch (operation) {
+            case "+":
+                return new Sum(operands);
+            case "*":
+                return new Product(operands);
+            case "-":
+                return new Difference(operands);
+            default:
+                return new Quotient(operands);
+        }
+    }
+
+    /**
+     * Compila un operando: literal, variable, operación aritmética anidada o, si no,
+     * una evaluación genérica.
+     */
+    private NumericNode operand(ASTNode node, String operation, boolean exact) {
+        if (node.getChildren().isEmpty() && !node.isListForm()) {
+            Double literal = numberLiteral(node.getValue());
+            if (literal != null) {
+                return new Constant(literal);
+            }
+            if (isVariable(node.getValue())) {
+                return new Read(node.getValue(), operation, this, exact);
+            }
+            return new Generic(node, operation);
+        }
+        NumericNode nested = arithmetic(node, exact);
+        return nested != null ? nested : new Generic(node, operation);
+    }
+
+    /**
+     * Indica si un nodo es +, -, * o / con un número de operandos que no da error.
+     */
+    private static boolean isArithmetic(ASTNode node) {
+        int count = node.getChildren().size();
+        switch (node.getValue()) {
+            case "+":
+            case "*":
+                return count > 0;
+            case "-":
+                return count >= 1;
+            case "/":
+                return count >= 2;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Indica si un operando solo tiene literales, variables y aritmética.
+     */
+    private static boolean isPureNumeric(ASTNode node) {
+        if (node.getChildren().isEmpty()) {
+            return !node.isListForm() && (numberLiteral(node.getValue()) != null || isVariable(node.getValue()));
+        }
+        if (!isArithmetic(node)) {
+            return false;
+        }
+        for (ASTNode child : node.getChildren()) {
+            if (!isPureNumeric(child)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si una hoja se evalúa buscando una variable en el ámbito.
+     */
+    private static boolean isVariable(String value) {
+        return !value.isEmpty() && !value.equals("NIL") && !value.startsWith("\"")
+            && !Evaluator.SPECIAL_FORMS.contains(value);
+    }
+
+    /**
+     * Lee un número literal con las mismas reglas que el Evaluator.
+     *
+     * @return El número, o null si la hoja no es un número literal
+     */
+    private static Double numberLiteral(String value) {
+        char first = value.isEmpty() ? ' ' : value.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Versión especializada de un nodo completo.
+     */
+    abstract static class Specialized {
+        abstract Object execute(Evaluator evaluator, ContextualScope scope);
+    }
+
+    /**
+     * Operando especializado que produce un double.
+     */
+    abstract static class NumericNode {
+        abstract double execute(Evaluator evaluator, ContextualScope scope);
+    }
+
+    private static final class Arithmetic extends Specialized {
+        private final NumericNode body;
+
+        Arithmetic(NumericNode body) {
+            this.body = body;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            return body.execute(evaluator, scope);
+        }
+    }
+
+    private static final class Comparison extends Specialized {
+        private final boolean less;
+        private final NumericNode left;
+        private final NumericNode right;
+
+        Comparison(String operation, NumericNode left, NumericNode right) {
+            this.less = operation.equals("<");
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            double first = left.execute(evaluator, scope);
+            double second = right.execute(evaluator, scope);
+            return less ? first < second : first > second;
+        }
+    }
+
+    private static final class NumericEqual extends Specialized {
+        private final TypeFeedback owner;
+        private final ASTNode ast;
+        private final NumericNode left;
+        private final NumericNode right;
+
+        NumericEqual(TypeFeedback owner, ASTNode ast, NumericNode left, NumericNode right) {
+            this.owner = owner;
+            this.ast = ast;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object execute(Evaluator evaluator, ContextualScope scope) {
+            try {
+                return left.execute(evaluator, scope) == right.execute(evaluator, scope);
+            } catch (Deoptimization e) {
+                // Los operandos no tienen efectos, así que se pueden evaluar otra vez
+                owner.deoptimize(NON_NUMBER);
+                return evaluator.evaluate(ast, scope);
+            }
+        }
+    }
+
+    private static final class Constant extends NumericNode {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            return value;
+        }
+    }
+
+    /**
+     * Lectura de una variable que se supone numérica. Si exact es true, supone además
+     * que es un Double y desoptimiza el nodo cuando encuentra otro Number.
+     */
+    private static final class Read extends NumericNode {
+        private final String name;
+        private final String operation;
+        private final TypeFeedback owner;
+        private final boolean exact;
+
+        Read(String name, String operation, TypeFeedback owner, boolean exact) {
+            this.name = name;
+            this.operation = operation;
+            this.owner = owner;
+            this.exact = exact;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            if (scope instanceof LoopScope) {
+                LoopScope loop = ((LoopScope) scope).findCounter(name);
+                if (loop != null) {
+                    return loop.getCounter();
+                }
+            }
+            Object value = scope.getVariable(name);
+            if (value instanceof Double) {
+                return (Double) value;
+            }
+            if (value instanceof Number) {
+                if (exact) {
+                    owner.deoptimize(OTHER_NUMBER);
+                }
+                return ((Number) value).doubleValue();
+            }
+            if (operation.equals("=")) {
+                throw DEOPTIMIZATION;
+            }
+            throw new LispError(operation + " requiere argumentos numéricos");
+        }
+    }
+
+    /**
+     * Operando que no se puede especializar (una llamada, un COND...): se evalúa con
+     * evaluate() y se verifica que el resultado sea un número.
+     */
+    private static final class Generic extends NumericNode {
+        private final ASTNode node;
+        private final String operation;
+
+        Generic(ASTNode node, String operation) {
+            this.node = node;
+            this.operation = operation;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            Object value = evaluator.evaluate(node, scope);
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            throw new LispError(operation + " requiere argumentos numéricos");
+        }
+    }
+
+    private static final class Sum extends NumericNode {
+        private final NumericNode[] operands;
+
+        Sum(NumericNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            double sum = 0;
+            for (NumericNode operand : operands) {
+                sum += operand.execute(evaluator, scope);
+            }
+            return sum;
+        }
+    }
+
+    private static final class Product extends NumericNode {
+        private final NumericNode[] operands;
+
+        Product(NumericNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            double product = 1;
+            for (NumericNode operand : operands) {
+                product *= operand.execute(evaluator, scope);
+            }
+            return product;
+        }
+    }
+
+    private static final class Difference extends NumericNode {
+        private final NumericNode[] operands;
+
+        Difference(NumericNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            double result = operands[0].execute(evaluator, scope);
+            if (operands.length == 1) {
+                return -result;
+            }
+            for (int i = 1; i < operands.length; i++) {
+                result -= operands[i].execute(evaluator, scope);
+            }
+            return result;
+        }
+    }
+
+    private static final class Quotient extends NumericNode {
+        private final NumericNode[] operands;
+
+        Quotient(NumericNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        double execute(Evaluator evaluator, ContextualScope scope) {
+            double result = operands[0].execute(evaluator, scope);
+            for (int i = 1; i < operands.length; i++) {
+                double divisor = operands[i].execute(evaluator, scope);
+                if (divisor == 0) {
+                    throw new LispError("División por cero");
+                }
+                result /= divisor;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Señal interna de desoptimización de =; no sale de NumericEqual.
+     */
+    private static final class Deoptimization extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Deoptimization() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.InterpreteLisp;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: VectorKernels.java
+ * Descripción: Interfaz de las operaciones en bloque sobre arreglos double[] de LispVector.
+ */
+
+/**
+ * Operaciones en bloque sobre arreglos de números. Hay una implementación escalar
+ * (ScalarVectorKernels) que siempre está disponible, y una implementación SIMD
+ * (SimdVectorKernels) que usa jdk.incubator.vector; esta última solo se compila con
+ * el perfil Maven "simd" y solo se usa si el módulo está habilitado al ejecutar.
+ * Los arreglos de entrada y salida tienen el mismo tamaño; eso lo verifica LispVector.
+ */
+interface VectorKernels {
+    /**
+     * Nombre de la implementación, para informar cuál está activa.
+     *
+     * @return El nombre de la implementación
+     */
+    String name();
+
+    double sum(double[] a);
+
+    double dot(double[] a, double[] b);
+
+    double min(double[] a);
+
+    double max(double[] a);
+
+    void add(double[] a, double[] b, double[] out);
+
+    void multiply(double[] a, double[] b, double[] out);
+
+    void add(double[] a, double scalar, double[] out);
+
+    void multiply(double[] a, double scalar, double[] out);
+}
@@ -0,0 +1,132 @@
+package com.InterpreteLisp;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SimdVectorKernels.java
+ * Descripción: Implementación SIMD de las operaciones en bloque de LispVector.
+ */
+
+/**
+ * Implementación de VectorKernels con la API de vectores del JDK (jdk.incubator.vector).
+ * Cada ciclo procesa tantos elementos como carriles tiene el registro SIMD preferido
+ * de la máquina (4 doubles con AVX2, 8 con AVX-512), y los elementos sobrantes al
+ * final del arreglo se procesan con un ciclo escalar.
+ * Solo se compila con el perfil "simd" y se carga por reflexión desde LispVector.
+ */
+final class SimdVectorKernels implements VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "SIMD (" + SPECIES.length() + " x double)";
+    }
+
+    @Override
+    public double sum(double[] a) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, a, i));
+        }
+        double total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            total += a[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double dot(double[] a, double[] b) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            acc = DoubleVector.fromArray(SPECIES, a, i).fma(DoubleVector.fromArray(SPECIES, b, i), acc);
+        }
+        double total = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            total += a[i] * b[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double min(double[] a) {
+        DoubleVector acc = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            acc = acc.min(DoubleVector.fromArray(SPECIES, a, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            result = Math.min(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] a) {
+        DoubleVector acc = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            acc = acc.max(DoubleVector.fromArray(SPECIES, a, i));
+        }
+        double result = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            result = Math.max(result, a[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void add(double[] a, double[] b, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).add(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < a.length; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < a.length; i++) {
+            out[i] = a[i] * b[i];
+        }
+    }
+
+    @Override
+    public void add(double[] a, double scalar, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).add(scalar).intoArray(out, i);
+        }
+        for (; i < a.length; i++) {
+            out[i] = a[i] + scalar;
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double scalar, double[] out) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(scalar).intoArray(out, i);
+        }
+        for (; i < a.length; i++) {
+            out[i] = a[i] * scalar;
+        }
+    }
+}
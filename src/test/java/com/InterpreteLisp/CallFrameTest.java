@@ -0,0 +1,115 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CallFrameTest.java
+ * Descripción: JUnit Class para comprobar que las llamadas a funciones y los metodos de CallFrame.java funcionan correctamente
+ */
+public class CallFrameTest extends LispTestCase {
+
+    /**
+     * Test de CallFrame: los parametros van en casillas y las demas variables asignadas son locales de la llamada
+    */
+    @Test
+    public void testCallFrame() {
+        env.setVariable("global", 1.0);
+        CallFrame frame = new CallFrame(env, new String[] {"a", "b"}, true);
+        frame.setArgument(0, 2.0);
+        frame.setArgument(1, 3.0);
+
+        assertEquals(3.0, frame.getVariable("b"));
+        assertEquals(1.0, frame.getVariable("global"));
+        frame.setVariable("a", 4.0);
+        frame.setVariable("temporal", 5.0);
+        assertEquals(4.0, frame.getVariable("a"));
+        assertEquals(5.0, frame.getVariable("temporal"));
+        assertNull(env.getVariable("temporal"));
+
+        assertTrue(frame.isLocalVariable("a"));
+        assertTrue(frame.isLocalVariable("temporal"));
+        assertFalse(frame.isLocalVariable("global"));
+        assertSame(env, frame.getGlobalScope());
+
+        // El ámbito de una clausura asigna las demás variables en su ámbito superior
+        CallFrame closure = new CallFrame(env, new String[] {"a"}, false);
+        closure.setVariable("temporal", 6.0);
+        assertEquals(6.0, env.getVariable("temporal"));
+        assertFalse(closure.isLocalVariable("temporal"));
+    }
+
+    /**
+     * Test de la aridad y los nombres de los parametros calculados al definir la funcion
+    */
+    @Test
+    public void testParameterMetadata() {
+        eval("(DEFUN tres (a b c) (+ a b c))");
+        eval("(DEFUN uno (x) x)");
+        Evaluator.Function three = (Evaluator.Function) env.getVariable("tres");
+        assertEquals(3, three.getArity());
+        assertEquals(java.util.Arrays.asList("a", "b", "c"), three.getParamNames());
+        assertEquals(1, ((Evaluator.Function) env.getVariable("uno")).getArity());
+        assertEquals(6.0, eval("(tres 1 2 3)"));
+        try {
+            eval("(tres 1 2)");
+            fail("Se esperaba un error por el numero de argumentos");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("esperados 3, recibidos 2"));
+        }
+    }
+
+    /**
+     * Test de llamadas recursivas: cada llamada tiene sus propias casillas
+    */
+    @Test
+    public void testRecursion() {
+        eval("(DEFUN fib (n) (COND ((< n 2) n) (T (+ (fib (- n 1)) (fib (- n 2))))))");
+        assertEquals(55.0, eval("(fib 10)"));
+        eval("(DEFUN acumular (n) (SETQ parcial (* n 2)) (COND ((< n 1) 0) (T (+ parcial (acumular (- n 1))))))");
+        assertEquals(12.0, eval("(acumular 3)"));
+        assertNull(env.getVariable("parcial"));
+    }
+
+    /**
+     * Test de los puntos de entrada de uno y dos argumentos con funciones definidas y del sistema
+    */
+    @Test
+    public void testFixedArityCalls() {
+        eval("(DEFUN cuadrado (x) (* x x))");
+        eval("(DEFUN resta (a b) (- a b))");
+        assertEquals(16.0, evaluator.call(env.getVariable("cuadrado"), 4.0));
+        assertEquals(3.0, evaluator.call(env.getVariable("resta"), 5.0, 2.0));
+        assertEquals(7.0, evaluator.call(new Main.BuiltinFunction("+"), 5.0, 2.0));
+        try {
+            evaluator.call(env.getVariable("resta"), 5.0);
+            fail("Se esperaba un error por el numero de argumentos");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("esperados 2, recibidos 1"));
+        }
+    }
+
+    /**
+     * Test de las llamadas de uno y dos argumentos escritas en el programa: siguen
+     * agregando la llamada a la traza de un error
+    */
+    @Test
+    public void testFixedArityCallSites() {
+        eval("(DEFUN falla (x y) (SETQ z y) (CAR x))");
+        eval("(DEFUN envuelve (n) (falla n 2))");
+        try {
+            eval("(envuelve 1)");
+            fail("Se esperaba un error de CAR");
+        } catch (LispError e) {
+            assertEquals(java.util.Arrays.asList("(falla 1 2)", "(envuelve 1)"), e.getBacktrace());
+        }
+        eval("(SETQ suma (LAMBDA (a b) (+ a b)))");
+        assertEquals(5.0, eval("(suma 2 3)"));
+    }
+}
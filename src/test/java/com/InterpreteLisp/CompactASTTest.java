@@ -0,0 +1,159 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CompactASTTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de CompactAST.java funcionan correctamente
+ */
+public class CompactASTTest {
+
+    private static final String PROGRAM =
+        "(DEFUN FIBONACCI (N) (COND ((= N 0) 1) ((= N 1) 1) " +
+        "(T (+ (FIBONACCI (- N 1)) (FIBONACCI (- N 2))))))\n" +
+        "(SETQ x 2.5) (SETQ y (QUOTE (a b c))) (FIBONACCI 10) (* x (+ 1 2 3)) (COND ((> x 3) 'mayor) (T 'menor))";
+
+    private List<ASTNode> roots;
+
+    @Before
+    public void setUp() {
+        roots = new Parser(new Lexer().tokenize(PROGRAM)).parse();
+    }
+
+    /**
+     * Test de codificacion y reconstruccion de los arboles
+    */
+    @Test
+    public void testEncodeDecode() {
+        CompactAST program = CompactAST.encode(roots);
+        assertEquals(roots.size(), program.getRootCount());
+
+        List<ASTNode> decoded = new ArrayList<>();
+        for (int i = 0; i < program.getRootCount(); i++) {
+            decoded.add(program.decode(i));
+        }
+        assertEquals(roots.toString(), decoded.toString());
+    }
+
+    /**
+     * Test de tipos de nodo, tabla de simbolos compartida y rangos de hijos
+    */
+    @Test
+    public void testNodeLayout() {
+        CompactAST program = CompactAST.encode(roots);
+
+        // (SETQ x 2.5)
+        int setq = 1;
+        assertEquals("SETQ", program.getSymbol(setq));
+        assertEquals(2, program.getChildCount(setq));
+        int number = program.getChild(setq, 1);
+        assertEquals(CompactAST.DOUBLE, program.getKind(number));
+        assertEquals(2.5, program.getNumber(number), 0.0);
+
+        // Cada simbolo distinto aparece una sola vez en la tabla
+        int occurrences = 0;
+        for (int id = 0; id < program.getSymbolCount(); id++) {
+            if (program.getSymbolAt(id).equals("FIBONACCI")) {
+                occurrences++;
+            }
+        }
+        assertEquals(1, occurrences);
+    }
+
+    /**
+     * Test de que evaluar el programa compacto da los mismos resultados que evaluar los ASTNode
+    */
+    @Test
+    public void testEvaluateMatchesTreeEvaluation() {
+        CompactAST program = CompactAST.encode(roots);
+        Evaluator evaluator = new Evaluator();
+        Environment compactEnv = new Environment();
+        compactEnv.initializeBuiltins();
+        Environment treeEnv = new Environment();
+        treeEnv.initializeBuiltins();
+
+        for (int i = 0; i < roots.size(); i++) {
+            Object expected = evaluator.evaluate(roots.get(i), treeEnv);
+            Object actual = evaluator.evaluate(program, i, compactEnv);
+            assertEquals(String.valueOf(expected), String.valueOf(actual));
+        }
+        assertEquals(89.0, evaluator.evaluate(program, 3, compactEnv));
+    }
+
+    /**
+     * Test de las vistas: una vista siempre devuelve los mismos hijos y el cuerpo de un
+     * DEFUN sigue siendo parte del programa y conserva lo que guarda el Evaluator
+    */
+    @Test
+    public void testNodeViews() {
+        CompactAST program = CompactAST.encode(roots);
+        Evaluator evaluator = new Evaluator();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        env.loadDefinitions(program, evaluator);
+
+        ASTNode defun = program.node(0);
+        assertEquals(roots.get(0).toString(), defun.toString());
+        assertSame(defun.getChildren().get(2), defun.getChildren().get(2));
+        assertEquals(89.0, evaluator.evaluate(program, 3, env));
+
+        // (= N 0) dentro del cuerpo guardado por DEFUN
+        Evaluator.Function fibonacci = (Evaluator.Function) env.getVariable("FIBONACCI");
+        ASTNode body = fibonacci.getBody().get(0);
+        assertEquals(defun.getChildren().get(2).toString(), body.toString());
+        assertNotNull(body.getChildren().get(0).getChildren().get(0).getTypeFeedback());
+
+        // (* x (+ 1 2 3))
+        assertEquals(15.0, evaluator.evaluate(program, 4, env));
+        assertEquals(15.0, evaluator.evaluate(program, 4, env));
+
+        try {
+            defun.addChild(new ASTNode("x"));
+            fail("Las vistas no admiten hijos nuevos");
+        } catch (UnsupportedOperationException e) {
+            // esperado
+        }
+    }
+
+    /**
+     * Test de las llamadas sin argumentos como (tres): se codifican como CALL y siguen
+     * siendo llamadas al decodificar y al evaluar
+    */
+    @Test
+    public void testZeroArgumentCalls() {
+        List<ASTNode> calls = new Parser(new Lexer().tokenize(
+            "(DEFUN tres () 3) (DEFUN seis () (+ (tres) (tres))) (seis)")).parse();
+        CompactAST program = CompactAST.encode(calls);
+        assertEquals(CompactAST.CALL, program.getKind(2));
+        assertEquals("(seis)", program.decode(2).toSource());
+
+        Evaluator evaluator = new Evaluator();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        evaluator.evaluate(program, 0, env);
+        evaluator.evaluate(program, 1, env);
+        assertEquals(6.0, evaluator.evaluate(program, 2, env));
+    }
+
+    /**
+     * Test de carga de un programa compacto en el Environment
+    */
+    @Test
+    public void testLoadDefinitions() {
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        env.loadDefinitions(CompactAST.encode(roots), new Evaluator());
+        assertEquals(2.5, env.getVariable("x"));
+        assertNotNull(env.getVariable("FIBONACCI"));
+    }
+}
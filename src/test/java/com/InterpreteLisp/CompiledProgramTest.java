@@ -0,0 +1,95 @@
+package com.InterpreteLisp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: CompiledProgramTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de CompiledProgram.java funcionan correctamente
+ */
+public class CompiledProgramTest {
+
+    private static final String SOURCE =
+        "(DEFUN MALAN (M N) (COND ((= N 0) 1) (T (* M (MALAN M (- N 1))))))\n" +
+        "(SETQ base 2) (SETQ negativo (- 0 123456)) (SETQ decimal 3.75) (SETQ grande 12345.5)\n" +
+        "(SETQ resultado (MALAN base 10)) (QUOTE (a (b c)))";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test de escritura y lectura del formato binario
+    */
+    @Test
+    public void testRoundTrip() {
+        List<ASTNode> roots = new Parser(new Lexer().tokenize(SOURCE)).parse();
+        CompactAST program = CompactAST.encode(roots);
+
+        CompactAST loaded = CompiledProgram.read(CompiledProgram.toBytes(program, SOURCE), CompiledProgram.hash(SOURCE));
+        assertNotNull(loaded);
+        assertEquals(program.getNodeCount(), loaded.getNodeCount());
+        assertEquals(program.getRootCount(), loaded.getRootCount());
+        for (int i = 0; i < roots.size(); i++) {
+            assertEquals(roots.get(i).toString(), loaded.decode(i).toString());
+        }
+
+        // Una llamada sin argumentos sigue siendo llamada al leer el archivo
+        String calls = "(DEFUN tres () 3) (tres)";
+        CompactAST callProgram = CompactAST.encode(new Parser(new Lexer().tokenize(calls)).parse());
+        CompactAST loadedCalls = CompiledProgram.read(CompiledProgram.toBytes(callProgram, calls), CompiledProgram.hash(calls));
+        assertEquals(CompactAST.CALL, loadedCalls.getKind(1));
+        assertEquals("(tres)", loadedCalls.decode(1).toSource());
+    }
+
+    /**
+     * Test de que un archivo compilado no se usa si el codigo fuente cambio o el archivo esta dañado
+    */
+    @Test
+    public void testRejectsStaleOrCorruptData() {
+        CompactAST program = CompactAST.encode(new Parser(new Lexer().tokenize(SOURCE)).parse());
+        byte[] data = CompiledProgram.toBytes(program, SOURCE);
+
+        assertNull(CompiledProgram.read(data, CompiledProgram.hash(SOURCE + " (SETQ x 1)")));
+
+        byte[] truncated = java.util.Arrays.copyOf(data, data.length - 5);
+        assertNull(CompiledProgram.read(truncated, CompiledProgram.hash(SOURCE)));
+
+        byte[] wrongMagic = data.clone();
+        wrongMagic[0] = 'X';
+        assertNull(CompiledProgram.read(wrongMagic, CompiledProgram.hash(SOURCE)));
+    }
+
+    /**
+     * Test de carga de un archivo usando el compilado y regresando al parser cuando cambia la fuente
+    */
+    @Test
+    public void testLoadFileWithFallback() throws IOException {
+        Path source = folder.newFile("reglas.lisp").toPath();
+        Files.write(source, SOURCE.getBytes(StandardCharsets.UTF_8));
+        CompiledProgram.compile(SOURCE, source.resolveSibling("reglas.lisp" + CompiledProgram.EXTENSION));
+
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        env.loadFile(source, new Evaluator());
+        assertEquals(1024.0, env.getVariable("resultado"));
+        assertEquals(-123456.0, env.getVariable("negativo"));
+
+        // Cambiar la fuente: el archivo compilado queda desactualizado y se vuelve a parsear
+        Files.write(source, (SOURCE + " (SETQ resultado 7)").getBytes(StandardCharsets.UTF_8));
+        env.loadFile(source, new Evaluator());
+        assertEquals(7.0, env.getVariable("resultado"));
+    }
+}
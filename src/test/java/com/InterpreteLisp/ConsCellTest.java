@@ -0,0 +1,98 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ConsCellTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de ConsCell.java funcionan correctamente
+ */
+public class ConsCellTest extends LispTestCase {
+
+    /**
+     * Test de CONS, CAR y CDR sobre celdas y sobre datos citados
+    */
+    @Test
+    public void testConsCarCdr() {
+        assertEquals("(1 2 3)", eval("(CONS 1 (QUOTE (2 3)))").toString());
+        assertEquals("(a)", eval("(CONS 'a NIL)").toString());
+        assertEquals("(a . b)", eval("(CONS 'a 'b)").toString());
+        assertEquals("a", eval("(CAR (QUOTE (a b c)))"));
+        assertEquals("(b c)", eval("(CDR (QUOTE (a b c)))").toString());
+        assertEquals(2.0, eval("(CAR (CDR (QUOTE (1 2 3))))"));
+        assertNull(eval("(CDR (CONS 1 NIL))"));
+        assertNull(eval("(CAR NIL)"));
+    }
+
+    /**
+     * Test de que CONS y CDR comparten la cola en lugar de copiarla
+    */
+    @Test
+    public void testStructuralSharing() {
+        eval("(SETQ cola (QUOTE (b c)))");
+        Object tail = ConsCell.fromDatum(env.getVariable("cola"));
+        ConsCell list = (ConsCell) eval("(CONS 'a cola)");
+        assertSame(tail, list.getCdr());
+        assertSame(tail, eval("(CDR (CONS 'x cola))"));
+
+        // La conversión de un dato citado se hace una sola vez
+        assertSame(eval("(CDR cola)"), eval("(CDR cola)"));
+    }
+
+    /**
+     * Test de APPEND y REVERSE
+    */
+    @Test
+    public void testAppendAndReverse() {
+        eval("(SETQ ultima (CONS 3 (CONS 4 NIL)))");
+        ConsCell joined = (ConsCell) eval("(APPEND (QUOTE (1 2)) ultima)");
+        assertEquals("(1 2 3 4)", joined.toString());
+        assertSame(env.getVariable("ultima"), ((ConsCell) joined.getCdr()).getCdr());
+
+        assertEquals("(c b a)", eval("(REVERSE (QUOTE (a b c)))").toString());
+        assertNull(eval("(REVERSE NIL)"));
+        assertNull(eval("(APPEND)"));
+    }
+
+    /**
+     * Test de predicados y de EQUAL entre celdas y datos citados
+    */
+    @Test
+    public void testPredicatesAndEqual() {
+        assertEquals(true, eval("(LIST (CONS 1 NIL))"));
+        assertEquals(false, eval("(ATOM (CONS 1 NIL))"));
+        assertEquals(true, eval("(EQUAL (CONS 'a (QUOTE (b c))) (QUOTE (a b c)))"));
+        assertEquals(false, eval("(EQUAL (REVERSE (QUOTE (a b))) (QUOTE (a b)))"));
+        assertEquals(new ConsCell(1.0, null), new ConsCell(1, null));
+    }
+
+    /**
+     * Test de listas largas sin desbordar la pila
+    */
+    @Test
+    public void testLongLists() {
+        Object list = null;
+        for (int i = 0; i < 200000; i++) {
+            list = new ConsCell((double) i, list);
+        }
+        ConsCell reversed = ConsCell.reverse((ConsCell) list);
+        assertEquals(0.0, reversed.getCar());
+        assertEquals(reversed, ConsCell.reverse(ConsCell.reverse(reversed)));
+        assertEquals(reversed.hashCode(), ConsCell.append(Arrays.asList((Object) reversed, null)).hashCode());
+    }
+
+    /**
+     * Test de errores con argumentos que no son listas
+    */
+    @Test(expected = RuntimeException.class)
+    public void testCarOfNumber() {
+        eval("(CAR 5)");
+    }
+}
@@ -0,0 +1,147 @@
+package com.InterpreteLisp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: EnvironmentImageTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de EnvironmentImage.java funcionan correctamente
+ */
+public class EnvironmentImageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Crea un entorno global con las funciones del sistema registradas
+    */
+    private Environment newEnvironment() {
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        env.defineSystemFunction("+", new Main.BuiltinFunction("+"));
+        return env;
+    }
+
+    /**
+     * Test de guardar y restaurar funciones, variables y datos citados
+    */
+    @Test
+    public void testSaveAndRestore() throws IOException {
+        Evaluator evaluator = new Evaluator();
+        Environment env = newEnvironment();
+        env.loadDefinitions(
+            "(DEFUN factorial (n) (COND ((= n 0) 1) (T (* n (factorial (- n 1))))))" +
+            "(SETQ base 5) (SETQ nombre \"mi-imagen\") (SETQ datos (QUOTE (a (b c))))" +
+            "(SETQ tabla (MAKE-HASH-TABLE)) (PUTHASH 'a 1 tabla) (PUTHASH 2 (CONS 'b NIL) tabla)", evaluator);
+        Path image = folder.getRoot().toPath().resolve("entorno.img");
+        EnvironmentImage.save(env, image);
+
+        Environment restored = newEnvironment();
+        EnvironmentImage.restore(restored, image);
+        assertEquals(120.0, evaluator.evaluate(new Parser(new Lexer().tokenize("(factorial base)")).parse().get(0), restored));
+        assertEquals("mi-imagen", restored.getVariable("nombre"));
+        assertEquals(env.getVariable("datos").toString(), restored.getVariable("datos").toString());
+        assertSame(Boolean.TRUE, restored.getVariable("T"));
+        LispHashTable table = (LispHashTable) restored.getVariable("tabla");
+        assertEquals(2, table.size());
+        assertEquals(1.0, table.get("a"));
+        assertEquals("(b)", table.get(2.0).toString());
+        assertTrue(restored.getVariable("+") instanceof Main.BuiltinFunction);
+    }
+
+    /**
+     * Test de SAVE-IMAGE evaluado como expresion LISP
+    */
+    @Test
+    public void testSaveImageForm() throws IOException {
+        Evaluator evaluator = new Evaluator();
+        Environment env = newEnvironment();
+        Path image = folder.getRoot().toPath().resolve("forma.img");
+        String path = image.toString().replace('\\', '/');
+        env.loadDefinitions("(SETQ x 42) (SAVE-IMAGE \"" + path + "\")", evaluator);
+        assertTrue(Files.isRegularFile(image));
+
+        Environment restored = newEnvironment();
+        EnvironmentImage.restore(restored, image);
+        assertEquals(42.0, restored.getVariable("x"));
+    }
+
+    /**
+     * Test de que un SAVE-IMAGE que falla deja intacta la imagen anterior y no deja
+     * archivos temporales
+    */
+    @Test
+    public void testFailedSaveKeepsPreviousImage() throws IOException {
+        Evaluator evaluator = new Evaluator();
+        Environment env = newEnvironment();
+        Path image = folder.getRoot().toPath().resolve("previa.img");
+        String save = "(SAVE-IMAGE \"" + image.toString().replace('\\', '/') + "\")";
+        env.loadDefinitions("(SETQ x 42) " + save, evaluator);
+        byte[] previous = Files.readAllBytes(image);
+
+        try {
+            env.loadDefinitions("(SETQ S (RANGE 10)) " + save, evaluator);
+            fail("Una secuencia perezosa no se puede guardar");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("no puede guardar el valor de S"));
+        }
+        assertArrayEquals(previous, Files.readAllBytes(image));
+        assertEquals(1, folder.getRoot().list().length);
+
+        Environment restored = newEnvironment();
+        EnvironmentImage.restore(restored, image);
+        assertEquals(42.0, restored.getVariable("x"));
+    }
+
+    /**
+     * Test de valores que se contienen a si mismos: SAVE-IMAGE falla con un LispError en
+     * lugar de recorrerlos sin fin, y una tabla repetida sin ciclo se guarda normalmente
+    */
+    @Test
+    public void testSelfReferenceIsRejected() throws IOException {
+        Evaluator evaluator = new Evaluator();
+        Path image = folder.getRoot().toPath().resolve("ciclo.img");
+
+        Environment shared = newEnvironment();
+        shared.loadDefinitions("(SETQ A (MAKE-HASH-TABLE)) (SETQ H (MAKE-HASH-TABLE)) "
+            + "(PUTHASH 1 A H) (PUTHASH 2 A H)", evaluator);
+        EnvironmentImage.save(shared, image);
+
+        String[] cycles = {
+            "(SETQ H (MAKE-HASH-TABLE)) (PUTHASH 1 H H)",
+            "(SETQ H (MAKE-HASH-TABLE)) (PUTHASH 1 (CONS 2 (CONS H NIL)) H)",
+            "(LET ((g NIL)) (SETQ g (LAMBDA (x) (g x))) (SETQ F g))"
+        };
+        for (String cycle : cycles) {
+            Environment env = newEnvironment();
+            env.loadDefinitions(cycle, evaluator);
+            try {
+                EnvironmentImage.save(env, image);
+                fail("Se esperaba un error por el ciclo en " + cycle);
+            } catch (LispError e) {
+                assertTrue(e.getMessage().contains("se contiene a sí mismo"));
+            }
+        }
+    }
+
+    /**
+     * Test de que un archivo que no es una imagen se rechaza
+    */
+    @Test(expected = IOException.class)
+    public void testRejectsInvalidFile() throws IOException {
+        Path file = folder.newFile("otro.img").toPath();
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7});
+        EnvironmentImage.restore(newEnvironment(), file);
+    }
+}
@@ -0,0 +1,155 @@
+package com.InterpreteLisp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: FlightEventsTest.java
+ * Descripción: JUnit Class para comprobar que el Evaluator informa los eventos de FlightEvents.java
+ */
+public class FlightEventsTest extends LispTestCase {
+
+    /**
+     * Implementacion de prueba que guarda cada evento registrado como texto.
+     */
+    private static final class RecordedEvents implements FlightEvents {
+        final List<String> committed = new ArrayList<>();
+        boolean callEnabled = true;
+        boolean accept = true;
+
+        @Override
+        public String name() {
+            return "PRUEBA";
+        }
+
+        @Override
+        public boolean isCallEnabled() {
+            return callEnabled;
+        }
+
+        @Override
+        public Object begin(int kind) {
+            return kind == CALL && !callEnabled ? null : kind;
+        }
+
+        @Override
+        public boolean end(Object event) {
+            return accept;
+        }
+
+        @Override
+        public void commit(Object event, String name, int count, String source) {
+            String kind = (Integer) event == FORM ? "FORM" : "CALL";
+            committed.add(kind + " " + name + " " + count + " " + source);
+        }
+    }
+
+    private RecordedEvents events;
+
+    @Before
+    public void setUp() {
+        evaluator.setInlining(false);
+        events = new RecordedEvents();
+        evaluator.setFlightEvents(events);
+    }
+
+    /**
+     * Metodo para evaluar cada expresion de un codigo LISP como expresion de nivel superior
+    */
+    @Override
+    protected Object eval(String code) {
+        Object result = null;
+        for (ASTNode expression : new Parser(new Lexer().tokenize(code)).parse()) {
+            result = evaluator.evaluateTopLevel(expression, env);
+        }
+        return result;
+    }
+
+    /**
+     * Test de eventos: cada expresion de nivel superior y cada llamada con su nombre, aridad y codigo
+    */
+    @Test
+    public void testFormsAndCalls() {
+        eval("(DEFUN PRIMERO (A B) A)");
+        eval("(DEFUN USAR (X) (PRIMERO X 'Y))");
+        events.committed.clear();
+        eval("(USAR 2)");
+        assertEquals(3, events.committed.size());
+        // La llamada interna termina primero
+        assertEquals("CALL PRIMERO 2 (PRIMERO X 'Y)", events.committed.get(0));
+        assertEquals("CALL USAR 1 (USAR 2)", events.committed.get(1));
+        assertEquals("FORM USAR 1 (USAR 2)", events.committed.get(2));
+    }
+
+    /**
+     * Test de llamadas desactivadas: solo se registran las expresiones de nivel superior
+    */
+    @Test
+    public void testCallsDisabled() {
+        events.callEnabled = false;
+        eval("(DEFUN CUAD (X) (* X X))");
+        assertEquals(16.0, eval("(CUAD 4)"));
+        assertEquals(2, events.committed.size());
+        assertTrue(events.committed.get(1).startsWith("FORM CUAD"));
+    }
+
+    /**
+     * Test de umbral: si end() descarta el evento no se registra, pero el resultado no cambia
+    */
+    @Test
+    public void testDiscardedEvents() {
+        events.accept = false;
+        eval("(DEFUN CUAD (X) (* X X))");
+        assertEquals(16.0, eval("(CUAD 4)"));
+        assertTrue(events.committed.isEmpty());
+    }
+
+    /**
+     * Test de error: el evento de la llamada se registra aunque termine con un error
+    */
+    @Test
+    public void testEventOnError() {
+        eval("(DEFUN INVERSO (X) (/ 1 X))");
+        events.committed.clear();
+        try {
+            eval("(INVERSO 0)");
+            fail("Se esperaba un error");
+        } catch (LispError e) {
+            assertEquals("CALL INVERSO 1 (INVERSO 0)", events.committed.get(0));
+            assertEquals("FORM INVERSO 1 (INVERSO 0)", events.committed.get(1));
+        }
+    }
+
+    /**
+     * Test de la implementacion activa: sin una grabacion que los active, los eventos no se registran
+    */
+    @Test
+    public void testInactiveByDefault() {
+        assertFalse(FlightEvents.EVENTS.isCallEnabled());
+        assertNull(FlightEvents.EVENTS.begin(FlightEvents.CALL));
+        assertNull(FlightEvents.EVENTS.begin(FlightEvents.LOAD));
+    }
+
+    /**
+     * Test de la propiedad lisp.jfr=false: obliga a usar la implementacion vacia
+    */
+    @Test
+    public void testPropertyDisablesJfr() {
+        System.setProperty("lisp.jfr", "false");
+        try {
+            assertEquals("DESACTIVADO", FlightEvents.load().name());
+        } finally {
+            System.clearProperty("lisp.jfr");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.InterpreteLisp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: FrameScopeTest.java
+ * Descripción: JUnit Class para comprobar que LET, LAMBDA y los metodos de FrameScope.java funcionan correctamente
+ */
+public class FrameScopeTest extends LispTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test de FrameScope: las variables propias se leen y asignan en el arreglo, las demas en el ambito superior
+    */
+    @Test
+    public void testFrameScope() {
+        env.setVariable("global", 1.0);
+        Environment local = new Environment(env);
+        local.setVariable("param", 2.0);
+        FrameScope frame = new FrameScope(local, new String[] {"x", "y"}, new Object[] {3.0, 4.0});
+
+        assertEquals(3.0, frame.getVariable("x"));
+        assertEquals(2.0, frame.getVariable("param"));
+        frame.setVariable("y", 5.0);
+        frame.setVariable("param", 6.0);
+        assertEquals(5.0, frame.getVariable("y"));
+        assertEquals(6.0, local.getVariable("param"));
+
+        assertTrue(frame.isLocalVariable("x"));
+        assertTrue(frame.isLocalVariable("param"));
+        assertFalse(frame.isLocalVariable("global"));
+        assertSame(env, frame.getGlobalScope());
+    }
+
+    /**
+     * Test de LET: los valores se evaluan en el ambito exterior y las variables no salen del cuerpo
+    */
+    @Test
+    public void testLet() {
+        assertEquals(6.0, eval("(LET ((x 2) (y 3)) (* x y))"));
+        assertEquals(1.0, eval("(SETQ x 1) (LET ((x 10) (y x)) y)"));
+        assertEquals(3.0, eval("(LET ((x 1)) (LET ((x 2) (y x)) (+ x y)))"));
+        assertEquals(1.0, env.getVariable("x"));
+        assertNull(env.getVariable("y"));
+
+        assertEquals("a", eval("(LET ((lista (QUOTE (a b)))) (CAR lista))"));
+        assertEquals(11.0, eval("(LET ((x 5)) (SETQ x (+ x 1)) (SETQ total (+ x 5)))"));
+        assertEquals(1.0, env.getVariable("x"));
+        assertEquals(11.0, env.getVariable("total"));
+    }
+
+    /**
+     * Test de clausuras: solo se capturan las variables libres locales, las globales se leen al llamar
+    */
+    @Test
+    public void testClosures() {
+        eval("(DEFUN sumador (n) (LAMBDA (x) (+ x n)))");
+        eval("(SETQ suma5 (sumador 5))");
+        assertEquals(15.0, eval("(suma5 10)"));
+        Evaluator.Function closure = (Evaluator.Function) env.getVariable("suma5");
+        assertTrue(closure.isClosure());
+        assertArrayEquals(new String[] {"n"}, closure.getCaptureNames());
+        assertSame(env, closure.getParentScope());
+
+        eval("(SETQ factor 2)");
+        eval("(SETQ doble (LAMBDA (x) (* x factor)))");
+        assertEquals(0, ((Evaluator.Function) env.getVariable("doble")).getCaptureNames().length);
+        eval("(SETQ factor 3)");
+        assertEquals(15.0, eval("(doble 5)"));
+
+        // Los parametros de un LAMBDA interno y los datos citados no se capturan
+        eval("(DEFUN anidada (a b) (LAMBDA (x) (LET ((y a)) ((LAMBDA (b) (CONS b (QUOTE a))) (+ x y)))))");
+        Evaluator.Function nested = (Evaluator.Function) eval("(anidada 1 2)");
+        assertArrayEquals(new String[] {"a"}, nested.getCaptureNames());
+        assertEquals("(5 . a)", evaluator.applyFunction(nested, java.util.Arrays.<Object>asList(4.0)).toString());
+    }
+
+    /**
+     * Test de una clausura que modifica su variable capturada entre llamadas
+    */
+    @Test
+    public void testClosureState() {
+        eval("(DEFUN contador (inicio) (LET ((c inicio)) (LAMBDA (paso) (SETQ c (+ c paso)))))");
+        eval("(SETQ cuenta (contador 10))");
+        eval("(SETQ otra (contador 0))");
+        assertEquals(11.0, eval("(cuenta 1)"));
+        assertEquals(13.0, eval("(cuenta 2)"));
+        assertEquals(5.0, eval("(otra 5)"));
+        assertNull(env.getVariable("c"));
+    }
+
+    /**
+     * Test de variables capturadas compartidas: un SETQ dentro de la clausura llega al LET
+     * que la contiene y a las otras clausuras, aunque la llamada termine con THROW
+    */
+    @Test
+    public void testSharedCaptures() {
+        assertEquals(2.0, eval("(LET ((n 0)) (LET ((f (LAMBDA (d) (SETQ n (+ n d))))) (f 1) (f 1) n))"));
+        assertEquals(5.0, eval("(LET ((n 0)) (LET ((poner (LAMBDA (v) (SETQ n v))) (leer (LAMBDA (x) (+ n x)))) "
+            + "(poner 5) (leer 0)))"));
+        assertEquals(5.0, eval("(LET ((n 0)) (CATCH (QUOTE fin) (LET ((f (LAMBDA (d) (SETQ n d) "
+            + "(THROW (QUOTE fin) 1)))) (f 5))) n)"));
+
+        // Parametro de una funcion recursiva asignado desde una clausura
+        eval("(DEFUN acumular (n acc) (COND ((= n 0) acc) "
+            + "(T (LET ((f (LAMBDA (x) (SETQ acc (+ acc x))))) (f n) (acumular (- n 1) acc)))))");
+        assertEquals(10.0, eval("(acumular 4 0)"));
+
+        // Cada iteracion de DOTIMES liga su propia variable
+        eval("(SETQ lectores NIL)");
+        eval("(DOTIMES (i 3) (SETQ lectores (CONS (LAMBDA (x) (+ x i)) lectores)))");
+        assertEquals(2.0, eval("((CAR lectores) 0)"));
+    }
+
+    /**
+     * Test de llamadas sin argumentos: (g) llama a g si es una funcion y si no devuelve su valor
+    */
+    @Test
+    public void testZeroArgumentCalls() {
+        eval("(SETQ g (LAMBDA () 7))");
+        assertEquals(7.0, eval("(g)"));
+        // Sin parentesis g sigue siendo la funcion
+        assertTrue(eval("(SETQ h g)") instanceof Evaluator.Function);
+        eval("(DEFUN tres () 3)");
+        eval("(DEFUN seis () (+ (tres) (tres)))");
+        assertEquals(6.0, eval("(seis)"));
+        assertEquals(6.0, eval("(seis)"));
+        eval("(DEFUN aplicar (f) (+ (f) 1))");
+        assertEquals(8.0, eval("(aplicar g)"));
+        eval("(SETQ x 5)");
+        assertEquals(6.0, eval("(+ (x) 1)"));
+        assertEquals(2.0, eval("(LET ((c 0)) (LET ((inc (LAMBDA () (SETQ c (+ c 1))))) (inc) (inc) c))"));
+    }
+
+    /**
+     * Test de LAMBDA pasado como argumento a REDUCE y LAZY-MAP, usando variables de la funcion
+    */
+    @Test
+    public void testLambdaAsArgument() {
+        eval("(DEFUN suma-escalada (lista k) (REDUCE + (LAZY-MAP (LAMBDA (x) (* x k)) lista)))");
+        assertEquals(60.0, eval("(suma-escalada (QUOTE (1 2 3)) 10)"));
+        assertEquals(14.0, eval("(REDUCE (LAMBDA (a b) (+ a (* b b))) (QUOTE (1 2 3)) 0)"));
+    }
+
+    /**
+     * Test de la aplicacion directa de un LAMBDA, que ve las variables del ambito actual
+    */
+    @Test
+    public void testDirectApplication() {
+        assertEquals(5.0, eval("((LAMBDA (x y) (+ x y)) 2 3)"));
+        eval("(DEFUN f (a) ((LAMBDA (b) (+ a b)) 1))");
+        assertEquals(5.0, eval("(f 4)"));
+        assertEquals(9.0, eval("((LAMBDA (x) (* x x)) 3)"));
+        try {
+            eval("((LAMBDA (x y) (+ x y)) 2)");
+            fail("Se esperaba un error por el numero de argumentos");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("esperados 2"));
+        }
+    }
+
+    /**
+     * Test de guardar y restaurar una clausura y una llamada sin argumentos en una imagen del entorno
+    */
+    @Test
+    public void testClosureImage() throws Exception {
+        eval("(DEFUN sumador (n) (LAMBDA (x) (+ x n)))");
+        eval("(SETQ suma5 (sumador 5))");
+        eval("(DEFUN tres () 3)");
+        eval("(DEFUN seis () (+ (tres) (tres)))");
+        File image = folder.newFile("clausuras.img");
+        eval("(SAVE-IMAGE \"" + image.getAbsolutePath().replace("\\", "/") + "\")");
+
+        Environment restored = new Environment();
+        restored.initializeBuiltins();
+        EnvironmentImage.restore(restored, image.toPath());
+        Evaluator.Function closure = (Evaluator.Function) restored.getVariable("suma5");
+        assertArrayEquals(new String[] {"n"}, closure.getCaptureNames());
+        assertEquals(12.0, evaluator.evaluate(new Parser(new Lexer().tokenize("(suma5 7)")).parse().get(0), restored));
+        // Las llamadas sin argumentos se conservan en la imagen
+        assertEquals(6.0, evaluator.evaluate(new Parser(new Lexer().tokenize("(seis)")).parse().get(0), restored));
+    }
+}
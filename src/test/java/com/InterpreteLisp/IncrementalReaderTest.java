@@ -0,0 +1,105 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: IncrementalReaderTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de IncrementalReader.java funcionan correctamente
+ */
+public class IncrementalReaderTest {
+
+    private IncrementalReader reader;
+
+    @Before
+    public void setUp() {
+        reader = new IncrementalReader();
+    }
+
+    /**
+     * Test de una expresion completa en una sola linea
+    */
+    @Test
+    public void testSingleLineExpression() {
+        List<List<Token>> forms = reader.feed("(+ 2 3)");
+        assertEquals(1, forms.size());
+        assertEquals(5, forms.get(0).size());
+        assertFalse(reader.isInsideForm());
+    }
+
+    /**
+     * Test de una expresion repartida en varias lineas
+    */
+    @Test
+    public void testMultiLineExpression() {
+        assertTrue(reader.feed("(DEFUN cuadrado (x)").isEmpty());
+        assertTrue(reader.isInsideForm());
+
+        List<List<Token>> forms = reader.feed("  (* x x))");
+        assertEquals(1, forms.size());
+        assertEquals("DEFUN", forms.get(0).get(1).getValue());
+        assertFalse(reader.isInsideForm());
+    }
+
+    /**
+     * Test de varias expresiones y de una expresion que queda abierta en la misma linea
+    */
+    @Test
+    public void testSeveralExpressionsPerLine() {
+        List<List<Token>> forms = reader.feed("(+ 1 2) '(a b) 'c (- 4");
+        assertEquals(3, forms.size());
+        assertEquals("'", forms.get(1).get(0).getValue());
+        assertEquals(2, forms.get(2).size());
+        assertTrue(reader.isInsideForm());
+
+        forms = reader.feed("1)");
+        assertEquals(1, forms.size());
+        assertEquals("-", forms.get(0).get(1).getValue());
+    }
+
+    /**
+     * Test de una cadena que ocupa varias lineas: llega como un solo token con los saltos de linea
+    */
+    @Test
+    public void testMultiLineString() {
+        assertTrue(reader.feed("(PRINT \"primera (linea").isEmpty());
+        assertTrue(reader.isInsideForm());
+        assertTrue(reader.feed("segunda) linea").isEmpty());
+
+        List<List<Token>> forms = reader.feed("tercera\" ) (+ 1 \"a\")");
+        assertEquals(2, forms.size());
+        List<Token> print = forms.get(0);
+        assertEquals(4, print.size());
+        assertEquals("\"primera (linea\nsegunda) linea\ntercera\"", print.get(2).getValue());
+        assertEquals(TokenType.STRING, print.get(2).getType());
+        assertEquals("\"a\"", forms.get(1).get(3).getValue());
+        assertFalse(reader.isInsideForm());
+
+        reader.feed("(PRINT \"sin cerrar");
+        reader.reset();
+        assertFalse(reader.isInsideForm());
+        assertEquals(1, reader.feed("(* 2 3)").size());
+    }
+
+    /**
+     * Test de parentesis de cierre sin apertura y de reset
+    */
+    @Test
+    public void testStrayParenAndReset() {
+        assertTrue(reader.feed(")) ").isEmpty());
+        assertFalse(reader.isInsideForm());
+
+        reader.feed("(+ 1");
+        reader.reset();
+        assertFalse(reader.isInsideForm());
+        assertEquals(1, reader.feed("(* 2 3)").size());
+    }
+}
@@ -0,0 +1,171 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: InlinerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de Inliner.java funcionan correctamente
+ */
+public class InlinerTest extends LispTestCase {
+
+    /**
+     * Metodo para obtener el nodo de la llamada numero index dentro del cuerpo de una funcion
+    */
+    private ASTNode call(String function, int index) {
+        return ((Evaluator.Function) env.getVariable(function)).getBody().get(0).getChildren().get(index);
+    }
+
+    /**
+     * Test de insercion con argumentos constantes: la operacion se calcula al copiar
+    */
+    @Test
+    public void testInlineAndFold() {
+        eval("(DEFUN doble (x) (* 2 x))");
+        eval("(DEFUN f (n) (+ (doble 3) (doble n)))");
+        assertEquals(14.0, eval("(f 4)"));
+
+        Object doble = env.getVariable("doble");
+        assertEquals("6.0", call("f", 0).getExpansion(doble).toString());
+        assertEquals("[* 2 n]", call("f", 1).getExpansion(doble).toString());
+        assertEquals(16.0, eval("(f 5)"));
+    }
+
+    /**
+     * Test de eliminacion de las clausuras de COND que no se pueden elegir
+    */
+    @Test
+    public void testDeadClauses() {
+        eval("(DEFUN clase (x) (COND ((< x 10) 1) ((< x 100) 2) (T 3)))");
+        eval("(DEFUN g (n) (+ (clase 50) (clase n)))");
+        assertEquals(3.0, eval("(g 5)"));
+        assertEquals(5.0, eval("(g 500)"));
+
+        Object clase = env.getVariable("clase");
+        assertEquals("2", call("g", 0).getExpansion(clase).toString());
+        assertEquals("[COND [CLAUSE [< n 10] 1] [CLAUSE [< n 100] 2] [CLAUSE T 3]]",
+            call("g", 1).getExpansion(clase).toString());
+
+        // Ninguna clausula se cumple: el resultado es NIL
+        eval("(DEFUN negativo (x) (COND ((< x 0) 1)))");
+        eval("(DEFUN h (n) (negativo 5))");
+        assertNull(eval("(h 1)"));
+    }
+
+    /**
+     * Test de desoptimizacion: al redefinir la funcion con DEFUN la copia anterior deja de usarse
+    */
+    @Test
+    public void testRedefinition() {
+        eval("(DEFUN doble (x) (* 2 x))");
+        eval("(DEFUN f (n) (+ (doble 3) (doble n)))");
+        assertEquals(14.0, eval("(f 4)"));
+        Object old = env.getVariable("doble");
+
+        eval("(DEFUN doble (x) (* 3 x))");
+        assertNull(call("f", 0).getExpansion(env.getVariable("doble")));
+        assertEquals(21.0, eval("(f 4)"));
+        assertEquals("9.0", call("f", 0).getExpansion(env.getVariable("doble")).toString());
+        assertNull(call("f", 0).getExpansion(old));
+
+        // Tambien al asignar otra cosa al nombre
+        eval("(DEFUN doble (x) (+ x 100))");
+        assertEquals(207.0, eval("(f 4)"));
+    }
+
+    /**
+     * Test de las llamadas que no se insertan: el resultado debe ser el de la llamada normal
+    */
+    @Test
+    public void testNotInlined() {
+        // Una variable global del cuerpo que es local en la llamada
+        eval("(SETQ factor 10)");
+        eval("(DEFUN escala (x) (* x factor))");
+        eval("(DEFUN usa-factor (factor) (escala factor))");
+        assertEquals(20.0, eval("(usa-factor 2)"));
+
+        // Funciones recursivas y con efectos
+        eval("(DEFUN fact (n) (COND ((= n 0) 1) (T (* n (fact (- n 1))))))");
+        eval("(DEFUN usa-fact (n) (fact n))");
+        assertEquals(120.0, eval("(usa-fact 5)"));
+        eval("(DEFUN guarda (x) (SETQ ultimo x))");
+        eval("(DEFUN usa-guarda (n) (guarda n))");
+        assertEquals(7.0, eval("(usa-guarda 7)"));
+
+        // Una division por cero no se calcula al copiar: falla al evaluar
+        eval("(DEFUN inverso (x) (/ 1 x))");
+        eval("(DEFUN usa-inverso (n) (inverso 0))");
+        try {
+            eval("(usa-inverso 1)");
+            fail("Se esperaba un error por la division por cero");
+        } catch (LispError e) {
+            assertTrue(e.getMessage().contains("División por cero"));
+        }
+    }
+
+    /**
+     * Test de argumentos que pueden fallar: se evaluan una vez en un LET antes del cuerpo,
+     * aunque el cuerpo no los use
+    */
+    @Test
+    public void testArgumentsEvaluatedOnce() {
+        // Un argumento con calculo que el cuerpo usa dos veces
+        eval("(DEFUN cuadrado (x) (* x x))");
+        eval("(DEFUN siguiente (n) (cuadrado (+ n 1)))");
+        assertEquals(16.0, eval("(siguiente 3)"));
+        ASTNode site = ((Evaluator.Function) env.getVariable("siguiente")).getBody().get(0);
+        assertEquals("[LET [ [x [+ n 1]]] [* x x]]", site.getExpansion(env.getVariable("cuadrado")).toString());
+
+        // Un argumento que el cuerpo no usa sigue fallando
+        eval("(DEFUN FIRST-OF (X Y) X)");
+        eval("(DEFUN BOOM (L) (FIRST-OF 1 (CAR L)))");
+        try {
+            eval("(BOOM 5)");
+            fail("Se esperaba el error de CAR");
+        } catch (LispError e) {
+            assertTrue(e.getMessage().contains("CAR requiere una lista"));
+        }
+        assertEquals(1.0, eval("(BOOM (QUOTE (2 3)))"));
+
+        // Una variable que se llama igual que otro parametro no queda oculta por el LET
+        eval("(DEFUN resta (x y) (- x y))");
+        eval("(DEFUN usa-resta (y) (resta y (* y 2)))");
+        assertEquals(-3.0, eval("(usa-resta 3)"));
+    }
+
+    /**
+     * Test de funciones pequenas que se llaman entre si: la insercion se detiene en MAX_DEPTH
+    */
+    @Test
+    public void testMutualCalls() {
+        eval("(DEFUN uno (x) (+ x 1))");
+        eval("(DEFUN dos (x) (uno (uno x)))");
+        eval("(DEFUN tres (x) (dos (dos x)))");
+        eval("(DEFUN usa (n) (tres n))");
+        assertEquals(14.0, eval("(usa 10)"));
+        assertEquals(4.0, eval("(usa 0)"));
+
+        eval("(DEFUN par (n) (COND ((= n 0) T) (T (impar (- n 1)))))");
+        eval("(DEFUN impar (n) (COND ((= n 0) NIL) (T (par (- n 1)))))");
+        eval("(DEFUN prueba (n) (par n))");
+        assertEquals(true, eval("(prueba 10)"));
+    }
+
+    /**
+     * Test de que los resultados son los mismos con la insercion desactivada
+    */
+    @Test
+    public void testDisabled() {
+        evaluator.setInlining(false);
+        eval("(DEFUN doble (x) (* 2 x))");
+        eval("(DEFUN f (n) (+ (doble 3) (doble n)))");
+        assertEquals(14.0, eval("(f 4)"));
+        assertNull(call("f", 0).getExpansion(env.getVariable("doble")));
+    }
+}
@@ -0,0 +1,90 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LazySeqTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de LazySeq.java funcionan correctamente
+ */
+public class LazySeqTest extends LispTestCase {
+
+    @Before
+    public void setUp() {
+        eval("(DEFUN cuadrado (x) (* x x))");
+        eval("(DEFUN chico (x) (< x 12))");
+        eval("(DEFUN grande (x) (> x 50))");
+    }
+
+    /**
+     * Test de rangos finitos y de REDUCE con funciones del sistema
+    */
+    @Test
+    public void testRangeAndReduce() {
+        assertEquals("(0 1 2 3 4)", eval("(RANGE 5)").toString());
+        assertEquals("(2 4 6 8)", eval("(RANGE 2 10 2)").toString());
+        assertEquals("(5 4 3 2 1)", eval("(RANGE 5 0 (- 0 1))").toString());
+        assertEquals(4950.0, eval("(REDUCE + (RANGE 100))"));
+        assertEquals(120.0, eval("(REDUCE * (RANGE 1 6))"));
+        assertEquals(10.0, eval("(REDUCE + (RANGE 0) 10)"));
+        assertNull(eval("(REDUCE cuadrado (RANGE 0))"));
+    }
+
+    /**
+     * Test de etapas fusionadas sobre un rango infinito
+    */
+    @Test
+    public void testInfinitePipeline() {
+        assertEquals("(64 81 100)",
+            eval("(TAKE 3 (LAZY-FILTER grande (LAZY-MAP cuadrado (LAZY-FILTER chico (RANGE)))))").toString());
+        assertEquals(30.0, eval("(REDUCE + (TAKE 4 (LAZY-MAP cuadrado (RANGE 1 1000000000))))"));
+        assertEquals(64.0, eval("(CAR (LAZY-FILTER grande (LAZY-MAP cuadrado (RANGE))))"));
+    }
+
+    /**
+     * Test de que TAKE detiene el recorrido sin evaluar mas elementos de la fuente
+    */
+    @Test
+    public void testTakeStopsEarly() {
+        eval("(SETQ llamadas (MAKE-HASH-TABLE))");
+        eval("(DEFUN contar (x) (PUTHASH x x llamadas))");
+        assertEquals(3.0, eval("(REDUCE + (TAKE 3 (LAZY-MAP contar (RANGE))) 0) (HASH-COUNT llamadas)"));
+        assertEquals("()", eval("(TAKE 0 (RANGE))").toString());
+    }
+
+    /**
+     * Test de secuencias a partir de listas y vectores, y de funciones definidas como reductores
+    */
+    @Test
+    public void testListAndVectorSources() {
+        eval("(DEFUN mayor (a b) (COND ((> a b) a) (T b)))");
+        assertEquals(9.0, eval("(REDUCE mayor (QUOTE (3 9 2)))"));
+        assertEquals("(1 4 9)", eval("(LAZY-MAP cuadrado (VECTOR 1 2 3))").toString());
+        assertEquals("(121 64)", eval("(REVERSE (LAZY-FILTER grande (LAZY-MAP cuadrado (RANGE 2 12 3))))").toString());
+        assertEquals(6.0, eval("(REDUCE + (CONS 1 (CONS 2 (CONS 3 NIL))))"));
+    }
+
+    /**
+     * Test de que la impresion de una secuencia infinita se limita
+    */
+    @Test
+    public void testPrintLimit() {
+        String text = eval("(RANGE)").toString();
+        assertTrue(text.endsWith("19 ...)"));
+    }
+
+    /**
+     * Test de un recorrido largo sin guardar elementos intermedios
+    */
+    @Test
+    public void testLongRangeConstantMemory() {
+        assertEquals(4999999950000000.0, eval("(REDUCE + (RANGE 100000000))"));
+    }
+}
@@ -64,7 +64,79 @@ public class LexerTest {
         assertEquals("a", tokens.get(9).getValue());
         assertEquals("b", tokens.get(10).getValue());
     }
-    
+
+    /**
+     * Test de simbolos con guiones y digitos, y de cadenas entre comillas dobles
+    */
+    @Test
+    public void testTokenizeStringsAndCompoundSymbols() {
+        List<Token> tokens = lexer.tokenize("(SAVE-IMAGE \"datos (v2).img\") (SETQ x1 (- x 1))");
+
+        assertEquals("SAVE-IMAGE", tokens.get(1).getValue());
+        assertEquals("\"datos (v2).img\"", tokens.get(2).getValue());
+        assertEquals(TokenType.STRING, tokens.get(2).getType());
+        assertEquals("x1", tokens.get(6).getValue());
+        assertEquals("-", tokens.get(8).getValue());
+        assertEquals(13, tokens.size());
+    }
+
+    /**
+     * Test de las reglas de simbolos: los digitos y los guiones internos forman parte
+     * del simbolo, y un guion separado por espacios sigue siendo el operador de resta
+    */
+    @Test
+    public void testTokenizeSymbolRules() {
+        List<Token> tokens = lexer.tokenize("x1 a-b x-1 V+ V*");
+        assertEquals(5, tokens.size());
+        assertEquals("x1", tokens.get(0).getValue());
+        assertEquals("a-b", tokens.get(1).getValue());
+        assertEquals("x-1", tokens.get(2).getValue());
+        assertEquals("V+", tokens.get(3).getValue());
+        assertEquals("V*", tokens.get(4).getValue());
+        for (Token token : tokens) {
+            assertEquals(TokenType.SYMBOL, token.getType());
+        }
+
+        // Con espacios, la resta se separa en tres tokens
+        tokens = lexer.tokenize("(- a b)");
+        assertEquals(5, tokens.size());
+        assertEquals("-", tokens.get(1).getValue());
+        assertEquals("a", tokens.get(2).getValue());
+        assertEquals("b", tokens.get(3).getValue());
+
+        // Un guion al final no forma parte del simbolo
+        tokens = lexer.tokenize("a- 1x");
+        assertEquals(4, tokens.size());
+        assertEquals("a", tokens.get(0).getValue());
+        assertEquals("-", tokens.get(1).getValue());
+        assertEquals("1", tokens.get(2).getValue());
+        assertEquals("x", tokens.get(3).getValue());
+    }
+
+    /**
+     * Test de numeros con signo: el signo pegado al numero forma un literal NUMBER,
+     * pero un signo pegado a un token anterior sigue siendo un operador
+    */
+    @Test
+    public void testTokenizeSignedNumbers() {
+        List<Token> tokens = lexer.tokenize("(+ -3 +2.5 (- 4))");
+        assertEquals("-3", tokens.get(2).getValue());
+        assertEquals(TokenType.NUMBER, tokens.get(2).getType());
+        assertEquals("+2.5", tokens.get(3).getValue());
+        assertEquals(TokenType.NUMBER, tokens.get(3).getType());
+        assertEquals("-", tokens.get(5).getValue());
+        assertEquals(TokenType.SYMBOL, tokens.get(5).getType());
+        assertEquals(TokenType.NUMBER, tokens.get(6).getType());
+
+        tokens = lexer.tokenize("1-2");
+        assertEquals(3, tokens.size());
+        assertEquals("-", tokens.get(1).getValue());
+
+        Evaluator evaluator = new Evaluator();
+        ASTNode sum = new Parser(lexer.tokenize("(+ 5 -3)")).parse().get(0);
+        assertEquals(2.0, evaluator.evaluate(sum, testEnv));
+    }
+
     /**
      * Test de la verificacion de balance de una expresion
     */
@@ -0,0 +1,87 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispErrorTest.java
+ * Descripción: JUnit Class para comprobar que ERROR, HANDLER-CASE y la traza de LispError.java funcionan correctamente
+ */
+public class LispErrorTest extends LispTestCase {
+
+    /**
+     * Metodo para evaluar una expresion que debe terminar con un error LISP
+    */
+    private LispError evalError(String code) {
+        try {
+            eval(code);
+        } catch (LispError e) {
+            return e;
+        }
+        fail("Se esperaba un error en " + code);
+        return null;
+    }
+
+    /**
+     * Test de ERROR con y sin tipo
+    */
+    @Test
+    public void testError() {
+        LispError error = evalError("(ERROR \"algo fallo\")");
+        assertEquals("ERROR", error.getType());
+        assertEquals("algo fallo", error.getMessage());
+        assertEquals(0, error.getStackTrace().length);
+
+        error = evalError("(ERROR 'no-encontrado \"sin clave\")");
+        assertEquals("no-encontrado", error.getType());
+        assertEquals("sin clave", error.toString());
+    }
+
+    /**
+     * Test de HANDLER-CASE: eleccion de la clausula por tipo, variable opcional y errores del interprete
+    */
+    @Test
+    public void testHandlerCase() {
+        assertEquals(3.0, eval("(HANDLER-CASE (+ 1 2) (ERROR () 0))"));
+        assertEquals(0.0, eval("(HANDLER-CASE (ERROR \"fallo\") (ERROR () 0))"));
+        assertEquals("sin clave", eval("(HANDLER-CASE (ERROR 'no-encontrado \"sin clave\") (otro () 1) (no-encontrado (e) e))").toString());
+        assertEquals(2.0, eval("(HANDLER-CASE (ERROR 'x \"fallo\") (T () 2))"));
+        assertEquals("Función no definida: noexiste", eval("(HANDLER-CASE (noexiste 1) (ERROR (e) e))").toString());
+
+        // Una clausula de otro tipo no atrapa el error
+        assertEquals("a", evalError("(HANDLER-CASE (ERROR 'a \"x\") (b () 1))").getType());
+
+        // Las salidas no locales atraviesan HANDLER-CASE
+        assertEquals(9.0, eval("(CATCH 'c (HANDLER-CASE (THROW 'c 9) (ERROR () 0)))"));
+    }
+
+    /**
+     * Test de la traza LISP: una linea por cada llamada activa, limitada a MAX_FRAMES
+    */
+    @Test
+    public void testBacktrace() {
+        eval("(DEFUN falla (n) (COND ((< n 1) (ERROR \"fondo\")) (T (falla (- n 1)))))");
+        LispError error = evalError("(falla 3)");
+        assertEquals(Arrays.asList("(falla 0)", "(falla 1)", "(falla 2)", "(falla 3)"), error.getBacktrace());
+        assertEquals("  en (falla 0)\n  en (falla 1)\n  en (falla 2)\n  en (falla 3)\n", error.formatBacktrace());
+
+        error = evalError("(falla 100)");
+        assertEquals(LispError.MAX_FRAMES, error.getBacktrace().size());
+        assertEquals(101 - LispError.MAX_FRAMES, error.getOmittedFrames());
+        assertFalse(error.wantsFrame());
+        assertEquals("(falla 0)", error.getBacktrace().get(0));
+
+        // Los errores de Java dentro de una funcion tambien reciben la traza
+        eval("(DEFUN primero (x) (CAR x))");
+        error = evalError("(primero 5)");
+        assertEquals(Arrays.asList("(primero 5)"), error.getBacktrace());
+    }
+}
@@ -0,0 +1,152 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispHashTableTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de LispHashTable.java funcionan correctamente
+ */
+public class LispHashTableTest extends LispTestCase {
+
+    /**
+     * Test de las operaciones desde LISP
+    */
+    @Test
+    public void testBuiltins() {
+        eval("(SETQ precios (MAKE-HASH-TABLE))");
+        assertEquals(10.0, eval("(PUTHASH 'manzana 10 precios)"));
+        eval("(PUTHASH 7 (QUOTE (a b)) precios)");
+        eval("(PUTHASH (QUOTE (x y)) 3.5 precios)");
+
+        assertEquals(10.0, eval("(GETHASH 'manzana precios)"));
+        assertEquals("(a b)", eval("(CAR (CONS (GETHASH (+ 3 4) precios) NIL))").toString());
+        assertEquals(3.5, eval("(GETHASH (CONS 'x (CONS 'y NIL)) precios)"));
+        assertNull(eval("(GETHASH 'pera precios)"));
+        assertEquals(3.0, eval("(HASH-COUNT precios)"));
+
+        assertEquals(true, eval("(REMHASH 'manzana precios)"));
+        assertEquals(false, eval("(REMHASH 'manzana precios)"));
+        assertEquals(2.0, eval("(HASH-COUNT precios)"));
+    }
+
+    /**
+     * Test de llaves numericas y NIL
+    */
+    @Test
+    public void testKeyNormalization() {
+        LispHashTable table = new LispHashTable();
+        table.put(1.0, "uno");
+        table.put(1, "entero");
+        table.put(1.5, "decimal");
+        table.put(null, "nil");
+        table.put("NIL", "simbolo");
+
+        assertEquals("entero", table.get(1.0));
+        assertEquals("decimal", table.get(1.5));
+        assertEquals("nil", table.get(null));
+        assertEquals("simbolo", table.get("NIL"));
+        assertEquals(4, table.size());
+    }
+
+    /**
+     * Test de que el rehash es incremental y la tabla sigue funcionando mientras ocurre
+    */
+    @Test
+    public void testIncrementalRehash() {
+        LispHashTable table = new LispHashTable();
+        int i = 0;
+        while (!table.isRehashing()) {
+            table.put((double) i, i);
+            i++;
+        }
+        // La tabla anterior todavía tiene llaves y todas siguen visibles
+        for (int j = 0; j < i; j++) {
+            assertEquals(j, table.get((double) j));
+        }
+        assertEquals(i, table.size());
+    }
+
+    /**
+     * Test de lecturas durante un rehash: no trasladan casillas y varios hilos pueden leer a la vez
+    */
+    @Test
+    public void testReadsDoNotMigrate() throws InterruptedException {
+        final LispHashTable table = new LispHashTable();
+        int i = 0;
+        while (!table.isRehashing()) {
+            table.put((double) i, i);
+            i++;
+        }
+        final int count = i;
+        final int[] errors = new int[1];
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int round = 0; round < 200; round++) {
+                        for (int j = 0; j < count; j++) {
+                            if (!Integer.valueOf(j).equals(table.get((double) j))) {
+                                synchronized (errors) {
+                                    errors[0]++;
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(0, errors[0]);
+        assertTrue(table.isRehashing());
+        assertEquals(count, table.size());
+    }
+
+    /**
+     * Test aleatorio contra HashMap con inserciones, reemplazos y eliminaciones
+    */
+    @Test
+    public void testAgainstHashMap() {
+        LispHashTable table = new LispHashTable();
+        Map<Object, Object> expected = new HashMap<>();
+        Random random = new Random(36);
+        for (int op = 0; op < 200000; op++) {
+            int n = random.nextInt(5000);
+            Object key = random.nextBoolean() ? (Object) (double) n : "k" + n;
+            switch (random.nextInt(3)) {
+                case 0:
+                case 1:
+                    table.put(key, op);
+                    expected.put(key, op);
+                    break;
+                default:
+                    assertEquals(expected.remove(key) != null, table.remove(key));
+                    break;
+            }
+            assertEquals(expected.get(key), table.get(key));
+        }
+        assertEquals(expected.size(), table.size());
+        assertEquals(expected.size() * 2, table.keysAndValues().length);
+    }
+
+    /**
+     * Test de argumento que no es tabla
+    */
+    @Test(expected = RuntimeException.class)
+    public void testNotATable() {
+        eval("(GETHASH 1 (VECTOR 1 2))");
+    }
+}
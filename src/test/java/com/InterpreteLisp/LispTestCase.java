@@ -0,0 +1,41 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispTestCase.java
+ * Descripción: Clase base de las pruebas que evaluan codigo LISP con un evaluador y un ambiente con las funciones del sistema
+ */
+abstract class LispTestCase {
+
+    protected Evaluator evaluator;
+    protected Environment env;
+
+    /**
+     * Crea un evaluador y un ambiente nuevos para cada test. JUnit ejecuta este metodo
+     * antes del @Before de cada subclase, que solo agrega su propia configuracion.
+    */
+    @Before
+    public void createInterpreter() {
+        evaluator = new Evaluator();
+        env = new Environment();
+        env.initializeBuiltins();
+    }
+
+    /**
+     * Metodo para evaluar todas las expresiones de un codigo LISP y devolver el ultimo resultado
+    */
+    protected Object eval(String code) {
+        Object result = null;
+        for (ASTNode expression : new Parser(new Lexer().tokenize(code)).parse()) {
+            result = evaluator.evaluate(expression, env);
+        }
+        return result;
+    }
+}
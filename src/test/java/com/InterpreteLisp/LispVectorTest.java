@@ -0,0 +1,92 @@
+package com.InterpreteLisp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LispVectorTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de LispVector.java funcionan correctamente
+ */
+public class LispVectorTest extends LispTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test de creacion, lectura y modificacion de vectores
+    */
+    @Test
+    public void testMakeVectorArefAset() {
+        eval("(SETQ v (MAKE-VECTOR 4 1.5))");
+        assertEquals("#(1.5 1.5 1.5 1.5)", env.getVariable("v").toString());
+        assertEquals(7.0, eval("(ASET v 2 7)"));
+        assertEquals(7.0, eval("(AREF v 2)"));
+        assertEquals("#(0 0 0)", eval("(MAKE-VECTOR 3)").toString());
+        assertEquals("#(1 2 3)", eval("(VECTOR 1 2 (+ 1 2))").toString());
+    }
+
+    /**
+     * Test de las operaciones en bloque
+    */
+    @Test
+    public void testBulkOperations() {
+        eval("(SETQ a (VECTOR 1 2 3)) (SETQ b (VECTOR 4 5 6))");
+        assertEquals(6.0, eval("(VSUM a)"));
+        assertEquals(32.0, eval("(VDOT a b)"));
+        assertEquals("#(5 7 9)", eval("(V+ a b)").toString());
+        assertEquals("#(4 10 18)", eval("(V* a b)").toString());
+        assertEquals("#(2 4 6)", eval("(V* a 2)").toString());
+        assertEquals("#(1.5 2.5 3.5)", eval("(V+ a 0.5)").toString());
+        assertEquals(true, eval("(EQUAL (V+ a 0) a)"));
+    }
+
+    /**
+     * Test de una suma sobre un millon de elementos
+    */
+    @Test
+    public void testLargeVector() {
+        eval("(SETQ grande (MAKE-VECTOR 1000000 2))");
+        assertEquals(2000000.0, eval("(VSUM grande)"));
+        assertEquals(4000000.0, eval("(VDOT grande grande)"));
+    }
+
+    /**
+     * Test de que los vectores se guardan en la imagen del entorno
+    */
+    @Test
+    public void testSaveImage() throws IOException {
+        eval("(SETQ serie (VECTOR 1 2.5 (- 0 3)))");
+        Path image = folder.getRoot().toPath().resolve("vectores.img");
+        EnvironmentImage.save(env, image);
+
+        Environment restored = new Environment();
+        EnvironmentImage.restore(restored, image);
+        assertEquals(env.getVariable("serie"), restored.getVariable("serie"));
+    }
+
+    /**
+     * Test de indice fuera de rango
+    */
+    @Test(expected = RuntimeException.class)
+    public void testIndexOutOfRange() {
+        eval("(AREF (VECTOR 1 2) 2)");
+    }
+
+    /**
+     * Test de vectores de distinto tamaño
+    */
+    @Test(expected = RuntimeException.class)
+    public void testLengthMismatch() {
+        eval("(VDOT (VECTOR 1 2) (VECTOR 1 2 3))");
+    }
+}
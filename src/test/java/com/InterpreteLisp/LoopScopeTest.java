@@ -0,0 +1,103 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: LoopScopeTest.java
+ * Descripción: JUnit Class para comprobar que los ciclos y los metodos de LoopScope.java funcionan correctamente
+ */
+public class LoopScopeTest extends LispTestCase {
+
+    /**
+     * Test de DOTIMES: el cuerpo modifica variables externas y la forma de resultado ve el limite
+    */
+    @Test
+    public void testDotimes() {
+        eval("(SETQ total 0)");
+        assertNull(eval("(DOTIMES (i 5) (SETQ total (+ total i)))"));
+        assertEquals(10.0, env.getVariable("total"));
+        assertEquals(5.0, eval("(DOTIMES (i 5 i) (SETQ total 0))"));
+        assertEquals(0.0, eval("(SETQ total 0) (DOTIMES (i 0 total) (SETQ total 99))"));
+        assertNull(env.getVariable("i"));
+    }
+
+    /**
+     * Test de ciclos anidados y de la variable del ciclo usada fuera de una operacion aritmetica
+    */
+    @Test
+    public void testNestedLoops() {
+        eval("(SETQ pares (QUOTE (fin fin)))");
+        eval("(DOTIMES (i 3) (DOTIMES (j 2) (SETQ pares (CONS (CONS i j) pares))))");
+        assertEquals("((2 . 1) (2 . 0) (1 . 1) (1 . 0) (0 . 1) (0 . 0) fin fin)", env.getVariable("pares").toString());
+        eval("(DEFUN cuadrado (x) (* x x))");
+        assertEquals(30.0, eval("(SETQ s 0) (DOTIMES (i 5 s) (SETQ s (+ s (cuadrado i))))"));
+    }
+
+    /**
+     * Test de DOLIST sobre listas citadas, listas de celdas, vectores y secuencias
+    */
+    @Test
+    public void testDolist() {
+        assertEquals(6.0, eval("(SETQ s 0) (DOLIST (x '(1 2 3) s) (SETQ s (+ s x)))"));
+        assertEquals("(c b a y z)", eval("(SETQ r (QUOTE (y z))) (DOLIST (x (QUOTE (a b c)) r) (SETQ r (CONS x r)))").toString());
+        assertEquals(9.0, eval("(SETQ s 0) (DOLIST (x (VECTOR 2 3 4) s) (SETQ s (+ s x)))"));
+        assertEquals(4.0, eval("(DOLIST (x (RANGE)) (COND ((> (* x x) 10) (RETURN x))))"));
+        assertNull(eval("(DOLIST (x NIL) (RETURN 1))"));
+    }
+
+    /**
+     * Test de WHILE, LOOP y RETURN
+    */
+    @Test
+    public void testWhileAndLoop() {
+        eval("(SETQ n 0)");
+        assertNull(eval("(WHILE (< n 10) (SETQ n (+ n 1)))"));
+        assertEquals(10.0, env.getVariable("n"));
+        assertEquals(20.0, eval("(LOOP (SETQ n (+ n 1)) (COND ((= n 20) (RETURN n))))"));
+        assertEquals(7.0, eval("(WHILE T (RETURN 7))"));
+        assertNull(eval("(LOOP (RETURN))"));
+        // RETURN solo termina el ciclo más interno
+        assertEquals(3.0, eval("(SETQ c 0) (DOTIMES (i 3 c) (LOOP (SETQ c (+ c 1)) (RETURN)))"));
+    }
+
+    /**
+     * Test de un ciclo largo: no usa recursion, asi que no agota la pila
+    */
+    @Test
+    public void testMillionIterations() {
+        assertEquals(499999500000.0, eval("(SETQ s 0) (DOTIMES (i 1000000 s) (SETQ s (+ s i)))"));
+    }
+
+    /**
+     * Test del ambito del ciclo: contador numerico en su casilla y asignaciones delegadas
+    */
+    @Test
+    public void testLoopScope() {
+        env.setVariable("y", 1.0);
+        LoopScope outer = new LoopScope(env, "i");
+        outer.setCounter(3);
+        LoopScope inner = new LoopScope(outer, "x");
+        inner.setVariable("x", "simbolo");
+        assertSame(outer, inner.findCounter("i"));
+        assertNull(inner.findCounter("x"));
+        assertEquals(3.0, inner.getVariable("i"));
+        assertSame(inner.getVariable("i"), inner.getVariable("i"));
+        inner.setVariable("y", 2.0);
+        assertEquals(2.0, env.getVariable("y"));
+    }
+
+    /**
+     * Test de errores de los ciclos
+    */
+    @Test(expected = RuntimeException.class)
+    public void testReturnOutsideLoop() {
+        eval("(RETURN 1)");
+    }
+}
@@ -0,0 +1,153 @@
+package com.InterpreteLisp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: MacroTest.java
+ * Descripción: JUnit Class para comprobar que DEFMACRO, las plantillas con ` , ,@ y la expansion guardada funcionan correctamente
+ */
+public class MacroTest extends LispTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Metodo para obtener el arbol de una expresion, para comparar con el codigo generado
+    */
+    private String tree(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse().get(0).toString();
+    }
+
+    /**
+     * Test de una macro simple: los argumentos llegan sin evaluar y se insertan con ,
+    */
+    @Test
+    public void testDefmacro() {
+        assertEquals("cuadrado", eval("(DEFMACRO cuadrado (x) `(* ,x ,x))"));
+        assertEquals(16.0, eval("(cuadrado 4)"));
+        assertEquals(25.0, eval("(cuadrado (+ 2 3))"));
+        assertEquals(tree("(* (+ 2 3) (+ 2 3))"), eval("(MACROEXPAND '(cuadrado (+ 2 3)))").toString());
+        // Una forma que no es una llamada a una macro se devuelve igual
+        assertEquals(tree("(+ 1 2)"), eval("(MACROEXPAND '(+ 1 2))").toString());
+    }
+
+    /**
+     * Test de &REST y ,@ para insertar varias formas
+    */
+    @Test
+    public void testRestAndSplicing() {
+        eval("(DEFMACRO cuando (condicion &REST cuerpo) `(COND (,condicion (PROGN ,@cuerpo)) (T NIL)))");
+        assertEquals(11.0, eval("(cuando (> 3 1) (SETQ a 1) (+ a 10))"));
+        assertEquals(1.0, env.getVariable("a"));
+        assertEquals(tree("(COND ((> 3 1) (PROGN (SETQ a 1) (+ a 10))) (T NIL))"),
+            eval("(MACROEXPAND '(cuando (> 3 1) (SETQ a 1) (+ a 10)))").toString());
+
+        eval("(DEFMACRO todos (&BODY formas) `(PROGN ,@formas))");
+        assertEquals(3.0, eval("(todos (SETQ b 2) (+ b 1))"));
+
+        eval("(SETQ lista (QUOTE (1 2)))");
+        assertEquals(tree("(0 1 2 3)"), eval("`(0 ,@lista 3)").toString());
+    }
+
+    /**
+     * Test de higiene: las variables que liga la plantilla no capturan las del usuario
+    */
+    @Test
+    public void testHygiene() {
+        eval("(DEFMACRO intercambiar (a b) `(LET ((tmp ,a)) (SETQ ,a ,b) (SETQ ,b tmp)))");
+        eval("(SETQ tmp 1) (SETQ otro 2)");
+        eval("(intercambiar tmp otro)");
+        assertEquals(2.0, env.getVariable("tmp"));
+        assertEquals(1.0, env.getVariable("otro"));
+
+        String expansion = eval("(MACROEXPAND '(intercambiar x y))").toString();
+        assertTrue(expansion, expansion.contains("tmp#"));
+        assertFalse(expansion, expansion.contains(" tmp "));
+
+        String first = eval("(GENSYM)").toString();
+        String second = eval("(GENSYM)").toString();
+        assertTrue(first.contains("#"));
+        assertNotEquals(first, second);
+    }
+
+    /**
+     * Test de la expansion guardada en el nodo de la llamada y de su invalidacion al redefinir la macro
+    */
+    @Test
+    public void testExpansionCache() {
+        eval("(DEFMACRO cuadrado (x) `(* ,x ,x))");
+        eval("(DEFUN f (n) (cuadrado n))");
+        assertEquals(9.0, eval("(f 3)"));
+
+        ASTNode call = ((Evaluator.Function) env.getVariable("f")).getBody().get(0);
+        Object macro = env.getVariable("cuadrado");
+        ASTNode expansion = call.getExpansion(macro);
+        assertNotNull(expansion);
+        assertEquals(16.0, eval("(f 4)"));
+        assertSame(expansion, call.getExpansion(macro));
+
+        // Al redefinir la macro, la expansion anterior deja de usarse
+        eval("(DEFMACRO cuadrado (x) `(+ ,x ,x))");
+        assertNull(call.getExpansion(env.getVariable("cuadrado")));
+        assertEquals(6.0, eval("(f 3)"));
+        assertNotSame(expansion, call.getExpansion(env.getVariable("cuadrado")));
+    }
+
+    /**
+     * Test de plantillas anidadas: solo se evaluan las comas del nivel exterior
+    */
+    @Test
+    public void testNestedQuasiquote() {
+        eval("(SETQ x 5)");
+        assertEquals(5.0, eval("`,x"));
+        assertEquals(tree("(a (QUASIQUOTE (b (UNQUOTE 5))))"), eval("`(a `(b ,,x))").toString());
+        assertEquals(tree("(a (QUASIQUOTE (b (UNQUOTE x))))"), eval("`(a `(b ,x))").toString());
+    }
+
+    /**
+     * Test de errores: numero de argumentos y comas fuera de una plantilla
+    */
+    @Test
+    public void testErrors() {
+        eval("(DEFMACRO cuadrado (x) `(* ,x ,x))");
+        try {
+            eval("(cuadrado 1 2)");
+            fail("Se esperaba un error por el numero de argumentos");
+        } catch (LispError e) {
+            assertTrue(e.getMessage().contains("esperados 1"));
+        }
+        try {
+            eval("(+ 1 ,x)");
+            fail("Se esperaba un error por la coma fuera de una plantilla");
+        } catch (LispError e) {
+            assertTrue(e.getMessage().contains("fuera de una plantilla"));
+        }
+    }
+
+    /**
+     * Test de guardar y restaurar una macro en una imagen del entorno
+    */
+    @Test
+    public void testMacroImage() throws Exception {
+        eval("(DEFMACRO cuadrado (x) `(* ,x ,x))");
+        File image = folder.newFile("macros.img");
+        eval("(SAVE-IMAGE \"" + image.getAbsolutePath().replace("\\", "/") + "\")");
+
+        Environment restored = new Environment();
+        restored.initializeBuiltins();
+        EnvironmentImage.restore(restored, image.toPath());
+        assertTrue(restored.getVariable("cuadrado") instanceof Evaluator.Macro);
+        assertEquals(49.0, evaluator.evaluate(new Parser(new Lexer().tokenize("(cuadrado 7)")).parse().get(0), restored));
+    }
+}
@@ -101,4 +101,24 @@ public class MainTest {
 
         assertTrue(output.contains("FIBONACCI"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test del modo incremental: las expresiones se evaluan al cerrarse, sin linea en blanco
+     */
+    @Test
+    public void testMainStreamingMode() {
+        String input = "(DEFUN doble (x)\n" +
+              "  (* 2 x))\n" +
+              "(doble 4) (+ 1\n" +
+              "2)\nexit\n";
+        ByteArrayInputStream in = new ByteArrayInputStream(input.getBytes());
+        System.setIn(in);
+
+        Main.main(new String[]{"--stream"});
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Resultado: doble"));
+        assertTrue(output.contains("Resultado: 8"));
+        assertTrue(output.contains("Resultado: 3"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: NonLocalExitTest.java
+ * Descripción: JUnit Class para comprobar que BLOCK, RETURN-FROM, CATCH, THROW y NonLocalExit.java funcionan correctamente
+ */
+public class NonLocalExitTest extends LispTestCase {
+
+    /**
+     * Metodo para comprobar que una expresion termina con un error con el mensaje dado
+    */
+    private void assertError(String code, String message) {
+        try {
+            eval(code);
+            fail("Se esperaba un error en " + code);
+        } catch (RuntimeException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    /**
+     * Test de BLOCK y RETURN-FROM, incluso desde una funcion llamada dentro del bloque
+    */
+    @Test
+    public void testBlock() {
+        assertEquals(42.0, eval("(BLOCK fin (SETQ a 1) (RETURN-FROM fin 42) (SETQ a 2))"));
+        assertEquals(1.0, env.getVariable("a"));
+        assertEquals(3.0, eval("(BLOCK fin (+ 1 2))"));
+        assertNull(eval("(BLOCK fin (RETURN-FROM fin) 5)"));
+        assertEquals(1.0, eval("(BLOCK externo (BLOCK interno (RETURN-FROM externo 1)) 2)"));
+
+        eval("(DEFUN salir (x) (RETURN-FROM busqueda x))");
+        assertEquals(7.0, eval("(BLOCK busqueda (salir 7) 0)"));
+        assertError("(RETURN-FROM fin 1)", "RETURN-FROM sin BLOCK fin");
+    }
+
+    /**
+     * Test de RETURN dentro de los ciclos y de un BLOCK NIL
+    */
+    @Test
+    public void testReturn() {
+        assertEquals(3.0, eval("(BLOCK NIL (RETURN 3) 4)"));
+        assertEquals(5.0, eval("(DOTIMES (i 10) (COND ((= i 5) (RETURN i))))"));
+        assertEquals(2.0, eval("(BLOCK fuera (DOTIMES (i 10) (COND ((= i 2) (RETURN-FROM fuera i)))) 99)"));
+        assertError("(RETURN 1)", "RETURN fuera de un ciclo");
+    }
+
+    /**
+     * Test de CATCH y THROW con etiquetas citadas y numericas
+    */
+    @Test
+    public void testCatchThrow() {
+        assertEquals(3.0, eval("(CATCH 'listo (DOLIST (x '(1 2 3 4)) (COND ((> x 2) (THROW 'listo x)))) 0)"));
+        assertEquals(0.0, eval("(CATCH 'listo (+ 0 0))"));
+        assertEquals(5.0, eval("(CATCH 1 (THROW 1 5))"));
+        assertEquals("externo", eval("(CATCH 'a (CATCH 'b (THROW 'a (QUOTE externo))) (QUOTE interno))").toString());
+
+        eval("(DEFUN buscar (x) (COND ((> x 3) (THROW 'encontrado x)) (T (buscar (+ x 1)))))");
+        assertEquals(4.0, eval("(CATCH 'encontrado (buscar 0))"));
+        assertError("(THROW 'nadie 1)", "THROW sin CATCH para la etiqueta nadie");
+    }
+
+    /**
+     * Test de que las salidas no locales no guardan la pila de llamadas de Java
+    */
+    @Test
+    public void testStackless() {
+        NonLocalExit exit = new NonLocalExit(NonLocalExit.CATCH, "a", 1.0);
+        assertEquals(0, exit.getStackTrace().length);
+        assertEquals(1.0, exit.valueFor(NonLocalExit.CATCH, "a"));
+        try {
+            exit.valueFor(NonLocalExit.BLOCK, "a");
+            fail("Se esperaba que la salida siguiera propagandose");
+        } catch (NonLocalExit e) {
+            assertSame(exit, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParallelLoaderTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de ParallelLoader.java funcionan correctamente
+ */
+public class ParallelLoaderTest {
+
+    /**
+     * Genera un programa con muchas definiciones para superar el umbral de paralelismo
+    */
+    private String largeProgram(int definitions) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < definitions; i++) {
+            sb.append("(DEFUN f").append(" (n) (COND ((= n 0) 'cero) (T (+ n ").append(i).append("))))\n");
+            sb.append("'(a b ").append(i).append(") 'simbolo\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test de deteccion de inicios de expresiones de nivel superior
+    */
+    @Test
+    public void testFindFormStarts() {
+        String input = "(+ 1 2) ) '(a (b)) 'c\n(SETQ x 1)";
+        int[] starts = ParallelLoader.findFormStarts(input);
+        assertArrayEquals(new int[]{0, 10, 19, 22}, starts);
+
+        // Los prefijos de plantilla se unen con su dato, igual que la comilla
+        String templates = "`(a ,b) ,@c `,d '`e";
+        assertArrayEquals(new int[]{0, 8, 12, 16, 18}, ParallelLoader.findFormStarts(templates));
+    }
+
+    /**
+     * Test de que un bloque nunca empieza justo despues de una comilla invertida,
+     * con distintos desplazamientos para mover los cortes entre bloques
+    */
+    @Test
+    public void testChunksDoNotSplitTemplates() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            for (int padding : new int[] {3, 13, 23}) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < padding; i++) {
+                    sb.append(' ');
+                }
+                for (int i = 0; i < 18000; i++) {
+                    sb.append("`(x ").append(i).append(" ,y)\n");
+                }
+                String input = sb.toString();
+                assertTrue(input.length() > ParallelLoader.PARALLEL_THRESHOLD);
+
+                List<ASTNode> sequential = new Parser(new Lexer().tokenize(input)).parse();
+                List<ASTNode> parallel = ParallelLoader.parse(input, pool);
+                assertEquals(sequential.toString(), parallel.toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test de que la carga paralela produce los mismos arboles, en el mismo orden, que la secuencial
+    */
+    @Test
+    public void testParallelMatchesSequential() {
+        String input = largeProgram(5000);
+        assertTrue(input.length() > ParallelLoader.PARALLEL_THRESHOLD);
+
+        List<ASTNode> sequential = new Parser(new Lexer().tokenize(input)).parse();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<ASTNode> parallel = ParallelLoader.parse(input, pool);
+            assertEquals(sequential.size(), parallel.size());
+            assertEquals(sequential.toString(), parallel.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test de carga de definiciones a traves del Environment
+    */
+    @Test
+    public void testLoadDefinitions() {
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        Evaluator evaluator = new Evaluator();
+
+        StringBuilder sb = new StringBuilder(largeProgram(3000));
+        sb.append("(SETQ resultado (f 10))");
+        env.loadDefinitions(sb.toString(), evaluator);
+
+        // La ultima definicion de f (i = 2999) es la que queda vigente
+        assertEquals(3009.0, env.getVariable("resultado"));
+    }
+}
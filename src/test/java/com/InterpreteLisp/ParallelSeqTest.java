@@ -0,0 +1,153 @@
+package com.InterpreteLisp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ParallelSeqTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de ParallelSeq.java funcionan correctamente
+ */
+public class ParallelSeqTest extends LispTestCase {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        eval("(DEFUN cuadrado (x) (* x x))");
+        eval("(DEFUN suma (a b) (+ a b))");
+        eval("(DEFUN grande (x) (> x 50))");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Test de PREDUCE y PMAPCAR desde el lenguaje con entradas pequeñas, que se procesan en un solo hilo
+    */
+    @Test
+    public void testBuiltins() {
+        assertEquals(5050.0, eval("(PREDUCE + (RANGE 1 101))"));
+        assertEquals(5050.0, eval("(PREDUCE suma (RANGE 1 101))"));
+        assertEquals(15.0, eval("(PREDUCE suma (QUOTE (1 2 3 4)) 5)"));
+        assertEquals(14.0, eval("(PREDUCE suma (VECTOR 1 4 9))"));
+        assertEquals("(1 4 9)", eval("(PMAPCAR cuadrado (QUOTE (1 2 3)))").toString());
+        assertEquals("(2601 2704)", eval("(PMAPCAR cuadrado (LAZY-FILTER grande (RANGE 49 53)))").toString());
+        assertEquals(0.0, eval("(PREDUCE + NIL)"));
+        assertNull(eval("(PREDUCE suma (RANGE 0))"));
+        assertEquals(7.0, eval("(PREDUCE suma (RANGE 0) 7)"));
+    }
+
+    /**
+     * Test de que la reduccion dividida en tramos da el mismo resultado que la secuencial
+    */
+    @Test
+    public void testParallelReduceMatchesSequential() {
+        Object function = env.getVariable("suma");
+        Object range = eval("(RANGE 20000)");
+        assertEquals(eval("(REDUCE suma (RANGE 20000))"),
+            ParallelSeq.reduce(evaluator, function, range, false, null, pool, 0));
+        assertEquals(eval("(REDUCE + (LAZY-MAP cuadrado (RANGE 20000)))"),
+            ParallelSeq.reduce(evaluator, new Main.BuiltinFunction("+"),
+                eval("(LAZY-MAP cuadrado (RANGE 20000))"), false, null, pool, 0));
+    }
+
+    /**
+     * Test de que los parciales se combinan en orden: una funcion asociativa pero no conmutativa
+    */
+    @Test
+    public void testCombineKeepsOrder() {
+        eval("(DEFUN unir (a b) (APPEND a b))");
+        eval("(DEFUN envolver (x) (CONS x NIL))");
+        Object lists = eval("(PMAPCAR envolver (RANGE 2000))");
+        Object joined = ParallelSeq.reduce(evaluator, env.getVariable("unir"), lists, false, null, pool, 0);
+        assertEquals(eval("(REDUCE unir (PMAPCAR envolver (RANGE 2000)))"), joined);
+        assertEquals(ConsCell.toList(eval("(RANGE 2000)"), "TEST"), joined);
+    }
+
+    /**
+     * Test de que PMAPCAR en paralelo conserva el orden y respeta los filtros
+    */
+    @Test
+    public void testParallelMapKeepsOrder() {
+        Object function = env.getVariable("cuadrado");
+        ConsCell result = ParallelSeq.map(evaluator, function, eval("(LAZY-FILTER grande (RANGE 20000))"), pool, 0);
+        assertEquals(eval("(REVERSE (REVERSE (LAZY-MAP cuadrado (LAZY-FILTER grande (RANGE 20000)))))"), result);
+        assertEquals(2601.0, result.getCar());
+    }
+
+    /**
+     * Test de GETHASH y de una clausura llamados desde varios hilos a la vez
+    */
+    @Test
+    public void testConcurrentHashReadsAndClosures() {
+        eval("(SETQ tabla (MAKE-HASH-TABLE))");
+        eval("(DOTIMES (i 5000) (PUTHASH i (* i i) tabla))");
+        eval("(SETQ buscar (LET ((tb tabla) (k 100)) (LAMBDA (x) (+ k (GETHASH x tb)))))");
+        eval("(DEFUN usar (x) (buscar x))");
+        ConsCell result = ParallelSeq.map(evaluator, env.getVariable("usar"), eval("(RANGE 5000)"), pool, 0);
+        int i = 0;
+        for (Object tail = result; tail != null; tail = ((ConsCell) tail).getCdr(), i++) {
+            assertEquals(100.0 + (double) i * i, ((ConsCell) tail).getCar());
+        }
+        assertEquals(5000, i);
+        assertEquals(5000.0, eval("(HASH-COUNT tabla)"));
+    }
+
+    /**
+     * Test de que PREDUCE y PMAPCAR rechazan las escrituras globales y en tablas hash,
+     * y de que el entorno vuelve a aceptarlas al terminar
+    */
+    @Test
+    public void testSharedWritesRejected() {
+        eval("(SETQ tabla (MAKE-HASH-TABLE))");
+        String[] forms = {
+            "(PMAPCAR (LAMBDA (x) (PUTHASH x x tabla)) (RANGE 10))",
+            "(PMAPCAR (LAMBDA (x) (REMHASH x tabla)) (RANGE 10))",
+            "(PREDUCE (LAMBDA (a b) (SETQ total b)) (RANGE 10))",
+        };
+        for (String form : forms) {
+            try {
+                eval(form);
+                fail("Se esperaba un error en " + form);
+            } catch (LispError e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("PREDUCE o PMAPCAR"));
+            }
+        }
+        assertFalse(env.isParallel());
+        eval("(PUTHASH 1 2 tabla)");
+        assertEquals(3.0, eval("(SETQ total 3)"));
+
+        // Las variables locales de la funcion si se pueden asignar
+        assertEquals("(1 2 3)", eval("(PMAPCAR (LAMBDA (x) (LET ((y x)) (SETQ y (+ y 1)) y)) (RANGE 3))").toString());
+    }
+
+    /**
+     * Test de que una etapa TAKE obliga al recorrido secuencial sin cambiar el resultado
+    */
+    @Test
+    public void testTakeFallsBackToSequential() {
+        assertEquals(6.0, eval("(PREDUCE + (TAKE 4 (RANGE)))"));
+        assertEquals("(0 1 4)", eval("(PMAPCAR cuadrado (TAKE 3 (RANGE)))").toString());
+    }
+
+    /**
+     * Test de que un error en un tramo llega a quien llamo a PREDUCE
+    */
+    @Test(expected = RuntimeException.class)
+    public void testErrorPropagates() {
+        eval("(DEFUN mala (a b) (CAR a))");
+        ParallelSeq.reduce(evaluator, env.getVariable("mala"), eval("(RANGE 10000)"), false, null, pool, 0);
+    }
+}
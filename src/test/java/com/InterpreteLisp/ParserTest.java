@@ -11,7 +11,7 @@ import java.util.List;
  * Ing. Douglas Barrios
  * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
  * Creación: 20/03/2025
- * última modificación: 20/03/2025
+ * última modificación: 19/10/2026
  * File Name: ParserTest.java
  * Descripción: JUnit Class para comprobar que los metodos de Parser.java funcionan correctamente
  * 
@@ -240,4 +240,64 @@ public class ParserTest {
             // Funcionamiento esperado
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test de que el parser iterativo construye los mismos arboles que el recursivo
+    */
+    @Test
+    public void testParseIterativeMatchesRecursive() {
+        String[] inputs = {
+            "(+ 2 3)",
+            "(+ (* 3 4) (- 10 5)) (/ 20 4)",
+            "(QUOTE a) (QUOTE (a b c)) '(1 2 3) 'x (' (a b))",
+            "(COND ((< a 5) (+ a 1)) ((> a 9) 'mayor) (T a))",
+            "(DEFUN FIBONACCI (N) (COND ((= N 0) 1) ((= N 1) 1) (T (+ (FIBONACCI (- N 1)) (FIBONACCI (- N 2))))))",
+            "(EQUAL '(1 2) '(1 2)) ) (SETQ x 2.5)",
+            "`(a ,b ,@c) (DEFMACRO swap (a b) `(LET ((tmp ,a)) (SETQ ,a ,b) (SETQ ,b tmp)))",
+            "`(COND (,c (PROGN ,@cuerpo)) (T ,x)) `(a `(b ,,x)) (,f 1) `,x"
+        };
+
+        for (String input : inputs) {
+            List<ASTNode> recursive = new Parser(lexer.tokenize(input)).parse();
+            List<ASTNode> iterative = new Parser(lexer.tokenize(input)).parseIterative();
+            assertEquals(input, recursive.toString(), iterative.toString());
+        }
+    }
+
+    /**
+     * Test de anidamiento muy profundo con el parser iterativo
+    */
+    @Test
+    public void testParseIterativeDeepNesting() {
+        int depth = 100000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("(+ 1 ");
+        }
+        sb.append("0");
+        for (int i = 0; i < depth; i++) {
+            sb.append(")");
+        }
+
+        List<ASTNode> astNodes = new Parser(lexer.tokenize(sb.toString())).parseIterative();
+        assertEquals(1, astNodes.size());
+
+        // Recorrer la cadena de nodos sin recursion
+        int levels = 0;
+        ASTNode node = astNodes.get(0);
+        while (node.getValue().equals("+")) {
+            levels++;
+            node = node.getChildren().get(1);
+        }
+        assertEquals(depth, levels);
+        assertEquals("0", node.getValue());
+    }
+
+    /**
+     * Test de expresiones invalidas con el parser iterativo
+    */
+    @Test(expected = RuntimeException.class)
+    public void testParseIterativeInvalidExpression() {
+        new Parser(lexer.tokenize("(+ 1 (* 2 3)")).parseIterative();
+    }
+}
@@ -0,0 +1,142 @@
+package com.InterpreteLisp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: ProfilerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de Profiler.java funcionan correctamente
+ */
+public class ProfilerTest extends LispTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ByteArrayOutputStream output;
+
+    @Before
+    public void setUp() throws IOException {
+        output = new ByteArrayOutputStream();
+        evaluator.setProfileOutput(new PrintStream(output, true, "UTF-8"));
+        eval("(DEFUN FIB (N) (COND ((< N 2) N) (T (+ (FIB (- N 1)) (FIB (- N 2))))))");
+        eval("(DEFUN CUAD (X) (* X X))");
+        eval("(DEFUN SUMA (N) (+ (FIB N) (CUAD N)))");
+    }
+
+    /**
+     * Test de PROFILE: devuelve el valor de la expresion y cuenta las llamadas y las aristas
+    */
+    @Test
+    public void testCallsAndEdges() {
+        assertEquals(62.0, eval("(PROFILE (SUMA 7))"));
+        Profiler profile = evaluator.getLastProfile();
+        assertEquals(41, profile.getStats("FIB").getCalls());
+        assertEquals(1, profile.getStats("SUMA").getCalls());
+        // CUAD se insertaria en SUMA, pero con el perfil activo se llama normalmente
+        assertEquals(1, profile.getStats("CUAD").getCalls());
+        assertEquals(1, profile.getEdgeCount(Profiler.ROOT, "SUMA"));
+        assertEquals(1, profile.getEdgeCount("SUMA", "FIB"));
+        assertEquals(40, profile.getEdgeCount("FIB", "FIB"));
+        assertEquals(0, profile.getEdgeCount("CUAD", "FIB"));
+    }
+
+    /**
+     * Test de tiempos: el inclusivo de una funcion incluye el de las que llama y el de una recursiva no se repite
+    */
+    @Test
+    public void testInclusiveAndSelfTime() {
+        eval("(PROFILE (SUMA 12))");
+        Profiler profile = evaluator.getLastProfile();
+        Profiler.Stats suma = profile.getStats("SUMA");
+        Profiler.Stats fib = profile.getStats("FIB");
+        assertTrue(suma.getInclusiveNanos() >= suma.getSelfNanos());
+        assertTrue(suma.getInclusiveNanos() >= fib.getInclusiveNanos());
+        assertTrue(fib.getInclusiveNanos() >= fib.getSelfNanos());
+    }
+
+    /**
+     * Test del reporte: se muestra ordenado por tiempo propio, con las llamadas entre funciones
+    */
+    @Test
+    public void testReport() throws IOException {
+        eval("(PROFILE (SUMA 12))");
+        String report = output.toString("UTF-8");
+        assertTrue(report.startsWith("Perfil: "));
+        assertTrue(report.indexOf("FIB ") < report.indexOf("CUAD "));
+        assertTrue(report.contains("FIB -> FIB"));
+        assertTrue(report.contains(Profiler.ROOT + " -> SUMA"));
+    }
+
+    /**
+     * Test de pilas colapsadas: cada linea es una pila separada por ; y un numero de microsegundos
+    */
+    @Test
+    public void testCollapsedStacks() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("perfil.folded");
+        eval("(PROFILE (SUMA 12) \"" + file.toString().replace("\\", "/") + "\")");
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertFalse(lines.isEmpty());
+        for (String line : lines) {
+            assertTrue(line, line.matches("SUMA(;[A-Z]+)* [0-9]+"));
+        }
+        boolean recursive = false;
+        for (String line : lines) {
+            recursive |= line.startsWith("SUMA;FIB;FIB ");
+        }
+        assertTrue(recursive);
+    }
+
+    /**
+     * Test de error: el perfil se cierra aunque la expresion falle
+    */
+    @Test
+    public void testErrorClosesProfile() {
+        eval("(DEFUN INVERSO (X) (/ 1 X))");
+        try {
+            eval("(PROFILE (INVERSO 0))");
+            fail("Se esperaba un error");
+        } catch (LispError e) {
+            assertEquals(1, evaluator.getLastProfile().getStats("INVERSO").getCalls());
+        }
+        assertEquals(16.0, eval("(PROFILE (CUAD (CUAD 2)))"));
+        assertEquals(2, evaluator.getLastProfile().getStats("CUAD").getCalls());
+    }
+
+    /**
+     * Test del Profiler directo: entradas y salidas anidadas y recursivas
+    */
+    @Test
+    public void testNestedActivations() {
+        Profiler profiler = new Profiler();
+        profiler.enter("A");
+        profiler.enter("B");
+        profiler.exit();
+        profiler.enter("A");
+        profiler.exit();
+        profiler.exit();
+        profiler.stop();
+        assertEquals(2, profiler.getStats("A").getCalls());
+        assertEquals(1, profiler.getStats("B").getCalls());
+        assertEquals(1, profiler.getEdgeCount("A", "B"));
+        assertEquals(1, profiler.getEdgeCount("A", "A"));
+        assertEquals(1, profiler.getEdgeCount(Profiler.ROOT, "A"));
+        assertNull(profiler.getStats("C"));
+    }
+}
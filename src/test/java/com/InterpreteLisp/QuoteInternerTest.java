@@ -0,0 +1,113 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.List;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: QuoteInternerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de QuoteInterner.java funcionan correctamente
+ */
+public class QuoteInternerTest {
+
+    private QuoteInterner interner;
+
+    @Before
+    public void setUp() {
+        interner = new QuoteInterner();
+    }
+
+    private ASTNode parse(String input) {
+        return new Parser(new Lexer().tokenize(input)).parse().get(0);
+    }
+
+    /**
+     * Test de que estructuras iguales comparten una sola instancia canonica
+    */
+    @Test
+    public void testIdenticalStructuresShareInstance() {
+        ASTNode first = interner.intern(parse("(a (b c) 1 2.5)"));
+        ASTNode second = interner.intern(parse("(a (b c) 1 2.5)"));
+        ASTNode different = interner.intern(parse("(a (b d) 1 2.5)"));
+
+        assertSame(first, second);
+        assertNotSame(first, different);
+        assertTrue(first.isCanonical());
+        assertEquals(first.getStructuralHash(), second.getStructuralHash());
+
+        // Los subarboles comunes tambien se comparten
+        assertSame(first.getChildren().get(1), different.getChildren().get(1));
+    }
+
+    /**
+     * Test de que los datos canonicos no se pueden modificar
+    */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCanonicalIsImmutable() {
+        ASTNode canonical = interner.intern(parse("(a b)"));
+        canonical.addChild(new ASTNode("c"));
+    }
+
+    /**
+     * Test de internado de una estructura muy profunda sin recursion
+    */
+    @Test
+    public void testDeepStructure() {
+        ASTNode root = new ASTNode("a");
+        ASTNode current = root;
+        for (int i = 0; i < 100000; i++) {
+            ASTNode next = new ASTNode("a");
+            current.addChild(next);
+            current = next;
+        }
+        ASTNode canonical = interner.intern(root);
+        assertTrue(canonical.isCanonical());
+        assertEquals(100001, interner.size());
+    }
+
+    /**
+     * Test de QUOTE y EQUAL en el evaluador usando las instancias canonicas
+    */
+    @Test
+    public void testEvaluatorQuoteAndEqual() {
+        Evaluator evaluator = new Evaluator();
+        Environment env = new Environment();
+        env.initializeBuiltins();
+
+        List<ASTNode> program = new Parser(new Lexer().tokenize(
+            "(QUOTE (1 2 (3 4))) (QUOTE (1 2 (3 4))) (EQUAL '(1 2) '(1 2)) (EQUAL '(1 2) '(1 3))")).parse();
+
+        Object first = evaluator.evaluate(program.get(0), env);
+        Object second = evaluator.evaluate(program.get(1), env);
+        assertSame(first, second);
+        // El dato canonico se guarda aparte: el arbol del programa no cambia
+        assertNotSame(first, program.get(0).getChildren().get(0));
+        assertFalse(program.get(0).getChildren().get(0).isCanonical());
+        assertSame(first, evaluator.evaluate(program.get(0), env));
+
+        assertEquals(true, evaluator.evaluate(program.get(2), env));
+        assertEquals(false, evaluator.evaluate(program.get(3), env));
+    }
+
+    /**
+     * Test de EQUAL con datos canonicos de dos evaluadores, cada uno con su propia tabla
+    */
+    @Test
+    public void testEqualAcrossInterners() {
+        Environment env = new Environment();
+        env.initializeBuiltins();
+        Evaluator first = new Evaluator();
+        Evaluator second = new Evaluator();
+
+        first.evaluate(parse("(SETQ x (QUOTE (1 (2 3))))"), env);
+        assertEquals(true, second.evaluate(parse("(EQUAL x (QUOTE (1 (2 3))))"), env));
+        assertEquals(false, second.evaluate(parse("(EQUAL x (QUOTE (1 (2 4))))"), env));
+    }
+}
@@ -0,0 +1,158 @@
+package com.InterpreteLisp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SamplingProfilerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de SamplingProfiler.java funcionan correctamente
+ */
+public class SamplingProfilerTest extends LispTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ByteArrayOutputStream output;
+    private SamplingProfiler current;
+
+    @Before
+    public void setUp() throws IOException {
+        output = new ByteArrayOutputStream();
+        evaluator.setProfileOutput(new PrintStream(output, true, "UTF-8"));
+        eval("(DEFUN FIB (N) (COND ((< N 2) N) (T (+ (FIB (- N 1)) (FIB (- N 2))))))");
+        eval("(DEFUN SUMA (N) (+ (FIB N) 1))");
+    }
+
+    @After
+    public void tearDown() {
+        evaluator.stopSampling();
+    }
+
+    /**
+     * Metodo para evaluar una expresion hasta que el muestreo activo tenga al menos una muestra
+    */
+    private void evalUntilSampled(String code) {
+        for (int i = 0; i < 1000 && totalSamples() == 0; i++) {
+            eval(code);
+        }
+    }
+
+    private long totalSamples() {
+        long total = 0;
+        for (long count : current.getStacks().values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Test de pila sombra: crece al pasar su capacidad y la profundidad vuelve a cero
+    */
+    @Test
+    public void testShadowStack() {
+        SamplingProfiler.ShadowStack stack = new SamplingProfiler.ShadowStack();
+        for (int i = 0; i < 100; i++) {
+            stack.push(null, null);
+        }
+        assertEquals(100, stack.getDepth());
+        for (int i = 0; i < 100; i++) {
+            stack.pop();
+        }
+        assertEquals(0, stack.getDepth());
+    }
+
+    /**
+     * Test de muestreo: las pilas muestreadas son pilas de llamadas LISP que empiezan en SUMA
+    */
+    @Test
+    public void testSampledStacks() {
+        current = evaluator.startSampling(100000L);
+        evalUntilSampled("(SUMA 18)");
+        evaluator.stopSampling();
+        Map<String, Long> stacks = current.getStacks();
+        assertFalse(stacks.isEmpty());
+        for (String stack : stacks.keySet()) {
+            assertTrue(stack, stack.matches("SUMA(;FIB)*"));
+        }
+        assertEquals(current.getSampleCount(), totalSamples());
+    }
+
+    /**
+     * Test de STOP-SAMPLING: muestra el reporte, escribe las pilas colapsadas y devuelve las muestras
+    */
+    @Test
+    public void testStopSamplingForm() throws IOException {
+        assertEquals(true, eval("(START-SAMPLING 0.1)"));
+        Path file = folder.getRoot().toPath().resolve("muestras.folded");
+        double samples = 0;
+        for (int i = 0; i < 1000 && samples == 0; i++) {
+            eval("(SUMA 18)");
+            if (i % 10 == 9) {
+                samples = (Double) eval("(STOP-SAMPLING \"" + file.toString().replace("\\", "/") + "\")");
+                if (samples == 0) {
+                    eval("(START-SAMPLING 0.1)");
+                }
+            }
+        }
+        assertTrue(samples > 0);
+        String report = output.toString("UTF-8");
+        assertTrue(report.contains("Muestreo: "));
+        assertTrue(report.contains("FIB"));
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            assertTrue(line, line.matches("SUMA(;FIB)* [0-9]+"));
+        }
+    }
+
+    /**
+     * Test de STOP-SAMPLING sin un muestreo activo
+    */
+    @Test(expected = LispError.class)
+    public void testStopWithoutSampling() {
+        eval("(STOP-SAMPLING)");
+    }
+
+    /**
+     * Test de error: la pila sombra queda vacia aunque la llamada termine con un error
+    */
+    @Test
+    public void testErrorUnwindsShadowStack() {
+        current = evaluator.startSampling(SamplingProfiler.DEFAULT_INTERVAL_NANOS);
+        eval("(DEFUN INVERSO (X) (/ 1 X))");
+        eval("(DEFUN USAR (X) (INVERSO X))");
+        try {
+            eval("(USAR 0)");
+            fail("Se esperaba un error");
+        } catch (LispError e) {
+            assertEquals(0, current.currentStack().getDepth());
+        }
+    }
+
+    /**
+     * Test del texto de un nodo de llamada, con comillas y llamadas anidadas
+    */
+    @Test
+    public void testSource() {
+        ASTNode call = new Parser(new Lexer().tokenize("(F 'X (G 1) \"a b\")")).parse().get(0);
+        assertEquals("(F 'X (G 1) \"a b\")", call.toSource());
+    }
+}
@@ -0,0 +1,148 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: SpecializerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de Specializer.java funcionan correctamente
+ */
+public class SpecializerTest extends LispTestCase {
+
+    private static final String SCORE =
+        "(DEFUN SCORE (R N MODO) (COND ((EQUAL MODO (QUOTE STRICT)) (* R N)) ((> N 5) (+ R N)) (T R)))";
+
+    @Before
+    public void setUp() {
+        evaluator.setInlining(false);
+    }
+
+    private Evaluator.Function function(String name) {
+        return (Evaluator.Function) env.getVariable(name);
+    }
+
+    /**
+     * Metodo para obtener la version que eligio la llamada que forma el cuerpo de una funcion
+    */
+    private Evaluator.Function versionIn(String caller) {
+        return function(caller).getBody().get(0).getSpecialization().version;
+    }
+
+    /**
+     * Test de especializacion: con 'STRICT y 3 constantes el COND desaparece de la version
+    */
+    @Test
+    public void testConditionsAreFolded() {
+        eval(SCORE);
+        eval("(DEFUN USAR (R) (SCORE R 3 'STRICT))");
+        assertEquals(6.0, eval("(USAR 2)"));
+        Evaluator.Function version = versionIn("USAR");
+        assertNotSame(function("SCORE"), version);
+        assertEquals("SCORE{N=3, MODO='STRICT}", version.getName());
+        ASTNode body = version.getBody().get(0);
+        assertEquals("*", body.getValue());
+        assertEquals("R", body.getChildren().get(0).getValue());
+        assertEquals(18.0, eval("(USAR 6)"));
+    }
+
+    /**
+     * Test de versiones: cada combinacion de constantes tiene su version, y se reutiliza entre llamadas
+    */
+    @Test
+    public void testVersionsPerConstants() {
+        eval(SCORE);
+        eval("(DEFUN LAX (R) (SCORE R 7 'LAX))");
+        eval("(DEFUN LAX2 (R) (SCORE R 7 (QUOTE LAX)))");
+        eval("(DEFUN BAJO (R) (SCORE R 2 'LAX))");
+        assertEquals(9.0, eval("(LAX 2)"));
+        assertEquals(9.0, eval("(LAX2 2)"));
+        assertEquals(2.0, eval("(BAJO 2)"));
+        assertSame(versionIn("LAX"), versionIn("LAX2"));
+        assertNotSame(versionIn("LAX"), versionIn("BAJO"));
+        assertEquals(2, Specializer.versions(function("SCORE")).size());
+        assertEquals("+", versionIn("LAX").getBody().get(0).getValue());
+        assertEquals("R", versionIn("BAJO").getBody().get(0).getValue());
+    }
+
+    /**
+     * Test de redefinicion: las versiones anteriores se descartan y la llamada usa la nueva definicion
+    */
+    @Test
+    public void testRedefinitionDropsVersions() {
+        eval(SCORE);
+        eval("(DEFUN USAR (R) (SCORE R 3 'STRICT))");
+        assertEquals(6.0, eval("(USAR 2)"));
+        Specializer.Versions old = Specializer.versions(function("SCORE"));
+        assertEquals(1, old.size());
+        eval("(DEFUN SCORE (R N MODO) (COND ((EQUAL MODO (QUOTE STRICT)) (- R N)) (T R)))");
+        assertEquals(0, old.size());
+        assertEquals(-1.0, eval("(USAR 2)"));
+    }
+
+    /**
+     * Test de parametro asignado: un parametro que el cuerpo modifica no se especializa
+    */
+    @Test
+    public void testAssignedParameterIsNotSpecialized() {
+        eval("(DEFUN CUENTA (N) (SETQ N (+ N 1)) (COND ((> N 3) 1) (T 0)))");
+        eval("(DEFUN USAR (X) (CUENTA 3))");
+        assertEquals(1.0, eval("(USAR 0)"));
+        assertSame(function("CUENTA"), versionIn("USAR"));
+    }
+
+    /**
+     * Test de recursion: las llamadas recursivas con los mismos constantes usan la misma version
+    */
+    @Test
+    public void testRecursiveCallsReuseVersion() {
+        eval("(DEFUN POTENCIA (B E MODO) (COND ((= E 0) 1) ((EQUAL MODO (QUOTE DOBLE)) (* 2 B (POTENCIA B (- E 1) MODO))) (T (* B (POTENCIA B (- E 1) MODO)))))");
+        eval("(DEFUN USAR (B E) (POTENCIA B E 'SIMPLE))");
+        assertEquals(8.0, eval("(USAR 2 3)"));
+        assertEquals(1, Specializer.versions(function("POTENCIA")).size());
+    }
+
+    /**
+     * Test de limite: no se crean mas de MAX_VERSIONS versiones de una funcion
+    */
+    @Test
+    public void testVersionLimit() {
+        eval("(DEFUN SIGNO (X) (COND ((> X 0) 1) (T 0)))");
+        eval("(SETQ TOTAL 0)");
+        StringBuilder calls = new StringBuilder("(DEFUN TODOS (Z)");
+        for (int i = 1; i <= Specializer.MAX_VERSIONS + 4; i++) {
+            calls.append(" (SETQ TOTAL (+ TOTAL (SIGNO ").append(i).append(")))");
+        }
+        eval(calls.append(" TOTAL)").toString());
+        assertEquals((double) (Specializer.MAX_VERSIONS + 4), eval("(TODOS 0)"));
+        assertEquals(Specializer.MAX_VERSIONS, Specializer.versions(function("SIGNO")).size());
+    }
+
+    /**
+     * Test del nivel superior: la llamada no se especializa, pero acepta argumentos con comilla
+    */
+    @Test
+    public void testTopLevelCall() {
+        eval(SCORE);
+        assertEquals(6.0, eval("(SCORE 2 3 'STRICT)"));
+        assertNull(function("SCORE").getSpecializations());
+    }
+
+    /**
+     * Test de desactivacion: sin especializacion la llamada usa la funcion original
+    */
+    @Test
+    public void testDisabled() {
+        evaluator.setSpecialization(false);
+        eval(SCORE);
+        eval("(DEFUN USAR (R) (SCORE R 3 'STRICT))");
+        assertEquals(6.0, eval("(USAR 2)"));
+        assertNull(function("USAR").getBody().get(0).getSpecialization());
+    }
+}
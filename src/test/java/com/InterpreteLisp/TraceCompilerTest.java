@@ -0,0 +1,158 @@
+package com.InterpreteLisp;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TraceCompilerTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de TraceCompiler.java funcionan correctamente
+ */
+public class TraceCompilerTest extends LispTestCase {
+
+    @Before
+    public void setUp() {
+        evaluator.setInlining(false);
+        evaluator.setTraceThresholds(5, 10);
+    }
+
+    /**
+     * Metodo para obtener la traza de una funcion definida con DEFUN
+    */
+    private TraceCompiler.Trace traceOf(String name) {
+        return ((Evaluator.Function) env.getVariable(name)).getTrace();
+    }
+
+    /**
+     * Test de funcion recursiva: al pasar el umbral se compila con sus dos clausulas y sus llamadas directas
+    */
+    @Test
+    public void testRecursiveFunctionIsCompiled() {
+        eval("(DEFUN FIB (N) (COND ((< N 2) N) (T (+ (FIB (- N 1)) (FIB (- N 2))))))");
+        assertEquals(55.0, eval("(FIB 10)"));
+        assertTrue(traceOf("FIB").isValid());
+        List<String> log = evaluator.getCompilationLog();
+        assertEquals(1, log.size());
+        assertEquals("Compilada: FIB tras 5 llamadas (2 de 2 cláusulas de COND, 2 llamadas directas)", log.get(0));
+        assertEquals(6765.0, eval("(FIB 20)"));
+    }
+
+    /**
+     * Test de salida lateral: una clausula que no se habia tomado se interpreta y, al llegar al limite, la traza se recompila
+    */
+    @Test
+    public void testSideExitsRecompile() {
+        eval("(DEFUN GRANDE (N) (COND ((> N 10) 1) (T 2)))");
+        for (int i = 0; i <= 5; i++) {
+            assertEquals(2.0, eval("(GRANDE 1)"));
+        }
+        TraceCompiler.Trace first = traceOf("GRANDE");
+        assertTrue(first.isValid());
+        assertTrue(evaluator.getCompilationLog().get(0).contains("1 de 2 cláusulas"));
+
+        for (int i = 0; i < TraceCompiler.SIDE_EXIT_LIMIT; i++) {
+            assertEquals(1.0, eval("(GRANDE 20)"));
+        }
+        assertFalse(first.isValid());
+        assertEquals(1.0, eval("(GRANDE 20)"));
+        assertNotSame(first, traceOf("GRANDE"));
+        List<String> log = evaluator.getCompilationLog();
+        assertEquals("Descartada: GRANDE tras " + TraceCompiler.SIDE_EXIT_LIMIT + " salidas laterales", log.get(1));
+        assertEquals("Recompilada: GRANDE (2 de 2 cláusulas de COND, 0 llamadas directas)", log.get(2));
+    }
+
+    /**
+     * Test de guarda: si la funcion llamada se redefine, la traza usa la nueva definicion
+    */
+    @Test
+    public void testCallGuardAfterRedefinition() {
+        eval("(DEFUN DOBLE (X) (* 2 X))");
+        eval("(DEFUN USAR (X) (DOBLE X))");
+        for (int i = 0; i <= 5; i++) {
+            assertEquals(8.0, eval("(USAR 4)"));
+        }
+        assertNotNull(traceOf("USAR"));
+        eval("(DEFUN DOBLE (X) (* 3 X))");
+        assertEquals(12.0, eval("(USAR 4)"));
+    }
+
+    /**
+     * Test de ciclo: el cuerpo se compila despues del umbral de iteraciones y el resultado no cambia
+    */
+    @Test
+    public void testLoopIsCompiled() {
+        eval("(SETQ TOTAL 0)");
+        eval("(DOTIMES (I 100) (SETQ TOTAL (+ TOTAL I)))");
+        assertEquals(4950.0, env.getVariable("TOTAL"));
+        assertEquals("Compilada: DOTIMES I tras 10 iteraciones (0 de 0 cláusulas de COND, 0 llamadas directas)",
+            evaluator.getCompilationLog().get(0));
+    }
+
+    /**
+     * Test de umbral 0: no se compila nada
+    */
+    @Test
+    public void testZeroThresholdDisablesCompilation() {
+        evaluator.setTraceThresholds(0, 0);
+        eval("(DEFUN FIB (N) (COND ((< N 2) N) (T (+ (FIB (- N 1)) (FIB (- N 2))))))");
+        assertEquals(55.0, eval("(FIB 10)"));
+        eval("(SETQ TOTAL 0)");
+        eval("(DOTIMES (I 100) (SETQ TOTAL (+ TOTAL I)))");
+        assertNull(traceOf("FIB"));
+        assertTrue(evaluator.getCompilationLog().isEmpty());
+    }
+
+    /**
+     * Test de traza LISP: un error dentro de una llamada compilada conserva la llamada en la traza
+    */
+    @Test
+    public void testBacktraceFromCompiledCall() {
+        eval("(DEFUN INVERSO (X) (/ 1 X))");
+        eval("(DEFUN USAR (X) (INVERSO X))");
+        for (int i = 0; i <= 5; i++) {
+            eval("(USAR 2)");
+        }
+        try {
+            eval("(USAR 0)");
+            fail("Se esperaba un error");
+        } catch (LispError e) {
+            assertTrue(e.getBacktrace().contains("(INVERSO 0)"));
+        }
+    }
+
+    /**
+     * Test de COMPILATION-LOG: devuelve las lineas del registro como lista
+    */
+    @Test
+    public void testCompilationLogForm() {
+        assertNull(eval("(COMPILATION-LOG)"));
+        eval("(DEFUN UNO (X) X)");
+        for (int i = 0; i <= 5; i++) {
+            eval("(UNO 1)");
+        }
+        Object list = eval("(COMPILATION-LOG)");
+        assertTrue(list instanceof ConsCell);
+        assertTrue(((String) ((ConsCell) list).getCar()).startsWith("Compilada: UNO"));
+    }
+
+    /**
+     * Test con el Inliner activo: las llamadas insertadas se interpretan y el resultado no cambia
+    */
+    @Test
+    public void testWithInlining() {
+        evaluator.setInlining(true);
+        eval("(DEFUN CUADRADO (X) (* X X))");
+        eval("(DEFUN SUMA-CUADRADOS (A B) (+ (CUADRADO A) (CUADRADO B)))");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(25.0, eval("(SUMA-CUADRADOS 3 4)"));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.InterpreteLisp;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: TypeFeedbackTest.java
+ * Descripción: JUnit Class para comprobar que los metodos de TypeFeedback.java funcionan correctamente
+ */
+public class TypeFeedbackTest {
+
+    private Evaluator evaluator;
+    private Environment env;
+
+    @Before
+    public void setUp() {
+        evaluator = new Evaluator();
+        env = new Environment();
+        env.initializeBuiltins();
+    }
+
+    /**
+     * Metodo para obtener el AST de una expresion LISP
+    */
+    private ASTNode parse(String code) {
+        return new Parser(new Lexer().tokenize(code)).parse().get(0);
+    }
+
+    /**
+     * Metodo para evaluar un nodo varias veces y devolver el ultimo resultado
+    */
+    private Object run(ASTNode node, int times) {
+        Object result = null;
+        for (int i = 0; i < times; i++) {
+            result = evaluator.evaluate(node, env);
+        }
+        return result;
+    }
+
+    /**
+     * Test de especializacion: despues de WARMUP evaluaciones con numeros el nodo usa la version especializada
+    */
+    @Test
+    public void testSpecialization() {
+        env.setVariable("x", 4.0);
+        ASTNode node = parse("(+ (* x x) (/ x 2) (- x) 1)");
+        assertEquals(15.0, run(node, 1));
+        assertNull(node.getTypeFeedback().getSpecialized());
+        assertEquals(15.0, run(node, TypeFeedback.WARMUP));
+        assertNotNull(node.getTypeFeedback().getSpecialized());
+        assertEquals(TypeFeedback.DOUBLE, node.getTypeFeedback().getSeen());
+
+        env.setVariable("x", 2.0);
+        assertEquals(4.0, run(node, 1));
+
+        ASTNode less = parse("(< x 3)");
+        assertEquals(true, run(less, TypeFeedback.WARMUP + 1));
+        assertNotNull(less.getTypeFeedback().getSpecialized());
+        env.setVariable("x", 5.0);
+        assertEquals(false, run(less, 1));
+    }
+
+    /**
+     * Test de desoptimizacion: una variable con otro tipo de numero descarta la version especializada
+    */
+    @Test
+    public void testDeoptimization() {
+        env.setVariable("x", 4.0);
+        ASTNode node = parse("(* x 10)");
+        run(node, TypeFeedback.WARMUP + 1);
+        assertNotNull(node.getTypeFeedback().getSpecialized());
+
+        // Un Integer, como los que restaura una imagen: el resultado es el mismo
+        env.setVariable("x", Integer.valueOf(3));
+        assertEquals(30.0, run(node, 1));
+        TypeFeedback feedback = node.getTypeFeedback();
+        assertNull(feedback.getSpecialized());
+        assertEquals(TypeFeedback.DOUBLE | TypeFeedback.OTHER_NUMBER, feedback.getSeen());
+
+        // Se vuelve a especializar aceptando cualquier numero, sin mas desoptimizaciones
+        run(node, TypeFeedback.WARMUP);
+        assertNotNull(feedback.getSpecialized());
+        env.setVariable("x", 1.5);
+        assertEquals(15.0, run(node, 1));
+        env.setVariable("x", Integer.valueOf(2));
+        assertEquals(20.0, run(node, 1));
+        assertNotNull(feedback.getSpecialized());
+    }
+
+    /**
+     * Test de errores: la version especializada falla con los mismos mensajes que la generica
+    */
+    @Test
+    public void testErrors() {
+        env.setVariable("x", 4.0);
+        env.setVariable("y", 2.0);
+        ASTNode node = parse("(/ x y)");
+        run(node, TypeFeedback.WARMUP + 1);
+        assertNotNull(node.getTypeFeedback().getSpecialized());
+
+        env.setVariable("y", 0.0);
+        try {
+            run(node, 1);
+            fail("Se esperaba un error por la division por cero");
+        } catch (LispError e) {
+            assertEquals("División por cero", e.getMessage());
+        }
+        env.setVariable("y", "hola");
+        try {
+            run(node, 1);
+            fail("Se esperaba un error por el argumento que no es numero");
+        } catch (LispError e) {
+            assertEquals("/ requiere argumentos numéricos", e.getMessage());
+        }
+    }
+
+    /**
+     * Test de = con valores que no son numeros despues de especializar: se usa la comparacion generica
+    */
+    @Test
+    public void testEqualFallback() {
+        env.setVariable("x", 1.0);
+        env.setVariable("y", 1.0);
+        ASTNode node = parse("(= x y)");
+        assertEquals(true, run(node, TypeFeedback.WARMUP + 1));
+        TypeFeedback feedback = node.getTypeFeedback();
+        assertNotNull(feedback.getSpecialized());
+
+        env.setVariable("x", "a");
+        env.setVariable("y", "a");
+        assertEquals(true, run(node, 1));
+        assertNull(feedback.getSpecialized());
+        assertEquals(false, run(parse("(= x 1)"), TypeFeedback.WARMUP + 1));
+    }
+
+    /**
+     * Test de operandos que se evaluan de forma generica (llamadas) dentro de un nodo especializado
+    */
+    @Test
+    public void testGenericOperands() {
+        new Parser(new Lexer().tokenize("(DEFUN fib (n) (COND ((< n 2) n) (T (+ (fib (- n 1)) (fib (- n 2))))))"))
+            .parse().forEach(expression -> evaluator.evaluate(expression, env));
+        assertEquals(55.0, evaluator.evaluate(parse("(fib 10)"), env));
+        assertEquals(6765.0, evaluator.evaluate(parse("(fib 20)"), env));
+
+        ASTNode loop = parse("(DOTIMES (i 10) (SETQ total (+ total (* i i))))");
+        env.setVariable("total", 0.0);
+        evaluator.evaluate(loop, env);
+        assertEquals(285.0, env.getVariable("total"));
+    }
+
+    /**
+     * Test de que sin TypeFeedback no se crean perfiles
+    */
+    @Test
+    public void testDisabled() {
+        evaluator.setTypeFeedback(false);
+        env.setVariable("x", 4.0);
+        ASTNode node = parse("(+ x 1)");
+        assertEquals(5.0, run(node, TypeFeedback.WARMUP + 1));
+        assertNull(node.getTypeFeedback());
+    }
+}
@@ -0,0 +1,86 @@
+package com.InterpreteLisp;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Random;
+
+/*
+ * Universidad del Valle de Guatemala
+ * Algoritmos y Estructuras de Datos
+ * Ing. Douglas Barrios
+ * @author: Marcelo Detlefsen, Jose Rivera, Fabián Prado
+ * Creación: 19/10/2026
+ * última modificación: 19/10/2026
+ * File Name: VectorKernelsTest.java
+ * Descripción: JUnit Class para comprobar que las implementaciones de VectorKernels.java coinciden
+ */
+public class VectorKernelsTest {
+
+    private final VectorKernels scalar = new ScalarVectorKernels();
+
+    /**
+     * Metodo para crear un arreglo de prueba con valores aleatorios reproducibles
+    */
+    private double[] randomArray(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 200 - 100;
+        }
+        return values;
+    }
+
+    /**
+     * Test de que la implementacion activa (SIMD o escalar) da los mismos resultados que la escalar,
+     * incluyendo tamaños que no son multiplo del numero de carriles
+    */
+    @Test
+    public void testActiveMatchesScalar() {
+        VectorKernels active = LispVector.KERNELS;
+        for (int length : new int[] {0, 1, 3, 7, 8, 17, 1000, 1023}) {
+            double[] a = randomArray(length, length);
+            double[] b = randomArray(length, length + 1);
+
+            assertEquals(scalar.sum(a), active.sum(a), 1e-9);
+            assertEquals(scalar.dot(a, b), active.dot(a, b), 1e-7);
+            if (length > 0) {
+                assertEquals(scalar.min(a), active.min(a), 0);
+                assertEquals(scalar.max(a), active.max(a), 0);
+            }
+
+            double[] expected = new double[length];
+            double[] actual = new double[length];
+            scalar.add(a, b, expected);
+            active.add(a, b, actual);
+            assertArrayEquals(expected, actual, 0);
+            scalar.multiply(a, 2.5, expected);
+            active.multiply(a, 2.5, actual);
+            assertArrayEquals(expected, actual, 0);
+        }
+    }
+
+    /**
+     * Test de VMIN, VMAX y del informe de la implementacion activa
+    */
+    @Test
+    public void testMinMaxAndBackend() {
+        Environment env = new Environment();
+        Evaluator evaluator = new Evaluator();
+        ASTNode min = new Parser(new Lexer().tokenize("(VMIN (VECTOR 4 (- 0 2) 9))")).parse().get(0);
+        ASTNode max = new Parser(new Lexer().tokenize("(VMAX (VECTOR 4 (- 0 2) 9))")).parse().get(0);
+        ASTNode backend = new Parser(new Lexer().tokenize("(VECTOR-BACKEND)")).parse().get(0);
+
+        assertEquals(-2.0, evaluator.evaluate(min, env));
+        assertEquals(9.0, evaluator.evaluate(max, env));
+        assertEquals(LispVector.backend(), evaluator.evaluate(backend, env));
+        assertTrue(LispVector.backend().equals("ESCALAR") || LispVector.backend().startsWith("SIMD"));
+    }
+
+    /**
+     * Test de VMIN sobre un vector vacio
+    */
+    @Test(expected = RuntimeException.class)
+    public void testMinOfEmptyVector() {
+        new LispVector(new double[0]).min();
+    }
+}